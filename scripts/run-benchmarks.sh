@@ -0,0 +1,27 @@
+#!/bin/bash
+
+# MCP Server Benchmark Script
+# Runs the JMH suite (with the GC profiler) and checks it against benchmarks/baseline.json
+#
+#   scripts/run-benchmarks.sh                    # run and fail on regressions
+#   scripts/run-benchmarks.sh --update-baseline  # run and record a new baseline
+#   JMH_INCLUDES=ToolBenchmark scripts/run-benchmarks.sh
+
+set -e
+
+cd "$(dirname "$0")/.."
+
+JMH_INCLUDES="${JMH_INCLUDES:-.*}"
+BASELINE="benchmarks/baseline.json"
+RESULT="target/jmh-result.json"
+
+if [ "$1" == "--update-baseline" ]; then
+    echo "Running benchmarks to record a new baseline..."
+    mvn -B -Pjmh -Djmh.includes="$JMH_INCLUDES" integration-test
+    mkdir -p benchmarks
+    cp "$RESULT" "$BASELINE"
+    echo "Baseline written to $BASELINE - commit it together with the change that moved the numbers"
+else
+    echo "Running benchmarks against $BASELINE..."
+    mvn -B -Pjmh -Djmh.includes="$JMH_INCLUDES" verify
+fi
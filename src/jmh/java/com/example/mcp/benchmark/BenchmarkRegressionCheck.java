@@ -0,0 +1,110 @@
+package com.example.mcp.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares a JMH JSON result against the committed baseline and exits non-zero
+ * when a benchmark's time or normalized allocation regresses beyond the tolerance.
+ * A missing baseline fails the check unless it is explicitly marked optional.
+ */
+public class BenchmarkRegressionCheck {
+
+    private static final String ALLOC_METRIC = "gc.alloc.rate.norm";
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Usage: BenchmarkRegressionCheck <baseline.json> <result.json> [tolerance] [baselineRequired]");
+            System.exit(2);
+        }
+
+        File baselineFile = new File(args[0]);
+        File resultFile = new File(args[1]);
+        double tolerance = args.length > 2 ? Double.parseDouble(args[2]) : 0.10;
+        boolean baselineRequired = args.length <= 3 || Boolean.parseBoolean(args[3]);
+
+        if (!baselineFile.isFile()) {
+            if (baselineRequired) {
+                System.err.println("No benchmark baseline at " + baselineFile);
+                System.err.println("Record one on the reference machine with: scripts/run-benchmarks.sh --update-baseline");
+                System.exit(2);
+            }
+            System.out.println("No benchmark baseline at " + baselineFile + ", skipping regression check");
+            System.out.println("Record one on the reference machine with: scripts/run-benchmarks.sh --update-baseline");
+            return;
+        }
+        if (!resultFile.isFile()) {
+            System.err.println("Benchmark result not found: " + resultFile);
+            System.exit(2);
+        }
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        Map<String, JsonNode> baseline = index(objectMapper.readTree(baselineFile));
+        Map<String, JsonNode> current = index(objectMapper.readTree(resultFile));
+
+        int regressions = 0;
+        for (Map.Entry<String, JsonNode> entry : current.entrySet()) {
+            JsonNode before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("NEW   %s%n", entry.getKey());
+                continue;
+            }
+            JsonNode after = entry.getValue();
+            boolean higherIsBetter = "thrpt".equals(after.path("mode").asText());
+
+            regressions += compare(entry.getKey(), "score",
+                    before.path("primaryMetric").path("score").asDouble(),
+                    after.path("primaryMetric").path("score").asDouble(),
+                    after.path("primaryMetric").path("scoreUnit").asText(),
+                    higherIsBetter, tolerance);
+
+            JsonNode allocBefore = before.path("secondaryMetrics").path(ALLOC_METRIC);
+            JsonNode allocAfter = after.path("secondaryMetrics").path(ALLOC_METRIC);
+            if (!allocBefore.isMissingNode() && !allocAfter.isMissingNode()) {
+                regressions += compare(entry.getKey(), "alloc",
+                        allocBefore.path("score").asDouble(),
+                        allocAfter.path("score").asDouble(),
+                        allocAfter.path("scoreUnit").asText(),
+                        false, tolerance);
+            }
+        }
+
+        if (regressions > 0) {
+            System.err.printf("%d benchmark metric(s) regressed by more than %.0f%%%n", regressions, tolerance * 100);
+            System.exit(1);
+        }
+        System.out.println("No benchmark regressions against " + baselineFile);
+    }
+
+    private static int compare(String key, String metric, double before, double after, String unit,
+                               boolean higherIsBetter, double tolerance) {
+        if (before == 0) {
+            return 0;
+        }
+        double change = (after - before) / before;
+        boolean regressed = higherIsBetter ? change < -tolerance : change > tolerance;
+        System.out.printf("%s %s %s: %.3f -> %.3f %s (%+.1f%%)%n",
+                regressed ? "FAIL " : "ok   ", key, metric, before, after, unit, change * 100);
+        return regressed ? 1 : 0;
+    }
+
+    private static Map<String, JsonNode> index(JsonNode results) {
+        Map<String, JsonNode> byKey = new LinkedHashMap<>();
+        for (JsonNode result : results) {
+            StringBuilder key = new StringBuilder(result.path("benchmark").asText());
+            JsonNode params = result.path("params");
+            if (params.isObject()) {
+                Map<String, String> sorted = new TreeMap<>();
+                params.fields().forEachRemaining(f -> sorted.put(f.getKey(), f.getValue().asText()));
+                sorted.forEach((name, value) -> key.append(':').append(name).append('=').append(value));
+            }
+            byKey.put(key.toString(), result);
+        }
+        return byKey;
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.mcp.benchmark;
+
+import com.example.mcp.server.McpMessage;
+import com.example.mcp.transport.TransportConfig;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class McpMessageCodecBenchmark {
+
+    @Param({"64", "4096", "262144"})
+    public int payloadSize;
+
+    private ObjectMapper objectMapper;
+    private McpMessage message;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws Exception {
+        objectMapper = new TransportConfig().objectMapper();
+
+        ObjectNode arguments = objectMapper.createObjectNode();
+        arguments.put("operation", "write");
+        arguments.put("path", "bench/payload.txt");
+        arguments.put("content", "x".repeat(payloadSize));
+
+        ObjectNode params = objectMapper.createObjectNode();
+        params.put("name", "file_operation");
+        params.set("arguments", arguments);
+
+        message = McpMessage.createRequest(42, "tools/call", params);
+        encoded = objectMapper.writeValueAsBytes(message);
+    }
+
+    @Benchmark
+    public byte[] encode() throws Exception {
+        return objectMapper.writeValueAsBytes(message);
+    }
+
+    @Benchmark
+    public McpMessage decode() throws Exception {
+        return objectMapper.readValue(encoded, McpMessage.class);
+    }
+
+    // Mirrors HttpTransportController: body bound to a tree first, then converted
+    @Benchmark
+    public McpMessage decodeViaTree() throws Exception {
+        JsonNode tree = objectMapper.readTree(encoded);
+        return objectMapper.treeToValue(tree, McpMessage.class);
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.mcp.benchmark;
+
+import com.example.mcp.prompts.TemplatePromptProvider;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class PromptRenderBenchmark {
+
+    private TemplatePromptProvider provider;
+    private JsonNode defaultArguments;
+    private JsonNode fullArguments;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        provider = new TemplatePromptProvider();
+
+        defaultArguments = objectMapper.createObjectNode().put("language", "java");
+
+        ObjectNode full = objectMapper.createObjectNode();
+        full.put("language", "typescript");
+        full.put("experience_level", "advanced");
+        full.put("include_suggestions", true);
+        full.putArray("focus_areas")
+                .add("security").add("performance").add("error_handling").add("test_coverage");
+        fullArguments = full;
+    }
+
+    @Benchmark
+    public Object renderDefaults() {
+        return provider.getPrompt(defaultArguments).join();
+    }
+
+    @Benchmark
+    public Object renderAllArguments() {
+        return provider.getPrompt(fullArguments).join();
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.mcp.benchmark;
+
+import com.example.mcp.McpServerApplication;
+import com.example.mcp.server.McpMessage;
+import com.example.mcp.server.McpServerImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dispatch through the server with the tool, resource and prompt handlers registered exactly as
+ * in the application; setup fails if a method answers with an error instead of its real result.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class ServerDispatchBenchmark {
+
+    @Param({"initialize", "ping", "tools/list", "tools/call", "resources/list",
+            "resources/read", "prompts/list", "prompts/get", "logging/setLevel"})
+    public String method;
+
+    private ConfigurableApplicationContext context;
+    private McpServerImpl server;
+    private McpMessage request;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(McpServerApplication.class)
+                .web(WebApplicationType.NONE)
+                .bannerMode(Banner.Mode.OFF)
+                .logStartupInfo(false)
+                .properties("logging.level.root=WARN", "logging.level.com.example.mcp=WARN",
+                        "mcp.rate-limit.enabled=false")
+                .run();
+        ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+        server = context.getBean(McpServerImpl.class);
+
+        ObjectNode params = objectMapper.createObjectNode();
+        switch (method) {
+            case "tools/call" -> {
+                params.put("name", "calculator");
+                params.set("arguments", objectMapper.createObjectNode()
+                        .put("operation", "add").put("a", 5).put("b", 3));
+            }
+            case "resources/read" -> params.put("uri", "config://server");
+            case "prompts/get" -> {
+                params.put("name", "code_review");
+                params.set("arguments", objectMapper.createObjectNode().put("language", "java"));
+            }
+            case "logging/setLevel" -> params.put("level", "INFO");
+            default -> { }
+        }
+        request = McpMessage.createRequest(1, method, params);
+
+        McpMessage response = processMessage();
+        if (!response.isSuccessResponse()) {
+            throw new IllegalStateException(method + " does not reach its handler: " + response.getError().getMessage());
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public McpMessage processMessage() {
+        return server.processMessage(request).join();
+    }
+}
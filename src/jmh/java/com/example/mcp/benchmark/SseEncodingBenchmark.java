@@ -0,0 +1,77 @@
+package com.example.mcp.benchmark;
+
+import com.example.mcp.server.McpMessage;
+import com.example.mcp.transport.TransportConfig;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class SseEncodingBenchmark {
+
+    private ObjectMapper objectMapper;
+    private McpMessage message;
+    private final ByteArrayOutputStream sink = new ByteArrayOutputStream(4096);
+
+    @Setup
+    public void setUp() {
+        objectMapper = new TransportConfig().objectMapper();
+        message = McpMessage.createResponse(7, Map.of(
+                "content", java.util.List.of(Map.of("type", "text", "text", "6.50 * 7.00 = 45.50")),
+                "isError", false
+        ));
+    }
+
+    // Same steps as McpSseController.broadcastMessage
+    @Benchmark
+    public Set<ResponseBodyEmitter.DataWithMediaType> encodeMessageEvent() throws Exception {
+        String messageData = objectMapper.writeValueAsString(message);
+        return SseEmitter.event()
+                .id(String.valueOf(message.getId()))
+                .name("message")
+                .data(messageData, MediaType.APPLICATION_JSON)
+                .build();
+    }
+
+    // HttpTransportController.createSseResponse hands the message object to the event and lets the
+    // message converter serialize it into the response stream
+    @Benchmark
+    public void encodeStreamedMessageEvent(Blackhole blackhole) throws Exception {
+        Set<ResponseBodyEmitter.DataWithMediaType> event = SseEmitter.event()
+                .id(String.valueOf(message.getId()))
+                .name("message")
+                .data(message, MediaType.APPLICATION_JSON)
+                .build();
+        for (ResponseBodyEmitter.DataWithMediaType part : event) {
+            if (part.getData() instanceof McpMessage) {
+                objectMapper.writeValue(sink, part.getData());
+            } else {
+                blackhole.consume(part.getData());
+            }
+        }
+        blackhole.consume(sink.size());
+        sink.reset();
+    }
+
+    @Benchmark
+    public Set<ResponseBodyEmitter.DataWithMediaType> encodeHeartbeatEvent() {
+        return SseEmitter.event()
+                .id("heartbeat-" + System.currentTimeMillis())
+                .name("heartbeat")
+                .data("ping", MediaType.TEXT_PLAIN)
+                .build();
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.mcp.benchmark;
+
+import com.example.mcp.tools.CalculatorTool;
+import com.example.mcp.tools.FileOperationTool;
+import com.example.mcp.tools.McpTool;
+import com.example.mcp.tools.WeatherTool;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class ToolBenchmark {
+
+    @Param({"calculator", "weather", "file_operation"})
+    public String tool;
+
+    private McpTool mcpTool;
+    private JsonNode arguments;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        switch (tool) {
+            case "calculator" -> {
+                mcpTool = new CalculatorTool();
+                arguments = objectMapper.createObjectNode()
+                        .put("operation", "multiply").put("a", 6.5).put("b", 7);
+            }
+            case "weather" -> {
+                mcpTool = new WeatherTool();
+                arguments = objectMapper.createObjectNode()
+                        .put("location", "Shanghai, China").put("units", "celsius");
+            }
+            case "file_operation" -> {
+                mcpTool = new FileOperationTool();
+                arguments = objectMapper.createObjectNode()
+                        .put("operation", "exists").put("path", ".");
+            }
+            default -> throw new IllegalArgumentException("Unknown tool: " + tool);
+        }
+    }
+
+    @Benchmark
+    public Object execute() {
+        return mcpTool.execute(arguments).join();
+    }
+
+    @Benchmark
+    public JsonNode getInputSchema() {
+        return mcpTool.getInputSchema();
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.mcp.loadgen;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Plain JSON-RPC over HTTP POST, as used by HttpTransportController without an SSE Accept header.
+ */
+public class HttpTransportClient implements TransportClient {
+
+    protected final ObjectMapper objectMapper;
+    protected final URI endpoint;
+    protected final Duration timeout;
+    protected final HttpClient httpClient;
+    private final ExecutorService executorService;
+
+    public HttpTransportClient(ObjectMapper objectMapper, URI endpoint, Duration timeout) {
+        this.objectMapper = objectMapper;
+        this.endpoint = endpoint;
+        this.timeout = timeout;
+        this.executorService = Executors.newVirtualThreadPerTaskExecutor();
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(executorService)
+                .build();
+    }
+
+    @Override
+    public String getName() {
+        return "http";
+    }
+
+    @Override
+    public CompletableFuture<Boolean> send(long id, byte[] request) {
+        return httpClient.sendAsync(newRequest(request, "application/json"), HttpResponse.BodyHandlers.ofByteArray())
+                .thenApply(response -> isSuccess(response.statusCode(), response.body()));
+    }
+
+    protected HttpRequest newRequest(byte[] body, String accept) {
+        return HttpRequest.newBuilder(endpoint)
+                .timeout(timeout)
+                .header("Content-Type", "application/json")
+                .header("Accept", accept)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+    }
+
+    protected boolean isSuccess(int status, byte[] body) {
+        if (status == 204) {
+            return true;
+        }
+        if (status < 200 || status >= 300 || body == null || body.length == 0) {
+            return false;
+        }
+        try {
+            JsonNode response = objectMapper.readTree(body);
+            return !response.hasNonNull("error");
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    @Override
+    public void close() {
+        executorService.shutdownNow();
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.mcp.loadgen;
+
+import com.example.mcp.transport.TrafficJournal;
+import com.example.mcp.transport.TrafficJournal.Direction;
+import com.example.mcp.transport.TrafficJournal.Frame;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Feeds the inbound requests of a captured traffic journal back to a server, preserving the
+ * original inter-arrival gaps divided by {@code --speed} ({@code 0} sends as fast as possible).
+ * Latency is measured from each frame's scheduled replay time.
+ *
+ * <pre>
+ * mvn -Ploadgen test-compile exec:java -Dloadgen.main=com.example.mcp.loadgen.JournalReplayer \
+ *     -Dloadgen.args="--journal capture/ --speed 2"
+ * </pre>
+ */
+public class JournalReplayer {
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = LoadGenerator.parseOptions(args);
+        if (!options.containsKey("journal")) {
+            System.out.println("""
+                    Usage: JournalReplayer --journal FILE|DIR [options]
+                      --transport http|sse|stdio   target transport (default http)
+                      --url URL                    MCP endpoint for http/sse (default http://localhost:8080/mcp/api/mcp)
+                      --command "CMD ARGS"         server command line for stdio
+                      --speed FACTOR               1 = original timing, 2 = twice as fast, 0 = unthrottled (default 1)
+                      --source http|sse|stdio      only replay frames captured on this transport
+                      --session ID                 only replay frames from this session
+                      --max-in-flight N            cap on outstanding requests (default 2000)
+                      --timeout-ms MS              per-request timeout (default 10000)
+                    """);
+            return;
+        }
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        Path journal = Paths.get(options.get("journal"));
+        double speed = Double.parseDouble(options.getOrDefault("speed", "1"));
+        String source = options.get("source");
+        String session = options.get("session");
+        int maxInFlight = Integer.parseInt(options.getOrDefault("max-in-flight", "2000"));
+        Duration timeout = Duration.ofMillis(Long.parseLong(options.getOrDefault("timeout-ms", "10000")));
+        URI url = URI.create(options.getOrDefault("url", "http://localhost:8080/mcp/api/mcp"));
+
+        long skipped = 0;
+        long sent = 0;
+        long startNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(10);
+        StepRecorder recorder = new StepRecorder(0, startNanos);
+        Semaphore inFlight = new Semaphore(maxInFlight);
+
+        try (TransportClient client = LoadGenerator.createClient(options.getOrDefault("transport", "http"),
+                objectMapper, url, timeout, options);
+             TrafficJournal.Reader reader = new TrafficJournal.Reader(journal)) {
+
+            long firstMicros = -1;
+            while (reader.hasNext()) {
+                Frame frame = reader.next();
+                if (frame.direction() != Direction.INBOUND
+                        || source != null && !frame.transport().name().equalsIgnoreCase(source)
+                        || session != null && !session.equals(frame.sessionId())) {
+                    continue;
+                }
+
+                if (frame.truncated()) {
+                    skipped++; // cut short by max-outbound-bytes, not a whole message
+                    continue;
+                }
+
+                JsonNode payload;
+                try {
+                    payload = objectMapper.readTree(frame.payload());
+                } catch (Exception e) {
+                    skipped++;
+                    continue;
+                }
+                if (!payload.isObject() || !payload.hasNonNull("method") || !payload.has("id")) {
+                    skipped++; // notifications get no response to time
+                    continue;
+                }
+
+                if (firstMicros < 0) {
+                    firstMicros = frame.epochMicros();
+                }
+                long intendedNanos = speed <= 0 ? System.nanoTime()
+                        : startNanos + (long) ((frame.epochMicros() - firstMicros) * 1000 / speed);
+                parkUntil(intendedNanos);
+                inFlight.acquire();
+                recorder.observeInFlight(maxInFlight - inFlight.availablePermits());
+
+                long id = ++sent;
+                ObjectNode request = (ObjectNode) payload;
+                request.put("id", id);
+                String method = request.get("method").asText();
+
+                client.send(id, objectMapper.writeValueAsBytes(request))
+                        .orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+                        .whenComplete((success, throwable) -> {
+                            boolean timedOut = throwable instanceof TimeoutException
+                                    || throwable != null && throwable.getCause() instanceof TimeoutException;
+                            recorder.record(method, System.nanoTime() - intendedNanos,
+                                    throwable == null && Boolean.TRUE.equals(success), timedOut);
+                            inFlight.release();
+                        });
+            }
+
+            recorder.setSent(sent);
+            inFlight.tryAcquire(maxInFlight, timeout.toMillis() + 1000, TimeUnit.MILLISECONDS);
+        }
+
+        System.out.printf("Replayed %d requests from %s at speed %s (%d frames skipped)%n",
+                sent, journal, speed <= 0 ? "unthrottled" : speed + "x", skipped);
+        LoadGenerator.printStep(System.out, recorder);
+    }
+
+    private static void parkUntil(long deadlineNanos) {
+        long remaining;
+        while ((remaining = deadlineNanos - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package com.example.mcp.loadgen;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Replays a recorded JSON-RPC traffic log against one transport, ramping through arrival
+ * rates, and reports per-method latency percentiles plus the highest sustainable rate.
+ *
+ * <pre>
+ * mvn -Ploadgen test-compile exec:java -Dloadgen.args="--transport http --rates 100,200,400,800"
+ * </pre>
+ */
+public class LoadGenerator {
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        if (options.containsKey("help")) {
+            printUsage();
+            return;
+        }
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        String transport = options.getOrDefault("transport", "http");
+        URI url = URI.create(options.getOrDefault("url", "http://localhost:8080/mcp/api/mcp"));
+        Path trafficFile = Paths.get(options.getOrDefault("traffic", "src/loadgen/resources/sample-traffic.jsonl"));
+        double[] rates = Arrays.stream(options.getOrDefault("rates", "50,100,200,400,800").split(","))
+                .map(String::trim)
+                .mapToDouble(Double::parseDouble)
+                .toArray();
+        Duration stepDuration = Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "30")));
+        Duration warmup = Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup", "10")));
+        Duration timeout = Duration.ofMillis(Long.parseLong(options.getOrDefault("timeout-ms", "10000")));
+        int maxInFlight = Integer.parseInt(options.getOrDefault("max-in-flight", "2000"));
+        double sloP99Millis = Double.parseDouble(options.getOrDefault("slo-p99-ms", "250"));
+        double maxErrorRate = Double.parseDouble(options.getOrDefault("max-error-rate", "0.01"));
+
+        TrafficLog trafficLog = TrafficLog.load(objectMapper, trafficFile);
+        System.out.printf("Loaded %d requests from %s%n", trafficLog.size(), trafficFile);
+
+        try (TransportClient client = createClient(transport, objectMapper, url, timeout, options)) {
+            OpenLoopRunner runner = new OpenLoopRunner(client, trafficLog, maxInFlight, timeout);
+
+            if (!warmup.isZero()) {
+                System.out.printf("Warming up %s at %.0f req/s for %ds...%n", client.getName(), rates[0], warmup.toSeconds());
+                runner.run(rates[0], warmup);
+            }
+
+            List<StepRecorder> steps = new ArrayList<>();
+            StepRecorder lastSustainable = null;
+            StepRecorder saturation = null;
+
+            for (double rate : rates) {
+                System.out.printf("%nStep: %s at %.0f req/s for %ds%n", client.getName(), rate, stepDuration.toSeconds());
+                StepRecorder step = runner.run(rate, stepDuration);
+                steps.add(step);
+                printStep(System.out, step);
+
+                String violation = checkSlo(step, sloP99Millis, maxErrorRate);
+                if (violation == null) {
+                    lastSustainable = step;
+                } else {
+                    System.out.println("  -> saturated: " + violation);
+                    saturation = step;
+                    break;
+                }
+            }
+
+            System.out.println();
+            System.out.printf("Max sustainable rate: %s%n",
+                    lastSustainable == null ? "none (first step already saturated)"
+                            : String.format("%.0f req/s", lastSustainable.getTargetRate()));
+            System.out.printf("Saturation point:     %s%n",
+                    saturation == null ? "not reached" : String.format("%.0f req/s", saturation.getTargetRate()));
+
+            if (options.containsKey("report")) {
+                writeReport(objectMapper, Paths.get(options.get("report")), client.getName(), steps,
+                        lastSustainable, saturation);
+            }
+            if (options.containsKey("hgrm-dir")) {
+                writeHistograms(Paths.get(options.get("hgrm-dir")), client.getName(), steps);
+            }
+        }
+    }
+
+    static TransportClient createClient(String transport, ObjectMapper objectMapper, URI url,
+                                                Duration timeout, Map<String, String> options) throws Exception {
+        return switch (transport) {
+            case "http" -> new HttpTransportClient(objectMapper, url, timeout);
+            case "sse" -> new SseTransportClient(objectMapper, url, timeout);
+            case "stdio" -> {
+                String command = options.get("command");
+                if (command == null) {
+                    throw new IllegalArgumentException("--command is required for the stdio transport");
+                }
+                yield new StdioTransportClient(objectMapper, Arrays.asList(command.trim().split("\\s+")));
+            }
+            default -> throw new IllegalArgumentException("Unknown transport: " + transport);
+        };
+    }
+
+    private static String checkSlo(StepRecorder step, double sloP99Millis, double maxErrorRate) {
+        double p99Millis = step.getOverall().getValueAtPercentile(99) / 1000.0;
+        if (step.getAchievedRate() < step.getTargetRate() * 0.95) {
+            return String.format("achieved %.0f of %.0f req/s", step.getAchievedRate(), step.getTargetRate());
+        }
+        if (p99Millis > sloP99Millis) {
+            return String.format("p99 %.1f ms exceeds SLO %.1f ms", p99Millis, sloP99Millis);
+        }
+        if (step.getErrorRate() > maxErrorRate) {
+            return String.format("error rate %.2f%% exceeds %.2f%%", step.getErrorRate() * 100, maxErrorRate * 100);
+        }
+        return null;
+    }
+
+    static void printStep(PrintStream out, StepRecorder step) {
+        out.printf("  sent=%d completed=%d errors=%d timeouts=%d achieved=%.1f req/s maxInFlight=%d%n",
+                step.getSent(), step.getCompleted(), step.getErrors(), step.getTimeouts(),
+                step.getAchievedRate(), step.getMaxInFlight());
+        out.printf("  %-24s %9s %9s %9s %9s %9s %9s%n", "method (ms)", "count", "p50", "p90", "p99", "p99.9", "max");
+        printRow(out, "ALL", step.getOverall());
+        step.getByMethod().forEach((method, histogram) -> printRow(out, method, histogram));
+    }
+
+    private static void printRow(PrintStream out, String label, Histogram histogram) {
+        out.printf("  %-24s %9d", label, histogram.getTotalCount());
+        for (double percentile : PERCENTILES) {
+            out.printf(" %9.2f", histogram.getValueAtPercentile(percentile) / 1000.0);
+        }
+        out.printf(" %9.2f%n", histogram.getMaxValue() / 1000.0);
+    }
+
+    private static void writeReport(ObjectMapper objectMapper, Path file, String transport, List<StepRecorder> steps,
+                                    StepRecorder lastSustainable, StepRecorder saturation) throws Exception {
+        ObjectNode report = objectMapper.createObjectNode();
+        report.put("transport", transport);
+        if (lastSustainable != null) {
+            report.put("maxSustainableRate", lastSustainable.getTargetRate());
+        }
+        if (saturation != null) {
+            report.put("saturationRate", saturation.getTargetRate());
+        }
+
+        ArrayNode stepsNode = report.putArray("steps");
+        for (StepRecorder step : steps) {
+            ObjectNode stepNode = stepsNode.addObject();
+            stepNode.put("targetRate", step.getTargetRate());
+            stepNode.put("achievedRate", step.getAchievedRate());
+            stepNode.put("sent", step.getSent());
+            stepNode.put("completed", step.getCompleted());
+            stepNode.put("errors", step.getErrors());
+            stepNode.put("timeouts", step.getTimeouts());
+            stepNode.put("maxInFlight", step.getMaxInFlight());
+            stepNode.set("latencyMillis", percentiles(objectMapper, step.getOverall()));
+
+            ObjectNode methods = stepNode.putObject("methods");
+            step.getByMethod().forEach((method, histogram) ->
+                    methods.set(method, percentiles(objectMapper, histogram)));
+        }
+
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(file.toFile(), report);
+        System.out.println("Report written to " + file);
+    }
+
+    private static ObjectNode percentiles(ObjectMapper objectMapper, Histogram histogram) {
+        ObjectNode node = objectMapper.createObjectNode();
+        node.put("count", histogram.getTotalCount());
+        node.put("mean", histogram.getMean() / 1000.0);
+        for (double percentile : PERCENTILES) {
+            node.put("p" + (percentile % 1 == 0 ? String.valueOf((int) percentile) : String.valueOf(percentile)),
+                    histogram.getValueAtPercentile(percentile) / 1000.0);
+        }
+        node.put("max", histogram.getMaxValue() / 1000.0);
+        return node;
+    }
+
+    private static void writeHistograms(Path directory, String transport, List<StepRecorder> steps) throws Exception {
+        Files.createDirectories(directory);
+        for (StepRecorder step : steps) {
+            Path file = directory.resolve(String.format("%s-%.0f.hgrm", transport, step.getTargetRate()));
+            try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+                // Values are recorded in microseconds; scale output to milliseconds
+                step.getOverall().outputPercentileDistribution(out, 1000.0);
+            }
+        }
+        System.out.println("Histograms written to " + directory);
+    }
+
+    static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument: " + arg);
+            }
+            String key = arg.substring(2);
+            if (i + 1 < args.length && !args[i + 1].startsWith("--")) {
+                options.put(key, args[++i]);
+            } else {
+                options.put(key, "true");
+            }
+        }
+        return options;
+    }
+
+    private static void printUsage() {
+        System.out.println("""
+                Usage: LoadGenerator [options]
+                  --transport http|sse|stdio   transport under test (default http)
+                  --url URL                    MCP endpoint for http/sse (default http://localhost:8080/mcp/api/mcp)
+                  --command "CMD ARGS"         server command line for stdio
+                  --traffic FILE               JSON-RPC request log, one request per line
+                  --rates R1,R2,...            arrival rates to ramp through, req/s (default 50,100,200,400,800)
+                  --duration SECONDS           length of each step (default 30)
+                  --warmup SECONDS             warmup at the first rate, not reported (default 10)
+                  --max-in-flight N            cap on outstanding requests (default 2000)
+                  --timeout-ms MS              per-request timeout (default 10000)
+                  --slo-p99-ms MS              p99 above which a step counts as saturated (default 250)
+                  --max-error-rate FRACTION    error rate above which a step counts as saturated (default 0.01)
+                  --report FILE                write a JSON summary
+                  --hgrm-dir DIR               write HdrHistogram percentile distributions per step
+                """);
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.mcp.loadgen;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Issues requests on a fixed arrival schedule regardless of how fast responses come back.
+ *
+ * <p>Latency is measured from each request's intended send time rather than the moment it
+ * was actually written, so a stalled server is charged for the requests that queued up
+ * behind the stall (coordinated omission correction). The in-flight cap only protects the
+ * load generator itself; time spent waiting on it counts against the server as well.
+ */
+public class OpenLoopRunner {
+
+    private static final long SPIN_THRESHOLD_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final TransportClient client;
+    private final TrafficLog trafficLog;
+    private final int maxInFlight;
+    private final Duration requestTimeout;
+    private final AtomicLong ids = new AtomicLong();
+    private long sequence;
+
+    public OpenLoopRunner(TransportClient client, TrafficLog trafficLog, int maxInFlight, Duration requestTimeout) {
+        this.client = client;
+        this.trafficLog = trafficLog;
+        this.maxInFlight = maxInFlight;
+        this.requestTimeout = requestTimeout;
+    }
+
+    public StepRecorder run(double ratePerSecond, Duration duration) throws Exception {
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond);
+        long total = Math.max(1, (long) (ratePerSecond * duration.toNanos() / 1e9));
+        long startNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(10);
+
+        StepRecorder recorder = new StepRecorder(ratePerSecond, startNanos);
+        Semaphore inFlight = new Semaphore(maxInFlight);
+
+        for (long i = 0; i < total; i++) {
+            long intendedNanos = startNanos + i * intervalNanos;
+            parkUntil(intendedNanos);
+            inFlight.acquire();
+            recorder.observeInFlight(maxInFlight - inFlight.availablePermits());
+
+            long seq = sequence++;
+            long id = ids.incrementAndGet();
+            String method = trafficLog.method(seq);
+
+            CompletableFuture<Boolean> response;
+            try {
+                response = client.send(id, trafficLog.render(seq, id));
+            } catch (Exception e) {
+                response = CompletableFuture.failedFuture(e);
+            }
+
+            response.orTimeout(requestTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                    .whenComplete((success, throwable) -> {
+                        long latency = System.nanoTime() - intendedNanos;
+                        boolean timedOut = throwable instanceof TimeoutException
+                                || throwable != null && throwable.getCause() instanceof TimeoutException;
+                        recorder.record(method, latency, throwable == null && Boolean.TRUE.equals(success), timedOut);
+                        inFlight.release();
+                    });
+        }
+        recorder.setSent(total);
+
+        // Let the tail drain; anything still outstanding has hit its own timeout by then
+        if (!inFlight.tryAcquire(maxInFlight, requestTimeout.toMillis() + 1000, TimeUnit.MILLISECONDS)) {
+            System.err.printf("Step at %.0f req/s: %d requests still in flight after drain%n",
+                    ratePerSecond, maxInFlight - inFlight.availablePermits());
+        } else {
+            inFlight.release(maxInFlight);
+        }
+        return recorder;
+    }
+
+    private static void parkUntil(long deadlineNanos) {
+        long remaining;
+        while ((remaining = deadlineNanos - System.nanoTime()) > 0) {
+            if (remaining > SPIN_THRESHOLD_NANOS) {
+                LockSupport.parkNanos(remaining - SPIN_THRESHOLD_NANOS);
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+    }
+}
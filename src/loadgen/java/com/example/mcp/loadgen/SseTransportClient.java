@@ -0,0 +1,55 @@
+package com.example.mcp.loadgen;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * JSON-RPC over HTTP POST with {@code Accept: text/event-stream}. The server answers
+ * tools/resources/prompts requests with a single SSE "message" event and plain JSON otherwise.
+ */
+public class SseTransportClient extends HttpTransportClient {
+
+    private static final String ACCEPT = "text/event-stream, application/json";
+
+    public SseTransportClient(ObjectMapper objectMapper, URI endpoint, Duration timeout) {
+        super(objectMapper, endpoint, timeout);
+    }
+
+    @Override
+    public String getName() {
+        return "sse";
+    }
+
+    @Override
+    public CompletableFuture<Boolean> send(long id, byte[] request) {
+        return httpClient.sendAsync(newRequest(request, ACCEPT), HttpResponse.BodyHandlers.ofString())
+                .thenApply(response -> {
+                    String contentType = response.headers().firstValue("Content-Type").orElse("");
+                    if (!contentType.startsWith("text/event-stream")) {
+                        byte[] body = response.body() == null ? null : response.body().getBytes(StandardCharsets.UTF_8);
+                        return isSuccess(response.statusCode(), body);
+                    }
+                    return isSuccess(response.statusCode(), extractData(response.body()));
+                });
+    }
+
+    private byte[] extractData(String stream) {
+        if (stream == null) {
+            return null;
+        }
+        StringBuilder data = new StringBuilder();
+        for (String line : stream.split("\n")) {
+            if (line.startsWith("data:")) {
+                data.append(line, line.startsWith("data: ") ? 6 : 5, line.length());
+            } else if (line.isBlank() && data.length() > 0) {
+                break;
+            }
+        }
+        return data.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.mcp.loadgen;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Newline-delimited JSON-RPC over the stdin/stdout of a spawned server process.
+ * Responses are matched to requests by id, so requests may be pipelined.
+ */
+public class StdioTransportClient implements TransportClient {
+
+    private static final byte[] NEWLINE = {'\n'};
+
+    private final ObjectMapper objectMapper;
+    private final Process process;
+    private final BlockingQueue<byte[]> outbound = new LinkedBlockingQueue<>();
+    private final Map<Long, CompletableFuture<Boolean>> pending = new ConcurrentHashMap<>();
+    private final Thread writer;
+    private final Thread reader;
+    private volatile boolean running = true;
+
+    public StdioTransportClient(ObjectMapper objectMapper, List<String> command) throws IOException {
+        this.objectMapper = objectMapper;
+        this.process = new ProcessBuilder(command)
+                .redirectError(ProcessBuilder.Redirect.DISCARD)
+                .start();
+
+        this.writer = Thread.ofPlatform().name("loadgen-stdio-writer").daemon().start(this::writeLoop);
+        this.reader = Thread.ofPlatform().name("loadgen-stdio-reader").daemon().start(this::readLoop);
+    }
+
+    @Override
+    public String getName() {
+        return "stdio";
+    }
+
+    @Override
+    public CompletableFuture<Boolean> send(long id, byte[] request) {
+        CompletableFuture<Boolean> future = new CompletableFuture<>();
+        pending.put(id, future);
+        // Callers time out through orTimeout on this same future; drop the entry whichever way it completes
+        future.whenComplete((success, throwable) -> pending.remove(id, future));
+        outbound.offer(request);
+        return future;
+    }
+
+    private void writeLoop() {
+        try (OutputStream out = process.getOutputStream()) {
+            while (running) {
+                byte[] message = outbound.poll(100, TimeUnit.MILLISECONDS);
+                if (message == null) {
+                    continue;
+                }
+                out.write(message);
+                out.write(NEWLINE);
+                // Drain whatever queued up meanwhile before paying for a flush
+                while ((message = outbound.poll()) != null) {
+                    out.write(message);
+                    out.write(NEWLINE);
+                }
+                out.flush();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            failAll(e);
+        }
+    }
+
+    private void readLoop() {
+        try (BufferedReader in = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                JsonNode response;
+                try {
+                    response = objectMapper.readTree(line);
+                } catch (IOException e) {
+                    continue; // stray log output on stdout
+                }
+                JsonNode id = response.get("id");
+                if (id == null || !id.canConvertToLong()) {
+                    continue;
+                }
+                CompletableFuture<Boolean> future = pending.remove(id.asLong());
+                if (future != null) {
+                    future.complete(!response.hasNonNull("error"));
+                }
+            }
+            failAll(new IOException("Server process closed stdout"));
+        } catch (IOException e) {
+            failAll(e);
+        }
+    }
+
+    private void failAll(Throwable cause) {
+        pending.values().forEach(future -> future.completeExceptionally(cause));
+        pending.clear();
+    }
+
+    @Override
+    public void close() throws Exception {
+        running = false;
+        writer.join(1000);
+        process.destroy();
+        if (!process.waitFor(5, TimeUnit.SECONDS)) {
+            process.destroyForcibly();
+        }
+        reader.join(1000);
+    }
+}
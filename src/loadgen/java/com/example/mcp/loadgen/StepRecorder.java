@@ -0,0 +1,104 @@
+package com.example.mcp.loadgen;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histograms (microseconds, measured from the intended send time) for one ramp step.
+ */
+public class StepRecorder {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(5);
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final double targetRate;
+    private final long startNanos;
+    private final Histogram overall = newHistogram();
+    private final Map<String, Histogram> byMethod = new ConcurrentHashMap<>();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final AtomicLong lastCompletionNanos = new AtomicLong();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private volatile long sent;
+
+    public StepRecorder(double targetRate, long startNanos) {
+        this.targetRate = targetRate;
+        this.startNanos = startNanos;
+        this.lastCompletionNanos.set(startNanos);
+    }
+
+    private static Histogram newHistogram() {
+        return new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+    }
+
+    public void record(String method, long latencyNanos, boolean success, boolean timedOut) {
+        long micros = Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), HIGHEST_TRACKABLE_MICROS);
+        overall.recordValue(micros);
+        byMethod.computeIfAbsent(method, m -> newHistogram()).recordValue(micros);
+        if (timedOut) {
+            timeouts.increment();
+        }
+        if (!success) {
+            errors.increment();
+        }
+        lastCompletionNanos.accumulateAndGet(System.nanoTime(), Math::max);
+    }
+
+    public void observeInFlight(int inFlight) {
+        maxInFlight.accumulateAndGet(inFlight, Math::max);
+    }
+
+    public void setSent(long sent) {
+        this.sent = sent;
+    }
+
+    public double getTargetRate() {
+        return targetRate;
+    }
+
+    public long getSent() {
+        return sent;
+    }
+
+    public long getCompleted() {
+        return overall.getTotalCount();
+    }
+
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    public long getTimeouts() {
+        return timeouts.sum();
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight.get();
+    }
+
+    public double getAchievedRate() {
+        long elapsed = lastCompletionNanos.get() - startNanos;
+        return elapsed <= 0 ? 0 : getCompleted() * 1e9 / elapsed;
+    }
+
+    public double getErrorRate() {
+        long completed = getCompleted();
+        return completed == 0 ? 0 : (double) getErrors() / completed;
+    }
+
+    public Histogram getOverall() {
+        return overall;
+    }
+
+    public Map<String, Histogram> getByMethod() {
+        return new TreeMap<>(byMethod);
+    }
+}
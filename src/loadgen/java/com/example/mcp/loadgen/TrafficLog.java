@@ -0,0 +1,72 @@
+package com.example.mcp.loadgen;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Recorded JSON-RPC requests, one JSON object per line. Notifications and
+ * responses in the log are skipped; request ids are reassigned at send time.
+ */
+public class TrafficLog {
+
+    private final ObjectMapper objectMapper;
+    private final List<ObjectNode> requests;
+
+    private TrafficLog(ObjectMapper objectMapper, List<ObjectNode> requests) {
+        this.objectMapper = objectMapper;
+        this.requests = requests;
+    }
+
+    public static TrafficLog load(ObjectMapper objectMapper, Path file) throws IOException {
+        List<ObjectNode> requests = new ArrayList<>();
+        int lineNumber = 0;
+
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                JsonNode node = objectMapper.readTree(line);
+                if (!node.isObject() || !node.hasNonNull("method") || !node.has("id")) {
+                    continue;
+                }
+                ObjectNode request = (ObjectNode) node;
+                request.put("jsonrpc", "2.0");
+                requests.add(request);
+            }
+        } catch (IOException e) {
+            throw new IOException("Failed to read traffic log " + file + " at line " + lineNumber + ": "
+                    + e.getMessage(), e);
+        }
+
+        if (requests.isEmpty()) {
+            throw new IllegalArgumentException("Traffic log contains no JSON-RPC requests: " + file);
+        }
+        return new TrafficLog(objectMapper, requests);
+    }
+
+    public int size() {
+        return requests.size();
+    }
+
+    public String method(long sequence) {
+        return requests.get((int) (sequence % requests.size())).get("method").asText();
+    }
+
+    public byte[] render(long sequence, long id) throws IOException {
+        ObjectNode request = requests.get((int) (sequence % requests.size())).deepCopy();
+        request.put("id", id);
+        return objectMapper.writeValueAsBytes(request);
+    }
+}
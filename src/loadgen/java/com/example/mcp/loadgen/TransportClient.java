@@ -0,0 +1,22 @@
+package com.example.mcp.loadgen;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * One transport under test. Implementations must not block the caller: the
+ * open-loop scheduler issues every request from a single thread.
+ */
+public interface TransportClient extends AutoCloseable {
+
+    String getName();
+
+    /**
+     * Sends one serialized JSON-RPC request. The future completes with {@code true}
+     * for a successful JSON-RPC response and {@code false} for an error response.
+     */
+    CompletableFuture<Boolean> send(long id, byte[] request);
+
+    @Override
+    default void close() throws Exception {
+    }
+}
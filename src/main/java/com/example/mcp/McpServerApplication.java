@@ -1,16 +1,29 @@
 package com.example.mcp;
 
+import org.springframework.boot.Banner;
 import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Arrays;
+
 @SpringBootApplication
 public class McpServerApplication {
 
     private static final Logger logger = LoggerFactory.getLogger(McpServerApplication.class);
 
+    private static final String STDIO_ARG = "--stdio";
+
     public static void main(String[] args) {
+        if (Arrays.asList(args).contains(STDIO_ARG)) {
+            runStdio(args);
+            return;
+        }
+
         logger.info("Starting MCP Server Application...");
 
         try {
@@ -21,4 +34,29 @@ public class McpServerApplication {
             System.exit(1);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Runs one session over stdin/stdout without a web server, exiting when stdin closes. Nothing
+     * is logged here: stdout belongs to the protocol, and the {@code stdio} profile sends logs to
+     * stderr only once logging is configured.
+     */
+    private static void runStdio(String[] args) {
+        int exitCode;
+        try {
+            ConfigurableApplicationContext context = new SpringApplicationBuilder(McpServerApplication.class)
+                    .web(WebApplicationType.NONE)
+                    .bannerMode(Banner.Mode.OFF)
+                    .logStartupInfo(false)
+                    .profiles("stdio")
+                    .run(args);
+            exitCode = SpringApplication.exit(context);
+        } catch (SpringApplication.AbandonedRunException e) {
+            // A CDS training run (-Dspring.context.exit=onRefresh) stops once the context is up
+            exitCode = 0;
+        } catch (Exception e) {
+            e.printStackTrace(System.err);
+            exitCode = 1;
+        }
+        System.exit(exitCode);
+    }
+}
@@ -0,0 +1,232 @@
+package com.example.mcp.analytics;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Computes per-column summary statistics over a {@link RecordFile} in one parallel pass. The
+ * file is cut into line-aligned chunks; every chunk is aggregated into its own primitive
+ * accumulators on a fork/join worker, and the partial results are merged pairwise as the tasks
+ * join, so no state is shared between threads while scanning.
+ */
+public class ColumnAggregator {
+
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    public interface Listener {
+        void onChunkDone(int chunksDone, int totalChunks);
+    }
+
+    public record Result(Map<String, ColumnStats[]> groups, long records, long skippedLines, int chunks) {
+    }
+
+    /**
+     * Accumulators for one column of one group.
+     */
+    public static final class ColumnStats {
+        private long count;
+        private long missing;
+        private double sum;
+        private double min = Double.POSITIVE_INFINITY;
+        private double max = Double.NEGATIVE_INFINITY;
+        private final QuantileSketch sketch = new QuantileSketch();
+
+        void add(double value) {
+            if (Double.isNaN(value)) {
+                missing++;
+                return;
+            }
+            count++;
+            sum += value;
+            if (value < min) {
+                min = value;
+            }
+            if (value > max) {
+                max = value;
+            }
+            sketch.add(value);
+        }
+
+        void merge(ColumnStats other) {
+            count += other.count;
+            missing += other.missing;
+            sum += other.sum;
+            min = Math.min(min, other.min);
+            max = Math.max(max, other.max);
+            sketch.merge(other.sketch);
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getMissing() {
+            return missing;
+        }
+
+        public double getSum() {
+            return sum;
+        }
+
+        public double getMin() {
+            return count == 0 ? Double.NaN : min;
+        }
+
+        public double getMax() {
+            return count == 0 ? Double.NaN : max;
+        }
+
+        public double getMean() {
+            return count == 0 ? Double.NaN : sum / count;
+        }
+
+        /**
+         * @param quantile between 0 and 1; the estimate is within 1% of the true value and is
+         *                 clamped to the exact minimum and maximum
+         */
+        public double getQuantile(double quantile) {
+            if (count == 0) {
+                return Double.NaN;
+            }
+            return Math.max(min, Math.min(max, sketch.quantile(quantile)));
+        }
+    }
+
+    private final ForkJoinPool pool;
+
+    public ColumnAggregator(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * @param groupBy   column whose text value groups the records, or null for a single group
+     *                  keyed by the empty string
+     * @param maxGroups limit on distinct group keys, to bound memory on high-cardinality columns
+     * @throws IllegalArgumentException if a column does not exist or there are too many groups
+     */
+    public Result aggregate(RecordFile file, List<String> columns, String groupBy, int maxGroups,
+                            Listener listener) throws IOException {
+        List<String> selected = new ArrayList<>(columns);
+        if (groupBy != null) {
+            selected.add(groupBy);
+        }
+        RecordFile.Selection selection = file.select(selected);
+        List<RecordFile.Chunk> chunks = file.chunks(pool.getParallelism() * CHUNKS_PER_THREAD);
+        if (chunks.isEmpty()) {
+            return new Result(Map.of(), 0, 0, 0);
+        }
+
+        Scan scan = new Scan(selection, columns.size(), groupBy != null, maxGroups, chunks.size(), listener);
+        try {
+            Partial total = pool.invoke(new AggregateTask(scan, chunks, 0, chunks.size()));
+            return new Result(total.groups, total.records, total.skipped, chunks.size());
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } catch (IllegalArgumentException e) {
+            // Fork/join rethrows worker exceptions as a copy wrapping the original
+            throw e.getCause() instanceof IllegalArgumentException cause ? cause : e;
+        }
+    }
+
+    private record Scan(RecordFile.Selection selection, int columns, boolean grouped, int maxGroups,
+                        int totalChunks, Listener listener, AtomicInteger chunksDone) {
+
+        Scan(RecordFile.Selection selection, int columns, boolean grouped, int maxGroups, int totalChunks,
+             Listener listener) {
+            this(selection, columns, grouped, maxGroups, totalChunks, listener, new AtomicInteger());
+        }
+    }
+
+    private static final class Partial {
+        final Map<String, ColumnStats[]> groups = new HashMap<>();
+        long records;
+        long skipped;
+
+        ColumnStats[] group(String key, Scan scan) {
+            ColumnStats[] stats = groups.get(key);
+            if (stats == null) {
+                if (groups.size() >= scan.maxGroups()) {
+                    throw new IllegalArgumentException("Group-by column has more than " + scan.maxGroups()
+                            + " distinct values");
+                }
+                stats = new ColumnStats[scan.columns()];
+                for (int i = 0; i < stats.length; i++) {
+                    stats[i] = new ColumnStats();
+                }
+                groups.put(key, stats);
+            }
+            return stats;
+        }
+
+        void merge(Partial other, Scan scan) {
+            for (Map.Entry<String, ColumnStats[]> entry : other.groups.entrySet()) {
+                ColumnStats[] target = group(entry.getKey(), scan);
+                for (int i = 0; i < target.length; i++) {
+                    target[i].merge(entry.getValue()[i]);
+                }
+            }
+            records += other.records;
+            skipped += other.skipped;
+        }
+    }
+
+    private static final class AggregateTask extends RecursiveTask<Partial> {
+        private final Scan scan;
+        private final List<RecordFile.Chunk> chunks;
+        private final int from;
+        private final int to;
+
+        AggregateTask(Scan scan, List<RecordFile.Chunk> chunks, int from, int to) {
+            this.scan = scan;
+            this.chunks = chunks;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Partial compute() {
+            if (to - from == 1) {
+                return aggregateChunk(chunks.get(from));
+            }
+            int middle = (from + to) >>> 1;
+            AggregateTask left = new AggregateTask(scan, chunks, from, middle);
+            left.fork();
+            Partial right = new AggregateTask(scan, chunks, middle, to).compute();
+            Partial merged = left.join();
+            merged.merge(right, scan);
+            return merged;
+        }
+
+        private Partial aggregateChunk(RecordFile.Chunk chunk) {
+            Partial partial = new Partial();
+            int columns = scan.columns();
+            ColumnStats[] ungrouped = scan.grouped() ? null : partial.group("", scan);
+            try {
+                partial.skipped = scan.selection().forEach(chunk, record -> {
+                    ColumnStats[] stats = ungrouped;
+                    if (stats == null) {
+                        String key = record.text(columns);
+                        stats = partial.group(key == null ? "" : key, scan);
+                    }
+                    for (int i = 0; i < columns; i++) {
+                        stats[i].add(record.number(i));
+                    }
+                    partial.records++;
+                });
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            if (scan.listener() != null) {
+                scan.listener().onChunkDone(scan.chunksDone().incrementAndGet(), scan.totalChunks());
+            }
+            return partial;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.mcp.analytics;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Parses decimal numbers directly from file bytes. Plain decimals with at most 15 significant
+ * digits are computed exactly from a long mantissa and a power of ten (both are exactly
+ * representable, so the division rounds correctly); anything else falls back to
+ * {@link Double#parseDouble}.
+ */
+final class NumberParser {
+
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    private static final int MAX_FAST_DIGITS = 15;
+
+    private NumberParser() {
+    }
+
+    /**
+     * @return the value of the trimmed bytes in {@code [start, end)}, or NaN if they are empty or
+     * not a number
+     */
+    static double parse(ByteBuffer buffer, int start, int end) {
+        while (start < end && buffer.get(start) == ' ') {
+            start++;
+        }
+        while (end > start && buffer.get(end - 1) == ' ') {
+            end--;
+        }
+        if (start == end) {
+            return Double.NaN;
+        }
+
+        int i = start;
+        boolean negative = false;
+        byte first = buffer.get(i);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            i++;
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int fractionDigits = 0;
+        boolean seenDigit = false;
+        boolean seenPoint = false;
+        for (; i < end; i++) {
+            byte b = buffer.get(i);
+            if (b >= '0' && b <= '9') {
+                seenDigit = true;
+                if (mantissa != 0 || b != '0') {
+                    digits++;
+                }
+                mantissa = mantissa * 10 + (b - '0');
+                if (seenPoint) {
+                    fractionDigits++;
+                }
+            } else if (b == '.' && !seenPoint) {
+                seenPoint = true;
+            } else {
+                break;
+            }
+            if (digits > MAX_FAST_DIGITS) {
+                break;
+            }
+        }
+
+        if (i == end && seenDigit && digits <= MAX_FAST_DIGITS && fractionDigits < POWERS_OF_TEN.length) {
+            double value = mantissa / POWERS_OF_TEN[fractionDigits];
+            return negative ? -value : value;
+        }
+        byte[] bytes = new byte[end - start];
+        buffer.get(start, bytes);
+        return parse(new String(bytes, StandardCharsets.US_ASCII));
+    }
+
+    static double parse(String text) {
+        if (text == null || text.isBlank()) {
+            return Double.NaN;
+        }
+        String stripped = text.strip();
+        char last = stripped.charAt(stripped.length() - 1);
+        // Double.parseDouble also takes "NaN", "Infinity", hex floats and d/f suffixes; none are data values
+        if (Character.isLetter(last) || stripped.indexOf('x') >= 0 || stripped.indexOf('X') >= 0) {
+            return Double.NaN;
+        }
+        try {
+            double value = Double.parseDouble(stripped);
+            return Double.isFinite(value) ? value : Double.NaN;
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.mcp.analytics;
+
+/**
+ * Mergeable quantile sketch with bounded relative error, in the style of DDSketch: values are
+ * counted in logarithmically sized buckets, so any quantile is answered to within 1% of the true
+ * value using a few kilobytes per sketch no matter how many values were added. Two sketches of
+ * disjoint inputs merge into exactly the sketch of the combined input, which is what lets file
+ * chunks be summarized independently.
+ */
+public final class QuantileSketch {
+
+    private static final double RELATIVE_ACCURACY = 0.01;
+    private static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+    private static final double LOG_GAMMA = Math.log(GAMMA);
+    private static final double MIN_INDEXABLE = Double.MIN_NORMAL * GAMMA;
+    private static final int MAX_BUCKETS = 2048;
+
+    private final Store positive = new Store();
+    private final Store negative = new Store();
+    private long zeroCount;
+
+    public void add(double value) {
+        if (value > MIN_INDEXABLE) {
+            positive.add(index(value), 1);
+        } else if (value < -MIN_INDEXABLE) {
+            negative.add(index(-value), 1);
+        } else {
+            zeroCount++;
+        }
+    }
+
+    public void merge(QuantileSketch other) {
+        positive.merge(other.positive);
+        negative.merge(other.negative);
+        zeroCount += other.zeroCount;
+    }
+
+    public long getCount() {
+        return positive.total + negative.total + zeroCount;
+    }
+
+    /**
+     * @param quantile between 0 and 1
+     * @return the estimated value, or NaN if the sketch is empty
+     */
+    public double quantile(double quantile) {
+        long count = getCount();
+        if (count == 0) {
+            return Double.NaN;
+        }
+        long rank = (long) (Math.max(0, Math.min(1, quantile)) * (count - 1));
+
+        // Negative values in ascending order come from the largest magnitude down
+        if (rank < negative.total) {
+            long seen = 0;
+            for (int i = negative.counts.length - 1; i >= 0; i--) {
+                seen += negative.counts[i];
+                if (seen > rank) {
+                    return -value(negative.offset + i);
+                }
+            }
+        }
+        rank -= negative.total;
+        if (rank < zeroCount) {
+            return 0;
+        }
+        rank -= zeroCount;
+        long seen = 0;
+        for (int i = 0; i < positive.counts.length; i++) {
+            seen += positive.counts[i];
+            if (seen > rank) {
+                return value(positive.offset + i);
+            }
+        }
+        return value(positive.offset + positive.counts.length - 1);
+    }
+
+    private static int index(double value) {
+        return (int) Math.ceil(Math.log(value) / LOG_GAMMA);
+    }
+
+    private static double value(int index) {
+        // Midpoint of the bucket (gamma^(i-1), gamma^i] in the relative-error sense
+        return 2 * Math.pow(GAMMA, index) / (GAMMA + 1);
+    }
+
+    /**
+     * Dense bucket counts for one sign. When the index range would exceed {@link #MAX_BUCKETS},
+     * the lowest buckets are folded together, trading accuracy on the smallest magnitudes for a
+     * hard memory bound.
+     */
+    private static final class Store {
+        private long[] counts = new long[0];
+        private int offset;
+        private long total;
+
+        void add(int index, long count) {
+            if (counts.length == 0) {
+                counts = new long[16];
+                offset = index - 8;
+            }
+            int slot = ensure(index);
+            counts[slot] += count;
+            total += count;
+        }
+
+        void merge(Store other) {
+            for (int i = 0; i < other.counts.length; i++) {
+                if (other.counts[i] != 0) {
+                    add(other.offset + i, other.counts[i]);
+                }
+            }
+        }
+
+        private int ensure(int index) {
+            if (index >= offset && index < offset + counts.length) {
+                return index - offset;
+            }
+            int low = Math.min(index, offset);
+            int high = Math.max(index, offset + counts.length - 1);
+            if (high - low + 1 > MAX_BUCKETS) {
+                low = high - MAX_BUCKETS + 1;
+            }
+
+            int length = Math.min(Math.max(counts.length * 2, high - low + 1), MAX_BUCKETS);
+            if (index < offset) {
+                low = high - length + 1; // leave the spare room below, where growth is happening
+            }
+            long[] resized = new long[length];
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] != 0) {
+                    int target = Math.max(offset + i, low) - low;
+                    resized[Math.min(target, length - 1)] += counts[i];
+                }
+            }
+            counts = resized;
+            offset = low;
+            return Math.max(index, low) - low;
+        }
+    }
+}
@@ -0,0 +1,516 @@
+package com.example.mcp.analytics;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Memory-mapped access to a CSV, TSV or JSONL data file. The file is cut into line-aligned
+ * {@link Chunk}s that can be processed independently, and records are read straight from the
+ * mapping: only the selected columns are located, and numbers are parsed from the bytes without
+ * creating strings.
+ */
+public final class RecordFile {
+
+    static final int MAX_CHUNK_SIZE = 256 << 20;
+    private static final int MAX_HEADER_BYTES = 64 * 1024;
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    public enum Format {
+        CSV, TSV, JSONL;
+
+        public static Format of(Path path) {
+            String name = path.getFileName().toString().toLowerCase(Locale.ROOT);
+            if (name.endsWith(".csv")) {
+                return CSV;
+            }
+            if (name.endsWith(".tsv") || name.endsWith(".tab")) {
+                return TSV;
+            }
+            if (name.endsWith(".jsonl") || name.endsWith(".ndjson")) {
+                return JSONL;
+            }
+            throw new IllegalArgumentException("Unsupported file type (expected .csv, .tsv or .jsonl): " + path.getFileName());
+        }
+    }
+
+    public record Chunk(long start, long end) {
+        public long size() {
+            return end - start;
+        }
+    }
+
+    /**
+     * One record of a {@link Selection}; accessors take the position of a column in the selection
+     * and are only valid during the {@link RecordVisitor#visit} call.
+     */
+    public interface Record {
+
+        /**
+         * @return the value, or NaN if the field is missing, empty or not a number
+         */
+        double number(int column);
+
+        /**
+         * @return the raw value as text, or null if the field is missing
+         */
+        String text(int column);
+    }
+
+    @FunctionalInterface
+    public interface RecordVisitor {
+        void visit(Record record);
+    }
+
+    private final Path path;
+    private final Format format;
+    private final long size;
+    private final List<String> header;
+    private final long dataStart;
+
+    private RecordFile(Path path, Format format, long size, List<String> header, long dataStart) {
+        this.path = path;
+        this.format = format;
+        this.size = size;
+        this.header = header;
+        this.dataStart = dataStart;
+    }
+
+    public static RecordFile open(Path path) throws IOException {
+        Format format = Format.of(path);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (format == Format.JSONL) {
+                return new RecordFile(path, format, size, List.of(), 0);
+            }
+
+            ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(size, MAX_HEADER_BYTES));
+            while (buffer.hasRemaining() && channel.read(buffer) > 0) {
+                // fill
+            }
+            buffer.flip();
+            int end = indexOf(buffer, (byte) '\n', 0, buffer.limit());
+            if (end < 0 && buffer.limit() == MAX_HEADER_BYTES) {
+                throw new IllegalArgumentException("Header line longer than " + MAX_HEADER_BYTES + " bytes: " + path.getFileName());
+            }
+            int lineEnd = end < 0 ? buffer.limit() : end;
+            int start = hasBom(buffer) ? 3 : 0;
+            String line = new String(buffer.array(), start, trimCr(buffer, start, lineEnd) - start, StandardCharsets.UTF_8);
+            List<String> header = new ArrayList<>();
+            for (String name : splitLine(line, format == Format.TSV ? '\t' : ',')) {
+                header.add(name.strip());
+            }
+            return new RecordFile(path, format, size, List.copyOf(header), end < 0 ? size : end + 1);
+        }
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public Format getFormat() {
+        return format;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * Column names from the header line; empty for JSONL, whose records name their own fields.
+     */
+    public List<String> getHeader() {
+        return header;
+    }
+
+    /**
+     * Splits the data section into roughly {@code parts} ranges that each start at the beginning of
+     * a line and end just after a newline (or at end of file).
+     */
+    public List<Chunk> chunks(int parts) throws IOException {
+        long dataSize = size - dataStart;
+        if (dataSize <= 0) {
+            return List.of();
+        }
+        long target = Math.max(Math.min(ceilDiv(dataSize, Math.max(parts, 1)), MAX_CHUNK_SIZE), 64 * 1024);
+
+        List<Chunk> chunks = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer probe = ByteBuffer.allocate(64 * 1024);
+            long start = dataStart;
+            while (start < size) {
+                long end = start + target >= size ? size : nextLineStart(channel, probe, start + target);
+                if (end - start > Integer.MAX_VALUE) {
+                    throw new IllegalArgumentException("Line longer than 2GB in " + path.getFileName());
+                }
+                chunks.add(new Chunk(start, end));
+                start = end;
+            }
+        }
+        return chunks;
+    }
+
+    /**
+     * Resolves the named columns once, so that records can be read by position. For CSV and TSV a
+     * column is a header name or a zero-based index; for JSONL it is a top-level field name.
+     */
+    public Selection select(List<String> columns) {
+        int[] fields = new int[columns.size()];
+        if (format != Format.JSONL) {
+            for (int i = 0; i < fields.length; i++) {
+                fields[i] = columnIndex(columns.get(i));
+            }
+        }
+        return new Selection(List.copyOf(columns), fields);
+    }
+
+    /**
+     * Reads one numeric column in file order.
+     *
+     * @throws IllegalArgumentException if the column holds a non-numeric value or more than
+     *                                  {@code maxValues} rows
+     */
+    public double[] readNumbers(String column, int maxValues) throws IOException {
+        Selection selection = select(List.of(column));
+        double[][] values = {new double[1024]};
+        int[] count = {0};
+        for (Chunk chunk : chunks(1)) {
+            selection.forEach(chunk, record -> {
+                double value = record.number(0);
+                if (Double.isNaN(value)) {
+                    throw new IllegalArgumentException("Non-numeric value '" + record.text(0) + "' in column '"
+                            + column + "' at row " + (count[0] + 1) + " of " + path.getFileName());
+                }
+                if (count[0] == maxValues) {
+                    throw new IllegalArgumentException("Column '" + column + "' has more than " + maxValues + " rows");
+                }
+                if (count[0] == values[0].length) {
+                    values[0] = Arrays.copyOf(values[0], Math.min(values[0].length * 2, maxValues));
+                }
+                values[0][count[0]++] = value;
+            });
+        }
+        return Arrays.copyOf(values[0], count[0]);
+    }
+
+    private int columnIndex(String column) {
+        int index = header.indexOf(column);
+        if (index >= 0) {
+            return index;
+        }
+        try {
+            index = Integer.parseInt(column);
+            if (index >= 0) {
+                return index;
+            }
+        } catch (NumberFormatException e) {
+            // not an index either
+        }
+        throw new IllegalArgumentException("Unknown column '" + column + "' in " + path.getFileName()
+                + "; available columns: " + header);
+    }
+
+    /**
+     * A set of resolved columns. Reading is stateless apart from per-call scratch space, so one
+     * selection can be used from several threads, each processing its own chunks.
+     */
+    public final class Selection {
+
+        private final List<String> columns;
+        private final int[] fields;
+        private final Map<String, Integer> positions = new HashMap<>();
+        private final int[] slots;
+        private final int maxField;
+
+        private Selection(List<String> columns, int[] fields) {
+            this.columns = columns;
+            this.fields = fields;
+            for (int i = 0; i < columns.size(); i++) {
+                positions.putIfAbsent(columns.get(i), i);
+            }
+            this.slots = new int[columns.size()];
+            for (int i = 0; i < slots.length; i++) {
+                slots[i] = positions.get(columns.get(i));
+            }
+            this.maxField = Arrays.stream(fields).max().orElse(-1);
+        }
+
+        public List<String> getColumns() {
+            return columns;
+        }
+
+        /**
+         * Visits every non-blank record in {@code chunk}.
+         *
+         * @return the number of lines skipped because they could not be parsed (JSONL only)
+         */
+        public long forEach(Chunk chunk, RecordVisitor visitor) throws IOException {
+            if (chunk.size() == 0) {
+                return 0;
+            }
+            MappedByteBuffer buffer;
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, chunk.start(), chunk.size());
+            }
+
+            LineRecord record = format == Format.JSONL ? new JsonRecord(buffer) : new DelimitedRecord(buffer);
+            long skipped = 0;
+            int limit = buffer.limit();
+            int start = 0;
+            while (start < limit) {
+                int newline = indexOf(buffer, (byte) '\n', start, limit);
+                int end = newline < 0 ? limit : newline;
+                int trimmed = trimCr(buffer, start, end);
+                if (!isBlank(buffer, start, trimmed)) {
+                    if (record.parse(start, trimmed)) {
+                        visitor.visit(record);
+                    } else {
+                        skipped++;
+                    }
+                }
+                start = end + 1;
+            }
+            return skipped;
+        }
+
+        private abstract class LineRecord implements Record {
+            final ByteBuffer buffer;
+
+            LineRecord(ByteBuffer buffer) {
+                this.buffer = buffer;
+            }
+
+            abstract boolean parse(int start, int end);
+        }
+
+        private final class DelimitedRecord extends LineRecord {
+            private final byte delimiter = (byte) (format == Format.TSV ? '\t' : ',');
+            private final int[] starts = new int[maxField + 1];
+            private final int[] ends = new int[maxField + 1];
+            private int fieldCount;
+
+            DelimitedRecord(ByteBuffer buffer) {
+                super(buffer);
+            }
+
+            @Override
+            boolean parse(int start, int end) {
+                fieldCount = 0;
+                int position = start;
+                while (fieldCount <= maxField && position <= end) {
+                    int fieldEnd;
+                    if (position < end && buffer.get(position) == '"') {
+                        fieldEnd = position + 1;
+                        while (fieldEnd < end) {
+                            if (buffer.get(fieldEnd) == '"') {
+                                if (fieldEnd + 1 < end && buffer.get(fieldEnd + 1) == '"') {
+                                    fieldEnd += 2;
+                                    continue;
+                                }
+                                fieldEnd++;
+                                break;
+                            }
+                            fieldEnd++;
+                        }
+                        int next = indexOf(buffer, delimiter, fieldEnd, end);
+                        fieldEnd = next < 0 ? end : next;
+                    } else {
+                        int next = indexOf(buffer, delimiter, position, end);
+                        fieldEnd = next < 0 ? end : next;
+                    }
+                    starts[fieldCount] = position;
+                    ends[fieldCount] = fieldEnd;
+                    fieldCount++;
+                    position = fieldEnd + 1;
+                }
+                return true;
+            }
+
+            @Override
+            public double number(int column) {
+                int field = fields[column];
+                if (field >= fieldCount) {
+                    return Double.NaN;
+                }
+                int start = starts[field];
+                int end = ends[field];
+                if (end - start >= 2 && buffer.get(start) == '"' && buffer.get(end - 1) == '"') {
+                    start++;
+                    end--;
+                }
+                return NumberParser.parse(buffer, start, end);
+            }
+
+            @Override
+            public String text(int column) {
+                int field = fields[column];
+                if (field >= fieldCount) {
+                    return null;
+                }
+                String raw = decode(buffer, starts[field], ends[field]);
+                if (raw.length() >= 2 && raw.charAt(0) == '"' && raw.charAt(raw.length() - 1) == '"') {
+                    return raw.substring(1, raw.length() - 1).replace("\"\"", "\"");
+                }
+                return raw;
+            }
+        }
+
+        private final class JsonRecord extends LineRecord {
+            private final double[] numbers = new double[columns.size()];
+            private final String[] texts = new String[columns.size()];
+            private byte[] line = new byte[256];
+
+            JsonRecord(ByteBuffer buffer) {
+                super(buffer);
+            }
+
+            @Override
+            boolean parse(int start, int end) {
+                Arrays.fill(numbers, Double.NaN);
+                Arrays.fill(texts, null);
+                int length = end - start;
+                if (line.length < length) {
+                    line = new byte[Math.max(length, line.length * 2)];
+                }
+                buffer.get(start, line, 0, length);
+
+                try (JsonParser parser = JSON_FACTORY.createParser(line, 0, length)) {
+                    if (parser.nextToken() != JsonToken.START_OBJECT) {
+                        return false;
+                    }
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        Integer position = positions.get(parser.currentName());
+                        JsonToken value = parser.nextToken();
+                        if (position == null) {
+                            parser.skipChildren();
+                            continue;
+                        }
+                        switch (value) {
+                            case VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT -> {
+                                numbers[position] = parser.getDoubleValue();
+                                texts[position] = parser.getText();
+                            }
+                            case VALUE_STRING -> {
+                                texts[position] = parser.getText();
+                                numbers[position] = NumberParser.parse(texts[position]);
+                            }
+                            case START_OBJECT, START_ARRAY -> parser.skipChildren();
+                            case VALUE_NULL -> {
+                            }
+                            default -> texts[position] = parser.getText();
+                        }
+                    }
+                    return true;
+                } catch (IOException e) {
+                    return false;
+                }
+            }
+
+            @Override
+            public double number(int column) {
+                return numbers[slots[column]];
+            }
+
+            @Override
+            public String text(int column) {
+                return texts[slots[column]];
+            }
+        }
+    }
+
+    private static long nextLineStart(FileChannel channel, ByteBuffer probe, long from) throws IOException {
+        long position = from;
+        while (true) {
+            probe.clear();
+            int read = channel.read(probe, position);
+            if (read <= 0) {
+                return channel.size();
+            }
+            int newline = indexOf(probe, (byte) '\n', 0, read);
+            if (newline >= 0) {
+                return position + newline + 1;
+            }
+            position += read;
+        }
+    }
+
+    static int indexOf(ByteBuffer buffer, byte value, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (buffer.get(i) == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int trimCr(ByteBuffer buffer, int start, int end) {
+        return end > start && buffer.get(end - 1) == '\r' ? end - 1 : end;
+    }
+
+    private static boolean isBlank(ByteBuffer buffer, int start, int end) {
+        for (int i = start; i < end; i++) {
+            byte b = buffer.get(i);
+            if (b != ' ' && b != '\t') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean hasBom(ByteBuffer buffer) {
+        return buffer.limit() >= 3 && (buffer.get(0) & 0xFF) == 0xEF && (buffer.get(1) & 0xFF) == 0xBB
+                && (buffer.get(2) & 0xFF) == 0xBF;
+    }
+
+    private static String decode(ByteBuffer buffer, int start, int end) {
+        byte[] bytes = new byte[end - start];
+        buffer.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static List<String> splitLine(String line, char delimiter) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == delimiter) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static long ceilDiv(long x, long y) {
+        return (x + y - 1) / y;
+    }
+}
@@ -1,24 +1,58 @@
 package com.example.mcp.config;
 
+import com.example.mcp.prompts.PromptRequestHandler;
+import com.example.mcp.resources.ResourceRequestHandler;
+import com.example.mcp.resources.ResourceSubscriptionManager;
 import com.example.mcp.server.McpServerImpl;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.example.mcp.tools.ToolRequestHandler;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.Map;
+
 @Configuration
 public class McpComponentRegistrar {
 
     private static final Logger logger = LoggerFactory.getLogger(McpComponentRegistrar.class);
 
+    private final McpServerImpl mcpServer;
+    private final ResourceRequestHandler resourceRequestHandler;
+    private final ResourceSubscriptionManager resourceSubscriptionManager;
+    private final ToolRequestHandler toolRequestHandler;
+    private final PromptRequestHandler promptRequestHandler;
+
     @Autowired
-    private ObjectMapper objectMapper;
+    public McpComponentRegistrar(McpServerImpl mcpServer, ResourceRequestHandler resourceRequestHandler,
+                                 ResourceSubscriptionManager resourceSubscriptionManager,
+                                 ToolRequestHandler toolRequestHandler,
+                                 PromptRequestHandler promptRequestHandler) {
+        this.mcpServer = mcpServer;
+        this.resourceRequestHandler = resourceRequestHandler;
+        this.resourceSubscriptionManager = resourceSubscriptionManager;
+        this.toolRequestHandler = toolRequestHandler;
+        this.promptRequestHandler = promptRequestHandler;
+    }
+
+    @PostConstruct
+    public void registerComponents() {
+        logger.info("Registering MCP component handlers");
+
+        mcpServer.registerMethodHandler("tools/list", toolRequestHandler::list);
+        mcpServer.registerSessionMethodHandler("tools/call", toolRequestHandler::call);
+
+        mcpServer.registerMethodHandler("resources/list", resourceRequestHandler::list);
+        mcpServer.registerMethodHandler("resources/read", resourceRequestHandler::read);
+        mcpServer.registerMethodHandler("resources/templates/list", resourceRequestHandler::listTemplates);
+        mcpServer.registerSessionMethodHandler("resources/subscribe", resourceSubscriptionManager::subscribe);
+        mcpServer.registerSessionMethodHandler("resources/unsubscribe", resourceSubscriptionManager::unsubscribe);
+        mcpServer.setServerCapability("resources", Map.of(
+                "subscribe", resourceSubscriptionManager.isEnabled(),
+                "listChanged", false));
 
-    @Bean
-    public McpServerImpl mcpServer() {
-        logger.info("Creating MCP Server instance");
-        return new McpServerImpl(objectMapper);
+        mcpServer.registerMethodHandler("prompts/list", promptRequestHandler::list);
+        mcpServer.registerMethodHandler("prompts/get", promptRequestHandler::get);
     }
-}
\ No newline at end of file
+}
@@ -14,6 +14,7 @@ public class McpServerConfig {
     private ServerInfo server = new ServerInfo();
     private Map<String, Boolean> capabilities = new HashMap<>();
     private TransportConfig transport = new TransportConfig();
+    private RateLimitConfig rateLimit = new RateLimitConfig();
 
     public McpServerConfig() {
         capabilities.put("tools", true);
@@ -55,6 +56,14 @@ public class McpServerConfig {
         this.transport = transport;
     }
 
+    public RateLimitConfig getRateLimit() {
+        return rateLimit;
+    }
+
+    public void setRateLimit(RateLimitConfig rateLimit) {
+        this.rateLimit = rateLimit;
+    }
+
     public static class ServerInfo {
         private String name = "Java MCP Server";
         private String version = "1.0.0";
@@ -129,4 +138,106 @@ public class McpServerConfig {
             }
         }
     }
+
+    public static class RateLimitConfig {
+        private boolean enabled = true;
+        private String apiKeyHeader = "X-API-Key";
+        private Limit client = new Limit(50, 100);
+        private Limit tool = new Limit(0, 0);
+        private Map<String, Limit> tools = new HashMap<>();
+        private long maintenanceIntervalMs = 10000;
+        private int maxMetricKeys = 100;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getApiKeyHeader() {
+            return apiKeyHeader;
+        }
+
+        public void setApiKeyHeader(String apiKeyHeader) {
+            this.apiKeyHeader = apiKeyHeader;
+        }
+
+        public Limit getClient() {
+            return client;
+        }
+
+        public void setClient(Limit client) {
+            this.client = client;
+        }
+
+        public Limit getTool() {
+            return tool;
+        }
+
+        public void setTool(Limit tool) {
+            this.tool = tool;
+        }
+
+        public Map<String, Limit> getTools() {
+            return tools;
+        }
+
+        public void setTools(Map<String, Limit> tools) {
+            this.tools = tools;
+        }
+
+        public long getMaintenanceIntervalMs() {
+            return maintenanceIntervalMs;
+        }
+
+        public void setMaintenanceIntervalMs(long maintenanceIntervalMs) {
+            this.maintenanceIntervalMs = maintenanceIntervalMs;
+        }
+
+        public int getMaxMetricKeys() {
+            return maxMetricKeys;
+        }
+
+        public void setMaxMetricKeys(int maxMetricKeys) {
+            this.maxMetricKeys = maxMetricKeys;
+        }
+
+        /**
+         * A sustained rate and a burst size; a rate of 0 means unlimited.
+         */
+        public static class Limit {
+            private double requestsPerSecond;
+            private int burst;
+
+            public Limit() {
+            }
+
+            public Limit(double requestsPerSecond, int burst) {
+                this.requestsPerSecond = requestsPerSecond;
+                this.burst = burst;
+            }
+
+            public double getRequestsPerSecond() {
+                return requestsPerSecond;
+            }
+
+            public void setRequestsPerSecond(double requestsPerSecond) {
+                this.requestsPerSecond = requestsPerSecond;
+            }
+
+            public int getBurst() {
+                return burst;
+            }
+
+            public void setBurst(int burst) {
+                this.burst = burst;
+            }
+
+            public boolean isUnlimited() {
+                return requestsPerSecond <= 0;
+            }
+        }
+    }
 }
\ No newline at end of file
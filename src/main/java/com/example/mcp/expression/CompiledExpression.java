@@ -0,0 +1,74 @@
+package com.example.mcp.expression;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A parsed arithmetic expression, compiled to a tree of closures over a slot array so that
+ * evaluating it against new variable values involves no parsing or name lookups.
+ */
+public final class CompiledExpression {
+
+    @FunctionalInterface
+    interface Node {
+        double eval(double[] slots);
+    }
+
+    record Constant(double value) implements Node {
+        @Override
+        public double eval(double[] slots) {
+            return value;
+        }
+    }
+
+    private final String source;
+    private final Node root;
+    private final List<String> variables;
+
+    CompiledExpression(String source, Node root, List<String> variables) {
+        this.source = source;
+        this.root = root;
+        this.variables = List.copyOf(variables);
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    /**
+     * Variable names in order of first appearance; this is the order {@link #evaluate(double...)}
+     * expects their values in.
+     */
+    public List<String> getVariables() {
+        return variables;
+    }
+
+    public boolean isConstant() {
+        return root instanceof Constant;
+    }
+
+    public double evaluate(double... values) {
+        if (values.length != variables.size()) {
+            throw new IllegalArgumentException("Expected " + variables.size() + " values for " + variables
+                    + ", got " + values.length);
+        }
+        return root.eval(values);
+    }
+
+    public double evaluate(Map<String, ? extends Number> bindings) {
+        double[] slots = new double[variables.size()];
+        for (int i = 0; i < slots.length; i++) {
+            Number value = bindings.get(variables.get(i));
+            if (value == null) {
+                throw new IllegalArgumentException("Missing value for variable: " + variables.get(i));
+            }
+            slots[i] = value.doubleValue();
+        }
+        return root.eval(slots);
+    }
+
+    @Override
+    public String toString() {
+        return source;
+    }
+}
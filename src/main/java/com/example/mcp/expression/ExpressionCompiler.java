@@ -0,0 +1,61 @@
+package com.example.mcp.expression;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compiles expressions, keeping the most recently used compiled forms keyed by their text so
+ * a formula evaluated repeatedly with different variables is parsed only once.
+ */
+public class ExpressionCompiler {
+
+    public static final int DEFAULT_CACHE_SIZE = 1024;
+
+    private final Map<String, CompiledExpression> cache;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public ExpressionCompiler() {
+        this(DEFAULT_CACHE_SIZE);
+    }
+
+    public ExpressionCompiler(int maxEntries) {
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CompiledExpression> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * @throws IllegalArgumentException if the expression is malformed; the message gives the position
+     */
+    public CompiledExpression compile(String expression) {
+        String key = expression.strip();
+        synchronized (cache) {
+            CompiledExpression compiled = cache.get(key);
+            if (compiled != null) {
+                hits.incrementAndGet();
+                return compiled;
+            }
+        }
+
+        // Parsed outside the lock; a concurrent miss on the same text just compiles it twice
+        misses.incrementAndGet();
+        CompiledExpression compiled = ExpressionParser.parse(key);
+        synchronized (cache) {
+            cache.put(key, compiled);
+        }
+        return compiled;
+    }
+
+    public Map<String, Object> getStats() {
+        int size;
+        synchronized (cache) {
+            size = cache.size();
+        }
+        return Map.of("size", size, "hits", hits.get(), "misses", misses.get());
+    }
+}
@@ -0,0 +1,383 @@
+package com.example.mcp.expression;
+
+import com.example.mcp.expression.CompiledExpression.Constant;
+import com.example.mcp.expression.CompiledExpression.Node;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Recursive-descent parser that builds the closure tree of a {@link CompiledExpression},
+ * folding sub-expressions without variables into constants.
+ *
+ * <pre>
+ * comparison := additive (('<' | '<=' | '>' | '>=' | '==' | '!=') additive)?
+ * additive   := term (('+' | '-') term)*
+ * term       := unary (('*' | '/' | '%') unary)*
+ * unary      := ('-' | '+') unary | power
+ * power      := primary (('^' | '**') unary)?
+ * primary    := number | name | name '(' args ')' | '(' comparison ')'
+ * </pre>
+ */
+final class ExpressionParser {
+
+    static final int MAX_LENGTH = 10_000;
+    private static final int MAX_DEPTH = 200;
+
+    private static final Map<String, Double> CONSTANTS = Map.of(
+            "pi", Math.PI,
+            "e", Math.E,
+            "tau", 2 * Math.PI);
+
+    private static final Map<String, DoubleUnaryOperator> UNARY = Map.ofEntries(
+            Map.entry("abs", Math::abs),
+            Map.entry("sqrt", Math::sqrt),
+            Map.entry("cbrt", Math::cbrt),
+            Map.entry("exp", Math::exp),
+            Map.entry("ln", Math::log),
+            Map.entry("log", Math::log),
+            Map.entry("log10", Math::log10),
+            Map.entry("log2", x -> Math.log(x) / Math.log(2)),
+            Map.entry("sin", Math::sin),
+            Map.entry("cos", Math::cos),
+            Map.entry("tan", Math::tan),
+            Map.entry("asin", Math::asin),
+            Map.entry("acos", Math::acos),
+            Map.entry("atan", Math::atan),
+            Map.entry("sinh", Math::sinh),
+            Map.entry("cosh", Math::cosh),
+            Map.entry("tanh", Math::tanh),
+            Map.entry("floor", Math::floor),
+            Map.entry("ceil", Math::ceil),
+            Map.entry("round", x -> (double) Math.round(x)),
+            Map.entry("sign", Math::signum),
+            Map.entry("toRadians", Math::toRadians),
+            Map.entry("toDegrees", Math::toDegrees));
+
+    private static final Map<String, DoubleBinaryOperator> BINARY = Map.of(
+            "pow", Math::pow,
+            "atan2", Math::atan2,
+            "hypot", Math::hypot,
+            "mod", (a, b) -> a % b);
+
+    private final String text;
+    private final Map<String, Integer> variables = new LinkedHashMap<>();
+    private int pos;
+    private int depth;
+
+    private ExpressionParser(String text) {
+        this.text = text;
+    }
+
+    static CompiledExpression parse(String text) {
+        if (text.length() > MAX_LENGTH) {
+            throw new IllegalArgumentException("Expression longer than " + MAX_LENGTH + " characters");
+        }
+        ExpressionParser parser = new ExpressionParser(text);
+        Node root = parser.comparison();
+        parser.skipWhitespace();
+        if (parser.pos < text.length()) {
+            throw parser.error("Unexpected '" + text.charAt(parser.pos) + "'");
+        }
+        return new CompiledExpression(text, root, new ArrayList<>(parser.variables.keySet()));
+    }
+
+    private Node comparison() {
+        Node left = additive();
+        String operator = matchAny("<=", ">=", "==", "!=", "<", ">");
+        if (operator == null) {
+            return left;
+        }
+        Node right = additive();
+        return switch (operator) {
+            case "<=" -> fold(v -> left.eval(v) <= right.eval(v) ? 1 : 0, left, right);
+            case ">=" -> fold(v -> left.eval(v) >= right.eval(v) ? 1 : 0, left, right);
+            case "==" -> fold(v -> left.eval(v) == right.eval(v) ? 1 : 0, left, right);
+            case "!=" -> fold(v -> left.eval(v) != right.eval(v) ? 1 : 0, left, right);
+            case "<" -> fold(v -> left.eval(v) < right.eval(v) ? 1 : 0, left, right);
+            default -> fold(v -> left.eval(v) > right.eval(v) ? 1 : 0, left, right);
+        };
+    }
+
+    private Node additive() {
+        Node node = term();
+        while (true) {
+            Node left = node;
+            if (match('+')) {
+                Node right = term();
+                node = fold(v -> left.eval(v) + right.eval(v), left, right);
+            } else if (match('-')) {
+                Node right = term();
+                node = fold(v -> left.eval(v) - right.eval(v), left, right);
+            } else {
+                return node;
+            }
+        }
+    }
+
+    private Node term() {
+        Node node = unary();
+        while (true) {
+            Node left = node;
+            if (peekIs("**")) {
+                return node; // power, handled below unary
+            }
+            if (match('*')) {
+                Node right = unary();
+                node = fold(v -> left.eval(v) * right.eval(v), left, right);
+            } else if (match('/')) {
+                Node right = unary();
+                node = fold(v -> left.eval(v) / right.eval(v), left, right);
+            } else if (match('%')) {
+                Node right = unary();
+                node = fold(v -> left.eval(v) % right.eval(v), left, right);
+            } else {
+                return node;
+            }
+        }
+    }
+
+    private Node unary() {
+        enter();
+        try {
+            if (match('-')) {
+                Node operand = unary();
+                return fold(v -> -operand.eval(v), operand);
+            }
+            if (match('+')) {
+                return unary();
+            }
+            return power();
+        } finally {
+            depth--;
+        }
+    }
+
+    private Node power() {
+        Node base = primary();
+        if (matchAny("**", "^") != null) {
+            Node exponent = unary(); // right-associative: 2^3^2 == 2^(3^2)
+            return fold(v -> Math.pow(base.eval(v), exponent.eval(v)), base, exponent);
+        }
+        return base;
+    }
+
+    private Node primary() {
+        skipWhitespace();
+        if (pos >= text.length()) {
+            throw error("Unexpected end of expression");
+        }
+
+        char c = text.charAt(pos);
+        if (c == '(') {
+            pos++;
+            enter();
+            Node inner = comparison();
+            depth--;
+            expect(')');
+            return inner;
+        }
+        if (Character.isDigit(c) || c == '.') {
+            return number();
+        }
+        if (Character.isLetter(c) || c == '_') {
+            String name = identifier();
+            skipWhitespace();
+            if (pos < text.length() && text.charAt(pos) == '(') {
+                pos++;
+                return call(name, arguments());
+            }
+            Double constant = CONSTANTS.get(name);
+            if (constant != null) {
+                return new Constant(constant);
+            }
+            int slot = variables.computeIfAbsent(name, k -> variables.size());
+            return v -> v[slot];
+        }
+        throw error("Unexpected '" + c + "'");
+    }
+
+    private List<Node> arguments() {
+        enter();
+        List<Node> args = new ArrayList<>();
+        skipWhitespace();
+        if (!match(')')) {
+            do {
+                args.add(comparison());
+            } while (match(','));
+            expect(')');
+        }
+        depth--;
+        return args;
+    }
+
+    private Node call(String name, List<Node> args) {
+        DoubleUnaryOperator unary = UNARY.get(name);
+        if (unary != null) {
+            checkArity(name, args, 1, 1);
+            Node a = args.get(0);
+            return fold(v -> unary.applyAsDouble(a.eval(v)), a);
+        }
+        DoubleBinaryOperator binary = BINARY.get(name);
+        if (binary != null) {
+            checkArity(name, args, 2, 2);
+            Node a = args.get(0);
+            Node b = args.get(1);
+            return fold(v -> binary.applyAsDouble(a.eval(v), b.eval(v)), a, b);
+        }
+
+        Node[] nodes = args.toArray(new Node[0]);
+        return switch (name) {
+            case "min" -> {
+                checkArity(name, args, 1, Integer.MAX_VALUE);
+                yield fold(v -> {
+                    double result = nodes[0].eval(v);
+                    for (int i = 1; i < nodes.length; i++) {
+                        result = Math.min(result, nodes[i].eval(v));
+                    }
+                    return result;
+                }, nodes);
+            }
+            case "max" -> {
+                checkArity(name, args, 1, Integer.MAX_VALUE);
+                yield fold(v -> {
+                    double result = nodes[0].eval(v);
+                    for (int i = 1; i < nodes.length; i++) {
+                        result = Math.max(result, nodes[i].eval(v));
+                    }
+                    return result;
+                }, nodes);
+            }
+            case "sum" -> fold(v -> {
+                double result = 0;
+                for (Node node : nodes) {
+                    result += node.eval(v);
+                }
+                return result;
+            }, nodes);
+            case "avg" -> {
+                checkArity(name, args, 1, Integer.MAX_VALUE);
+                yield fold(v -> {
+                    double result = 0;
+                    for (Node node : nodes) {
+                        result += node.eval(v);
+                    }
+                    return result / nodes.length;
+                }, nodes);
+            }
+            case "if" -> {
+                // Only the selected branch is evaluated
+                checkArity(name, args, 3, 3);
+                Node condition = nodes[0];
+                Node then = nodes[1];
+                Node otherwise = nodes[2];
+                if (condition instanceof Constant constant) {
+                    yield constant.value() != 0 ? then : otherwise;
+                }
+                yield v -> condition.eval(v) != 0 ? then.eval(v) : otherwise.eval(v);
+            }
+            default -> throw error("Unknown function: " + name);
+        };
+    }
+
+    private void checkArity(String name, List<Node> args, int min, int max) {
+        if (args.size() < min || args.size() > max) {
+            String expected = min == max ? String.valueOf(min) : max == Integer.MAX_VALUE ? "at least " + min : min + "-" + max;
+            throw error(name + "() takes " + expected + " argument(s), got " + args.size());
+        }
+    }
+
+    private static Node fold(Node node, Node... operands) {
+        for (Node operand : operands) {
+            if (!(operand instanceof Constant)) {
+                return node;
+            }
+        }
+        return new Constant(node.eval(null));
+    }
+
+    private Node number() {
+        int start = pos;
+        while (pos < text.length() && (Character.isDigit(text.charAt(pos)) || text.charAt(pos) == '.')) {
+            pos++;
+        }
+        if (pos < text.length() && (text.charAt(pos) == 'e' || text.charAt(pos) == 'E')) {
+            int mark = pos++;
+            if (pos < text.length() && (text.charAt(pos) == '+' || text.charAt(pos) == '-')) {
+                pos++;
+            }
+            if (pos < text.length() && Character.isDigit(text.charAt(pos))) {
+                while (pos < text.length() && Character.isDigit(text.charAt(pos))) {
+                    pos++;
+                }
+            } else {
+                pos = mark; // not an exponent; the trailing name is rejected by the caller
+            }
+        }
+        try {
+            return new Constant(Double.parseDouble(text.substring(start, pos)));
+        } catch (NumberFormatException e) {
+            throw error("Invalid number '" + text.substring(start, pos) + "'");
+        }
+    }
+
+    private String identifier() {
+        int start = pos;
+        while (pos < text.length() && (Character.isLetterOrDigit(text.charAt(pos)) || text.charAt(pos) == '_')) {
+            pos++;
+        }
+        return text.substring(start, pos);
+    }
+
+    private void enter() {
+        if (++depth > MAX_DEPTH) {
+            throw error("Expression nested too deeply");
+        }
+    }
+
+    private boolean match(char expected) {
+        skipWhitespace();
+        if (pos < text.length() && text.charAt(pos) == expected) {
+            pos++;
+            return true;
+        }
+        return false;
+    }
+
+    private String matchAny(String... operators) {
+        skipWhitespace();
+        for (String operator : operators) {
+            if (text.startsWith(operator, pos)) {
+                pos += operator.length();
+                return operator;
+            }
+        }
+        return null;
+    }
+
+    private boolean peekIs(String operator) {
+        skipWhitespace();
+        return text.startsWith(operator, pos);
+    }
+
+    private void expect(char expected) {
+        if (!match(expected)) {
+            throw error(pos < text.length() ? "Expected '" + expected + "' but found '" + text.charAt(pos) + "'"
+                    : "Expected '" + expected + "' at end of expression");
+        }
+    }
+
+    private void skipWhitespace() {
+        while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+            pos++;
+        }
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(message + " at position " + pos + " in expression: " + text);
+    }
+}
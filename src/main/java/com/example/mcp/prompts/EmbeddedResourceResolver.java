@@ -0,0 +1,166 @@
+package com.example.mcp.prompts;
+
+import com.example.mcp.resources.BlobResourceContent;
+import com.example.mcp.resources.ResourceRequestHandler;
+import com.example.mcp.resources.TextResourceContent;
+import com.example.mcp.server.McpException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Turns rendered prompt parts into prompt messages, reading the embedded resources through the
+ * resource providers. All resources of a prompt are read in parallel, each only up to what the
+ * budget could still admit, and then fitted into {@code max-total-bytes} in the order they
+ * appear: text beyond the budget is truncated, and binary content that does not fit is replaced
+ * by a note. Binary content counts at its base64 size, as that is what goes on the wire. A
+ * resource that cannot be read is replaced by a note too, leaving the rest of the prompt intact.
+ */
+@Component
+public class EmbeddedResourceResolver {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmbeddedResourceResolver.class);
+
+    private final ResourceRequestHandler resources;
+    private final long maxTotalBytes;
+    private final long maxResourceBytes;
+    private final long timeoutMillis;
+
+    @Autowired
+    public EmbeddedResourceResolver(ResourceRequestHandler resources,
+                                    @Value("${mcp.prompts.embed.max-total-bytes:262144}") long maxTotalBytes,
+                                    @Value("${mcp.prompts.embed.max-resource-bytes:65536}") long maxResourceBytes,
+                                    @Value("${mcp.prompts.embed.timeout-ms:10000}") long timeoutMillis) {
+        this.resources = resources;
+        this.maxTotalBytes = maxTotalBytes;
+        this.maxResourceBytes = Math.min(maxResourceBytes, maxTotalBytes);
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    public CompletableFuture<List<Map<String, Object>>> toMessages(List<PromptTemplate.Part> parts, String role) {
+        Map<String, CompletableFuture<Object>> reads = new LinkedHashMap<>();
+        for (PromptTemplate.Part part : parts) {
+            if (part instanceof PromptTemplate.Embed embed) {
+                reads.computeIfAbsent(embed.uri(), uri -> resources.readContent(uri, maxResourceBytes)
+                        .copy().orTimeout(timeoutMillis, TimeUnit.MILLISECONDS)
+                        .exceptionally(EmbeddedResourceResolver::unwrap));
+            }
+        }
+
+        return CompletableFuture.allOf(reads.values().toArray(new CompletableFuture<?>[0]))
+                .thenApply(ignored -> {
+                    List<Map<String, Object>> messages = new ArrayList<>();
+                    long remaining = maxTotalBytes;
+                    for (PromptTemplate.Part part : parts) {
+                        if (part instanceof PromptTemplate.Text text) {
+                            if (!text.text().isBlank()) {
+                                messages.add(message(role, textContent(text.text())));
+                            }
+                            continue;
+                        }
+                        String uri = ((PromptTemplate.Embed) part).uri();
+                        Object content = reads.get(uri).join();
+                        long allowed = Math.min(maxResourceBytes, remaining);
+                        Fitted fitted = fit(uri, content, allowed);
+                        remaining -= fitted.bytes();
+                        messages.add(message(role, fitted.content()));
+                    }
+                    logger.debug("Embedded {} resources using {} of {} bytes", reads.size(),
+                            maxTotalBytes - remaining, maxTotalBytes);
+                    return messages;
+                });
+    }
+
+    private record Fitted(Map<String, Object> content, long bytes) {
+    }
+
+    private static Throwable unwrap(Throwable failure) {
+        return failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+    }
+
+    private static Fitted fit(String uri, Object content, long allowed) {
+        if (content instanceof Throwable failure) {
+            String reason = failure instanceof TimeoutException ? "timed out"
+                    : failure instanceof McpException mcp ? mcp.getError().getMessage()
+                    : failure.getMessage();
+            logger.warn("Could not embed {}: {}", uri, reason);
+            return new Fitted(textContent("[" + uri + " unavailable: " + reason + "]"), 0);
+        }
+        if (content instanceof BlobResourceContent blob) {
+            long encoded = base64Length(blob.getSize());
+            if (encoded <= allowed) {
+                return new Fitted(resourceContent(blob), encoded);
+            }
+            return new Fitted(textContent("[" + uri + " (" + blob.getMimeType() + ", " + blob.getSize()
+                    + " bytes) omitted: exceeds the embedded resource budget]"), 0);
+        }
+
+        TextResourceContent text = (TextResourceContent) content;
+        int cut = utf8Prefix(text.getText(), allowed);
+        if (cut == text.getText().length()) {
+            return new Fitted(resourceContent(text), utf8Length(text.getText(), cut));
+        }
+        if (cut == 0) {
+            return new Fitted(textContent("[" + uri + " omitted: embedded resource budget exhausted]"), 0);
+        }
+        String kept = text.getText().substring(0, cut);
+        TextResourceContent truncated = new TextResourceContent(text.getUri(), text.getMimeType(),
+                kept + "\n[... truncated after " + allowed + " bytes]");
+        return new Fitted(resourceContent(truncated), utf8Length(kept, cut));
+    }
+
+    private static Map<String, Object> message(String role, Map<String, Object> content) {
+        return Map.of("role", role, "content", content);
+    }
+
+    private static Map<String, Object> textContent(String text) {
+        return Map.of("type", "text", "text", text);
+    }
+
+    private static Map<String, Object> resourceContent(Object resource) {
+        return Map.of("type", "resource", "resource", resource);
+    }
+
+    static long base64Length(long bytes) {
+        return 4 * ((bytes + 2) / 3);
+    }
+
+    /**
+     * The number of chars of {@code text} whose UTF-8 encoding fits in {@code maxBytes}, never
+     * splitting a surrogate pair.
+     */
+    static int utf8Prefix(String text, long maxBytes) {
+        long bytes = 0;
+        int i = 0;
+        while (i < text.length()) {
+            char c = text.charAt(i);
+            int width = c < 0x80 ? 1 : c < 0x800 ? 2 : Character.isHighSurrogate(c) ? 4 : 3;
+            if (bytes + width > maxBytes) {
+                break;
+            }
+            bytes += width;
+            i += width == 4 ? 2 : 1;
+        }
+        return Math.min(i, text.length());
+    }
+
+    private static long utf8Length(String text, int chars) {
+        long bytes = 0;
+        for (int i = 0; i < chars; i++) {
+            char c = text.charAt(i);
+            bytes += c < 0x80 ? 1 : c < 0x800 ? 2 : Character.isSurrogate(c) ? 2 : 3;
+        }
+        return bytes;
+    }
+}
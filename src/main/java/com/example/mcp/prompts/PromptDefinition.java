@@ -0,0 +1,125 @@
+package com.example.mcp.prompts;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A prompt loaded from a {@code .prompt} file: an optional JSON header between two {@code ---}
+ * lines, followed by the {@link PromptTemplate} body.
+ *
+ * <pre>
+ * ---
+ * { "description": "...", "role": "user", "arguments": [ { "name": "language", "required": true } ] }
+ * ---
+ * Review this {{language}} code.
+ * </pre>
+ *
+ * The prompt's name is the file name without extension. Without an {@code arguments} list in the
+ * header, every top-level template variable becomes an optional string argument.
+ */
+public record PromptDefinition(String name, String description, String role,
+                               List<Map<String, Object>> arguments, Map<String, Object> metadata,
+                               PromptTemplate template) {
+
+    public static final String EXTENSION = ".prompt";
+
+    private static final String DELIMITER = "---";
+    private static final ObjectMapper HEADER_MAPPER = new ObjectMapper();
+
+    /**
+     * @throws IllegalArgumentException if the header or the template is malformed
+     */
+    public static PromptDefinition parse(String name, String text) {
+        String normalized = text.replace("\r\n", "\n");
+        Map<String, Object> header = Map.of();
+        String body = normalized;
+
+        if (normalized.startsWith(DELIMITER + "\n")) {
+            int end = normalized.indexOf("\n" + DELIMITER, DELIMITER.length());
+            int bodyStart = end + 1 + DELIMITER.length();
+            if (end < 0 || (bodyStart < normalized.length() && normalized.charAt(bodyStart) != '\n')) {
+                throw new IllegalArgumentException("Prompt '" + name + "' has an unterminated header");
+            }
+            String headerText = normalized.substring(Math.min(DELIMITER.length() + 1, end), end);
+            try {
+                if (!headerText.isBlank()) {
+                    header = HEADER_MAPPER.readValue(headerText, new TypeReference<Map<String, Object>>() {});
+                }
+            } catch (JsonProcessingException e) {
+                throw new IllegalArgumentException("Prompt '" + name + "' has an invalid header: "
+                        + e.getOriginalMessage());
+            }
+            body = bodyStart < normalized.length() ? normalized.substring(bodyStart + 1) : "";
+        }
+        // Editors add a final newline that is not part of the prompt
+        if (body.endsWith("\n")) {
+            body = body.substring(0, body.length() - 1);
+        }
+
+        PromptTemplate template;
+        try {
+            template = PromptTemplate.compile(body);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Prompt '" + name + "': " + e.getMessage());
+        }
+
+        return new PromptDefinition(
+                name,
+                header.getOrDefault("description", "").toString(),
+                header.getOrDefault("role", "user").toString(),
+                arguments(name, header.get("arguments"), template),
+                header.get("metadata") instanceof Map<?, ?> metadata ? copy(metadata) : null,
+                template);
+    }
+
+    /**
+     * Loads {@code prompts/<name>.prompt} from the classpath.
+     */
+    public static PromptDefinition fromClasspath(String name) {
+        String resource = "prompts/" + name + EXTENSION;
+        try (InputStream in = PromptDefinition.class.getClassLoader().getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalStateException("Prompt template not found on classpath: " + resource);
+            }
+            return parse(name, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read prompt template " + resource, e);
+        }
+    }
+
+    private static List<Map<String, Object>> arguments(String name, Object declared, PromptTemplate template) {
+        List<Map<String, Object>> arguments = new ArrayList<>();
+        if (declared == null) {
+            for (String variable : template.getVariables()) {
+                arguments.add(Map.of("name", variable, "required", false, "type", "string"));
+            }
+            return List.copyOf(arguments);
+        }
+        if (!(declared instanceof List<?> list)) {
+            throw new IllegalArgumentException("Prompt '" + name + "': 'arguments' must be an array");
+        }
+        for (Object entry : list) {
+            if (!(entry instanceof Map<?, ?> argument) || !(argument.get("name") instanceof String)) {
+                throw new IllegalArgumentException("Prompt '" + name + "': every argument needs a 'name'");
+            }
+            arguments.add(copy(argument));
+        }
+        return List.copyOf(arguments);
+    }
+
+    private static Map<String, Object> copy(Map<?, ?> map) {
+        Map<String, Object> copy = new LinkedHashMap<>();
+        map.forEach((key, value) -> copy.put(String.valueOf(key), value));
+        return copy;
+    }
+}
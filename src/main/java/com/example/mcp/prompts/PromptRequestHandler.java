@@ -0,0 +1,91 @@
+package com.example.mcp.prompts;
+
+import com.example.mcp.server.McpError;
+import com.example.mcp.server.McpException;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Serves {@code prompts/list} and {@code prompts/get} from prompt provider beans and from the
+ * templates in {@link PromptTemplateRegistry}. A bean wins over a template of the same name.
+ */
+@Component
+public class PromptRequestHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(PromptRequestHandler.class);
+
+    private final Map<String, McpPromptProvider> providers = new LinkedHashMap<>();
+    private final PromptTemplateRegistry templates;
+
+    @Autowired
+    public PromptRequestHandler(ObjectProvider<McpPromptProvider> providers, PromptTemplateRegistry templates) {
+        providers.orderedStream().forEach(provider -> this.providers.put(provider.getName(), provider));
+        this.templates = templates;
+
+        logger.info("Prompt handler initialized with {} providers: {}", this.providers.size(), this.providers.keySet());
+    }
+
+    public CompletableFuture<Object> list(JsonNode params) {
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (McpPromptProvider provider : providers.values()) {
+            if (provider.isEnabled()) {
+                result.add(describe(provider));
+            }
+        }
+        for (McpPromptProvider provider : templates.getPrompts()) {
+            if (provider.isEnabled() && !providers.containsKey(provider.getName())) {
+                result.add(describe(provider));
+            }
+        }
+        return CompletableFuture.completedFuture(Map.of("prompts", result));
+    }
+
+    public CompletableFuture<Object> get(JsonNode params) {
+        if (params == null || !params.hasNonNull("name")) {
+            return CompletableFuture.failedFuture(
+                new McpException(McpError.invalidParams("Missing required parameter: name")));
+        }
+
+        String name = params.get("name").asText();
+        McpPromptProvider provider = providers.get(name);
+        if (provider == null) {
+            provider = templates.getPrompt(name);
+        }
+        if (provider == null || !provider.isEnabled()) {
+            return CompletableFuture.failedFuture(new McpException(McpError.invalidParams("Unknown prompt: " + name)));
+        }
+
+        return provider.getPrompt(params.get("arguments")).exceptionally(throwable -> {
+            Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null
+                ? throwable.getCause() : throwable;
+            if (cause instanceof McpException mcpException) {
+                throw mcpException;
+            }
+            // Providers wrap their failures; a missing or malformed argument is the caller's mistake
+            Throwable root = cause.getCause() != null ? cause.getCause() : cause;
+            if (root instanceof IllegalArgumentException) {
+                throw new McpException(McpError.invalidParams(root.getMessage()));
+            }
+            throw new McpException(McpError.promptError(name, root.getMessage()));
+        });
+    }
+
+    private static Map<String, Object> describe(McpPromptProvider provider) {
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("name", provider.getName());
+        entry.put("description", provider.getDescription());
+        entry.put("arguments", provider.getArguments());
+        return entry;
+    }
+}
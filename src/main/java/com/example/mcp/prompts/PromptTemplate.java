@@ -0,0 +1,474 @@
+package com.example.mcp.prompts;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+
+/**
+ * A prompt template compiled once into an array of literal and placeholder segments, so that
+ * rendering only looks up values and copies strings into a buffer of the exact output size.
+ *
+ * <p>The syntax is a small subset of Mustache:
+ * <ul>
+ *   <li>{@code {{name}}} inserts a value; {@code {{a.b}}} looks into maps and {@code {{.}}}
+ *       is the current list item. Filters can be chained: {@code {{name|humanize|upper}}}.</li>
+ *   <li>{@code {{#name}}...{{/name}}} renders its body once per list element, or once if the
+ *       value is true / non-empty; {@code {{^name}}...{{/name}}} renders when it is not.</li>
+ *   <li>{@code {{@name}}} embeds the resource whose URI is the value of {@code name}, and
+ *       {@code {{@"config://server"}}} a fixed one; see {@link #renderParts(Map)}.</li>
+ *   <li>{@code {{! comment }}} is dropped.</li>
+ * </ul>
+ * Section, embed and comment tags that sit alone on a line remove that whole line from the
+ * output. Values that are missing render as nothing.
+ */
+public final class PromptTemplate {
+
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+
+    private static final Map<String, UnaryOperator<String>> FILTERS = Map.of(
+            "upper", s -> s.toUpperCase(Locale.ROOT),
+            "lower", s -> s.toLowerCase(Locale.ROOT),
+            "trim", String::trim,
+            "capitalize", PromptTemplate::capitalize,
+            "humanize", s -> capitalize(s.replace('_', ' ')));
+
+    private final String source;
+    private final Segment[] segments;
+    private final Set<String> variables;
+    private final boolean embeds;
+
+    /**
+     * A piece of rendered output: either text or a resource to embed at that point.
+     */
+    public sealed interface Part permits Text, Embed {
+    }
+
+    public record Text(String text) implements Part {
+    }
+
+    public record Embed(String uri) implements Part {
+    }
+
+    private PromptTemplate(String source, Segment[] segments, Set<String> variables, boolean embeds) {
+        this.source = source;
+        this.segments = segments;
+        this.variables = variables;
+        this.embeds = embeds;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the template is malformed, with the offending position
+     */
+    public static PromptTemplate compile(String source) {
+        Compiler compiler = new Compiler(source);
+        Segment[] segments = compiler.compile();
+        return new PromptTemplate(source, segments, Collections.unmodifiableSet(compiler.variables), compiler.embeds);
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    /**
+     * Names the template reads from the top-level context, in order of first use.
+     */
+    public Set<String> getVariables() {
+        return variables;
+    }
+
+    public boolean hasEmbeds() {
+        return embeds;
+    }
+
+    /**
+     * Renders the template as text; embedded resources are left out.
+     */
+    public String render(Map<String, ?> context) {
+        return renderInto(context).toString();
+    }
+
+    /**
+     * Renders the template as text split around the resources it embeds. Only embeds that are
+     * actually reached appear, so resources inside a section that is skipped are never named.
+     */
+    public List<Part> renderParts(Map<String, ?> context) {
+        return renderInto(context).finish();
+    }
+
+    private Output renderInto(Map<String, ?> context) {
+        Output out = new Output(segments.length);
+        Scope scope = new Scope(context, null);
+        for (Segment segment : segments) {
+            segment.render(scope, out);
+        }
+        return out;
+    }
+
+    private static String capitalize(String s) {
+        if (s.isEmpty()) {
+            return s;
+        }
+        return Character.toUpperCase(s.charAt(0)) + s.substring(1);
+    }
+
+    static String stringify(Object value) {
+        if (value == null) {
+            return "";
+        }
+        if (value instanceof String s) {
+            return s;
+        }
+        if (value instanceof Collection<?> collection) {
+            StringBuilder joined = new StringBuilder();
+            for (Object item : collection) {
+                if (!joined.isEmpty()) {
+                    joined.append(", ");
+                }
+                joined.append(stringify(item));
+            }
+            return joined.toString();
+        }
+        return String.valueOf(value);
+    }
+
+    private static boolean isTruthy(Object value) {
+        if (value == null || Boolean.FALSE.equals(value)) {
+            return false;
+        }
+        if (value instanceof Collection<?> collection) {
+            return !collection.isEmpty();
+        }
+        if (value instanceof CharSequence text) {
+            return !text.isEmpty();
+        }
+        return true;
+    }
+
+    /**
+     * Collects rendered pieces and their total length, then copies them once into a buffer of
+     * exactly that size.
+     */
+    private static final class Output {
+        private final List<Part> finished = new ArrayList<>();
+        private String[] parts;
+        private int count;
+        private int length;
+
+        Output(int expectedParts) {
+            this.parts = new String[Math.max(8, expectedParts)];
+        }
+
+        void embed(String uri) {
+            if (count > 0) {
+                finished.add(new Text(toString()));
+                count = 0;
+                length = 0;
+            }
+            finished.add(new Embed(uri));
+        }
+
+        List<Part> finish() {
+            if (count > 0) {
+                finished.add(new Text(toString()));
+            }
+            return finished;
+        }
+
+        void append(String part) {
+            if (part.isEmpty()) {
+                return;
+            }
+            if (count == parts.length) {
+                parts = Arrays.copyOf(parts, count * 2);
+            }
+            parts[count++] = part;
+            length += part.length();
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder buffer = new StringBuilder(length);
+            for (int i = 0; i < count; i++) {
+                buffer.append(parts[i]);
+            }
+            return buffer.toString();
+        }
+    }
+
+    private record Scope(Object value, Scope parent) {
+
+        Object lookup(String[] path) {
+            Object current = null;
+            if (path.length == 0) {
+                return value;
+            }
+            for (Scope scope = this; scope != null; scope = scope.parent) {
+                if (scope.value instanceof Map<?, ?> map && map.containsKey(path[0])) {
+                    current = map.get(path[0]);
+                    break;
+                }
+            }
+            for (int i = 1; i < path.length && current != null; i++) {
+                current = current instanceof Map<?, ?> map ? map.get(path[i]) : null;
+            }
+            return current;
+        }
+    }
+
+    private interface Segment {
+        void render(Scope scope, Output out);
+    }
+
+    private record Literal(String text) implements Segment {
+        @Override
+        public void render(Scope scope, Output out) {
+            out.append(text);
+        }
+    }
+
+    private record Variable(String[] path, UnaryOperator<String> filter) implements Segment {
+        @Override
+        public void render(Scope scope, Output out) {
+            String text = stringify(scope.lookup(path));
+            out.append(filter == null || text.isEmpty() ? text : filter.apply(text));
+        }
+    }
+
+    private record EmbedSegment(String uri, String[] path) implements Segment {
+        @Override
+        public void render(Scope scope, Output out) {
+            String target = uri != null ? uri : stringify(scope.lookup(path)).trim();
+            if (!target.isEmpty()) {
+                out.embed(target);
+            }
+        }
+    }
+
+    private record Section(String[] path, boolean inverted, Segment[] body) implements Segment {
+        @Override
+        public void render(Scope scope, Output out) {
+            Object value = scope.lookup(path);
+            if (inverted) {
+                if (!isTruthy(value)) {
+                    renderBody(scope, out);
+                }
+                return;
+            }
+            if (!isTruthy(value)) {
+                return;
+            }
+            if (value instanceof Collection<?> items) {
+                for (Object item : items) {
+                    renderBody(new Scope(item, scope), out);
+                }
+            } else {
+                renderBody(new Scope(value, scope), out);
+            }
+        }
+
+        private void renderBody(Scope scope, Output out) {
+            for (Segment segment : body) {
+                segment.render(scope, out);
+            }
+        }
+    }
+
+    private static final class Compiler {
+        private final String source;
+        private final Set<String> variables = new LinkedHashSet<>();
+        private final Deque<Frame> frames = new ArrayDeque<>();
+        private StringBuilder literal = new StringBuilder();
+        private int position;
+        private boolean embeds;
+
+        private record Frame(String name, boolean inverted, int offset, List<Segment> segments) {
+        }
+
+        Compiler(String source) {
+            this.source = source;
+        }
+
+        Segment[] compile() {
+            frames.push(new Frame(null, false, 0, new ArrayList<>()));
+            while (position < source.length()) {
+                int open = source.indexOf(OPEN, position);
+                if (open < 0) {
+                    literal.append(source, position, source.length());
+                    break;
+                }
+                int close = source.indexOf(CLOSE, open + OPEN.length());
+                if (close < 0) {
+                    throw error("Unclosed tag", open);
+                }
+                literal.append(source, position, open);
+                position = close + CLOSE.length();
+
+                String tag = source.substring(open + OPEN.length(), close).trim();
+                if (tag.isEmpty()) {
+                    throw error("Empty tag", open);
+                }
+                char kind = tag.charAt(0);
+                if (kind == '!' || kind == '#' || kind == '^' || kind == '/' || kind == '@') {
+                    trimStandaloneLine(open);
+                    String name = tag.substring(1).trim();
+                    switch (kind) {
+                        case '#', '^' -> openSection(name, kind == '^', open);
+                        case '/' -> closeSection(name, open);
+                        case '@' -> embed(name, open);
+                        default -> {
+                        }
+                    }
+                } else {
+                    flushLiteral();
+                    current().segments().add(variable(tag, open));
+                }
+            }
+            flushLiteral();
+
+            Frame root = frames.pop();
+            if (!frames.isEmpty() || root.name() != null) {
+                throw error("Unclosed section '" + root.name() + "'", root.offset());
+            }
+            return root.segments().toArray(new Segment[0]);
+        }
+
+        private Frame current() {
+            return frames.peek();
+        }
+
+        private void openSection(String name, boolean inverted, int offset) {
+            String[] path = path(name, offset);
+            flushLiteral();
+            noteVariable(path);
+            frames.push(new Frame(name, inverted, offset, new ArrayList<>()));
+        }
+
+        private void closeSection(String name, int offset) {
+            Frame frame = current();
+            if (frame.name() == null) {
+                throw error("Unexpected closing tag '" + name + "'", offset);
+            }
+            if (!frame.name().equals(name)) {
+                throw error("Closing tag '" + name + "' does not match open section '" + frame.name() + "'", offset);
+            }
+            flushLiteral();
+            frames.pop();
+            current().segments().add(new Section(path(frame.name(), frame.offset()), frame.inverted(),
+                    frame.segments().toArray(new Segment[0])));
+        }
+
+        private void embed(String target, int offset) {
+            Segment segment;
+            if (target.length() >= 2 && target.startsWith("\"") && target.endsWith("\"")) {
+                String uri = target.substring(1, target.length() - 1).trim();
+                if (uri.isEmpty()) {
+                    throw error("Empty resource URI", offset);
+                }
+                segment = new EmbedSegment(uri, null);
+            } else {
+                String[] path = path(target, offset);
+                noteVariable(path);
+                segment = new EmbedSegment(null, path);
+            }
+            flushLiteral();
+            current().segments().add(segment);
+            embeds = true;
+        }
+
+        private Segment variable(String tag, int offset) {
+            String[] parts = tag.split("\\|");
+            String[] path = path(parts[0].trim(), offset);
+            noteVariable(path);
+
+            UnaryOperator<String> filter = null;
+            for (int i = 1; i < parts.length; i++) {
+                String filterName = parts[i].trim();
+                UnaryOperator<String> next = FILTERS.get(filterName);
+                if (next == null) {
+                    throw error("Unknown filter '" + filterName + "'", offset);
+                }
+                UnaryOperator<String> previous = filter;
+                filter = previous == null ? next : s -> next.apply(previous.apply(s));
+            }
+            return new Variable(path, filter);
+        }
+
+        private String[] path(String name, int offset) {
+            if (name.equals(".")) {
+                return new String[0];
+            }
+            if (name.isEmpty() || name.startsWith(".") || name.endsWith(".") || name.contains("..")) {
+                throw error("Invalid name '" + name + "'", offset);
+            }
+            for (int i = 0; i < name.length(); i++) {
+                char c = name.charAt(i);
+                if (!Character.isLetterOrDigit(c) && c != '_' && c != '-' && c != '.') {
+                    throw error("Invalid name '" + name + "'", offset);
+                }
+            }
+            return name.split("\\.");
+        }
+
+        private void noteVariable(String[] path) {
+            // Names inside sections may refer to the current item, so only top-level ones are known inputs
+            if (path.length > 0 && frames.size() == 1) {
+                variables.add(path[0]);
+            }
+        }
+
+        /**
+         * Drops the line holding the tag at {@code open} if it contains nothing else but whitespace.
+         */
+        private void trimStandaloneLine(int open) {
+            int lineStart = source.lastIndexOf('\n', open - 1) + 1;
+            int lineEnd = source.indexOf('\n', position);
+            int end = lineEnd < 0 ? source.length() : lineEnd;
+            if (!isBlank(lineStart, open) || !isBlank(position, end)) {
+                return;
+            }
+            literal.setLength(literal.length() - (open - lineStart));
+            position = lineEnd < 0 ? end : lineEnd + 1;
+        }
+
+        private boolean isBlank(int from, int to) {
+            for (int i = from; i < to; i++) {
+                char c = source.charAt(i);
+                if (c != ' ' && c != '\t' && c != '\r') {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void flushLiteral() {
+            if (!literal.isEmpty()) {
+                current().segments().add(new Literal(literal.toString()));
+                literal = new StringBuilder();
+            }
+        }
+
+        private IllegalArgumentException error(String message, int offset) {
+            int line = 1;
+            int column = 1;
+            for (int i = 0; i < offset && i < source.length(); i++) {
+                if (source.charAt(i) == '\n') {
+                    line++;
+                    column = 1;
+                } else {
+                    column++;
+                }
+            }
+            return new IllegalArgumentException(message + " at line " + line + ", column " + column);
+        }
+    }
+}
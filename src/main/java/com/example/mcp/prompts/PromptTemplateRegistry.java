@@ -0,0 +1,215 @@
+package com.example.mcp.prompts;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Prompt templates loaded from {@code prompts/*.prompt} on the classpath and from
+ * {@code mcp.prompts.directory}, where a file overrides the bundled prompt of the same name.
+ * Templates are compiled when loaded. With hot reload on, the directory is watched and every
+ * change publishes a complete new set at once; a file that fails to compile keeps serving its
+ * last good version.
+ */
+@Component
+public class PromptTemplateRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(PromptTemplateRegistry.class);
+
+    // Editors often write a file in several steps; wait for them to settle before reloading
+    private static final long SETTLE_MILLIS = 200;
+
+    private record Loaded(long size, long modified, TemplatePromptProvider provider) {
+    }
+
+    private final Path directory;
+    private final boolean hotReload;
+    private final EmbeddedResourceResolver resolver;
+
+    private final Map<String, TemplatePromptProvider> bundled = new LinkedHashMap<>();
+    private final Map<Path, Loaded> loadedFiles = new HashMap<>();
+    private volatile Map<String, TemplatePromptProvider> prompts = Map.of();
+
+    private WatchService watchService;
+    private Thread watcherThread;
+    private volatile boolean running;
+
+    @Autowired
+    public PromptTemplateRegistry(@Value("${mcp.prompts.directory:./prompts}") String directory,
+                                  @Value("${mcp.prompts.hot-reload:true}") boolean hotReload,
+                                  EmbeddedResourceResolver resolver) {
+        this.directory = Paths.get(directory).toAbsolutePath().normalize();
+        this.hotReload = hotReload;
+        this.resolver = resolver;
+    }
+
+    @PostConstruct
+    public void start() {
+        loadBundled();
+        reload();
+
+        if (!hotReload) {
+            return;
+        }
+        try {
+            // Created up front so that templates added later are still picked up
+            Files.createDirectories(directory);
+            watchService = directory.getFileSystem().newWatchService();
+            directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+        } catch (IOException e) {
+            logger.warn("Cannot watch prompt directory {}, hot reload disabled: {}", directory, e.getMessage());
+            return;
+        }
+
+        running = true;
+        watcherThread = new Thread(this::watchLoop, "prompt-template-watcher");
+        watcherThread.setDaemon(true);
+        watcherThread.start();
+        logger.info("Watching {} for prompt template changes", directory);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                logger.debug("Error closing watch service: {}", e.getMessage());
+            }
+        }
+        if (watcherThread != null) {
+            watcherThread.interrupt();
+        }
+    }
+
+    public Collection<TemplatePromptProvider> getPrompts() {
+        return prompts.values();
+    }
+
+    public TemplatePromptProvider getPrompt(String name) {
+        return prompts.get(name);
+    }
+
+    /**
+     * Re-reads the prompt directory. Unchanged files are not recompiled.
+     */
+    public synchronized void reload() {
+        Map<String, TemplatePromptProvider> next = new LinkedHashMap<>(bundled);
+        Map<Path, Loaded> seen = new HashMap<>();
+
+        if (Files.isDirectory(directory)) {
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + PromptDefinition.EXTENSION)) {
+                for (Path file : files) {
+                    Loaded loaded = load(file);
+                    if (loaded != null) {
+                        seen.put(file, loaded);
+                        next.put(loaded.provider().getName(), loaded.provider());
+                    }
+                }
+            } catch (IOException e) {
+                logger.warn("Failed to list prompt directory {}: {}", directory, e.getMessage());
+                return;
+            }
+        }
+
+        loadedFiles.keySet().retainAll(seen.keySet());
+        loadedFiles.putAll(seen);
+        prompts = Collections.unmodifiableMap(next);
+        logger.debug("Prompt templates available: {}", next.keySet());
+    }
+
+    private Loaded load(Path file) {
+        Loaded previous = loadedFiles.get(file);
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            if (!attributes.isRegularFile()) {
+                return null;
+            }
+            long modified = attributes.lastModifiedTime().toMillis();
+            if (previous != null && previous.size() == attributes.size() && previous.modified() == modified) {
+                return previous;
+            }
+
+            String fileName = file.getFileName().toString();
+            String name = fileName.substring(0, fileName.length() - PromptDefinition.EXTENSION.length());
+            PromptDefinition definition = PromptDefinition.parse(name, Files.readString(file, StandardCharsets.UTF_8));
+            if (previous != null) {
+                logger.info("Reloaded prompt template {}", name);
+            }
+            return new Loaded(attributes.size(), modified, new TemplatePromptProvider(definition, resolver));
+        } catch (IOException | IllegalArgumentException e) {
+            logger.warn("Failed to load prompt template {}{}: {}", file,
+                    previous != null ? " (keeping previous version)" : "", e.getMessage());
+            return previous;
+        }
+    }
+
+    private void loadBundled() {
+        try {
+            Resource[] resources = new PathMatchingResourcePatternResolver()
+                    .getResources("classpath*:prompts/*" + PromptDefinition.EXTENSION);
+            for (Resource resource : resources) {
+                String fileName = resource.getFilename();
+                if (fileName == null) {
+                    continue;
+                }
+                String name = fileName.substring(0, fileName.length() - PromptDefinition.EXTENSION.length());
+                try (InputStream in = resource.getInputStream()) {
+                    PromptDefinition definition = PromptDefinition.parse(name,
+                            new String(in.readAllBytes(), StandardCharsets.UTF_8));
+                    bundled.put(name, new TemplatePromptProvider(definition, resolver));
+                } catch (IllegalArgumentException e) {
+                    logger.error("Bundled prompt template {} is invalid: {}", name, e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to load bundled prompt templates: {}", e.getMessage());
+        }
+        logger.info("Loaded {} bundled prompt templates", bundled.size());
+    }
+
+    private void watchLoop() {
+        while (running) {
+            try {
+                WatchKey key = watchService.take();
+                do {
+                    key.pollEvents();
+                    key.reset();
+                    key = watchService.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS);
+                } while (key != null);
+                reload();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            } catch (RuntimeException e) {
+                logger.warn("Prompt template reload failed: {}", e.getMessage(), e);
+            }
+        }
+    }
+}
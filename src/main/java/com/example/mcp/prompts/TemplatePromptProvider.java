@@ -1,143 +1,146 @@
 package com.example.mcp.prompts;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
-@Component
+/**
+ * Serves one {@link PromptDefinition}. Arguments are resolved against the declared defaults and
+ * rendered through the definition's compiled template; nothing is parsed per request. Templates
+ * that embed resources are answered once the {@link EmbeddedResourceResolver} has read them.
+ */
 public class TemplatePromptProvider extends AbstractPromptProvider {
 
+    private final PromptDefinition definition;
+    private final EmbeddedResourceResolver resolver;
+
+    public TemplatePromptProvider() {
+        this(PromptDefinition.fromClasspath("code_review"), null);
+    }
+
+    public TemplatePromptProvider(PromptDefinition definition, EmbeddedResourceResolver resolver) {
+        this.definition = definition;
+        this.resolver = resolver;
+    }
+
+    public PromptDefinition getDefinition() {
+        return definition;
+    }
+
     @Override
     public String getName() {
-        return "code_review";
+        return definition.name();
     }
 
     @Override
     public String getDescription() {
-        return "Generate a comprehensive code review prompt with customizable focus areas";
+        return definition.description();
     }
 
     @Override
     public List<Map<String, Object>> getArguments() {
-        return List.of(
-                Map.of(
-                        "name", "language",
-                        "description", "Programming language of the code being reviewed",
-                        "required", true,
-                        "type", "string"
-                ),
-                Map.of(
-                        "name", "focus_areas",
-                        "description", "Areas to focus on during review (e.g., security, performance, maintainability)",
-                        "required", false,
-                        "type", "array",
-                        "default", List.of("code_quality", "best_practices", "security")
-                ),
-                Map.of(
-                        "name", "experience_level",
-                        "description", "Target experience level (beginner, intermediate, advanced)",
-                        "required", false,
-                        "type", "string",
-                        "default", "intermediate"
-                ),
-                Map.of(
-                        "name", "include_suggestions",
-                        "description", "Whether to include improvement suggestions",
-                        "required", false,
-                        "type", "boolean",
-                        "default", true
-                )
-        );
+        return definition.arguments();
+    }
+
+    @Override
+    public CompletableFuture<Object> getPrompt(JsonNode arguments) {
+        if (!definition.template().hasEmbeds()) {
+            return super.getPrompt(arguments);
+        }
+        if (resolver == null) {
+            return CompletableFuture.failedFuture(new IllegalStateException(
+                    "Prompt '" + getName() + "' embeds resources, but no resolver is available"));
+        }
+
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return resolveArguments(arguments);
+            } catch (IllegalArgumentException e) {
+                throw new RuntimeException("Prompt generation failed: " + e.getMessage(), e);
+            }
+        }).thenCompose(values -> resolver.toMessages(definition.template().renderParts(values), definition.role())
+                .thenApply(messages -> response(values, messages)));
     }
 
     @Override
     protected Object doGetPrompt(JsonNode arguments) throws Exception {
-        requireArgument(arguments, "language");
+        Map<String, Object> values = resolveArguments(arguments);
+        String prompt = definition.template().render(values);
 
-        String language = getStringArgument(arguments, "language");
-        String experienceLevel = getStringArgument(arguments, "experience_level", "intermediate");
-        boolean includeSuggestions = getBooleanArgument(arguments, "include_suggestions", true);
+        return response(values, List.of(
+                Map.of(
+                        "role", definition.role(),
+                        "content", Map.of(
+                                "type", "text",
+                                "text", prompt
+                        )
+                )
+        ));
+    }
 
-        List<String> focusAreas = List.of("code_quality", "best_practices", "security");
-        if (arguments.has("focus_areas") && arguments.get("focus_areas").isArray()) {
-            focusAreas = objectMapper.convertValue(arguments.get("focus_areas"), List.class);
+    private Map<String, Object> resolveArguments(JsonNode arguments) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (Map<String, Object> argument : definition.arguments()) {
+            String name = (String) argument.get("name");
+            if (Boolean.TRUE.equals(argument.get("required"))) {
+                requireArgument(arguments, name);
+            }
+            JsonNode value = arguments != null ? arguments.get(name) : null;
+            Object resolved = value == null || value.isNull()
+                    ? argument.get("default")
+                    : convert(value, String.valueOf(argument.get("type")));
+            if (resolved != null) {
+                values.put(name, resolved);
+            }
         }
+        return values;
+    }
 
-        String prompt = generateCodeReviewPrompt(language, focusAreas, experienceLevel, includeSuggestions);
-
+    private Map<String, Object> response(Map<String, Object> values, List<Map<String, Object>> messages) {
         return Map.of(
                 "name", getName(),
                 "description", getDescription(),
-                "arguments", Map.of(
-                        "language", language,
-                        "focus_areas", focusAreas,
-                        "experience_level", experienceLevel,
-                        "include_suggestions", includeSuggestions
-                ),
-                "messages", List.of(
-                        Map.of(
-                                "role", "system",
-                                "content", Map.of(
-                                        "type", "text",
-                                        "text", prompt
-                                )
-                        )
-                ),
+                "arguments", values,
+                "messages", messages,
                 "timestamp", LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME)
         );
     }
 
-    private String generateCodeReviewPrompt(String language, List<String> focusAreas,
-                                          String experienceLevel, boolean includeSuggestions) {
-        StringBuilder prompt = new StringBuilder();
-
-        prompt.append("You are an expert ").append(language).append(" code reviewer. ");
-        prompt.append("Please conduct a thorough code review with the following guidelines:\n\n");
-
-        prompt.append("**Experience Level**: ").append(experienceLevel).append("\n");
-        prompt.append("**Focus Areas**:\n");
-        for (String area : focusAreas) {
-            prompt.append("- ").append(formatFocusArea(area)).append("\n");
-        }
-
-        prompt.append("\n**Review Process**:\n");
-        prompt.append("1. **Code Quality**: Assess readability, maintainability, and overall structure\n");
-        prompt.append("2. **Best Practices**: Check adherence to ").append(language).append(" conventions and standards\n");
-        prompt.append("3. **Security**: Identify potential security vulnerabilities\n");
-        prompt.append("4. **Performance**: Evaluate efficiency and optimization opportunities\n");
-        prompt.append("5. **Testing**: Review test coverage and quality\n\n");
-
-        if (includeSuggestions) {
-            prompt.append("**Output Format**:\n");
-            prompt.append("- Provide specific, actionable feedback\n");
-            prompt.append("- Include code snippets for improvements where applicable\n");
-            prompt.append("- Rate the overall code quality (1-10 scale)\n");
-            prompt.append("- Prioritize issues by severity (High/Medium/Low)\n\n");
+    /**
+     * MCP clients send prompt arguments as strings, so arrays may arrive comma-separated and
+     * booleans as text.
+     */
+    private Object convert(JsonNode value, String type) {
+        if (value.isTextual()) {
+            switch (type) {
+                case "array" -> {
+                    List<String> items = new ArrayList<>();
+                    for (String item : value.asText().split(",")) {
+                        if (!item.isBlank()) {
+                            items.add(item.trim());
+                        }
+                    }
+                    return items;
+                }
+                case "boolean" -> {
+                    return Boolean.parseBoolean(value.asText().trim());
+                }
+                default -> {
+                    return value.asText();
+                }
+            }
         }
-
-        prompt.append("Please provide a constructive review that helps improve code quality ");
-        prompt.append("while considering the ").append(experienceLevel).append(" experience level.");
-
-        return prompt.toString();
-    }
-
-    private String formatFocusArea(String area) {
-        return area.replace("_", " ")
-                  .substring(0, 1).toUpperCase() +
-                  area.replace("_", " ").substring(1);
+        return objectMapper.convertValue(value, Object.class);
     }
 
     @Override
     public Object getMetadata() {
-        return Map.of(
-                "category", "development",
-                "tags", List.of("code-review", "quality-assurance", "development"),
-                "languages", List.of("java", "python", "javascript", "typescript", "go", "rust", "c++", "c#"),
-                "template_version", "1.0"
-        );
+        return definition.metadata();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,271 @@
+package com.example.mcp.ratelimit;
+
+import com.example.mcp.config.McpServerConfig;
+import com.example.mcp.config.McpServerConfig.RateLimitConfig;
+import com.example.mcp.config.McpServerConfig.RateLimitConfig.Limit;
+import com.example.mcp.server.McpError;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Token-bucket limits on JSON-RPC requests per client (API key, session or remote address, as
+ * resolved by the transport) and on {@code tools/call} per tool name across all clients.
+ * A permitted request costs a map lookup and a CAS per bucket; refused requests get a
+ * {@link McpError#RATE_LIMITED} error saying when to retry.
+ *
+ * <p>Client buckets that have refilled completely are dropped by a background thread, so idle
+ * clients take no memory. Rejections are counted per key, for the first
+ * {@code mcp.rate-limit.max-metric-keys} keys; later ones are counted together as {@code other}.
+ */
+@Component
+public class RateLimiter implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimiter.class);
+
+    public static final String SCOPE_CLIENT = "client";
+    public static final String SCOPE_TOOL = "tool";
+
+    private static final String TOOLS_CALL = "tools/call";
+    private static final String OTHER_KEY = "other";
+    private static final String API_KEY_PREFIX = "key:";
+    private static final int MAX_TOOL_BUCKETS = 1024;
+
+    private final boolean enabled;
+    private final Limit clientLimit;
+    private final Limit defaultToolLimit;
+    private final Map<String, Limit> toolLimits;
+    private final long maintenanceIntervalMillis;
+    private final int maxMetricKeys;
+    private final LongSupplier ticker;
+
+    private final Map<String, TokenBucket> clientBuckets = new ConcurrentHashMap<>();
+    private final Map<String, TokenBucket> toolBuckets = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> rejections = new ConcurrentHashMap<>();
+    private final LongAdder permitted = new LongAdder();
+
+    private volatile MeterRegistry meterRegistry;
+    private ScheduledExecutorService maintenance;
+
+    public RateLimiter() {
+        this(new RateLimitConfig(), System::nanoTime);
+    }
+
+    @Autowired
+    public RateLimiter(McpServerConfig config) {
+        this(config.getRateLimit(), System::nanoTime);
+    }
+
+    RateLimiter(RateLimitConfig config, LongSupplier ticker) {
+        this.enabled = config.isEnabled();
+        this.clientLimit = config.getClient();
+        this.defaultToolLimit = config.getTool();
+        this.toolLimits = new HashMap<>(config.getTools());
+        this.maintenanceIntervalMillis = config.getMaintenanceIntervalMs();
+        this.maxMetricKeys = config.getMaxMetricKeys();
+        this.ticker = ticker;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            logger.info("Rate limiting disabled");
+            return;
+        }
+        if (maintenanceIntervalMillis > 0) {
+            maintenance = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "rate-limit-maintenance");
+                thread.setDaemon(true);
+                return thread;
+            });
+            maintenance.scheduleWithFixedDelay(this::cleanUp, maintenanceIntervalMillis, maintenanceIntervalMillis,
+                    TimeUnit.MILLISECONDS);
+        }
+        logger.info("Rate limiting enabled: {} req/s (burst {}) per client, {} tool overrides",
+                clientLimit.isUnlimited() ? "unlimited" : clientLimit.getRequestsPerSecond(),
+                clientLimit.getBurst(), toolLimits.size());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (maintenance != null) {
+            maintenance.shutdownNow();
+        }
+    }
+
+    /**
+     * Identifies the caller of an HTTP request by API key if it sent one, else by session, else
+     * by remote address.
+     */
+    public static String clientId(String apiKey, String sessionId, String remoteAddress) {
+        if (apiKey != null && !apiKey.isBlank()) {
+            return API_KEY_PREFIX + apiKey;
+        }
+        if (sessionId != null) {
+            return "session:" + sessionId;
+        }
+        return remoteAddress != null ? "ip:" + remoteAddress : null;
+    }
+
+    /**
+     * Takes a token for the request from the client's bucket and, for {@code tools/call}, from
+     * the tool's bucket. A request refused by its tool gets the client's token back.
+     *
+     * @param clientId the caller, or {@code null} if the transport cannot tell callers apart
+     * @return {@code null} if the request may proceed, otherwise the error to answer with
+     */
+    public McpError check(String clientId, String method, JsonNode params) {
+        if (!enabled) {
+            return null;
+        }
+        long now = ticker.getAsLong();
+
+        TokenBucket clientBucket = null;
+        if (clientId != null && !clientLimit.isUnlimited()) {
+            clientBucket = clientBuckets.get(clientId);
+            if (clientBucket == null) {
+                clientBucket = clientBuckets.computeIfAbsent(clientId, key -> newBucket(clientLimit, now));
+            }
+            long wait = clientBucket.tryAcquire(now);
+            if (wait > 0) {
+                return reject(SCOPE_CLIENT, clientId, null, wait);
+            }
+        }
+
+        if (TOOLS_CALL.equals(method) && params != null) {
+            String tool = params.path("name").asText(null);
+            TokenBucket bucket = tool != null ? toolBucket(tool, now) : null;
+            if (bucket != null) {
+                long wait = bucket.tryAcquire(now);
+                if (wait > 0) {
+                    if (clientBucket != null) {
+                        clientBucket.release();
+                    }
+                    return reject(SCOPE_TOOL, tool, tool, wait);
+                }
+            }
+        }
+
+        permitted.increment();
+        return null;
+    }
+
+    /**
+     * Drops client buckets that are full again; a new bucket would behave the same.
+     */
+    public void cleanUp() {
+        long now = ticker.getAsLong();
+        int before = clientBuckets.size();
+        clientBuckets.values().removeIf(bucket -> bucket.isFull(now));
+        logger.debug("Dropped {} idle client buckets", before - clientBuckets.size());
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("permitted", permitted.sum());
+        stats.put("clients", clientBuckets.size());
+        Map<String, Long> rejected = new LinkedHashMap<>();
+        rejections.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, LongAdder> e) -> e.getValue().sum()).reversed())
+                .forEach(e -> rejected.put(e.getKey(), e.getValue().sum()));
+        stats.put("rejected", rejected);
+        return stats;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("mcp.ratelimit.permitted", permitted, LongAdder::sum)
+                .description("Requests that passed the rate limits")
+                .register(registry);
+        meterRegistry = registry;
+        rejections.forEach((key, counter) -> registerRejections(registry, key, counter));
+    }
+
+    private TokenBucket toolBucket(String tool, long now) {
+        TokenBucket bucket = toolBuckets.get(tool);
+        if (bucket != null) {
+            return bucket;
+        }
+        Limit limit = toolLimits.getOrDefault(tool, defaultToolLimit);
+        if (limit.isUnlimited()) {
+            return null;
+        }
+        // Names come from the client and unknown ones only fail later, so bound the map
+        if (!toolLimits.containsKey(tool) && toolBuckets.size() >= MAX_TOOL_BUCKETS) {
+            return null;
+        }
+        return toolBuckets.computeIfAbsent(tool, key -> newBucket(limit, now));
+    }
+
+    private static TokenBucket newBucket(Limit limit, long now) {
+        return new TokenBucket(limit.getRequestsPerSecond(), Math.max(1, limit.getBurst()), now);
+    }
+
+    private McpError reject(String scope, String key, String tool, long waitNanos) {
+        String metricKey = scope + ":" + (SCOPE_CLIENT.equals(scope) ? mask(key) : key);
+        LongAdder counter = rejections.get(metricKey);
+        if (counter == null) {
+            if (rejections.size() >= maxMetricKeys) {
+                metricKey = scope + ":" + OTHER_KEY;
+            }
+            counter = rejectionCounter(metricKey);
+        }
+        counter.increment();
+
+        long retryAfterMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(waitNanos + 999_999));
+        logger.debug("Rate limited {}: retry after {} ms", metricKey, retryAfterMillis);
+        return McpError.rateLimited(scope, tool, retryAfterMillis);
+    }
+
+    private LongAdder rejectionCounter(String metricKey) {
+        LongAdder counter = new LongAdder();
+        LongAdder existing = rejections.putIfAbsent(metricKey, counter);
+        if (existing != null) {
+            return existing;
+        }
+        MeterRegistry registry = meterRegistry;
+        if (registry != null) {
+            registerRejections(registry, metricKey, counter);
+        }
+        return counter;
+    }
+
+    private static void registerRejections(MeterRegistry registry, String metricKey, LongAdder counter) {
+        int colon = metricKey.indexOf(':');
+        FunctionCounter.builder("mcp.ratelimit.rejected", counter, LongAdder::sum)
+                .tag("scope", metricKey.substring(0, colon))
+                .tag("key", metricKey.substring(colon + 1))
+                .description("Requests refused by a rate limit")
+                .register(registry);
+    }
+
+    /**
+     * API keys end up in metric tags and logs; keep only enough of them to tell clients apart.
+     */
+    static String mask(String clientId) {
+        if (!clientId.startsWith(API_KEY_PREFIX)) {
+            return clientId;
+        }
+        String key = clientId.substring(API_KEY_PREFIX.length());
+        return API_KEY_PREFIX + (key.length() <= 8 ? "****" : key.substring(0, 4) + "****");
+    }
+}
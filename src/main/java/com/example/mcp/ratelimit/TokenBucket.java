@@ -0,0 +1,68 @@
+package com.example.mcp.ratelimit;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A token bucket held in a single {@code long}: the time at which the bucket will be full again
+ * (the "theoretical arrival time" of the generic cell rate algorithm). Taking a token pushes it
+ * one refill interval further; the request is refused when that would put it more than a full
+ * bucket ahead of now. Refill needs no timer, and an acquire is one read and one CAS.
+ */
+final class TokenBucket {
+
+    private static final VarHandle FULL_AT;
+
+    static {
+        try {
+            FULL_AT = MethodHandles.lookup().findVarHandle(TokenBucket.class, "fullAt", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final long intervalNanos;
+    private final long capacityNanos;
+    private volatile long fullAt;
+
+    TokenBucket(double tokensPerSecond, int capacity, long nowNanos) {
+        if (tokensPerSecond <= 0 || capacity < 1) {
+            throw new IllegalArgumentException("A token bucket needs a positive rate and capacity");
+        }
+        this.intervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / tokensPerSecond));
+        this.capacityNanos = intervalNanos * capacity;
+        this.fullAt = nowNanos;
+    }
+
+    /**
+     * @return {@code 0} if a token was taken, otherwise the nanoseconds until one is available
+     */
+    long tryAcquire(long nowNanos) {
+        for (;;) {
+            long current = fullAt;
+            long next = Math.max(current, nowNanos) + intervalNanos;
+            long wait = next - nowNanos - capacityNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (FULL_AT.compareAndSet(this, current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Gives back a token taken by {@link #tryAcquire} for a request that was refused elsewhere.
+     */
+    void release() {
+        FULL_AT.getAndAdd(this, -intervalNanos);
+    }
+
+    /**
+     * A full bucket behaves exactly like a new one, so it can be dropped.
+     */
+    boolean isFull(long nowNanos) {
+        return fullAt - nowNanos <= 0;
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.mcp.resources;
 
+import com.example.mcp.server.McpError;
+import com.example.mcp.server.McpException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -13,15 +15,22 @@ public abstract class AbstractResourceProvider implements McpResourceProvider {
 
     @Override
     public CompletableFuture<Object> read() {
-        logger.debug("Reading resource: {}", getUri());
+        return read(getUri());
+    }
+
+    @Override
+    public CompletableFuture<Object> read(String uri) {
+        logger.debug("Reading resource: {}", uri);
 
         return CompletableFuture.supplyAsync(() -> {
             try {
-                Object data = doRead();
-                logger.debug("Resource {} read successfully", getUri());
+                Object data = getUri().equals(uri) ? doRead() : doRead(uri);
+                logger.debug("Resource {} read successfully", uri);
                 return data;
+            } catch (McpException e) {
+                throw e;
             } catch (Exception e) {
-                logger.error("Error reading resource {}: {}", getUri(), e.getMessage(), e);
+                logger.error("Error reading resource {}: {}", uri, e.getMessage(), e);
                 throw new RuntimeException("Resource read failed: " + e.getMessage(), e);
             }
         });
@@ -29,6 +38,10 @@ public abstract class AbstractResourceProvider implements McpResourceProvider {
 
     protected abstract Object doRead() throws Exception;
 
+    protected Object doRead(String uri) throws Exception {
+        throw new McpException(McpError.resourceNotFound(uri));
+    }
+
     protected void validateResource() throws Exception {
         if (getUri() == null || getUri().trim().isEmpty()) {
             throw new IllegalStateException("Resource URI cannot be null or empty");
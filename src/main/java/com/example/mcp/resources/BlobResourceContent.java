@@ -0,0 +1,85 @@
+package com.example.mcp.resources;
+
+import com.fasterxml.jackson.core.Base64Variants;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.WritableTypeId;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A {@code resources/read} content item whose {@code blob} field is base64-encoded straight from
+ * the file while the response is being written, so the bytes never pass through a heap String.
+ */
+public class BlobResourceContent implements JsonSerializable {
+
+    private final String uri;
+    private final String mimeType;
+    private final Path file;
+    private final long size;
+
+    public BlobResourceContent(String uri, String mimeType, Path file, long size) {
+        this.uri = uri;
+        this.mimeType = mimeType;
+        this.file = file;
+        this.size = size;
+    }
+
+    public String getUri() {
+        return uri;
+    }
+
+    public String getMimeType() {
+        return mimeType;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    @Override
+    public void serialize(JsonGenerator gen, SerializerProvider serializers) throws IOException {
+        gen.writeStartObject(this);
+        writeFields(gen);
+        gen.writeEndObject();
+    }
+
+    @Override
+    public void serializeWithType(JsonGenerator gen, SerializerProvider serializers, TypeSerializer typeSer)
+            throws IOException {
+        WritableTypeId typeId = typeSer.writeTypePrefix(gen, typeSer.typeId(this, JsonToken.START_OBJECT));
+        writeFields(gen);
+        typeSer.writeTypeSuffix(gen, typeId);
+    }
+
+    private void writeFields(JsonGenerator gen) throws IOException {
+        gen.writeStringField("uri", uri);
+        gen.writeStringField("mimeType", mimeType);
+        gen.writeFieldName("blob");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+             InputStream in = Channels.newInputStream(channel)) {
+            gen.writeBinary(Base64Variants.getDefaultVariant(), in, size > Integer.MAX_VALUE ? -1 : (int) size);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "BlobResourceContent{" +
+                "uri='" + uri + '\'' +
+                ", mimeType='" + mimeType + '\'' +
+                ", size=" + size +
+                '}';
+    }
+}
@@ -1,19 +1,52 @@
 package com.example.mcp.resources;
 
+import com.example.mcp.storage.ContentHashCache;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.GenericApplicationListener;
+import org.springframework.core.ResolvableType;
 import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Set;
 import java.util.TreeMap;
-
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Serves the server configuration from a snapshot that is built and JSON-encoded once, so a
+ * read costs no property lookups or serialization. The snapshot is rebuilt on context refresh
+ * and on Spring Cloud's environment change / refresh events when that library is present, and
+ * its version only moves when the configuration actually changed. Clients can poll
+ * {@value #VERSION_URI} or send the snapshot's {@code etag} as {@code ifNoneMatch}.
+ */
 @Component
-public class ConfigResourceProvider extends AbstractResourceProvider {
+public class ConfigResourceProvider extends AbstractResourceProvider implements GenericApplicationListener {
+
+    static final String VERSION_URI = "config://server/version";
+
+    // Named rather than referenced so that Spring Cloud stays an optional dependency
+    private static final Set<String> ENVIRONMENT_EVENTS = Set.of(
+            "org.springframework.cloud.context.environment.EnvironmentChangeEvent",
+            "org.springframework.cloud.context.scope.refresh.RefreshScopeRefreshedEvent");
+
+    private record Snapshot(long version, Map<String, Object> config, TextResourceContent content, String etag,
+                            TextResourceContent versionContent, String versionEtag) {
+    }
+
+    private final Environment environment;
+    private volatile Snapshot snapshot;
 
     @Autowired
-    private Environment environment;
+    public ConfigResourceProvider(Environment environment) {
+        this.environment = environment;
+        this.snapshot = build(1, readConfig());
+    }
 
     @Override
     public String getUri() {
@@ -35,12 +68,84 @@ public class ConfigResourceProvider extends AbstractResourceProvider {
         return "application/json";
     }
 
+    @Override
+    public boolean handles(String uri) {
+        return getUri().equals(uri) || VERSION_URI.equals(uri);
+    }
+
+    @Override
+    public CompletableFuture<Object> read(String uri) {
+        // Served from the snapshot on the caller's thread; there is nothing to wait for
+        Snapshot current = snapshot;
+        if (getUri().equals(uri)) {
+            return CompletableFuture.completedFuture(current.content());
+        }
+        if (VERSION_URI.equals(uri)) {
+            return CompletableFuture.completedFuture(current.versionContent());
+        }
+        return super.read(uri);
+    }
+
     @Override
     protected Object doRead() throws Exception {
-        validateResource();
+        return snapshot.content();
+    }
 
-        logger.info("Reading server configuration");
+    @Override
+    protected Object doRead(String uri) throws Exception {
+        return VERSION_URI.equals(uri) ? snapshot.versionContent() : super.doRead(uri);
+    }
 
+    @Override
+    public String getETag(String uri) {
+        Snapshot current = snapshot;
+        return VERSION_URI.equals(uri) ? current.versionEtag() : current.etag();
+    }
+
+    /**
+     * Spring asks this once per event type and caches the answer, so unrelated events such as
+     * the per-request {@code ServletRequestHandledEvent} are never delivered here.
+     */
+    @Override
+    public boolean supportsEventType(ResolvableType eventType) {
+        Class<?> type = eventType.toClass();
+        return ContextRefreshedEvent.class.isAssignableFrom(type) || ENVIRONMENT_EVENTS.contains(type.getName());
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationEvent event) {
+        refresh();
+    }
+
+    public long getSnapshotVersion() {
+        return snapshot.version();
+    }
+
+    /**
+     * Re-reads the environment and publishes a new snapshot if anything changed.
+     */
+    public synchronized void refresh() {
+        Map<String, Object> config = readConfig();
+        Snapshot current = snapshot;
+        if (config.equals(current.config())) {
+            return;
+        }
+        snapshot = build(current.version() + 1, config);
+        logger.info("Server configuration changed, snapshot version {}", snapshot.version());
+    }
+
+    @Override
+    public Object getMetadata() {
+        return Map.of(
+                "configSources", "application.yml, environment variables, system properties",
+                "refreshable", true,
+                "version", snapshot.version(),
+                "versionUri", VERSION_URI,
+                "sensitive", "passwords and secrets are excluded"
+        );
+    }
+
+    private Map<String, Object> readConfig() {
         Map<String, Object> mcpConfig = new TreeMap<>();
         mcpConfig.put("version", environment.getProperty("mcp.version", "2025-06-18"));
         mcpConfig.put("server.name", environment.getProperty("mcp.server.name", "Java MCP Server"));
@@ -66,24 +171,38 @@ public class ConfigResourceProvider extends AbstractResourceProvider {
         systemInfo.put("os.version", System.getProperty("os.version"));
         systemInfo.put("user.dir", System.getProperty("user.dir"));
 
-        return Map.of(
-                "uri", getUri(),
-                "name", getName(),
-                "description", getDescription(),
-                "mcp", mcpConfig,
-                "server", serverConfig,
-                "spring", springConfig,
-                "system", systemInfo,
-                "timestamp", LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME)
-        );
+        Map<String, Object> config = new LinkedHashMap<>();
+        config.put("mcp", mcpConfig);
+        config.put("server", serverConfig);
+        config.put("spring", springConfig);
+        config.put("system", systemInfo);
+        return config;
     }
 
-    @Override
-    public Object getMetadata() {
-        return Map.of(
-                "configSources", "application.yml, environment variables, system properties",
-                "refreshable", false,
-                "sensitive", "passwords and secrets are excluded"
-        );
+    private Snapshot build(long version, Map<String, Object> config) {
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+
+        Map<String, Object> document = new LinkedHashMap<>();
+        document.put("uri", getUri());
+        document.put("name", getName());
+        document.put("description", getDescription());
+        document.putAll(config);
+        document.put("version", version);
+        document.put("timestamp", timestamp);
+
+        Map<String, Object> versionDocument = new LinkedHashMap<>();
+        versionDocument.put("uri", getUri());
+        versionDocument.put("version", version);
+        versionDocument.put("timestamp", timestamp);
+
+        try {
+            String text = objectMapper.writeValueAsString(document);
+            String versionText = objectMapper.writeValueAsString(versionDocument);
+            return new Snapshot(version, config,
+                    new TextResourceContent(getUri(), getMimeType(), text), ContentHashCache.etag(text),
+                    new TextResourceContent(VERSION_URI, getMimeType(), versionText), ContentHashCache.etag(versionText));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to encode server configuration: " + e.getMessage(), e);
+        }
     }
-}
\ No newline at end of file
+}
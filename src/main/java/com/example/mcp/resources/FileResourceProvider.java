@@ -1,24 +1,60 @@
 package com.example.mcp.resources;
 
+import com.example.mcp.server.McpError;
+import com.example.mcp.server.McpException;
+import com.example.mcp.storage.ContentHashCache;
+import com.example.mcp.storage.DirectoryPager;
+import com.example.mcp.storage.FileMetadataCache;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.nio.file.attribute.PosixFilePermissions;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 @Component
 public class FileResourceProvider extends AbstractResourceProvider {
 
+    private static final String FILE_URI_PREFIX = "file://data/";
+    private static final long MAX_TEXT_SIZE = 1024 * 1024; // larger text files are delivered as blobs
+    private static final int RESOURCE_PAGE_SIZE = 1000;
+
     @Value("${mcp.resources.file.basePath:./data}")
     private String basePath;
 
+    @Value("${mcp.resources.file.max-inline-size:16777216}")
+    private long maxInlineSize;
+
+    private final FileMetadataCache metadataCache;
+    private final ContentHashCache contentHashes;
+
+    @Autowired
+    public FileResourceProvider(FileMetadataCache metadataCache, ContentHashCache contentHashes) {
+        this.metadataCache = metadataCache;
+        this.contentHashes = contentHashes;
+    }
+
     @Override
     public String getUri() {
         return "file://data";
@@ -39,52 +75,273 @@ public class FileResourceProvider extends AbstractResourceProvider {
         return "application/json";
     }
 
+    @Override
+    public boolean handles(String uri) {
+        return getUri().equals(uri) || uri.startsWith(getUri() + "?") || uri.startsWith(FILE_URI_PREFIX);
+    }
+
+    @Override
+    protected Object doRead(String uri) throws Exception {
+        if (uri.startsWith(getUri() + "?")) {
+            return listFiles(parseQuery(uri.substring(getUri().length() + 1)));
+        }
+        return readFile(uri, Long.MAX_VALUE);
+    }
+
+    @Override
+    public CompletableFuture<Object> read(String uri, long maxBytes) {
+        if (!uri.startsWith(FILE_URI_PREFIX)) {
+            return read(uri);
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return readFile(uri, maxBytes);
+            } catch (McpException e) {
+                throw e;
+            } catch (Exception e) {
+                logger.error("Error reading resource {}: {}", uri, e.getMessage(), e);
+                throw new RuntimeException("Resource read failed: " + e.getMessage(), e);
+            }
+        });
+    }
+
+    /**
+     * Reads a file resource. Text longer than {@code maxBytes} is read only up to one byte past
+     * that limit, however large the file is.
+     */
+    private Object readFile(String uri, long maxBytes) throws IOException {
+        if (!uri.startsWith(FILE_URI_PREFIX)) {
+            throw new McpException(McpError.resourceNotFound(uri));
+        }
+
+        Path file;
+        try {
+            file = resolveFile(URI.create(uri).getPath());
+        } catch (IllegalArgumentException e) {
+            throw new McpException(McpError.invalidParams("Malformed resource URI: " + uri));
+        }
+        BasicFileAttributes attributes = metadataCache.stat(file);
+        if (attributes == null || !attributes.isRegularFile()) {
+            throw new McpException(McpError.resourceNotFound(uri));
+        }
+
+        long size = attributes.size();
+        String mimeType = getMimeType(file);
+        if (isText(mimeType) && size > maxBytes) {
+            return new TextResourceContent(uri, mimeType, readPrefix(file, (int) Math.min(maxBytes + 1, MAX_TEXT_SIZE)));
+        }
+        if (size > maxInlineSize) {
+            throw new McpException(new McpError(McpError.INVALID_PARAMS, "Resource too large to inline",
+                    Map.of("uri", uri,
+                            "size", size,
+                            "maxInlineSize", maxInlineSize,
+                            "hint", "Fetch it over HTTP from resources/blob?path=" + dataPath().relativize(file))));
+        }
+
+        if (isText(mimeType) && size <= MAX_TEXT_SIZE) {
+            return new TextResourceContent(uri, mimeType, Files.readString(file, StandardCharsets.UTF_8));
+        }
+        return new BlobResourceContent(uri, mimeType, file, size);
+    }
+
+    private static String readPrefix(Path file, int length) throws IOException {
+        byte[] buffer = new byte[length];
+        try (InputStream in = Files.newInputStream(file)) {
+            int read = in.readNBytes(buffer, 0, length);
+            return new String(buffer, 0, read, StandardCharsets.UTF_8);
+        }
+    }
+
+    @Override
+    public String getETag(String uri) {
+        if (!uri.startsWith(FILE_URI_PREFIX)) {
+            return null; // listings change with every file below them
+        }
+        try {
+            return etag(resolveFile(URI.create(uri).getPath()));
+        } catch (IllegalArgumentException | SecurityException | IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * The entity tag of a file in the data directory, shared by resource reads and the blob endpoint.
+     */
+    public String etag(Path file) throws IOException {
+        return contentHashes.etag(file);
+    }
+
+    @Override
+    public ResourcePage listResources(String cursor) {
+        DirectoryPager.Page page;
+        try {
+            page = metadataCache.list(dataPath(), null, DirectoryPager.Sort.NAME, false, RESOURCE_PAGE_SIZE, cursor);
+        } catch (IllegalArgumentException e) {
+            throw new McpException(McpError.invalidParams(e.getMessage()));
+        } catch (IOException e) {
+            logger.warn("Failed to list file resources: {}", e.getMessage());
+            return ResourcePage.EMPTY;
+        }
+
+        List<Map<String, Object>> resources = new ArrayList<>(page.entries().size());
+        for (DirectoryPager.Entry entry : page.entries()) {
+            if (!entry.attributes().isRegularFile()) {
+                continue;
+            }
+            Map<String, Object> resource = new LinkedHashMap<>();
+            resource.put("uri", toUri(entry.path()));
+            resource.put("name", entry.name());
+            resource.put("mimeType", getMimeType(entry.path()));
+            resource.put("size", entry.size());
+            resources.add(resource);
+        }
+        return new ResourcePage(resources, page.nextCursor());
+    }
+
+    @Override
+    public List<Map<String, Object>> getResourceTemplates() {
+        return List.of(Map.of(
+                "uriTemplate", FILE_URI_PREFIX + "{path}",
+                "name", "Data file",
+                "description", "Any file below the data directory, by relative path; subscribe to be notified of changes"
+        ));
+    }
+
+    /**
+     * The {@code file://data/...} URI of a file below the data directory.
+     */
+    public String toUri(Path file) {
+        String relative = dataPath().relativize(file.toAbsolutePath().normalize()).toString().replace('\\', '/');
+        if (relative.isEmpty()) {
+            return getUri();
+        }
+        try {
+            return FILE_URI_PREFIX + new URI(null, null, relative, null).getRawPath();
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException("Cannot build a URI for " + file, e);
+        }
+    }
+
+    /**
+     * Resolves a path relative to the data directory, rejecting anything that escapes it.
+     */
+    public Path resolveFile(String relativePath) {
+        Path dataPath = dataPath();
+        String trimmed = relativePath.startsWith("/") ? relativePath.substring(1) : relativePath;
+        Path target = dataPath.resolve(trimmed).normalize();
+
+        if (!target.startsWith(dataPath)) {
+            throw new SecurityException("Path traversal attempt detected: " + relativePath);
+        }
+        return target;
+    }
+
+    public String getMimeType(Path file) {
+        return MediaTypeFactory.getMediaType(file.getFileName().toString())
+                .orElse(MediaType.APPLICATION_OCTET_STREAM)
+                .toString();
+    }
+
+    private boolean isText(String mimeType) {
+        return mimeType.startsWith("text/")
+                || mimeType.equals(MediaType.APPLICATION_JSON_VALUE)
+                || mimeType.equals(MediaType.APPLICATION_XML_VALUE)
+                || mimeType.endsWith("+json")
+                || mimeType.endsWith("+xml")
+                || mimeType.equals("application/javascript")
+                || mimeType.equals("application/x-yaml");
+    }
+
+    private Path dataPath() {
+        return Paths.get(basePath).toAbsolutePath().normalize();
+    }
+
     @Override
     protected Object doRead() throws Exception {
+        return listFiles(Map.of());
+    }
+
+    /**
+     * Lists one page of the data directory. Paging, filtering and sorting are passed as query
+     * parameters on the resource URI: {@code file://data?pageSize=500&glob=*.csv&sort=size&order=desc},
+     * and the next page is read from the returned {@code nextUri}.
+     */
+    private Object listFiles(Map<String, String> query) throws Exception {
         validateResource();
 
-        Path dataPath = Paths.get(basePath).toAbsolutePath().normalize();
+        Path dataPath = dataPath();
 
-        if (!Files.exists(dataPath)) {
+        if (metadataCache.stat(dataPath) == null) {
             Files.createDirectories(dataPath);
         }
 
         logger.info("Reading file resources from: {}", dataPath);
 
-        List<Map<String, Object>> files = Files.list(dataPath)
-                .map(this::createFileInfo)
-                .collect(Collectors.toList());
+        DirectoryPager.Page page;
+        try {
+            int pageSize = query.containsKey("pageSize")
+                    ? Integer.parseInt(query.get("pageSize"))
+                    : DirectoryPager.DEFAULT_PAGE_SIZE;
+            page = metadataCache.list(dataPath, query.get("glob"), DirectoryPager.Sort.parse(query.get("sort")),
+                    "desc".equalsIgnoreCase(query.get("order")), pageSize, query.get("cursor"));
+        } catch (IllegalArgumentException e) {
+            throw new McpException(McpError.invalidParams(e.getMessage()));
+        }
 
-        return Map.of(
-                "uri", getUri(),
-                "name", getName(),
-                "description", getDescription(),
-                "basePath", dataPath.toString(),
-                "files", files,
-                "totalFiles", files.size(),
-                "timestamp", LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME)
-        );
+        List<Map<String, Object>> files = new ArrayList<>(page.entries().size());
+        for (DirectoryPager.Entry entry : page.entries()) {
+            files.add(createFileInfo(entry));
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("uri", getUri());
+        result.put("name", getName());
+        result.put("description", getDescription());
+        result.put("basePath", dataPath.toString());
+        result.put("files", files);
+        result.put("count", files.size());
+        if (page.nextCursor() != null) {
+            Map<String, String> next = new LinkedHashMap<>(query);
+            next.put("cursor", page.nextCursor());
+            result.put("nextCursor", page.nextCursor());
+            result.put("nextUri", getUri() + "?" + encodeQuery(next));
+        }
+        result.put("timestamp", LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+        return result;
     }
 
-    private Map<String, Object> createFileInfo(Path path) {
-        try {
-            return Map.of(
-                    "name", path.getFileName().toString(),
-                    "path", path.toString(),
-                    "type", Files.isDirectory(path) ? "directory" : "file",
-                    "size", Files.isDirectory(path) ? 0 : Files.size(path),
-                    "lastModified", Files.getLastModifiedTime(path).toString(),
-                    "readable", Files.isReadable(path),
-                    "writable", Files.isWritable(path)
-            );
-        } catch (IOException e) {
-            logger.warn("Error reading file info for {}: {}", path, e.getMessage());
-            return Map.of(
-                    "name", path.getFileName().toString(),
-                    "path", path.toString(),
-                    "error", e.getMessage()
-            );
+    private Map<String, Object> createFileInfo(DirectoryPager.Entry entry) {
+        Map<String, Object> info = new LinkedHashMap<>();
+        info.put("name", entry.name());
+        info.put("path", entry.path().toString());
+        info.put("type", entry.type());
+        info.put("size", entry.size());
+        info.put("lastModified", entry.attributes().lastModifiedTime().toString());
+        if (entry.attributes() instanceof PosixFileAttributes posix) {
+            info.put("permissions", PosixFilePermissions.toString(posix.permissions()));
         }
+        return info;
+    }
+
+    private static Map<String, String> parseQuery(String query) {
+        Map<String, String> parameters = new LinkedHashMap<>();
+        for (String pair : query.split("&")) {
+            if (pair.isEmpty()) {
+                continue;
+            }
+            int eq = pair.indexOf('=');
+            String key = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            parameters.put(URLDecoder.decode(key, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return parameters;
+    }
+
+    private static String encodeQuery(Map<String, String> parameters) {
+        return parameters.entrySet().stream()
+                .map(e -> URLEncoder.encode(e.getKey(), StandardCharsets.UTF_8) + "="
+                        + URLEncoder.encode(e.getValue(), StandardCharsets.UTF_8))
+                .collect(Collectors.joining("&"));
     }
 
     @Override
@@ -92,8 +349,10 @@ public class FileResourceProvider extends AbstractResourceProvider {
         return Map.of(
                 "basePath", basePath,
                 "supportedOperations", List.of("list", "read", "stat"),
-                "maxFileSize", "1MB",
-                "encoding", "UTF-8"
+                "listQueryParameters", List.of("pageSize", "cursor", "glob", "sort", "order"),
+                "fileUriPrefix", FILE_URI_PREFIX,
+                "maxInlineSize", maxInlineSize,
+                "encoding", "UTF-8 text, base64 blob for binary files"
         );
     }
 }
\ No newline at end of file
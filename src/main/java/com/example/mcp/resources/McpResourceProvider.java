@@ -1,6 +1,7 @@
 package com.example.mcp.resources;
 
-import java.net.URI;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
 public interface McpResourceProvider {
@@ -15,6 +16,50 @@ public interface McpResourceProvider {
 
     CompletableFuture<Object> read();
 
+    /**
+     * Whether this provider serves {@code uri}; providers that expose a tree of resources
+     * under their root URI override this together with {@link #read(String)}.
+     */
+    default boolean handles(String uri) {
+        return getUri().equals(uri);
+    }
+
+    default CompletableFuture<Object> read(String uri) {
+        return read();
+    }
+
+    /**
+     * Reads {@code uri} for a caller that keeps at most {@code maxBytes} of its text. Providers
+     * that can read a prefix cheaply override this; a prefix must still be longer than
+     * {@code maxBytes} whenever the full content is, so the caller can tell it was cut.
+     */
+    default CompletableFuture<Object> read(String uri, long maxBytes) {
+        return read(uri);
+    }
+
+    /**
+     * The entity tag of {@code uri}'s current content if the provider can tell without reading
+     * it, otherwise {@code null} and the tag is computed from the content that was read.
+     */
+    default String getETag(String uri) {
+        return null;
+    }
+
+    /**
+     * Individual resources below the root URI, a page at a time. The root resource itself is
+     * always listed separately.
+     */
+    default ResourcePage listResources(String cursor) {
+        return ResourcePage.EMPTY;
+    }
+
+    /**
+     * {@code resources/templates/list} entries for the URIs accepted by {@link #handles(String)}.
+     */
+    default List<Map<String, Object>> getResourceTemplates() {
+        return List.of();
+    }
+
     default boolean isReadable() {
         return true;
     }
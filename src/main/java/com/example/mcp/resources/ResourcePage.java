@@ -0,0 +1,12 @@
+package com.example.mcp.resources;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One page of {@code resources/list} entries contributed by a provider.
+ */
+public record ResourcePage(List<Map<String, Object>> resources, String nextCursor) {
+
+    public static final ResourcePage EMPTY = new ResourcePage(List.of(), null);
+}
@@ -0,0 +1,187 @@
+package com.example.mcp.resources;
+
+import com.example.mcp.server.McpError;
+import com.example.mcp.server.McpException;
+import com.example.mcp.storage.ContentHashCache;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Serves {@code resources/list}, {@code resources/templates/list} and {@code resources/read} from
+ * the registered resource providers. Reads carry an {@code etag}; a read whose
+ * {@code ifNoneMatch} matches it returns {@code notModified} instead of the contents.
+ */
+@Component
+public class ResourceRequestHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResourceRequestHandler.class);
+
+    private final List<McpResourceProvider> providers;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public ResourceRequestHandler(List<McpResourceProvider> providers, ObjectMapper objectMapper) {
+        this.providers = providers;
+        this.objectMapper = objectMapper;
+
+        logger.info("Resource handler initialized with {} providers", providers.size());
+    }
+
+    /**
+     * Lists every provider's root resource on the first page, followed by the individual
+     * resources providers expose below their roots. The cursor is {@code <provider>.<cursor>}.
+     */
+    public CompletableFuture<Object> list(JsonNode params) {
+        String cursor = params != null && params.hasNonNull("cursor") ? params.get("cursor").asText() : null;
+        int providerIndex = 0;
+        String providerCursor = null;
+
+        List<Map<String, Object>> resources = new ArrayList<>();
+        if (cursor == null) {
+            for (McpResourceProvider provider : providers) {
+                if (!provider.isReadable()) {
+                    continue;
+                }
+                Map<String, Object> resource = new LinkedHashMap<>();
+                resource.put("uri", provider.getUri());
+                resource.put("name", provider.getName());
+                resource.put("description", provider.getDescription());
+                resource.put("mimeType", provider.getMimeType());
+                resources.add(resource);
+            }
+        } else {
+            int dot = cursor.indexOf('.');
+            try {
+                providerIndex = Integer.parseInt(dot < 0 ? cursor : cursor.substring(0, dot));
+            } catch (NumberFormatException e) {
+                return CompletableFuture.failedFuture(new McpException(McpError.invalidParams("Invalid cursor: " + cursor)));
+            }
+            providerCursor = dot < 0 || dot == cursor.length() - 1 ? null : cursor.substring(dot + 1);
+        }
+
+        String nextCursor = null;
+        for (int i = providerIndex; i < providers.size(); i++) {
+            McpResourceProvider provider = providers.get(i);
+            if (!provider.isReadable()) {
+                continue;
+            }
+            ResourcePage page = provider.listResources(i == providerIndex ? providerCursor : null);
+            resources.addAll(page.resources());
+            if (page.nextCursor() != null) {
+                nextCursor = i + "." + page.nextCursor();
+                break;
+            }
+            if (!page.resources().isEmpty() && i + 1 < providers.size()) {
+                nextCursor = (i + 1) + ".";
+                break;
+            }
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("resources", resources);
+        if (nextCursor != null) {
+            result.put("nextCursor", nextCursor);
+        }
+        return CompletableFuture.completedFuture(result);
+    }
+
+    public CompletableFuture<Object> listTemplates(JsonNode params) {
+        List<Map<String, Object>> templates = new ArrayList<>();
+        for (McpResourceProvider provider : providers) {
+            if (provider.isReadable()) {
+                templates.addAll(provider.getResourceTemplates());
+            }
+        }
+        return CompletableFuture.completedFuture(Map.of("resourceTemplates", templates));
+    }
+
+    public CompletableFuture<Object> read(JsonNode params) {
+        if (params == null || !params.hasNonNull("uri")) {
+            return CompletableFuture.failedFuture(
+                new McpException(McpError.invalidParams("Missing required parameter: uri")));
+        }
+
+        String uri = params.get("uri").asText();
+        McpResourceProvider provider = findProvider(uri);
+        if (provider == null) {
+            return CompletableFuture.failedFuture(new McpException(McpError.resourceNotFound(uri)));
+        }
+
+        String ifNoneMatch = params.hasNonNull("ifNoneMatch") ? params.get("ifNoneMatch").asText() : null;
+        return CompletableFuture.supplyAsync(() -> provider.getETag(uri))
+            .thenCompose(etag -> {
+                if (ContentHashCache.matches(ifNoneMatch, etag)) {
+                    return CompletableFuture.completedFuture(notModified(etag));
+                }
+                return provider.read(uri).thenApply(data -> {
+                    Object content = toContent(provider, uri, data);
+                    String version = etag != null ? etag : etagOf(content);
+                    if (ContentHashCache.matches(ifNoneMatch, version)) {
+                        return notModified(version);
+                    }
+                    Map<String, Object> result = new LinkedHashMap<>();
+                    result.put("contents", List.of(content));
+                    if (version != null) {
+                        result.put("etag", version);
+                    }
+                    return result;
+                });
+            });
+    }
+
+    private static Object notModified(String etag) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("contents", List.of());
+        result.put("etag", etag);
+        result.put("notModified", true);
+        return result;
+    }
+
+    private static String etagOf(Object content) {
+        // Blobs are file-backed and tagged by their provider; hashing them here would read them twice
+        return content instanceof TextResourceContent text ? ContentHashCache.etag(text.getText()) : null;
+    }
+
+    /**
+     * Reads {@code uri} as a single content item for use inside another response, such as an
+     * embedded prompt resource; see {@link McpResourceProvider#read(String, long)}.
+     */
+    public CompletableFuture<Object> readContent(String uri, long maxBytes) {
+        McpResourceProvider provider = findProvider(uri);
+        if (provider == null) {
+            return CompletableFuture.failedFuture(new McpException(McpError.resourceNotFound(uri)));
+        }
+        return provider.read(uri, maxBytes).thenApply(data -> toContent(provider, uri, data));
+    }
+
+    public McpResourceProvider findProvider(String uri) {
+        for (McpResourceProvider provider : providers) {
+            if (provider.isReadable() && provider.handles(uri)) {
+                return provider;
+            }
+        }
+        return null;
+    }
+
+    private Object toContent(McpResourceProvider provider, String uri, Object data) {
+        if (data instanceof BlobResourceContent || data instanceof TextResourceContent) {
+            return data;
+        }
+        // Structured provider data is delivered as JSON text, as the protocol expects
+        try {
+            return new TextResourceContent(uri, provider.getMimeType(), objectMapper.writeValueAsString(data));
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to encode resource " + uri + ": " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package com.example.mcp.resources;
+
+import com.example.mcp.server.McpError;
+import com.example.mcp.server.McpException;
+import com.example.mcp.server.McpMessage;
+import com.example.mcp.server.McpNotificationSender;
+import com.example.mcp.session.SessionStore;
+import com.example.mcp.storage.FileMetadataCache;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Implements {@code resources/subscribe} and {@code resources/unsubscribe}. File changes reported
+ * by the {@link FileMetadataCache} are coalesced per URI and pushed to subscribed sessions as
+ * {@code notifications/resources/updated} once a URI has been quiet for the debounce interval,
+ * or after the maximum delay while it keeps changing.
+ */
+@Component
+public class ResourceSubscriptionManager implements FileMetadataCache.Listener {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResourceSubscriptionManager.class);
+    private static final String UPDATED_NOTIFICATION = "notifications/resources/updated";
+
+    private final ResourceRequestHandler resourceRequestHandler;
+    private final FileResourceProvider fileResourceProvider;
+    private final FileMetadataCache metadataCache;
+    private final ObjectProvider<McpNotificationSender> notificationSenders;
+    private final SessionStore sessions;
+    private final ObjectMapper objectMapper;
+    private final long debounceMillis;
+    private final long maxDelayMillis;
+
+    private final Map<String, Set<String>> subscribersByUri = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> urisBySession = new ConcurrentHashMap<>();
+    // uri -> {first change, last change} in milliseconds
+    private final Map<String, long[]> pending = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler;
+
+    private McpNotificationSender notificationSender;
+
+    @Autowired
+    public ResourceSubscriptionManager(ResourceRequestHandler resourceRequestHandler,
+                                       FileResourceProvider fileResourceProvider,
+                                       FileMetadataCache metadataCache,
+                                       ObjectProvider<McpNotificationSender> notificationSenders,
+                                       SessionStore sessions,
+                                       ObjectMapper objectMapper,
+                                       @Value("${mcp.resources.subscriptions.debounce-ms:250}") long debounceMillis,
+                                       @Value("${mcp.resources.subscriptions.max-delay-ms:2000}") long maxDelayMillis) {
+        this.resourceRequestHandler = resourceRequestHandler;
+        this.fileResourceProvider = fileResourceProvider;
+        this.metadataCache = metadataCache;
+        this.notificationSenders = notificationSenders;
+        this.sessions = sessions;
+        this.objectMapper = objectMapper;
+        this.debounceMillis = debounceMillis;
+        this.maxDelayMillis = Math.max(maxDelayMillis, debounceMillis);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "resource-notifier");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    public void start() {
+        notificationSender = notificationSenders.getIfAvailable();
+        if (notificationSender == null) {
+            logger.info("No notification transport available, resource subscriptions disabled");
+            return;
+        }
+        if (!metadataCache.isRunning()) {
+            logger.info("File metadata cache not running, resource subscriptions disabled");
+            return;
+        }
+        notificationSender.addSessionCloseListener(this::removeSession);
+        // An evicted or idle session has to subscribe again once it is back
+        sessions.addRemovalListener((session, cause) -> removeSession(session.getId()));
+        metadataCache.addListener(this);
+
+        long period = Math.max(10, debounceMillis / 2);
+        scheduler.scheduleAtFixedRate(this::flush, period, period, TimeUnit.MILLISECONDS);
+        logger.info("Resource subscriptions enabled (debounce {} ms, max delay {} ms)", debounceMillis, maxDelayMillis);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        metadataCache.removeListener(this);
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Subscriptions need a transport to notify on and the metadata cache to report changes;
+     * without the cache no update would ever be sent.
+     */
+    public boolean isEnabled() {
+        return notificationSender != null && metadataCache.isRunning();
+    }
+
+    public CompletableFuture<Object> subscribe(JsonNode params, String sessionId) {
+        String uri = validate(params, sessionId);
+
+        // Add inside compute, so a concurrent unsubscribe cannot drop the set in between
+        subscribersByUri.compute(uri, (k, subscribers) -> add(subscribers, sessionId));
+        urisBySession.compute(sessionId, (k, uris) -> add(uris, uri));
+
+        logger.debug("Session {} subscribed to {}", sessionId, uri);
+        return CompletableFuture.completedFuture(Map.of());
+    }
+
+    public CompletableFuture<Object> unsubscribe(JsonNode params, String sessionId) {
+        if (params == null || !params.hasNonNull("uri")) {
+            throw new McpException(McpError.invalidParams("Missing required parameter: uri"));
+        }
+        String uri = params.get("uri").asText();
+
+        if (sessionId != null) {
+            subscribersByUri.computeIfPresent(uri, (k, subscribers) -> remove(subscribers, sessionId));
+            urisBySession.computeIfPresent(sessionId, (k, uris) -> remove(uris, uri));
+        }
+
+        logger.debug("Session {} unsubscribed from {}", sessionId, uri);
+        return CompletableFuture.completedFuture(Map.of());
+    }
+
+    @Override
+    public void onFileChange(FileMetadataCache.FileChange change) {
+        if (subscribersByUri.isEmpty()) {
+            return;
+        }
+
+        Path path = change.path();
+        markChanged(fileResourceProvider.toUri(path));
+        // The file://data listing shows the top level of the data directory
+        if (metadataCache.getRoot().equals(path.getParent())) {
+            markChanged(fileResourceProvider.getUri());
+        }
+    }
+
+    private void markChanged(String uri) {
+        if (!subscribersByUri.containsKey(uri)) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        pending.merge(uri, new long[]{now, now}, (existing, update) -> {
+            existing[1] = now;
+            return existing;
+        });
+    }
+
+    private void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+
+        for (var entry : pending.entrySet()) {
+            long[] times = entry.getValue();
+            if (now - times[1] < debounceMillis && now - times[0] < maxDelayMillis) {
+                continue;
+            }
+            if (!pending.remove(entry.getKey(), times)) {
+                continue;
+            }
+            notifySubscribers(entry.getKey());
+        }
+    }
+
+    private void notifySubscribers(String uri) {
+        Set<String> subscribers = subscribersByUri.get(uri);
+        if (subscribers == null || subscribers.isEmpty()) {
+            return;
+        }
+
+        McpMessage notification = McpMessage.createNotification(UPDATED_NOTIFICATION,
+                objectMapper.valueToTree(Map.of("uri", uri)));
+        for (String sessionId : subscribers) {
+            try {
+                if (!notificationSender.sendNotification(sessionId, notification)) {
+                    removeSession(sessionId);
+                }
+            } catch (Exception e) {
+                logger.warn("Failed to notify session {} about {}: {}", sessionId, uri, e.getMessage());
+            }
+        }
+        logger.debug("Notified {} subscribers of {}", subscribers.size(), uri);
+    }
+
+    private String validate(JsonNode params, String sessionId) {
+        if (!isEnabled()) {
+            throw new McpException(McpError.capabilityNotSupported("resources/subscribe"));
+        }
+        if (params == null || !params.hasNonNull("uri")) {
+            throw new McpException(McpError.invalidParams("Missing required parameter: uri"));
+        }
+        if (!notificationSender.isConnected(sessionId)) {
+            throw new McpException(McpError.invalidParams(
+                    "Subscriptions need an open event stream: connect to /events?clientId=<id> and send "
+                            + "the same id in the Mcp-Session-Id header"));
+        }
+        String uri = params.get("uri").asText();
+        if (resourceRequestHandler.findProvider(uri) == null) {
+            throw new McpException(McpError.resourceNotFound(uri));
+        }
+        return uri;
+    }
+
+    private void removeSession(String sessionId) {
+        Set<String> uris = urisBySession.remove(sessionId);
+        if (uris == null) {
+            return;
+        }
+        for (String uri : uris) {
+            subscribersByUri.computeIfPresent(uri, (k, subscribers) -> remove(subscribers, sessionId));
+        }
+        logger.debug("Dropped {} subscriptions of closed session {}", uris.size(), sessionId);
+    }
+
+    private static Set<String> add(Set<String> set, String value) {
+        Set<String> result = set != null ? set : ConcurrentHashMap.newKeySet();
+        result.add(value);
+        return result;
+    }
+
+    private static Set<String> remove(Set<String> set, String value) {
+        set.remove(value);
+        return set.isEmpty() ? null : set;
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.mcp.resources;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * A {@code resources/read} content item carrying UTF-8 text.
+ */
+public class TextResourceContent {
+
+    @JsonProperty("uri")
+    private final String uri;
+
+    @JsonProperty("mimeType")
+    private final String mimeType;
+
+    @JsonProperty("text")
+    private final String text;
+
+    public TextResourceContent(String uri, String mimeType, String text) {
+        this.uri = uri;
+        this.mimeType = mimeType;
+        this.text = text;
+    }
+
+    public String getUri() {
+        return uri;
+    }
+
+    public String getMimeType() {
+        return mimeType;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    @Override
+    public String toString() {
+        return "TextResourceContent{" +
+                "uri='" + uri + '\'' +
+                ", mimeType='" + mimeType + '\'' +
+                ", length=" + text.length() +
+                '}';
+    }
+}
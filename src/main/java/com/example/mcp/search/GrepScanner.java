@@ -0,0 +1,439 @@
+package com.example.mcp.search;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Line-oriented regex scan over a set of files, run in parallel on a fork-join pool.
+ *
+ * <p>Files are searched as bytes for a literal that every match must contain
+ * (the whole pattern in literal mode, otherwise the longest mandatory literal of the regex); only
+ * lines containing it are decoded and handed to the regex. Patterns without a usable literal
+ * fall back to decoding every line. Small files are read into a buffer reused by each worker
+ * thread; only larger ones are memory-mapped, where the mapping pays for its setup cost.
+ */
+public final class GrepScanner {
+
+    private static final Logger logger = LoggerFactory.getLogger(GrepScanner.class);
+
+    private static final int MAPPING_CHUNK = 256 << 20;
+    static final int SMALL_FILE_BYTES = 64 << 10;
+    private static final int BINARY_PROBE_BYTES = 8192;
+    private static final int MAX_LINE_CHARS = 500;
+    private static final int FILES_PER_TASK = 4;
+
+    public record Match(String path, long line, String text) {
+    }
+
+    public record Result(List<Match> matches, int filesScanned, int filesMatched, long bytesScanned,
+                         boolean truncated) {
+    }
+
+    /**
+     * Called from worker threads with the matches of each file as soon as it is done.
+     */
+    @FunctionalInterface
+    public interface Listener {
+        void onMatches(List<Match> matches, int filesScanned, int totalFiles);
+    }
+
+    private static final ThreadLocal<ByteBuffer> READ_BUFFER =
+            ThreadLocal.withInitial(() -> ByteBuffer.allocate(SMALL_FILE_BYTES));
+
+    private final ForkJoinPool pool;
+
+    public GrepScanner(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    public Result scan(Path root, List<Path> files, String pattern, boolean literal, boolean ignoreCase,
+                       int maxMatches, Listener listener) {
+        int flags = ignoreCase ? Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE : 0;
+        Pattern compiled = Pattern.compile(literal ? Pattern.quote(pattern) : pattern, flags);
+
+        String required = literal ? pattern : requiredLiteral(pattern);
+        byte[] needle = null;
+        if (required != null && !required.isEmpty() && (!ignoreCase || isAscii(required))) {
+            needle = (ignoreCase ? required.toLowerCase(Locale.ROOT) : required).getBytes(StandardCharsets.UTF_8);
+        }
+
+        Scan scan = new Scan(root, files, compiled, needle, ignoreCase, maxMatches, listener);
+        pool.invoke(new ScanTask(scan, 0, files.size()));
+
+        List<Match> matches = new ArrayList<>(scan.matches);
+        matches.sort(Comparator.comparing(Match::path).thenComparingLong(Match::line));
+        if (matches.size() > maxMatches) {
+            matches = new ArrayList<>(matches.subList(0, maxMatches));
+        }
+        return new Result(matches, scan.filesScanned.get(), scan.filesMatched.get(), scan.bytesScanned.sum(),
+                scan.truncated);
+    }
+
+    /**
+     * The longest run of literal characters that any match of {@code regex} must contain, or
+     * {@code null} if none can be determined cheaply. Conservative: alternation, inline flags
+     * and quoting disable the prefilter, and nothing inside groups or before an optional
+     * quantifier is used.
+     */
+    static String requiredLiteral(String regex) {
+        if (regex.indexOf('|') >= 0 || regex.contains("(?") || regex.contains("\\Q")) {
+            return null;
+        }
+
+        String best = "";
+        StringBuilder run = new StringBuilder();
+        int depth = 0;
+        int length = regex.length();
+        int i = 0;
+
+        while (i < length) {
+            char c = regex.charAt(i);
+            int next = i + 1;
+            boolean isLiteral = false;
+            char value = c;
+
+            if (c == '\\') {
+                if (next >= length) {
+                    return null;
+                }
+                value = regex.charAt(next);
+                next++;
+                isLiteral = !Character.isLetterOrDigit(value);
+            } else if (c == '[') {
+                next = classEnd(regex, i);
+                if (next < 0) {
+                    return null;
+                }
+            } else if (c == '{') {
+                int close = regex.indexOf('}', i);
+                next = close < 0 ? length : close + 1;
+            } else if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if ("^$.*+?".indexOf(c) < 0) {
+                isLiteral = true;
+            }
+
+            char quantifier = next < length ? regex.charAt(next) : 0;
+            boolean optional = quantifier == '*' || quantifier == '?' || quantifier == '{';
+            if (isLiteral && depth == 0 && !optional) {
+                run.append(value);
+                if (quantifier == '+') {
+                    best = longer(best, run);
+                    run.setLength(0);
+                }
+            } else {
+                best = longer(best, run);
+                run.setLength(0);
+            }
+            i = next;
+        }
+        best = longer(best, run);
+        return best.isEmpty() ? null : best;
+    }
+
+    private static int classEnd(String regex, int start) {
+        int i = start + 1;
+        if (i < regex.length() && regex.charAt(i) == '^') {
+            i++;
+        }
+        if (i < regex.length() && regex.charAt(i) == ']') {
+            i++;
+        }
+        int depth = 1;
+        for (; i < regex.length(); i++) {
+            char c = regex.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (c == '[') {
+                depth++;
+            } else if (c == ']' && --depth == 0) {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+
+    private static String longer(String best, StringBuilder run) {
+        return run.length() > best.length() ? run.toString() : best;
+    }
+
+    private static boolean isAscii(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static final class Scan {
+        final Path root;
+        final List<Path> files;
+        final Pattern pattern;
+        final byte[] needle;
+        final int[] skip;
+        final boolean foldCase;
+        final int maxMatches;
+        final Listener listener;
+
+        final ConcurrentLinkedQueue<Match> matches = new ConcurrentLinkedQueue<>();
+        final AtomicInteger matchCount = new AtomicInteger();
+        final AtomicInteger filesScanned = new AtomicInteger();
+        final AtomicInteger filesMatched = new AtomicInteger();
+        final LongAdder bytesScanned = new LongAdder();
+        volatile boolean truncated;
+
+        Scan(Path root, List<Path> files, Pattern pattern, byte[] needle, boolean foldCase, int maxMatches,
+             Listener listener) {
+            this.root = root;
+            this.files = files;
+            this.pattern = pattern;
+            this.needle = needle;
+            this.foldCase = foldCase;
+            this.maxMatches = maxMatches;
+            this.listener = listener;
+            this.skip = needle == null ? null : skipTable(needle);
+        }
+
+        private static int[] skipTable(byte[] needle) {
+            int[] skip = new int[256];
+            Arrays.fill(skip, needle.length);
+            for (int i = 0; i < needle.length - 1; i++) {
+                skip[needle[i] & 0xFF] = needle.length - 1 - i;
+            }
+            return skip;
+        }
+    }
+
+    private static final class ScanTask extends RecursiveAction {
+
+        private final Scan scan;
+        private final int from;
+        private final int to;
+
+        ScanTask(Scan scan, int from, int to) {
+            this.scan = scan;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > FILES_PER_TASK) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new ScanTask(scan, from, mid), new ScanTask(scan, mid, to));
+                return;
+            }
+            for (int i = from; i < to && !scan.truncated; i++) {
+                Path file = scan.files.get(i);
+                try {
+                    scanFile(file);
+                } catch (IOException e) {
+                    logger.debug("Skipping {}: {}", file, e.getMessage());
+                }
+            }
+        }
+
+        private void scanFile(Path file) throws IOException {
+            List<Match> found = new ArrayList<>();
+            String relative = scan.root.relativize(file).toString().replace('\\', '/');
+            Matcher matcher = scan.pattern.matcher("");
+
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                long size = channel.size();
+                if (size <= SMALL_FILE_BYTES) {
+                    ByteBuffer buffer = READ_BUFFER.get().clear().limit((int) size);
+                    while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                        // The file may have shrunk since size() was read
+                    }
+                    int length = buffer.position();
+                    if (!isBinary(buffer, length)) {
+                        scanChunk(buffer, length, 1, relative, matcher, found);
+                        scan.bytesScanned.add(length);
+                    }
+                    return;
+                }
+
+                long position = 0;
+                long line = 1;
+
+                while (position < size && !scan.truncated) {
+                    int length = (int) Math.min(MAPPING_CHUNK, size - position);
+                    ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                    if (position == 0 && isBinary(buffer, length)) {
+                        return;
+                    }
+
+                    // Keep lines whole: stop the chunk after its last newline unless it is the last one
+                    int limit = length;
+                    if (position + length < size) {
+                        int lastNewline = lastIndexOf(buffer, (byte) '\n', length);
+                        if (lastNewline >= 0) {
+                            limit = lastNewline + 1;
+                        }
+                    }
+
+                    line = scanChunk(buffer, limit, line, relative, matcher, found);
+                    position += limit;
+                    scan.bytesScanned.add(limit);
+                }
+            } finally {
+                int scanned = scan.filesScanned.incrementAndGet();
+                if (!found.isEmpty()) {
+                    scan.filesMatched.incrementAndGet();
+                    scan.matches.addAll(found);
+                    if (scan.listener != null) {
+                        scan.listener.onMatches(found, scanned, scan.files.size());
+                    }
+                }
+            }
+        }
+
+        private long scanChunk(ByteBuffer buffer, int limit, long line, String path, Matcher matcher,
+                               List<Match> found) {
+            return scan.needle != null
+                    ? scanWithPrefilter(buffer, limit, line, path, matcher, found)
+                    : scanLines(buffer, limit, line, path, matcher, found);
+        }
+
+        private long scanWithPrefilter(ByteBuffer buffer, int limit, long line, String path, Matcher matcher,
+                                       List<Match> found) {
+            int counted = 0;
+            int from = 0;
+            while (from < limit && !scan.truncated) {
+                int hit = indexOf(buffer, from, limit);
+                if (hit < 0) {
+                    break;
+                }
+                int start = hit;
+                while (start > from && buffer.get(start - 1) != '\n') {
+                    start--;
+                }
+                int end = hit;
+                while (end < limit && buffer.get(end) != '\n') {
+                    end++;
+                }
+                line += countNewlines(buffer, counted, start);
+                counted = start;
+
+                matchLine(buffer, start, end, line, path, matcher, found);
+                from = end + 1;
+            }
+            return line + countNewlines(buffer, counted, limit);
+        }
+
+        private long scanLines(ByteBuffer buffer, int limit, long line, String path, Matcher matcher,
+                               List<Match> found) {
+            int start = 0;
+            while (start < limit && !scan.truncated) {
+                int end = start;
+                while (end < limit && buffer.get(end) != '\n') {
+                    end++;
+                }
+                matchLine(buffer, start, end, line, path, matcher, found);
+                if (end < limit) {
+                    line++;
+                }
+                start = end + 1;
+            }
+            return line;
+        }
+
+        private void matchLine(ByteBuffer buffer, int start, int end, long line, String path, Matcher matcher,
+                               List<Match> found) {
+            if (end > start && buffer.get(end - 1) == '\r') {
+                end--;
+            }
+            byte[] bytes = new byte[end - start];
+            buffer.get(start, bytes);
+            String text = new String(bytes, StandardCharsets.UTF_8);
+            if (!matcher.reset(text).find()) {
+                return;
+            }
+            if (scan.matchCount.incrementAndGet() > scan.maxMatches) {
+                scan.truncated = true;
+                return;
+            }
+            if (text.length() > MAX_LINE_CHARS) {
+                int from = Math.max(0, Math.min(matcher.start() - MAX_LINE_CHARS / 5, text.length() - MAX_LINE_CHARS));
+                text = text.substring(from, from + MAX_LINE_CHARS);
+            }
+            found.add(new Match(path, line, text));
+        }
+
+        /**
+         * Horspool search for the needle in {@code [from, limit)}, folding ASCII case if needed.
+         */
+        private int indexOf(ByteBuffer buffer, int from, int limit) {
+            byte[] needle = scan.needle;
+            int[] skip = scan.skip;
+            int last = needle.length - 1;
+            int i = from;
+            while (i <= limit - needle.length) {
+                int j = last;
+                while (j >= 0 && fold(buffer.get(i + j)) == needle[j]) {
+                    j--;
+                }
+                if (j < 0) {
+                    return i;
+                }
+                i += skip[fold(buffer.get(i + last)) & 0xFF];
+            }
+            return -1;
+        }
+
+        private byte fold(byte b) {
+            return scan.foldCase && b >= 'A' && b <= 'Z' ? (byte) (b + 32) : b;
+        }
+
+        private static int countNewlines(ByteBuffer buffer, int from, int to) {
+            int count = 0;
+            for (int i = from; i < to; i++) {
+                if (buffer.get(i) == '\n') {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        private static int lastIndexOf(ByteBuffer buffer, byte value, int length) {
+            for (int i = length - 1; i >= 0; i--) {
+                if (buffer.get(i) == value) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private static boolean isBinary(ByteBuffer buffer, int length) {
+            int probe = Math.min(length, BINARY_PROBE_BYTES);
+            for (int i = 0; i < probe; i++) {
+                if (buffer.get(i) == 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,296 @@
+package com.example.mcp.search;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * An immutable, memory-mapped slice of the inverted index.
+ *
+ * <pre>
+ * header   [i32 magic "MCPS"][i32 version][i32 docCount][i32 termCount]
+ *          [i64 totalLength][i64 termIndexOffset][i64 docIndexOffset] padded to 64 bytes
+ * terms    per term, sorted by UTF-8 bytes: [u16 len][term][i32 docFreq][i32 postingsLen][postings]
+ *          postings are varint pairs (doc id delta, term frequency)
+ * docs     per doc: [i64 lastModified][i64 size][i32 length][u16 pathLen][path]
+ * index    termCount x i64 term entry offsets, docCount x i64 doc entry offsets
+ * </pre>
+ */
+final class IndexSegment implements Closeable {
+
+    static final int MAGIC = 0x4D435053; // "MCPS"
+    static final int VERSION = 1;
+    private static final int HEADER_SIZE = 64;
+
+    record Doc(String path, long lastModified, long size, int length) {
+    }
+
+    record TermPostings(byte[] term, int[] docs, int[] freqs, int count) {
+    }
+
+    private final Path file;
+    private final long generation;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int docCount;
+    private final int termCount;
+    private final long totalLength;
+    private final int termIndexOffset;
+    private final int docIndexOffset;
+    private final int[] docLengths;
+
+    private IndexSegment(Path file, long generation) throws IOException {
+        this.file = file;
+        this.generation = generation;
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Segment too large to map: " + file);
+            }
+            this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (size < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                throw new IOException("Not an index segment: " + file);
+            }
+            this.docCount = buffer.getInt(8);
+            this.termCount = buffer.getInt(12);
+            this.totalLength = buffer.getLong(16);
+            this.termIndexOffset = (int) buffer.getLong(24);
+            this.docIndexOffset = (int) buffer.getLong(32);
+
+            this.docLengths = new int[docCount];
+            for (int i = 0; i < docCount; i++) {
+                docLengths[i] = buffer.getInt(docEntry(i) + 16);
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    static IndexSegment open(Path file, long generation) throws IOException {
+        return new IndexSegment(file, generation);
+    }
+
+    Path file() {
+        return file;
+    }
+
+    long generation() {
+        return generation;
+    }
+
+    int docCount() {
+        return docCount;
+    }
+
+    int termCount() {
+        return termCount;
+    }
+
+    long totalLength() {
+        return totalLength;
+    }
+
+    int docLength(int doc) {
+        return docLengths[doc];
+    }
+
+    Doc doc(int doc) {
+        int offset = docEntry(doc);
+        int pathLength = Short.toUnsignedInt(buffer.getShort(offset + 20));
+        byte[] path = new byte[pathLength];
+        buffer.get(offset + 22, path);
+        return new Doc(new String(path, StandardCharsets.UTF_8), buffer.getLong(offset), buffer.getLong(offset + 8),
+                buffer.getInt(offset + 16));
+    }
+
+    /**
+     * Offset of the term entry for {@code term}, or {@code -1} if the segment does not contain it.
+     */
+    int findTerm(byte[] term) {
+        int low = 0;
+        int high = termCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = compareTerm(termEntry(mid), term);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return termEntry(mid);
+            }
+        }
+        return -1;
+    }
+
+    int termEntry(int ordinal) {
+        return (int) buffer.getLong(termIndexOffset + ordinal * 8);
+    }
+
+    byte[] term(int entry) {
+        byte[] term = new byte[Short.toUnsignedInt(buffer.getShort(entry))];
+        buffer.get(entry + 2, term);
+        return term;
+    }
+
+    int docFreq(int entry) {
+        return buffer.getInt(entry + 2 + Short.toUnsignedInt(buffer.getShort(entry)));
+    }
+
+    /**
+     * Decodes the postings of a term entry into {@code docs} and {@code freqs}, which must hold
+     * at least {@link #docFreq(int)} elements.
+     */
+    void readPostings(int entry, int[] docs, int[] freqs) {
+        int termLength = Short.toUnsignedInt(buffer.getShort(entry));
+        int count = buffer.getInt(entry + 2 + termLength);
+        int position = entry + 2 + termLength + 8;
+
+        int doc = 0;
+        for (int i = 0; i < count; i++) {
+            int delta = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = buffer.get(position++);
+                delta |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            int freq = 0;
+            shift = 0;
+            do {
+                b = buffer.get(position++);
+                freq |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            doc += delta;
+            docs[i] = doc;
+            freqs[i] = freq;
+        }
+    }
+
+    private int docEntry(int doc) {
+        return (int) buffer.getLong(docIndexOffset + doc * 8);
+    }
+
+    private int compareTerm(int entry, byte[] term) {
+        int length = Short.toUnsignedInt(buffer.getShort(entry));
+        int common = Math.min(length, term.length);
+        for (int i = 0; i < common; i++) {
+            int cmp = Integer.compare(buffer.get(entry + 2 + i) & 0xFF, term[i] & 0xFF);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return Integer.compare(length, term.length);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Writes a segment. {@code terms} must be sorted by unsigned UTF-8 bytes and each posting
+     * list by document id.
+     */
+    static void write(Path file, List<Doc> docs, Iterator<TermPostings> terms) throws IOException {
+        try (FileChannel out = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            DataOutputStream data = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(out), 1 << 16));
+            data.write(new byte[HEADER_SIZE]);
+
+            long[] termOffsets = new long[1024];
+            int termCount = 0;
+            byte[] postings = new byte[1024];
+
+            while (terms.hasNext()) {
+                TermPostings term = terms.next();
+                if (termCount == termOffsets.length) {
+                    termOffsets = Arrays.copyOf(termOffsets, termCount * 2);
+                }
+                termOffsets[termCount++] = data.size();
+
+                int length = 0;
+                int previous = 0;
+                for (int i = 0; i < term.count(); i++) {
+                    if (postings.length - length < 10) {
+                        postings = Arrays.copyOf(postings, postings.length * 2);
+                    }
+                    length = writeVarint(postings, length, term.docs()[i] - previous);
+                    length = writeVarint(postings, length, term.freqs()[i]);
+                    previous = term.docs()[i];
+                }
+
+                data.writeShort(term.term().length);
+                data.write(term.term());
+                data.writeInt(term.count());
+                data.writeInt(length);
+                data.write(postings, 0, length);
+                checkSize(data, file);
+            }
+
+            long[] docOffsets = new long[docs.size()];
+            long totalLength = 0;
+            for (int i = 0; i < docs.size(); i++) {
+                Doc doc = docs.get(i);
+                byte[] path = doc.path().getBytes(StandardCharsets.UTF_8);
+                docOffsets[i] = data.size();
+                data.writeLong(doc.lastModified());
+                data.writeLong(doc.size());
+                data.writeInt(doc.length());
+                data.writeShort(path.length);
+                data.write(path);
+                totalLength += doc.length();
+            }
+
+            long termIndexOffset = data.size();
+            for (int i = 0; i < termCount; i++) {
+                data.writeLong(termOffsets[i]);
+            }
+            long docIndexOffset = data.size();
+            for (long offset : docOffsets) {
+                data.writeLong(offset);
+            }
+            checkSize(data, file);
+            data.flush();
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putInt(VERSION).putInt(docs.size()).putInt(termCount)
+                    .putLong(totalLength).putLong(termIndexOffset).putLong(docIndexOffset);
+            header.clear();
+            while (header.hasRemaining()) {
+                out.write(header, header.position());
+            }
+            out.force(true);
+        }
+    }
+
+    private static void checkSize(DataOutputStream data, Path file) throws IOException {
+        // DataOutputStream.size() saturates at Integer.MAX_VALUE, which is also the mapping limit
+        if (data.size() == Integer.MAX_VALUE) {
+            throw new IOException("Segment exceeds 2GB: " + file);
+        }
+    }
+
+    private static int writeVarint(byte[] target, int position, int value) {
+        while ((value & ~0x7F) != 0) {
+            target[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        target[position++] = (byte) value;
+        return position;
+    }
+}
@@ -0,0 +1,802 @@
+package com.example.mcp.search;
+
+import com.example.mcp.storage.FileMetadataCache;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Persistent inverted index over the text files of the data directory.
+ *
+ * <p>The index is a set of immutable {@link IndexSegment} files listed in a manifest. Changes
+ * reported by the {@link FileMetadataCache} are batched by a single indexer thread into new
+ * segments; a replaced or deleted document is only masked out in memory, and small segments are
+ * merged once there are more than {@code max-segments}. On restart the segments are mapped again
+ * and only files whose size or modification time changed are re-read. Queries run against an
+ * immutable snapshot and are ranked with BM25.
+ */
+@Component
+public class SearchIndex implements FileMetadataCache.Listener {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchIndex.class);
+
+    private static final String MANIFEST = "manifest";
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".idx";
+    private static final int BINARY_PROBE_BYTES = 8192;
+    private static final int SNIPPET_SCAN_BYTES = 256 * 1024;
+    private static final int SNIPPET_LENGTH = 200;
+    private static final int MAX_QUERY_TERMS = 32;
+    private static final long MAX_MERGE_BYTES = 1L << 30;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    public record Hit(String path, double score, long size, long lastModified, String snippet) {
+    }
+
+    public record SearchResult(List<Hit> hits, int totalMatches, boolean upToDate) {
+    }
+
+    private record DocRef(IndexSegment segment, int doc, long lastModified, long size) {
+    }
+
+    private record Snapshot(List<IndexSegment> segments, List<BitSet> live, int liveDocs, long liveLength) {
+    }
+
+    private record Candidate(double score, int segment, int doc) {
+    }
+
+    private final FileMetadataCache metadataCache;
+    private final Path indexDirectory;
+    private final boolean enabled;
+    private final long maxFileSize;
+    private final int segmentMaxDocs;
+    private final int maxSegments;
+    private final long commitIntervalMillis;
+
+    // Owned by the indexer thread
+    private final Map<String, DocRef> documents = new HashMap<>();
+    private final Map<IndexSegment, BitSet> liveDocs = new HashMap<>();
+    private final List<IndexSegment> segments = new ArrayList<>();
+    private long nextGeneration = 1;
+
+    private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+    private volatile Snapshot snapshot = new Snapshot(List.of(), List.of(), 0, 0);
+    private volatile boolean running;
+    private volatile boolean reconciled;
+    private Thread indexerThread;
+
+    @Autowired
+    public SearchIndex(FileMetadataCache metadataCache,
+                       @Value("${mcp.search.index-directory:./search-index}") String indexDirectory,
+                       @Value("${mcp.search.enabled:true}") boolean enabled,
+                       @Value("${mcp.search.max-file-size:8388608}") long maxFileSize,
+                       @Value("${mcp.search.segment-max-docs:10000}") int segmentMaxDocs,
+                       @Value("${mcp.search.max-segments:8}") int maxSegments,
+                       @Value("${mcp.search.commit-interval-ms:1000}") long commitIntervalMillis) {
+        this.metadataCache = metadataCache;
+        this.indexDirectory = Paths.get(indexDirectory).toAbsolutePath().normalize();
+        this.enabled = enabled;
+        this.maxFileSize = maxFileSize;
+        this.segmentMaxDocs = segmentMaxDocs;
+        this.maxSegments = Math.max(2, maxSegments);
+        this.commitIntervalMillis = commitIntervalMillis;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            logger.info("Search index disabled");
+            return;
+        }
+        try {
+            Files.createDirectories(indexDirectory);
+            load();
+        } catch (IOException e) {
+            logger.error("Failed to open search index in {}: {}", indexDirectory, e.getMessage(), e);
+            return;
+        }
+        publish();
+
+        running = true;
+        metadataCache.addListener(this);
+        indexerThread = new Thread(this::indexLoop, "search-indexer");
+        indexerThread.setDaemon(true);
+        indexerThread.start();
+        logger.info("Search index opened: {} documents in {} segments", documents.size(), segments.size());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        metadataCache.removeListener(this);
+        indexerThread.interrupt();
+        try {
+            indexerThread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (IndexSegment segment : segments) {
+            closeQuietly(segment);
+        }
+    }
+
+    public boolean isEnabled() {
+        return running;
+    }
+
+    @Override
+    public void onFileChange(FileMetadataCache.FileChange change) {
+        if (!change.directory()) {
+            dirty.add(relativePath(change.path()));
+        }
+    }
+
+    /**
+     * Ranks live documents against the terms of {@code query}; documents matching more of the
+     * terms are preferred. {@code pathPrefix} optionally restricts hits to part of the tree.
+     */
+    public SearchResult search(String query, String pathPrefix, int limit) {
+        Snapshot current = snapshot;
+        boolean upToDate = reconciled && dirty.isEmpty();
+
+        Set<String> terms = new LinkedHashSet<>();
+        Tokenizer.tokenize(query, term -> {
+            if (terms.size() < MAX_QUERY_TERMS) {
+                terms.add(term);
+            }
+        });
+        if (terms.isEmpty() || current.liveDocs() == 0 || limit <= 0) {
+            return new SearchResult(List.of(), 0, upToDate);
+        }
+
+        List<byte[]> termBytes = terms.stream().map(t -> t.getBytes(StandardCharsets.UTF_8)).toList();
+        double averageLength = Math.max(1.0, (double) current.liveLength() / current.liveDocs());
+
+        double[] idf = new double[termBytes.size()];
+        for (int t = 0; t < termBytes.size(); t++) {
+            long docFreq = 0;
+            for (IndexSegment segment : current.segments()) {
+                int entry = segment.findTerm(termBytes.get(t));
+                if (entry >= 0) {
+                    docFreq += segment.docFreq(entry);
+                }
+            }
+            docFreq = Math.min(docFreq, current.liveDocs());
+            idf[t] = Math.log(1 + (current.liveDocs() - docFreq + 0.5) / (docFreq + 0.5));
+        }
+
+        PriorityQueue<Candidate> top = new PriorityQueue<>(limit + 1, Comparator.comparingDouble(Candidate::score));
+        int totalMatches = 0;
+        int[] docs = new int[256];
+        int[] freqs = new int[256];
+
+        for (int s = 0; s < current.segments().size(); s++) {
+            IndexSegment segment = current.segments().get(s);
+            BitSet live = current.live().get(s);
+            float[] scores = null;
+            byte[] matched = null;
+
+            for (int t = 0; t < termBytes.size(); t++) {
+                int entry = segment.findTerm(termBytes.get(t));
+                if (entry < 0) {
+                    continue;
+                }
+                int count = segment.docFreq(entry);
+                if (docs.length < count) {
+                    docs = new int[count];
+                    freqs = new int[count];
+                }
+                segment.readPostings(entry, docs, freqs);
+
+                if (scores == null) {
+                    scores = new float[segment.docCount()];
+                    matched = new byte[segment.docCount()];
+                }
+                for (int i = 0; i < count; i++) {
+                    int doc = docs[i];
+                    if (!live.get(doc)) {
+                        continue;
+                    }
+                    double tf = freqs[i];
+                    double norm = K1 * (1 - B + B * segment.docLength(doc) / averageLength);
+                    scores[doc] += (float) (idf[t] * tf * (K1 + 1) / (tf + norm));
+                    matched[doc]++;
+                }
+            }
+            if (scores == null) {
+                continue;
+            }
+
+            for (int doc = 0; doc < scores.length; doc++) {
+                if (scores[doc] <= 0) {
+                    continue;
+                }
+                if (pathPrefix != null && !pathPrefix.isEmpty() && !segment.doc(doc).path().startsWith(pathPrefix)) {
+                    continue;
+                }
+                totalMatches++;
+                double score = scores[doc] * matched[doc] / (double) termBytes.size();
+                if (top.size() < limit) {
+                    top.add(new Candidate(score, s, doc));
+                } else if (score > top.peek().score()) {
+                    top.poll();
+                    top.add(new Candidate(score, s, doc));
+                }
+            }
+        }
+
+        List<Candidate> ranked = new ArrayList<>(top);
+        ranked.sort(Comparator.comparingDouble(Candidate::score).reversed());
+
+        Path root = metadataCache.getRoot();
+        List<Hit> hits = new ArrayList<>(ranked.size());
+        for (Candidate candidate : ranked) {
+            IndexSegment.Doc doc = current.segments().get(candidate.segment()).doc(candidate.doc());
+            hits.add(new Hit(doc.path(), candidate.score(), doc.size(), doc.lastModified(),
+                    snippet(root.resolve(doc.path()), terms)));
+        }
+        return new SearchResult(hits, totalMatches, upToDate);
+    }
+
+    public Map<String, Object> getStats() {
+        Snapshot current = snapshot;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", running);
+        stats.put("documents", current.liveDocs());
+        stats.put("segments", current.segments().size());
+        stats.put("pendingChanges", dirty.size());
+        stats.put("upToDate", reconciled && dirty.isEmpty());
+        return stats;
+    }
+
+    private void indexLoop() {
+        try {
+            reconcile();
+
+            while (running) {
+                try {
+                    applyChanges();
+                    if (!reconciled) {
+                        reconciled = true;
+                        logger.info("Search index up to date: {} documents in {} segments",
+                                documents.size(), segments.size());
+                    }
+                } catch (IOException e) {
+                    logger.error("Failed to update search index, retrying: {}", e.getMessage(), e);
+                }
+                Thread.sleep(commitIntervalMillis);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            logger.error("Search indexer stopped: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Queues every file whose indexed size or modification time is stale, and every indexed
+     * document whose file is gone.
+     */
+    private void reconcile() throws IOException {
+        Set<String> seen = new HashSet<>();
+        metadataCache.forEachFile((path, attributes) -> {
+            if (path.startsWith(indexDirectory)) {
+                return;
+            }
+            String relative = relativePath(path);
+            seen.add(relative);
+            DocRef ref = documents.get(relative);
+            if (ref == null
+                    || ref.lastModified() != attributes.lastModifiedTime().toMillis()
+                    || ref.size() != attributes.size()) {
+                dirty.add(relative);
+            }
+        });
+        for (String path : documents.keySet()) {
+            if (!seen.contains(path)) {
+                dirty.add(path);
+            }
+        }
+        logger.info("Search index reconciled: {} files to (re)index or drop", dirty.size());
+    }
+
+    private void applyChanges() throws IOException {
+        List<String> batch = new ArrayList<>(dirty.size());
+        for (Iterator<String> it = dirty.iterator(); it.hasNext(); ) {
+            batch.add(it.next());
+            it.remove();
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            applyChanges(batch);
+        } catch (IOException e) {
+            // Documents already masked or re-added are redone on the retry; the manifest on disk
+            // still describes the last successful commit
+            dirty.addAll(batch);
+            throw e;
+        }
+    }
+
+    private void applyChanges(List<String> batch) throws IOException {
+        Path root = metadataCache.getRoot();
+        SegmentBuilder builder = new SegmentBuilder();
+        boolean changed = false;
+
+        for (String path : batch) {
+            DocRef previous = documents.remove(path);
+            if (previous != null) {
+                liveDocs.get(previous.segment()).clear(previous.doc());
+                changed = true;
+            }
+
+            Path file = root.resolve(path);
+            if (file.startsWith(indexDirectory)) {
+                continue;
+            }
+            BasicFileAttributes attributes = metadataCache.stat(file);
+            if (attributes == null || !attributes.isRegularFile() || attributes.size() > maxFileSize) {
+                continue;
+            }
+            String text = readText(file);
+            if (text == null) {
+                continue;
+            }
+            builder.add(path, attributes, text);
+            changed = true;
+
+            if (builder.size() >= segmentMaxDocs) {
+                commit(builder);
+                builder = new SegmentBuilder();
+            }
+        }
+        if (builder.size() > 0) {
+            commit(builder);
+        }
+        if (!changed) {
+            return;
+        }
+
+        List<IndexSegment> obsolete = new ArrayList<>();
+        for (IndexSegment segment : new ArrayList<>(segments)) {
+            if (liveDocs.get(segment).isEmpty()) {
+                segments.remove(segment);
+                liveDocs.remove(segment);
+                obsolete.add(segment);
+            }
+        }
+        obsolete.addAll(mergeSegments());
+
+        writeManifest();
+        publish();
+        for (IndexSegment segment : obsolete) {
+            closeQuietly(segment);
+            Files.deleteIfExists(segment.file());
+        }
+        logger.debug("Search index updated: {} changes, {} documents in {} segments",
+                batch.size(), documents.size(), segments.size());
+    }
+
+    private void commit(SegmentBuilder builder) throws IOException {
+        IndexSegment segment = writeSegment(builder.docs(), builder.terms());
+        for (int i = 0; i < segment.docCount(); i++) {
+            IndexSegment.Doc doc = builder.docs().get(i);
+            documents.put(doc.path(), new DocRef(segment, i, doc.lastModified(), doc.size()));
+        }
+    }
+
+    private IndexSegment writeSegment(List<IndexSegment.Doc> docs, Iterator<IndexSegment.TermPostings> terms)
+            throws IOException {
+        long generation = nextGeneration++;
+        Path target = indexDirectory.resolve(SEGMENT_PREFIX + generation + SEGMENT_SUFFIX);
+        Path temp = indexDirectory.resolve(target.getFileName() + ".tmp");
+        Files.deleteIfExists(temp);
+        IndexSegment.write(temp, docs, terms);
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+
+        IndexSegment segment = IndexSegment.open(target, generation);
+        BitSet live = new BitSet(segment.docCount());
+        live.set(0, segment.docCount());
+        segments.add(segment);
+        liveDocs.put(segment, live);
+        return segment;
+    }
+
+    /**
+     * Merges the segments with the fewest live documents while there are too many, dropping
+     * deleted documents. Returns the segments that were replaced.
+     */
+    private List<IndexSegment> mergeSegments() throws IOException {
+        if (segments.size() <= maxSegments) {
+            return List.of();
+        }
+
+        List<IndexSegment> bySize = new ArrayList<>(segments);
+        bySize.sort(Comparator.comparingInt(s -> liveDocs.get(s).cardinality()));
+        List<IndexSegment> inputs = new ArrayList<>();
+        long bytes = 0;
+        for (IndexSegment segment : bySize) {
+            long size = Files.size(segment.file());
+            if (inputs.size() >= segments.size() - maxSegments + 1 && inputs.size() >= 2) {
+                break;
+            }
+            if (bytes + size > MAX_MERGE_BYTES) {
+                continue;
+            }
+            inputs.add(segment);
+            bytes += size;
+        }
+        if (inputs.size() < 2) {
+            return List.of();
+        }
+        inputs.sort(Comparator.comparingLong(IndexSegment::generation));
+
+        List<IndexSegment.Doc> docs = new ArrayList<>();
+        int[][] remap = new int[inputs.size()][];
+        for (int s = 0; s < inputs.size(); s++) {
+            IndexSegment segment = inputs.get(s);
+            BitSet live = liveDocs.get(segment);
+            remap[s] = new int[segment.docCount()];
+            Arrays.fill(remap[s], -1);
+            for (int doc = live.nextSetBit(0); doc >= 0; doc = live.nextSetBit(doc + 1)) {
+                remap[s][doc] = docs.size();
+                docs.add(segment.doc(doc));
+            }
+        }
+
+        IndexSegment merged = writeSegment(docs, new MergingTermIterator(inputs, remap));
+        for (int i = 0; i < merged.docCount(); i++) {
+            IndexSegment.Doc doc = docs.get(i);
+            documents.put(doc.path(), new DocRef(merged, i, doc.lastModified(), doc.size()));
+        }
+        for (IndexSegment segment : inputs) {
+            segments.remove(segment);
+            liveDocs.remove(segment);
+        }
+        logger.debug("Merged {} segments into {} ({} documents)", inputs.size(), merged.file().getFileName(), docs.size());
+        return inputs;
+    }
+
+    private void publish() {
+        List<IndexSegment> current = List.copyOf(segments);
+        List<BitSet> live = new ArrayList<>(current.size());
+        int liveCount = 0;
+        long liveLength = 0;
+        for (IndexSegment segment : current) {
+            BitSet bits = (BitSet) liveDocs.get(segment).clone();
+            live.add(bits);
+            liveCount += bits.cardinality();
+            for (int doc = bits.nextSetBit(0); doc >= 0; doc = bits.nextSetBit(doc + 1)) {
+                liveLength += segment.docLength(doc);
+            }
+        }
+        snapshot = new Snapshot(current, live, liveCount, liveLength);
+    }
+
+    /**
+     * Maps the segments named in the manifest; newer segments shadow older copies of a document.
+     */
+    private void load() throws IOException {
+        Path manifest = indexDirectory.resolve(MANIFEST);
+        Set<String> listed = new HashSet<>();
+        if (Files.exists(manifest)) {
+            for (String line : Files.readAllLines(manifest, StandardCharsets.UTF_8)) {
+                if (line.startsWith("generation ")) {
+                    nextGeneration = Long.parseLong(line.substring("generation ".length()).trim());
+                } else if (line.startsWith(SEGMENT_PREFIX)) {
+                    listed.add(line.trim());
+                }
+            }
+        }
+
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(indexDirectory)) {
+            for (Path file : stream) {
+                String name = file.getFileName().toString();
+                if (name.equals(MANIFEST)) {
+                    continue;
+                }
+                if (!listed.contains(name)) {
+                    Files.deleteIfExists(file); // left over from an interrupted commit or merge
+                    continue;
+                }
+                long generation = Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+                try {
+                    segments.add(IndexSegment.open(file, generation));
+                } catch (IOException e) {
+                    logger.warn("Dropping unreadable index segment {}: {}", name, e.getMessage());
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+
+        segments.sort(Comparator.comparingLong(IndexSegment::generation));
+        for (IndexSegment segment : segments) {
+            BitSet live = new BitSet(segment.docCount());
+            live.set(0, segment.docCount());
+            liveDocs.put(segment, live);
+            for (int i = 0; i < segment.docCount(); i++) {
+                IndexSegment.Doc doc = segment.doc(i);
+                DocRef previous = documents.put(doc.path(), new DocRef(segment, i, doc.lastModified(), doc.size()));
+                if (previous != null) {
+                    liveDocs.get(previous.segment()).clear(previous.doc());
+                }
+            }
+            nextGeneration = Math.max(nextGeneration, segment.generation() + 1);
+        }
+    }
+
+    private void writeManifest() throws IOException {
+        StringBuilder content = new StringBuilder("generation ").append(nextGeneration).append('\n');
+        for (IndexSegment segment : segments) {
+            content.append(segment.file().getFileName()).append('\n');
+        }
+        Path temp = indexDirectory.resolve(MANIFEST + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(content.toString().getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(temp, indexDirectory.resolve(MANIFEST), StandardCopyOption.ATOMIC_MOVE,
+                StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private String readText(Path file) {
+        try {
+            byte[] bytes = Files.readAllBytes(file);
+            int probe = Math.min(bytes.length, BINARY_PROBE_BYTES);
+            for (int i = 0; i < probe; i++) {
+                if (bytes[i] == 0) {
+                    return null;
+                }
+            }
+            return new String(bytes, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            logger.debug("Skipping {} for indexing: {}", file, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Text around the first whole-word occurrence of a query term in the head of the file.
+     */
+    private String snippet(Path file, Collection<String> terms) {
+        String text;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(SNIPPET_SCAN_BYTES, channel.size()));
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // fill up to the scan limit
+            }
+            text = new String(buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            return null;
+        }
+
+        String lower = text.toLowerCase(Locale.ROOT);
+        if (lower.length() != text.length()) {
+            text = lower; // keep offsets aligned when lower-casing changed the length
+        }
+
+        int best = -1;
+        for (String term : terms) {
+            int from = 0;
+            int index;
+            while ((index = lower.indexOf(term, from)) >= 0 && (best < 0 || index < best)) {
+                if (isWordAt(lower, index, term.length())) {
+                    best = index;
+                    break;
+                }
+                from = index + 1;
+            }
+        }
+
+        int start = best < 0 ? 0 : Math.max(0, best - SNIPPET_LENGTH / 3);
+        int end = Math.min(text.length(), start + SNIPPET_LENGTH);
+        String snippet = text.substring(start, end).replaceAll("\\s+", " ").strip();
+        return (start > 0 ? "..." : "") + snippet + (end < text.length() ? "..." : "");
+    }
+
+    private static boolean isWordAt(String text, int index, int length) {
+        if (Character.isIdeographic(text.codePointAt(index))) {
+            return true;
+        }
+        boolean startsWord = index == 0 || !Character.isLetterOrDigit(text.codePointBefore(index));
+        int end = index + length;
+        boolean endsWord = end >= text.length() || !Character.isLetterOrDigit(text.codePointAt(end));
+        return startsWord && endsWord;
+    }
+
+    private String relativePath(Path path) {
+        return metadataCache.getRoot().relativize(path.toAbsolutePath().normalize()).toString().replace('\\', '/');
+    }
+
+    private void closeQuietly(IndexSegment segment) {
+        try {
+            segment.close();
+        } catch (IOException e) {
+            logger.debug("Error closing segment {}: {}", segment.file(), e.getMessage());
+        }
+    }
+
+    /**
+     * Accumulates documents and their postings in memory until they are written as a segment.
+     */
+    private static final class SegmentBuilder {
+
+        private final List<IndexSegment.Doc> docs = new ArrayList<>();
+        private final Map<String, Postings> postings = new HashMap<>();
+
+        private static final class Postings {
+            int[] docs = new int[4];
+            int[] freqs = new int[4];
+            int count;
+
+            void add(int doc, int freq) {
+                if (count == docs.length) {
+                    docs = Arrays.copyOf(docs, count * 2);
+                    freqs = Arrays.copyOf(freqs, count * 2);
+                }
+                docs[count] = doc;
+                freqs[count++] = freq;
+            }
+        }
+
+        void add(String path, BasicFileAttributes attributes, String text) {
+            Map<String, int[]> frequencies = new HashMap<>();
+            int[] length = new int[1];
+            Tokenizer.tokenize(text, term -> {
+                frequencies.computeIfAbsent(term, k -> new int[1])[0]++;
+                length[0]++;
+            });
+
+            int doc = docs.size();
+            docs.add(new IndexSegment.Doc(path, attributes.lastModifiedTime().toMillis(), attributes.size(), length[0]));
+            frequencies.forEach((term, freq) -> postings.computeIfAbsent(term, k -> new Postings()).add(doc, freq[0]));
+        }
+
+        int size() {
+            return docs.size();
+        }
+
+        List<IndexSegment.Doc> docs() {
+            return docs;
+        }
+
+        Iterator<IndexSegment.TermPostings> terms() {
+            List<IndexSegment.TermPostings> sorted = new ArrayList<>(postings.size());
+            postings.forEach((term, list) -> sorted.add(new IndexSegment.TermPostings(
+                    term.getBytes(StandardCharsets.UTF_8), list.docs, list.freqs, list.count)));
+            sorted.sort((a, b) -> Arrays.compareUnsigned(a.term(), b.term()));
+            return sorted.iterator();
+        }
+    }
+
+    /**
+     * K-way merge of the term dictionaries of several segments, renumbering live documents.
+     */
+    private static final class MergingTermIterator implements Iterator<IndexSegment.TermPostings> {
+
+        private final List<IndexSegment> inputs;
+        private final int[][] remap;
+        private final int[] ordinals;
+        private final PriorityQueue<Integer> heads;
+        private final byte[][] currentTerms;
+        private IndexSegment.TermPostings next;
+        private int[] docs = new int[256];
+        private int[] freqs = new int[256];
+
+        MergingTermIterator(List<IndexSegment> inputs, int[][] remap) {
+            this.inputs = inputs;
+            this.remap = remap;
+            this.ordinals = new int[inputs.size()];
+            this.currentTerms = new byte[inputs.size()][];
+            this.heads = new PriorityQueue<>((a, b) -> {
+                int cmp = Arrays.compareUnsigned(currentTerms[a], currentTerms[b]);
+                return cmp != 0 ? cmp : Integer.compare(a, b);
+            });
+            for (int s = 0; s < inputs.size(); s++) {
+                advance(s);
+            }
+        }
+
+        private void advance(int s) {
+            IndexSegment segment = inputs.get(s);
+            if (ordinals[s] < segment.termCount()) {
+                currentTerms[s] = segment.term(segment.termEntry(ordinals[s]));
+                heads.add(s);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && !heads.isEmpty()) {
+                byte[] term = currentTerms[heads.peek()];
+                int[] mergedDocs = new int[16];
+                int[] mergedFreqs = new int[16];
+                int count = 0;
+
+                // Segments are ordered by generation and renumbered in that order, so doc ids stay sorted
+                while (!heads.isEmpty() && Arrays.equals(currentTerms[heads.peek()], term)) {
+                    int s = heads.poll();
+                    IndexSegment segment = inputs.get(s);
+                    int entry = segment.termEntry(ordinals[s]);
+                    int docFreq = segment.docFreq(entry);
+                    if (docs.length < docFreq) {
+                        docs = new int[docFreq];
+                        freqs = new int[docFreq];
+                    }
+                    segment.readPostings(entry, docs, freqs);
+                    for (int i = 0; i < docFreq; i++) {
+                        int doc = remap[s][docs[i]];
+                        if (doc < 0) {
+                            continue;
+                        }
+                        if (count == mergedDocs.length) {
+                            mergedDocs = Arrays.copyOf(mergedDocs, count * 2);
+                            mergedFreqs = Arrays.copyOf(mergedFreqs, count * 2);
+                        }
+                        mergedDocs[count] = doc;
+                        mergedFreqs[count++] = freqs[i];
+                    }
+                    ordinals[s]++;
+                    advance(s);
+                }
+                if (count > 0) {
+                    next = new IndexSegment.TermPostings(term, mergedDocs, mergedFreqs, count);
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public IndexSegment.TermPostings next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            IndexSegment.TermPostings result = next;
+            next = null;
+            return result;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.mcp.search;
+
+import java.util.Locale;
+import java.util.function.Consumer;
+
+/**
+ * Splits text into lower-cased terms: runs of letters and digits, with every CJK ideograph as a
+ * term of its own. Used for both indexing and queries so the two always agree.
+ */
+final class Tokenizer {
+
+    static final int MAX_TERM_LENGTH = 64;
+
+    private Tokenizer() {
+    }
+
+    static void tokenize(CharSequence text, Consumer<String> terms) {
+        int length = text.length();
+        int start = -1;
+
+        for (int i = 0; i < length; ) {
+            int codePoint = Character.codePointAt(text, i);
+            int next = i + Character.charCount(codePoint);
+
+            if (Character.isIdeographic(codePoint)) {
+                emit(text, start, i, terms);
+                start = -1;
+                terms.accept(new String(Character.toChars(codePoint)));
+            } else if (Character.isLetterOrDigit(codePoint)) {
+                if (start < 0) {
+                    start = i;
+                }
+            } else {
+                emit(text, start, i, terms);
+                start = -1;
+            }
+            i = next;
+        }
+        emit(text, start, length, terms);
+    }
+
+    private static void emit(CharSequence text, int start, int end, Consumer<String> terms) {
+        if (start < 0 || end - start > MAX_TERM_LENGTH) {
+            return; // long runs are hashes, base64 and the like; not worth indexing
+        }
+        terms.accept(text.subSequence(start, end).toString().toLowerCase(Locale.ROOT));
+    }
+}
@@ -3,6 +3,8 @@ package com.example.mcp.server;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Objects;
 
 @JsonInclude(JsonInclude.Include.NON_NULL)
@@ -18,6 +20,7 @@ public class McpError {
     public static final int TOOL_ERROR = -32001;
     public static final int PROMPT_ERROR = -32002;
     public static final int CAPABILITY_NOT_SUPPORTED = -32003;
+    public static final int RATE_LIMITED = -32004;
 
     @JsonProperty("code")
     private int code;
@@ -102,6 +105,20 @@ public class McpError {
                 "Capability '" + capability + "' is not supported by this server");
     }
 
+    /**
+     * @param scope what was limited, {@code client} or {@code tool}
+     * @param tool the limited tool, or {@code null}
+     */
+    public static McpError rateLimited(String scope, String tool, long retryAfterMillis) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("scope", scope);
+        if (tool != null) {
+            data.put("tool", tool);
+        }
+        data.put("retryAfterMs", retryAfterMillis);
+        return new McpError(RATE_LIMITED, "Rate limit exceeded", data);
+    }
+
     public int getCode() {
         return code;
     }
@@ -0,0 +1,18 @@
+package com.example.mcp.server;
+
+/**
+ * Carries a specific JSON-RPC error out of a handler; anything else becomes an internal error.
+ */
+public class McpException extends RuntimeException {
+
+    private final McpError error;
+
+    public McpException(McpError error) {
+        super(error.getData() != null ? String.valueOf(error.getData()) : error.getMessage());
+        this.error = error;
+    }
+
+    public McpError getError() {
+        return error;
+    }
+}
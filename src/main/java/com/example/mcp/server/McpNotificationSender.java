@@ -0,0 +1,18 @@
+package com.example.mcp.server;
+
+import java.util.function.Consumer;
+
+/**
+ * Delivers server-initiated notifications to a single client session.
+ */
+public interface McpNotificationSender {
+
+    /**
+     * @return {@code false} if the session has no open connection to deliver to
+     */
+    boolean sendNotification(String sessionId, McpMessage notification);
+
+    boolean isConnected(String sessionId);
+
+    void addSessionCloseListener(Consumer<String> listener);
+}
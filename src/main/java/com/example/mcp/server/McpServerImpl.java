@@ -1,5 +1,8 @@
 package com.example.mcp.server;
 
+import com.example.mcp.ratelimit.RateLimiter;
+import com.example.mcp.session.McpSession;
+import com.example.mcp.session.SessionStore;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
@@ -11,7 +14,9 @@ import org.springframework.stereotype.Service;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
 import java.util.function.Function;
 
 @Service
@@ -20,7 +25,9 @@ public class McpServerImpl {
     private static final Logger logger = LoggerFactory.getLogger(McpServerImpl.class);
 
     private final ObjectMapper objectMapper;
-    private final Map<String, Function<JsonNode, CompletableFuture<Object>>> methodHandlers;
+    private final SessionStore sessions;
+    private final RateLimiter rateLimiter;
+    private final Map<String, BiFunction<JsonNode, String, CompletableFuture<Object>>> methodHandlers;
     private final Map<String, Object> serverCapabilities;
     private volatile String currentLogLevel = "INFO";
 
@@ -33,9 +40,15 @@ public class McpServerImpl {
     @Value("${mcp.server.version:1.0.0}")
     private String serverVersion;
 
-    @Autowired
     public McpServerImpl(ObjectMapper objectMapper) {
+        this(objectMapper, new SessionStore(), new RateLimiter());
+    }
+
+    @Autowired
+    public McpServerImpl(ObjectMapper objectMapper, SessionStore sessions, RateLimiter rateLimiter) {
         this.objectMapper = objectMapper;
+        this.sessions = sessions;
+        this.rateLimiter = rateLimiter;
         this.methodHandlers = new ConcurrentHashMap<>();
         this.serverCapabilities = new HashMap<>();
 
@@ -47,13 +60,13 @@ public class McpServerImpl {
 
     private void initializeMethodHandlers() {
         methodHandlers.put("initialize", this::handleInitialize);
-        methodHandlers.put("ping", this::handlePing);
-        methodHandlers.put("tools/list", this::handleToolsList);
-        methodHandlers.put("tools/call", this::handleToolsCall);
-        methodHandlers.put("resources/list", this::handleResourcesList);
-        methodHandlers.put("resources/read", this::handleResourcesRead);
-        methodHandlers.put("prompts/list", this::handlePromptsList);
-        methodHandlers.put("prompts/get", this::handlePromptsGet);
+        putHandler("ping", this::handlePing);
+        putHandler("tools/list", this::handleToolsList);
+        putHandler("tools/call", this::handleToolsCall);
+        putHandler("resources/list", this::handleResourcesList);
+        putHandler("resources/read", this::handleResourcesRead);
+        putHandler("prompts/list", this::handlePromptsList);
+        putHandler("prompts/get", this::handlePromptsGet);
         methodHandlers.put("logging/setLevel", this::handleLoggingSetLevel);
 
         logger.debug("Initialized {} method handlers", methodHandlers.size());
@@ -70,7 +83,28 @@ public class McpServerImpl {
         logger.debug("Server capabilities: {}", serverCapabilities);
     }
 
+    private void putHandler(String method, Function<JsonNode, CompletableFuture<Object>> handler) {
+        methodHandlers.put(method, (params, sessionId) -> handler.apply(params));
+    }
+
     public CompletableFuture<McpMessage> processMessage(McpMessage message) {
+        return processMessage(message, null);
+    }
+
+    /**
+     * Processes a message on behalf of a client session, e.g. the {@code Mcp-Session-Id} of an
+     * HTTP request. Session-aware handlers such as {@code resources/subscribe} need it;
+     * {@code sessionId} may be {@code null} when the transport has no sessions.
+     */
+    public CompletableFuture<McpMessage> processMessage(McpMessage message, String sessionId) {
+        return processMessage(message, sessionId, sessionId);
+    }
+
+    /**
+     * @param clientId who requests are rate limited as (see {@link RateLimiter#clientId}), or
+     *                 {@code null} to apply only the per-tool limits
+     */
+    public CompletableFuture<McpMessage> processMessage(McpMessage message, String sessionId, String clientId) {
         logger.debug("Processing message: {}", message);
 
         if (message == null) {
@@ -86,13 +120,17 @@ public class McpServerImpl {
             );
         }
 
+        if (sessionId != null) {
+            sessions.getOrCreate(sessionId);
+        }
+
         if (message.isNotification()) {
-            handleNotification(message);
+            handleNotification(message, sessionId);
             return CompletableFuture.completedFuture(null);
         }
 
         if (message.isRequest()) {
-            return handleRequest(message);
+            return handleRequest(message, sessionId, clientId);
         }
 
         return CompletableFuture.completedFuture(
@@ -101,13 +139,18 @@ public class McpServerImpl {
         );
     }
 
-    private CompletableFuture<McpMessage> handleRequest(McpMessage request) {
+    private CompletableFuture<McpMessage> handleRequest(McpMessage request, String sessionId, String clientId) {
         String method = request.getMethod();
         Object id = request.getId();
 
         logger.debug("Handling request: method={}, id={}", method, id);
 
-        Function<JsonNode, CompletableFuture<Object>> handler = methodHandlers.get(method);
+        McpError limited = rateLimiter.check(clientId, method, request.getParams());
+        if (limited != null) {
+            return CompletableFuture.completedFuture(McpMessage.createErrorResponse(id, limited));
+        }
+
+        BiFunction<JsonNode, String, CompletableFuture<Object>> handler = methodHandlers.get(method);
         if (handler == null) {
             logger.warn("Method not found: {}", method);
             return CompletableFuture.completedFuture(
@@ -116,13 +159,22 @@ public class McpServerImpl {
         }
 
         try {
-            return handler.apply(request.getParams())
+            return handler.apply(request.getParams(), sessionId)
                 .thenApply(result -> McpMessage.createResponse(id, result))
                 .exceptionally(throwable -> {
+                    Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null
+                        ? throwable.getCause() : throwable;
+                    if (cause instanceof McpException mcpException) {
+                        logger.debug("Request {} rejected: {}", method, mcpException.getMessage());
+                        return McpMessage.createErrorResponse(id, mcpException.getError());
+                    }
                     logger.error("Error handling request {}: {}", method, throwable.getMessage(), throwable);
                     return McpMessage.createErrorResponse(id,
                         McpError.internalError(throwable.getMessage()));
                 });
+        } catch (McpException e) {
+            logger.debug("Request {} rejected: {}", method, e.getMessage());
+            return CompletableFuture.completedFuture(McpMessage.createErrorResponse(id, e.getError()));
         } catch (Exception e) {
             logger.error("Exception handling request {}: {}", method, e.getMessage(), e);
             return CompletableFuture.completedFuture(
@@ -131,13 +183,13 @@ public class McpServerImpl {
         }
     }
 
-    private void handleNotification(McpMessage notification) {
+    private void handleNotification(McpMessage notification, String sessionId) {
         String method = notification.getMethod();
         logger.debug("Handling notification: method={}", method);
 
-        Function<JsonNode, CompletableFuture<Object>> handler = methodHandlers.get(method);
+        BiFunction<JsonNode, String, CompletableFuture<Object>> handler = methodHandlers.get(method);
         if (handler != null) {
-            handler.apply(notification.getParams())
+            handler.apply(notification.getParams(), sessionId)
                 .whenComplete((result, throwable) -> {
                     if (throwable != null) {
                         logger.warn("Error handling notification {}: {}", method, throwable.getMessage());
@@ -150,9 +202,15 @@ public class McpServerImpl {
         }
     }
 
-    private CompletableFuture<Object> handleInitialize(JsonNode params) {
+    private CompletableFuture<Object> handleInitialize(JsonNode params, String sessionId) {
         logger.info("Handling initialize request");
 
+        McpSession session = sessionId != null ? sessions.get(sessionId) : null;
+        if (session != null && params != null) {
+            session.initialize(params.path("protocolVersion").asText(null),
+                params.get("clientInfo"), params.get("capabilities"));
+        }
+
         Map<String, Object> response = new HashMap<>();
         response.put("protocolVersion", protocolVersion);
         response.put("capabilities", serverCapabilities);
@@ -212,7 +270,7 @@ public class McpServerImpl {
         );
     }
 
-    private CompletableFuture<Object> handleLoggingSetLevel(JsonNode params) {
+    private CompletableFuture<Object> handleLoggingSetLevel(JsonNode params, String sessionId) {
         logger.debug("Handling logging/setLevel request");
 
         try {
@@ -231,8 +289,15 @@ public class McpServerImpl {
                 );
             }
 
-            String previousLevel = currentLogLevel;
-            currentLogLevel = level;
+            McpSession session = sessionId != null ? sessions.get(sessionId) : null;
+            String previousLevel;
+            if (session != null) {
+                previousLevel = session.getLogLevel() != null ? session.getLogLevel() : currentLogLevel;
+                session.setLogLevel(level);
+            } else {
+                previousLevel = currentLogLevel;
+                currentLogLevel = level;
+            }
 
             logger.info("Log level changed from {} to {}", previousLevel, level);
 
@@ -269,10 +334,23 @@ public class McpServerImpl {
     }
 
     public void registerMethodHandler(String method, Function<JsonNode, CompletableFuture<Object>> handler) {
-        methodHandlers.put(method, handler);
+        putHandler(method, handler);
         logger.debug("Registered handler for method: {}", method);
     }
 
+    /**
+     * Registers a handler that also receives the calling session id (possibly {@code null}).
+     */
+    public void registerSessionMethodHandler(String method,
+                                             BiFunction<JsonNode, String, CompletableFuture<Object>> handler) {
+        methodHandlers.put(method, handler);
+        logger.debug("Registered session handler for method: {}", method);
+    }
+
+    public void setServerCapability(String name, Object value) {
+        serverCapabilities.put(name, value);
+    }
+
     public Map<String, Object> getServerCapabilities() {
         return new HashMap<>(serverCapabilities);
     }
@@ -0,0 +1,114 @@
+package com.example.mcp.session;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * State kept for one client session between requests: what was negotiated at
+ * {@code initialize} and the session's log level. Fields are written rarely and read on every
+ * request, so they are plain volatiles.
+ */
+public final class McpSession {
+
+    // Node, map entry, this object and its id, roughly
+    private static final int BASE_BYTES = 256;
+
+    private final String id;
+    private final long createdAt;
+    private volatile long lastAccessNanos;
+
+    private volatile String protocolVersion;
+    private volatile JsonNode clientInfo;
+    private volatile JsonNode clientCapabilities;
+    private volatile String logLevel;
+    private volatile int stateBytes;
+    private final AtomicInteger openStreams = new AtomicInteger();
+
+    McpSession(String id, long nowNanos) {
+        this.id = id;
+        this.createdAt = System.currentTimeMillis();
+        this.lastAccessNanos = nowNanos;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    long getLastAccessNanos() {
+        return lastAccessNanos;
+    }
+
+    void touch(long nowNanos) {
+        lastAccessNanos = nowNanos;
+    }
+
+    void pin() {
+        openStreams.incrementAndGet();
+    }
+
+    void unpin() {
+        openStreams.decrementAndGet();
+    }
+
+    /**
+     * Whether a transport holds a stream open for this session; such a session is neither
+     * expired nor evicted.
+     */
+    public boolean isPinned() {
+        return openStreams.get() > 0;
+    }
+
+    public String getProtocolVersion() {
+        return protocolVersion;
+    }
+
+    public JsonNode getClientInfo() {
+        return clientInfo;
+    }
+
+    public JsonNode getClientCapabilities() {
+        return clientCapabilities;
+    }
+
+    /**
+     * Records what the client sent in {@code initialize}.
+     */
+    public void initialize(String protocolVersion, JsonNode clientInfo, JsonNode clientCapabilities) {
+        this.protocolVersion = protocolVersion;
+        this.clientInfo = clientInfo;
+        this.clientCapabilities = clientCapabilities;
+        this.stateBytes = 2 * (length(protocolVersion) + length(clientInfo) + length(clientCapabilities));
+    }
+
+    /**
+     * @return the level set through {@code logging/setLevel}, or {@code null} if never set
+     */
+    public String getLogLevel() {
+        return logLevel;
+    }
+
+    public void setLogLevel(String logLevel) {
+        this.logLevel = logLevel;
+    }
+
+    /**
+     * A rough estimate of the memory this session holds, for the store's metrics.
+     */
+    long estimatedBytes() {
+        return BASE_BYTES + 2L * id.length() + stateBytes;
+    }
+
+    private static int length(Object value) {
+        return value == null ? 0 : value.toString().length();
+    }
+
+    @Override
+    public String toString() {
+        return "McpSession[" + id + "]";
+    }
+}
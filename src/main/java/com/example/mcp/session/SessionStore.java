@@ -0,0 +1,578 @@
+package com.example.mcp.session;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Client sessions, bounded by {@code mcp.sessions.max-sessions} and expired after
+ * {@code mcp.sessions.idle-ttl-ms} without a request.
+ *
+ * <p>Eviction follows W-TinyLFU: new sessions enter a small LRU window, and when the window
+ * overflows its oldest entry competes for a place in the main space against the main space's
+ * eviction victim, the one seen more often recently (per a {@link FrequencySketch}) winning.
+ * A flood of one-off session ids therefore cannot push out sessions that are in active use.
+ * The main space is a segmented LRU whose protected segment holds sessions accessed again
+ * after admission.
+ *
+ * <p>Lookups only read the concurrent map and record the access in a striped, lossy ring
+ * buffer; the LRU order and the sketch are updated from those buffers under a lock that is
+ * only tried, never waited for, on the read path.
+ *
+ * <p>Sessions a transport has {@linkplain #pin pinned} while its stream is open are skipped by
+ * both expiry and size eviction; if every session is pinned the store grows past its bound.
+ */
+@Component
+public class SessionStore implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(SessionStore.class);
+
+    public enum RemovalCause { EXPLICIT, EXPIRED, SIZE }
+
+    private static final int BUFFER_SIZE = 16;
+    private static final int BUFFER_MASK = BUFFER_SIZE - 1;
+    private static final int STRIPES = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() - 1)) << 1;
+    private static final double WINDOW_RATIO = 0.01;
+    private static final double PROTECTED_RATIO = 0.80;
+
+    private enum Segment { WINDOW, PROBATION, PROTECTED }
+
+    private static final class Node {
+        final String key;
+        final McpSession session;
+        // Guarded by the eviction lock
+        Segment segment;
+        boolean dead;
+        Node prev;
+        Node next;
+
+        Node(String key, McpSession session) {
+            this.key = key;
+            this.session = session;
+        }
+    }
+
+    private record Removal(McpSession session, RemovalCause cause) {
+    }
+
+    private static final class AccessOrder {
+        Node head;
+        Node tail;
+
+        void addLast(Node node) {
+            node.prev = tail;
+            node.next = null;
+            if (tail == null) {
+                head = node;
+            } else {
+                tail.next = node;
+            }
+            tail = node;
+        }
+
+        void remove(Node node) {
+            if (node.prev == null) {
+                head = node.next;
+            } else {
+                node.prev.next = node.next;
+            }
+            if (node.next == null) {
+                tail = node.prev;
+            } else {
+                node.next.prev = node.prev;
+            }
+            node.prev = null;
+            node.next = null;
+        }
+
+        void moveToBack(Node node) {
+            if (node != tail) {
+                remove(node);
+                addLast(node);
+            }
+        }
+    }
+
+    /**
+     * A ring buffer of recent reads. Writers claim a slot with one CAS and drop the event if the
+     * buffer is full or the CAS is lost; only the eviction lock holder drains it.
+     */
+    private static final class ReadBuffer {
+        final AtomicReferenceArray<Node> slots = new AtomicReferenceArray<>(BUFFER_SIZE);
+        final AtomicLong writeCounter = new AtomicLong();
+        volatile long readCounter;
+
+        boolean offer(Node node) {
+            long tail = writeCounter.get();
+            if (tail - readCounter >= BUFFER_SIZE) {
+                return false;
+            }
+            if (writeCounter.compareAndSet(tail, tail + 1)) {
+                slots.lazySet((int) tail & BUFFER_MASK, node);
+            }
+            return true;
+        }
+    }
+
+    private final ConcurrentHashMap<String, Node> data = new ConcurrentHashMap<>();
+    private final ReadBuffer[] readBuffers = new ReadBuffer[STRIPES];
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final List<BiConsumer<McpSession, RemovalCause>> removalListeners = new CopyOnWriteArrayList<>();
+
+    private final int maxSessions;
+    private final long idleTtlNanos;
+    private final long maintenanceIntervalMillis;
+    private final LongSupplier ticker;
+
+    // Guarded by the eviction lock
+    private final FrequencySketch sketch;
+    private final AccessOrder window = new AccessOrder();
+    private final AccessOrder probation = new AccessOrder();
+    private final AccessOrder protectedSegment = new AccessOrder();
+    private final int maxWindow;
+    private final int maxProtected;
+    private int windowSize;
+    private int protectedSize;
+    private int linked;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder created = new LongAdder();
+    private final LongAdder evictedBySize = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+    private final LongAdder invalidated = new LongAdder();
+
+    private ScheduledExecutorService maintenance;
+
+    public SessionStore() {
+        this(10_000, TimeUnit.MINUTES.toMillis(30), 5000, System::nanoTime);
+    }
+
+    @Autowired
+    public SessionStore(@Value("${mcp.sessions.max-sessions:100000}") int maxSessions,
+                        @Value("${mcp.sessions.idle-ttl-ms:1800000}") long idleTtlMillis,
+                        @Value("${mcp.sessions.maintenance-interval-ms:5000}") long maintenanceIntervalMillis) {
+        this(maxSessions, idleTtlMillis, maintenanceIntervalMillis, System::nanoTime);
+    }
+
+    SessionStore(int maxSessions, long idleTtlMillis, long maintenanceIntervalMillis, LongSupplier ticker) {
+        if (maxSessions < 1) {
+            throw new IllegalArgumentException("mcp.sessions.max-sessions must be positive");
+        }
+        this.maxSessions = maxSessions;
+        this.idleTtlNanos = TimeUnit.MILLISECONDS.toNanos(idleTtlMillis);
+        this.maintenanceIntervalMillis = maintenanceIntervalMillis;
+        this.ticker = ticker;
+        this.sketch = new FrequencySketch(maxSessions);
+        this.maxWindow = Math.max(1, (int) (maxSessions * WINDOW_RATIO));
+        this.maxProtected = (int) ((maxSessions - maxWindow) * PROTECTED_RATIO);
+        for (int i = 0; i < STRIPES; i++) {
+            readBuffers[i] = new ReadBuffer();
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        if (maintenanceIntervalMillis <= 0) {
+            return;
+        }
+        maintenance = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "session-maintenance");
+            thread.setDaemon(true);
+            return thread;
+        });
+        maintenance.scheduleWithFixedDelay(this::cleanUp, maintenanceIntervalMillis, maintenanceIntervalMillis,
+                TimeUnit.MILLISECONDS);
+        logger.info("Session store: at most {} sessions, idle TTL {} s", maxSessions,
+                TimeUnit.NANOSECONDS.toSeconds(idleTtlNanos));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (maintenance != null) {
+            maintenance.shutdownNow();
+        }
+    }
+
+    /**
+     * Called with every session that leaves the store, outside of any lock.
+     */
+    public void addRemovalListener(BiConsumer<McpSession, RemovalCause> listener) {
+        removalListeners.add(listener);
+    }
+
+    /**
+     * @return the live session, or {@code null} if there is none or it has expired
+     */
+    public McpSession get(String id) {
+        Node node = data.get(id);
+        long now = ticker.getAsLong();
+        if (node == null || isExpired(node, now)) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        node.session.touch(now);
+        recordRead(node);
+        return node.session;
+    }
+
+    public McpSession getOrCreate(String id) {
+        McpSession session = get(id);
+        if (session != null) {
+            return session;
+        }
+
+        long now = ticker.getAsLong();
+        Node[] replaced = new Node[1];
+        boolean[] createdHere = new boolean[1];
+        Node node = data.compute(id, (key, current) -> {
+            if (current != null && !isExpired(current, now)) {
+                return current;
+            }
+            replaced[0] = current;
+            createdHere[0] = true;
+            return new Node(key, new McpSession(key, now));
+        });
+        if (!createdHere[0]) {
+            // Created concurrently by another caller
+            node.session.touch(now);
+            recordRead(node);
+            return node.session;
+        }
+
+        created.increment();
+        List<Removal> removed = new ArrayList<>();
+        evictionLock.lock();
+        try {
+            if (replaced[0] != null) {
+                unlink(replaced[0], RemovalCause.EXPIRED, removed);
+            }
+            drainReadBuffers();
+            if (!node.dead) {
+                sketch.increment(node.key);
+                node.segment = Segment.WINDOW;
+                window.addLast(node);
+                windowSize++;
+                linked++;
+            }
+            evict(removed);
+        } finally {
+            evictionLock.unlock();
+        }
+        notifyRemoved(removed);
+        return node.session;
+    }
+
+    /**
+     * Keeps the session, creating it if needed, until a matching {@link #unpin} or
+     * {@link #invalidate}; transports call this while a stream to the client is open.
+     */
+    public McpSession pin(String id) {
+        for (;;) {
+            McpSession session = getOrCreate(id);
+            session.pin();
+            Node node = data.get(id);
+            if (node != null && node.session == session) {
+                return session;
+            }
+            // Evicted before the pin took hold
+            session.unpin();
+        }
+    }
+
+    public void unpin(String id) {
+        Node node = data.get(id);
+        if (node != null) {
+            node.session.unpin();
+        }
+    }
+
+    public void invalidate(String id) {
+        Node node = data.remove(id);
+        if (node == null) {
+            return;
+        }
+        List<Removal> removed = new ArrayList<>(1);
+        evictionLock.lock();
+        try {
+            unlink(node, RemovalCause.EXPLICIT, removed);
+        } finally {
+            evictionLock.unlock();
+        }
+        notifyRemoved(removed);
+    }
+
+    /**
+     * Applies pending reads and removes idle sessions; runs periodically, and may be called to
+     * do so right away.
+     */
+    public void cleanUp() {
+        List<Removal> removed = new ArrayList<>();
+        evictionLock.lock();
+        try {
+            drainReadBuffers();
+            expire(ticker.getAsLong(), removed);
+        } finally {
+            evictionLock.unlock();
+        }
+        notifyRemoved(removed);
+    }
+
+    public int size() {
+        return data.size();
+    }
+
+    public long estimatedMemoryBytes() {
+        long bytes = sketch.memoryBytes() + (long) STRIPES * BUFFER_SIZE * 8;
+        for (Node node : data.values()) {
+            bytes += node.session.estimatedBytes();
+        }
+        return bytes;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("sessions", data.size());
+        stats.put("maxSessions", maxSessions);
+        stats.put("estimatedMemoryBytes", estimatedMemoryBytes());
+        stats.put("hits", hits.sum());
+        stats.put("misses", misses.sum());
+        stats.put("created", created.sum());
+        stats.put("evicted", evictedBySize.sum());
+        stats.put("expired", expired.sum());
+        stats.put("invalidated", invalidated.sum());
+        return stats;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("mcp.sessions.active", data, Map::size)
+                .description("Sessions currently held")
+                .register(registry);
+        Gauge.builder("mcp.sessions.memory", this, SessionStore::estimatedMemoryBytes)
+                .description("Estimated memory held by sessions")
+                .baseUnit("bytes")
+                .register(registry);
+        FunctionCounter.builder("mcp.sessions.removals", evictedBySize, LongAdder::sum)
+                .tag("cause", "size")
+                .register(registry);
+        FunctionCounter.builder("mcp.sessions.removals", expired, LongAdder::sum)
+                .tag("cause", "expired")
+                .register(registry);
+        FunctionCounter.builder("mcp.sessions.removals", invalidated, LongAdder::sum)
+                .tag("cause", "explicit")
+                .register(registry);
+        FunctionCounter.builder("mcp.sessions.lookups", hits, LongAdder::sum)
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("mcp.sessions.lookups", misses, LongAdder::sum)
+                .tag("result", "miss")
+                .register(registry);
+    }
+
+    private boolean isExpired(Node node, long now) {
+        return idleTtlNanos > 0 && !node.session.isPinned() && now - node.session.getLastAccessNanos() >= idleTtlNanos;
+    }
+
+    private void recordRead(Node node) {
+        ReadBuffer buffer = readBuffers[(int) Thread.currentThread().threadId() & (STRIPES - 1)];
+        if (!buffer.offer(node) && evictionLock.tryLock()) {
+            try {
+                drainReadBuffers();
+            } finally {
+                evictionLock.unlock();
+            }
+        }
+    }
+
+    private void drainReadBuffers() {
+        for (ReadBuffer buffer : readBuffers) {
+            long head = buffer.readCounter;
+            long tail = buffer.writeCounter.get();
+            for (; head < tail; head++) {
+                int index = (int) head & BUFFER_MASK;
+                Node node = buffer.slots.get(index);
+                if (node == null) {
+                    // Claimed but not yet published
+                    break;
+                }
+                buffer.slots.lazySet(index, null);
+                onAccess(node);
+            }
+            buffer.readCounter = head;
+        }
+    }
+
+    private void onAccess(Node node) {
+        if (node.segment == null) {
+            return;
+        }
+        sketch.increment(node.key);
+        switch (node.segment) {
+            case WINDOW -> window.moveToBack(node);
+            case PROTECTED -> protectedSegment.moveToBack(node);
+            case PROBATION -> promote(node);
+        }
+    }
+
+    private void promote(Node node) {
+        probation.remove(node);
+        node.segment = Segment.PROTECTED;
+        protectedSegment.addLast(node);
+        protectedSize++;
+        while (protectedSize > maxProtected) {
+            Node demoted = protectedSegment.head;
+            protectedSegment.remove(demoted);
+            protectedSize--;
+            demoted.segment = Segment.PROBATION;
+            probation.addLast(demoted);
+        }
+    }
+
+    /**
+     * Moves window overflow into probation, then evicts until within bounds. Each time, the
+     * newest candidate from the window is weighed against the oldest entry in probation.
+     */
+    private void evict(List<Removal> removed) {
+        while (windowSize > maxWindow) {
+            Node node = window.head;
+            window.remove(node);
+            windowSize--;
+            node.segment = Segment.PROBATION;
+            probation.addLast(node);
+        }
+
+        int skipped = 0;
+        while (linked > maxSessions && skipped < linked) {
+            Node victim = probation.head;
+            Node candidate = probation.tail;
+            Node evictee;
+            if (victim == null) {
+                evictee = protectedSegment.head != null ? protectedSegment.head : window.head;
+            } else if (victim == candidate) {
+                evictee = victim;
+            } else {
+                evictee = admit(candidate, victim) ? victim : candidate;
+                if (evictee.session.isPinned()) {
+                    evictee = evictee == victim ? candidate : victim;
+                }
+            }
+            if (evictee.session.isPinned()) {
+                requeue(evictee);
+                skipped++;
+            } else {
+                evict(evictee, RemovalCause.SIZE, removed);
+            }
+        }
+    }
+
+    /**
+     * Moves a pinned session out of the way of the next eviction.
+     */
+    private void requeue(Node node) {
+        switch (node.segment) {
+            case WINDOW -> window.moveToBack(node);
+            case PROBATION -> promote(node);
+            case PROTECTED -> protectedSegment.moveToBack(node);
+        }
+    }
+
+    private boolean admit(Node candidate, Node victim) {
+        int candidateFrequency = sketch.frequency(candidate.key);
+        int victimFrequency = sketch.frequency(victim.key);
+        if (candidateFrequency > victimFrequency) {
+            return true;
+        }
+        // Now and then admit a warm candidate anyway, so an attacker cannot pin the victim
+        return candidateFrequency > 5 && (ThreadLocalRandom.current().nextInt() & 127) == 0;
+    }
+
+    private void expire(long now, List<Removal> removed) {
+        if (idleTtlNanos <= 0) {
+            return;
+        }
+        for (AccessOrder order : new AccessOrder[]{window, probation, protectedSegment}) {
+            while (order.head != null && now - order.head.session.getLastAccessNanos() >= idleTtlNanos) {
+                Node node = order.head;
+                if (node.session.isPinned()) {
+                    // Its stream is still open, so it is in use
+                    node.session.touch(now);
+                    order.moveToBack(node);
+                } else {
+                    evict(node, RemovalCause.EXPIRED, removed);
+                }
+            }
+        }
+    }
+
+    private void evict(Node node, RemovalCause cause, List<Removal> removed) {
+        data.remove(node.key, node);
+        unlink(node, cause, removed);
+    }
+
+    private void unlink(Node node, RemovalCause cause, List<Removal> removed) {
+        if (node.dead) {
+            return;
+        }
+        node.dead = true;
+        if (node.segment != null) {
+            switch (node.segment) {
+                case WINDOW -> {
+                    window.remove(node);
+                    windowSize--;
+                }
+                case PROBATION -> probation.remove(node);
+                case PROTECTED -> {
+                    protectedSegment.remove(node);
+                    protectedSize--;
+                }
+            }
+            node.segment = null;
+            linked--;
+        }
+        switch (cause) {
+            case SIZE -> evictedBySize.increment();
+            case EXPIRED -> expired.increment();
+            case EXPLICIT -> invalidated.increment();
+        }
+        removed.add(new Removal(node.session, cause));
+    }
+
+    private void notifyRemoved(List<Removal> removed) {
+        for (Removal removal : removed) {
+            for (BiConsumer<McpSession, RemovalCause> listener : removalListeners) {
+                try {
+                    listener.accept(removal.session(), removal.cause());
+                } catch (RuntimeException e) {
+                    logger.warn("Session removal listener failed for {}: {}", removal.session().getId(), e.getMessage());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.example.mcp.storage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity tags for files in the data directory. The strong tag is a SHA-256 of the content,
+ * cached per file and recomputed once its size, modification time or file key changes. Files
+ * above {@code max-file-size} get a weak tag derived from those attributes instead of being
+ * hashed.
+ */
+@Component
+public class ContentHashCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContentHashCache.class);
+
+    private static final int DEFAULT_MAX_ENTRIES = 100_000;
+    private static final long DEFAULT_MAX_FILE_SIZE = 256L << 20;
+    private static final int MAPPING_CHUNK = 64 << 20;
+    private static final int TAG_BYTES = 16;
+    // A file modified this recently may change again within the same timestamp tick
+    private static final long RACY_WINDOW_NANOS = TimeUnit.SECONDS.toNanos(2);
+
+    private record Entry(long lastModified, long size, Object fileKey, String etag) {
+    }
+
+    private final Map<Path, Entry> entries = new ConcurrentHashMap<>();
+    private final int maxEntries;
+    private final long maxFileSize;
+
+    public ContentHashCache() {
+        this(DEFAULT_MAX_ENTRIES, DEFAULT_MAX_FILE_SIZE);
+    }
+
+    @Autowired
+    public ContentHashCache(@Value("${mcp.storage.content-hash.max-entries:100000}") int maxEntries,
+                            @Value("${mcp.storage.content-hash.max-file-size:268435456}") long maxFileSize) {
+        this.maxEntries = maxEntries;
+        this.maxFileSize = maxFileSize;
+    }
+
+    /**
+     * The current entity tag of {@code file}, as a quoted HTTP {@code ETag} value.
+     *
+     * @throws NoSuchFileException if the file does not exist or is not a regular file
+     */
+    public String etag(Path file) throws IOException {
+        Path key = file.toAbsolutePath().normalize();
+        BasicFileAttributes attributes = Files.readAttributes(key, BasicFileAttributes.class);
+        if (!attributes.isRegularFile()) {
+            throw new NoSuchFileException(file.toString());
+        }
+
+        long lastModified = attributes.lastModifiedTime().to(TimeUnit.NANOSECONDS);
+        long size = attributes.size();
+        if (size > maxFileSize) {
+            return weakEtag(attributes);
+        }
+
+        Entry cached = entries.get(key);
+        if (cached != null && cached.lastModified() == lastModified && cached.size() == size
+                && Objects.equals(cached.fileKey(), attributes.fileKey())) {
+            return cached.etag();
+        }
+
+        String etag = quote(hash(key, size));
+
+        BasicFileAttributes after = Files.readAttributes(key, BasicFileAttributes.class);
+        boolean stable = after.lastModifiedTime().to(TimeUnit.NANOSECONDS) == lastModified && after.size() == size;
+        boolean racy = System.currentTimeMillis() * 1_000_000L - lastModified < RACY_WINDOW_NANOS;
+        if (stable && !racy) {
+            if (entries.size() >= maxEntries) {
+                evict();
+            }
+            entries.put(key, new Entry(lastModified, size, attributes.fileKey(), etag));
+        }
+        return etag;
+    }
+
+    /**
+     * A weak entity tag derived from the size, modification time and file key alone, for callers
+     * that cannot afford to read the whole file.
+     */
+    public static String weakEtag(BasicFileAttributes attributes) {
+        String tag = Long.toHexString(attributes.size()) + "-"
+                + Long.toHexString(attributes.lastModifiedTime().to(TimeUnit.NANOSECONDS));
+        if (attributes.fileKey() != null) {
+            tag += "-" + Integer.toHexString(attributes.fileKey().hashCode());
+        }
+        return "W/" + quote(tag);
+    }
+
+    public void invalidate(Path file) {
+        entries.remove(file.toAbsolutePath().normalize());
+    }
+
+    /**
+     * The strong entity tag of in-memory content, matching {@link #etag(Path)} for the same bytes.
+     */
+    public static String etag(byte[] content) {
+        return quote(encode(newDigest().digest(content)));
+    }
+
+    public static String etag(String content) {
+        return etag(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Whether an {@code If-None-Match} value matches {@code etag}: {@code *}, or any listed tag
+     * under weak comparison. Unquoted tags are accepted for the convenience of tool callers.
+     */
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank() || etag == null) {
+            return false;
+        }
+        String target = opaque(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String trimmed = candidate.trim();
+            if (trimmed.equals("*") || opaque(trimmed).equals(target)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Strong comparison, as {@code If-Range} requires: both tags must be strong and identical, so
+     * a weak tag never matches.
+     */
+    public static boolean strongMatches(String tag, String etag) {
+        if (tag == null || etag == null || tag.startsWith("W/") || etag.startsWith("W/")) {
+            return false;
+        }
+        return tag.trim().equals(etag);
+    }
+
+    private static String opaque(String tag) {
+        String value = tag.startsWith("W/") ? tag.substring(2) : tag;
+        if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            value = value.substring(1, value.length() - 1);
+        }
+        return value;
+    }
+
+    private String hash(Path file, long size) throws IOException {
+        MessageDigest digest = newDigest();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long position = 0;
+            while (position < size) {
+                long length = Math.min(MAPPING_CHUNK, size - position);
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                digest.update(buffer);
+                position += length;
+            }
+        }
+        logger.debug("Hashed {} ({} bytes)", file, size);
+        return encode(digest.digest());
+    }
+
+    private void evict() {
+        // Cheap bounded eviction: drop an arbitrary tenth rather than tracking recency
+        int toRemove = Math.max(1, maxEntries / 10);
+        Iterator<Path> it = entries.keySet().iterator();
+        while (it.hasNext() && toRemove-- > 0) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    private static String quote(String value) {
+        return "\"" + value + "\"";
+    }
+
+    private static String encode(byte[] digest) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, TAG_BYTES));
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.example.mcp.storage;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+import java.util.function.Function;
+
+/**
+ * Cursor-paginated directory listing that never holds more than one page of entries.
+ *
+ * <p>Each page is one pass over a {@link DirectoryStream}: entries past the cursor compete for
+ * a bounded heap of {@code pageSize + 1} slots, so sorting costs O(n log pageSize) time and
+ * O(pageSize) memory. Attributes are read with a single {@code readAttributes} call per entry,
+ * and when sorting by name only the entries that make it onto the page are stat'ed at all.
+ */
+public final class DirectoryPager {
+
+    public static final int DEFAULT_PAGE_SIZE = 1000;
+    public static final int MAX_PAGE_SIZE = 10000;
+
+    public enum Sort {
+        NAME, SIZE, MODIFIED, NONE;
+
+        public static Sort parse(String value) {
+            if (value == null) {
+                return NAME;
+            }
+            try {
+                return valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unsupported sort: " + value + " (name, size, modified, none)");
+            }
+        }
+    }
+
+    public record Entry(Path path, String name, BasicFileAttributes attributes) {
+
+        public String type() {
+            return attributes.isDirectory() ? "directory" : "file";
+        }
+
+        public long size() {
+            return sizeOf(attributes);
+        }
+    }
+
+    public record Page(List<Entry> entries, String nextCursor) {
+    }
+
+    private record Candidate(long key, String name, Path path, BasicFileAttributes attributes) {
+    }
+
+    private DirectoryPager() {
+    }
+
+    /**
+     * Lists one page of {@code directory}.
+     *
+     * @param glob       optional file name filter, e.g. {@code *.log}
+     * @param descending reverse the sort order
+     * @param cursor     {@code nextCursor} of the previous page, or {@code null} for the first page
+     */
+    public static Page list(Path directory, String glob, Sort sort, boolean descending, int pageSize,
+                            String cursor, Class<? extends BasicFileAttributes> attributeType) throws IOException {
+        try (DirectoryStream<Path> stream = glob == null || glob.isEmpty()
+                ? Files.newDirectoryStream(directory)
+                : Files.newDirectoryStream(directory, glob)) {
+            return list(stream.iterator(), path -> readAttributes(path, attributeType), sort, descending, pageSize, cursor);
+        }
+    }
+
+    /**
+     * Pages over an arbitrary sequence of entries, e.g. a cached directory. {@code attributes}
+     * returns {@code null} for entries that no longer exist.
+     */
+    public static Page list(Iterator<Path> paths, Function<Path, BasicFileAttributes> attributes, Sort sort,
+                            boolean descending, int pageSize, String cursor) {
+        if (pageSize <= 0 || pageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("pageSize must be between 1 and " + MAX_PAGE_SIZE + ": " + pageSize);
+        }
+        Candidate after = decodeCursor(cursor, sort, descending);
+
+        return sort == Sort.NONE
+                ? listUnsorted(paths, attributes, descending, pageSize, after == null ? 0 : after.key())
+                : listSorted(paths, attributes, sort, descending, pageSize, after);
+    }
+
+    private static Page listUnsorted(Iterator<Path> paths, Function<Path, BasicFileAttributes> attributeReader,
+                                     boolean descending, int pageSize, long skip) {
+        List<Entry> entries = new ArrayList<>(Math.min(pageSize, 1024));
+        long position = 0;
+
+        while (paths.hasNext()) {
+            Path path = paths.next();
+            if (position++ < skip) {
+                continue;
+            }
+            if (entries.size() == pageSize) {
+                return new Page(entries, encodeCursor(Sort.NONE, descending,
+                        new Candidate(skip + pageSize, "", null, null)));
+            }
+            BasicFileAttributes attributes = attributeReader.apply(path);
+            if (attributes != null) {
+                entries.add(new Entry(path, path.getFileName().toString(), attributes));
+            }
+        }
+        return new Page(entries, null);
+    }
+
+    private static Page listSorted(Iterator<Path> paths, Function<Path, BasicFileAttributes> attributeReader,
+                                   Sort sort, boolean descending, int pageSize, Candidate after) {
+        Comparator<Candidate> order = Comparator.comparingLong(Candidate::key).thenComparing(Candidate::name);
+        if (descending) {
+            order = order.reversed();
+        }
+        // Max-heap on the page order: the head is the entry to evict when a better one turns up
+        PriorityQueue<Candidate> heap = new PriorityQueue<>(Math.min(pageSize + 1, 1024), order.reversed());
+
+        while (paths.hasNext()) {
+            Path path = paths.next();
+            String name = path.getFileName().toString();
+
+            BasicFileAttributes attributes = null;
+            long key = 0;
+            if (sort != Sort.NAME) {
+                attributes = attributeReader.apply(path);
+                if (attributes == null) {
+                    continue;
+                }
+                key = sort == Sort.SIZE ? sizeOf(attributes) : attributes.lastModifiedTime().toMillis();
+            }
+
+            Candidate candidate = new Candidate(key, name, path, attributes);
+            if (after != null && order.compare(candidate, after) <= 0) {
+                continue;
+            }
+            if (heap.size() <= pageSize) {
+                heap.add(candidate);
+            } else if (order.compare(candidate, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(candidate);
+            }
+        }
+
+        List<Candidate> selected = new ArrayList<>(heap);
+        selected.sort(order);
+        boolean hasMore = selected.size() > pageSize;
+        if (hasMore) {
+            selected.remove(selected.size() - 1);
+        }
+
+        List<Entry> entries = new ArrayList<>(selected.size());
+        for (Candidate candidate : selected) {
+            BasicFileAttributes attributes = candidate.attributes() != null
+                    ? candidate.attributes()
+                    : attributeReader.apply(candidate.path());
+            if (attributes != null) {
+                entries.add(new Entry(candidate.path(), candidate.name(), attributes));
+            }
+        }
+
+        String nextCursor = hasMore ? encodeCursor(sort, descending, selected.get(selected.size() - 1)) : null;
+        return new Page(entries, nextCursor);
+    }
+
+    /**
+     * Size as listed and sorted; a directory's own allocation size means nothing to callers.
+     */
+    private static long sizeOf(BasicFileAttributes attributes) {
+        return attributes.isDirectory() ? 0 : attributes.size();
+    }
+
+    private static BasicFileAttributes readAttributes(Path path, Class<? extends BasicFileAttributes> attributeType) {
+        try {
+            return Files.readAttributes(path, attributeType, LinkOption.NOFOLLOW_LINKS);
+        } catch (IOException | UnsupportedOperationException e) {
+            return null; // removed while listing, or not stat-able: leave it out of the page
+        }
+    }
+
+    // Cursor: base64url("<sort>:<order>:<key>/<name>"); '/' cannot occur in a file name
+    private static String encodeCursor(Sort sort, boolean descending, Candidate last) {
+        String raw = sort.name() + ':' + (descending ? "desc" : "asc") + ':' + last.key() + '/' + last.name();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Candidate decodeCursor(String cursor, Sort sort, boolean descending) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String prefix = sort.name() + ':' + (descending ? "desc" : "asc") + ':';
+            int slash = raw.indexOf('/');
+            if (!raw.startsWith(prefix) || slash < 0) {
+                throw new IllegalArgumentException("Cursor does not match the requested sort order");
+            }
+            long key = Long.parseLong(raw.substring(prefix.length(), slash));
+            return new Candidate(key, raw.substring(slash + 1), null, null);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + e.getMessage());
+        }
+    }
+}
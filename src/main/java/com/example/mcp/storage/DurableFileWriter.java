@@ -0,0 +1,263 @@
+package com.example.mcp.storage;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Atomic and durable file writes.
+ *
+ * <p>Atomic writes go to a temporary file in the target's directory that is renamed over the
+ * target, so readers see either the old or the new content. Appends are serialized per file so
+ * concurrent appenders never interleave. When durability is requested, fsyncs are group-committed:
+ * a single committer thread drains every pending sync request, fsyncs each distinct file or
+ * directory once and releases all waiting callers, so concurrent durable writes to a shared log
+ * or directory cost one fsync per batch instead of one per call.
+ */
+@Component
+public class DurableFileWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(DurableFileWriter.class);
+    private static final int APPEND_LOCK_STRIPES = 64;
+
+    private record SyncRequest(Path path, CompletableFuture<Void> done) {
+    }
+
+    private final LinkedBlockingQueue<SyncRequest> pending = new LinkedBlockingQueue<>();
+    private final ReentrantLock[] appendLocks = new ReentrantLock[APPEND_LOCK_STRIPES];
+    private final long commitDelayMicros;
+    private final Thread committer;
+    private final AtomicLong syncRequests = new AtomicLong();
+    private final AtomicLong fsyncs = new AtomicLong();
+    private volatile boolean running = true;
+
+    public DurableFileWriter() {
+        this(0);
+    }
+
+    @Autowired
+    public DurableFileWriter(@Value("${mcp.storage.group-commit.delay-micros:0}") long commitDelayMicros) {
+        this.commitDelayMicros = commitDelayMicros;
+        for (int i = 0; i < appendLocks.length; i++) {
+            appendLocks[i] = new ReentrantLock();
+        }
+        this.committer = new Thread(this::commitLoop, "file-group-commit");
+        this.committer.setDaemon(true);
+        this.committer.start();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        committer.interrupt();
+    }
+
+    /**
+     * Replaces {@code target} with {@code content} via a temporary file and an atomic rename.
+     * With {@code sync}, both the data and the rename are durable when this returns.
+     */
+    public void writeAtomically(Path target, byte[] content, boolean sync) throws IOException {
+        Path directory = target.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temp = directory.resolve("." + target.getFileName() + "."
+                + Long.toHexString(ThreadLocalRandom.current().nextLong()) + ".tmp");
+
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                writeFully(channel, content);
+                if (sync) {
+                    // Each writer flushes its own temp file, so these run in parallel
+                    channel.force(false);
+                }
+            }
+            copyPermissions(target, temp);
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+
+        if (sync) {
+            sync(directory);
+        }
+    }
+
+    /**
+     * Overwrites {@code target} in place; readers may observe a partially written file.
+     */
+    public void write(Path target, byte[] content, boolean sync) throws IOException {
+        Files.createDirectories(target.toAbsolutePath().getParent());
+        try (FileChannel channel = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeFully(channel, content);
+        }
+        if (sync) {
+            sync(target);
+        }
+    }
+
+    /**
+     * Appends {@code content} to {@code target}, creating it if needed.
+     *
+     * @return the size of the file after the append
+     */
+    public long append(Path target, byte[] content, boolean sync) throws IOException {
+        Path file = target.toAbsolutePath().normalize();
+        Files.createDirectories(file.getParent());
+
+        long size;
+        ReentrantLock lock = appendLocks[Math.floorMod(file.hashCode(), appendLocks.length)];
+        lock.lock();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND)) {
+            writeFully(channel, content);
+            size = channel.size();
+        } finally {
+            lock.unlock();
+        }
+
+        if (sync) {
+            sync(file);
+        }
+        return size;
+    }
+
+    /**
+     * Blocks until {@code path} (a file or directory) has been fsynced by a group commit that
+     * started after this call.
+     */
+    public void sync(Path path) throws IOException {
+        SyncRequest request = new SyncRequest(path.toAbsolutePath().normalize(), new CompletableFuture<>());
+        syncRequests.incrementAndGet();
+        pending.add(request);
+        try {
+            request.done().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting for fsync of " + path);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException("fsync failed for " + path + ": " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("syncRequests", syncRequests.get());
+        stats.put("fsyncs", fsyncs.get());
+        stats.put("pending", pending.size());
+        return stats;
+    }
+
+    private void commitLoop() {
+        List<SyncRequest> batch = new ArrayList<>();
+        while (running) {
+            try {
+                batch.add(pending.take());
+                if (commitDelayMicros > 0) {
+                    TimeUnit.MICROSECONDS.sleep(commitDelayMicros);
+                }
+            } catch (InterruptedException e) {
+                break;
+            }
+            pending.drainTo(batch);
+
+            Map<Path, List<CompletableFuture<Void>>> byPath = new LinkedHashMap<>();
+            for (SyncRequest request : batch) {
+                byPath.computeIfAbsent(request.path(), k -> new ArrayList<>()).add(request.done());
+            }
+            for (Map.Entry<Path, List<CompletableFuture<Void>>> entry : byPath.entrySet()) {
+                try {
+                    force(entry.getKey());
+                    entry.getValue().forEach(done -> done.complete(null));
+                } catch (IOException | RuntimeException e) {
+                    logger.warn("fsync of {} failed: {}", entry.getKey(), e.getMessage());
+                    entry.getValue().forEach(done -> done.completeExceptionally(e));
+                }
+            }
+            if (batch.size() > 1) {
+                logger.debug("Group commit: {} sync requests, {} fsyncs", batch.size(), byPath.size());
+            }
+            batch.clear();
+        }
+
+        IOException closed = new IOException("Writer shut down");
+        for (SyncRequest request : batch) {
+            request.done().completeExceptionally(closed);
+        }
+        SyncRequest request;
+        while ((request = pending.poll()) != null) {
+            request.done().completeExceptionally(closed);
+        }
+    }
+
+    private void force(Path path) throws IOException {
+        fsync(path);
+        fsyncs.incrementAndGet();
+    }
+
+    void fsync(Path path) throws IOException {
+        // Opening read-only is enough: fsync applies to the file, not the descriptor
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            if (!Files.isDirectory(path)) {
+                throw e;
+            }
+            // Some platforms cannot open directories; the rename is as durable as they allow
+        }
+    }
+
+    private static void writeFully(FileChannel channel, byte[] content) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(content);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static void copyPermissions(Path from, Path to) {
+        PosixFileAttributeView source = Files.getFileAttributeView(from, PosixFileAttributeView.class);
+        PosixFileAttributeView target = Files.getFileAttributeView(to, PosixFileAttributeView.class);
+        if (source == null || target == null || !Files.exists(from)) {
+            return;
+        }
+        try {
+            Set<PosixFilePermission> permissions = source.readAttributes().permissions();
+            target.setPermissions(permissions);
+        } catch (IOException e) {
+            logger.debug("Could not copy permissions of {}: {}", from, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,509 @@
+package com.example.mcp.storage;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.NotDirectoryException;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+
+/**
+ * In-memory attributes of every file and directory under the data directory, kept coherent
+ * with {@link WatchService} events. An overflowed event queue triggers a full rescan, and a
+ * periodic rescan picks up changes the watcher cannot see (e.g. writes from other hosts on a
+ * network mount). When the cache is disabled or not yet started every call falls through to
+ * the file system.
+ */
+@Component
+public class FileMetadataCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(FileMetadataCache.class);
+
+    public enum ChangeKind {
+        CREATED, MODIFIED, DELETED
+    }
+
+    public record FileChange(Path path, ChangeKind kind, boolean directory) {
+    }
+
+    /**
+     * Called on the watcher thread for every change; implementations should hand work off quickly.
+     */
+    public interface Listener {
+        void onFileChange(FileChange change);
+    }
+
+    private final Path root;
+    private final boolean enabled;
+    private final long rescanIntervalMillis;
+    private final int maxEntries;
+    private final Class<? extends BasicFileAttributes> attributeType;
+
+    private final Map<Path, BasicFileAttributes> attributes = new ConcurrentHashMap<>();
+    private final Map<Path, Set<Path>> children = new ConcurrentHashMap<>();
+    private final Map<WatchKey, Path> watchKeys = new ConcurrentHashMap<>();
+    private final Map<Path, WatchKey> watchedDirectories = new ConcurrentHashMap<>();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    private WatchService watchService;
+    private Thread watcherThread;
+    private volatile boolean running;
+
+    public FileMetadataCache(Path root) {
+        this(root, false, 0, Integer.MAX_VALUE);
+    }
+
+    @Autowired
+    public FileMetadataCache(@Value("${mcp.resources.file.basePath:./data}") String basePath,
+                             @Value("${mcp.storage.metadata-cache.enabled:true}") boolean enabled,
+                             @Value("${mcp.storage.metadata-cache.rescan-interval-seconds:300}") long rescanIntervalSeconds,
+                             @Value("${mcp.storage.metadata-cache.max-entries:1000000}") int maxEntries) {
+        this(Paths.get(basePath), enabled, TimeUnit.SECONDS.toMillis(rescanIntervalSeconds), maxEntries);
+    }
+
+    private FileMetadataCache(Path root, boolean enabled, long rescanIntervalMillis, int maxEntries) {
+        this.root = root.toAbsolutePath().normalize();
+        this.enabled = enabled;
+        this.rescanIntervalMillis = rescanIntervalMillis;
+        this.maxEntries = maxEntries;
+        this.attributeType = this.root.getFileSystem().supportedFileAttributeViews().contains("posix")
+                ? PosixFileAttributes.class
+                : BasicFileAttributes.class;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            logger.info("File metadata cache disabled");
+            return;
+        }
+        try {
+            Files.createDirectories(root);
+            watchService = root.getFileSystem().newWatchService();
+            List<FileChange> ignored = new ArrayList<>();
+            synchronized (this) {
+                rescan(root, ignored);
+            }
+        } catch (IOException | CacheFullException e) {
+            logger.warn("File metadata cache not started, falling back to direct file system access: {}", e.getMessage());
+            clear();
+            return;
+        }
+
+        running = true;
+        watcherThread = new Thread(this::watchLoop, "file-metadata-watcher");
+        watcherThread.setDaemon(true);
+        watcherThread.start();
+        logger.info("File metadata cache watching {} ({} entries)", root, attributes.size());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                logger.debug("Error closing watch service: {}", e.getMessage());
+            }
+        }
+        if (watcherThread != null) {
+            watcherThread.interrupt();
+        }
+    }
+
+    public Path getRoot() {
+        return root;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Attributes of {@code path}, or {@code null} if it does not exist. Where the file system
+     * supports it these are {@link PosixFileAttributes}.
+     */
+    public BasicFileAttributes stat(Path path) throws IOException {
+        Path normalized = path.toAbsolutePath().normalize();
+        if (cached(normalized)) {
+            return attributes.get(normalized);
+        }
+        try {
+            return Files.readAttributes(normalized, attributeType);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Visits every regular file under the root, from memory when the cache is running.
+     */
+    public void forEachFile(BiConsumer<Path, BasicFileAttributes> visitor) throws IOException {
+        if (running) {
+            attributes.forEach((path, attrs) -> {
+                if (attrs.isRegularFile()) {
+                    visitor.accept(path, attrs);
+                }
+            });
+            return;
+        }
+        if (!Files.isDirectory(root)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(root)) {
+            paths.forEach(path -> {
+                BasicFileAttributes attrs = readAttributes(path);
+                if (attrs != null && attrs.isRegularFile()) {
+                    visitor.accept(path, attrs);
+                }
+            });
+        }
+    }
+
+    /**
+     * One page of {@code directory}, served from memory when the directory is cached.
+     */
+    public DirectoryPager.Page list(Path directory, String glob, DirectoryPager.Sort sort, boolean descending,
+                                    int pageSize, String cursor) throws IOException {
+        Path normalized = directory.toAbsolutePath().normalize();
+        Set<Path> entries = covers(normalized) ? children.get(normalized) : null;
+        if (entries == null) {
+            return DirectoryPager.list(normalized, glob, sort, descending, pageSize, cursor, attributeType);
+        }
+
+        Iterator<Path> paths = entries.iterator();
+        if (glob != null && !glob.isEmpty()) {
+            PathMatcher matcher = root.getFileSystem().getPathMatcher("glob:" + glob);
+            paths = entries.stream().filter(p -> matcher.matches(p.getFileName())).iterator();
+        }
+        return DirectoryPager.list(paths, attributes::get, sort, descending, pageSize, cursor);
+    }
+
+    /**
+     * Re-reads {@code path} right away, so a caller that just changed it sees its own write
+     * without waiting for the watch event.
+     */
+    public void refresh(Path path) {
+        Path normalized = path.toAbsolutePath().normalize();
+        if (!covers(normalized)) {
+            return;
+        }
+        // Start from the topmost ancestor we do not know yet, so new parent directories get watched too
+        Path target = normalized;
+        while (!target.equals(root) && !attributes.containsKey(target.getParent())) {
+            target = target.getParent();
+        }
+        if (!cached(target)) {
+            return; // inside a linked directory, which stat() and list() read from disk
+        }
+
+        List<FileChange> changes = new ArrayList<>();
+        try {
+            BasicFileAttributes current = target.equals(normalized) ? readAttributes(normalized) : null;
+            if (target.equals(normalized) && (current == null || !current.isDirectory())) {
+                // A file in a known directory only touches concurrent maps, so it need not wait
+                // for the watcher, which holds the monitor for the whole of a periodic rescan
+                if (current == null) {
+                    remove(normalized, changes);
+                } else {
+                    record(normalized, current, new HashSet<>(), changes);
+                }
+            } else {
+                synchronized (this) {
+                    rescan(target, changes);
+                }
+            }
+        } catch (CacheFullException e) {
+            disable(e.getMessage());
+            return;
+        } catch (IOException e) {
+            logger.warn("Failed to refresh cached metadata for {}: {}", normalized, e.getMessage());
+        }
+        publish(changes);
+    }
+
+    private boolean covers(Path path) {
+        return running && path.startsWith(root);
+    }
+
+    /**
+     * Whether the cache is authoritative for {@code path}: only the contents of directories the
+     * walk has listed are known, which leaves out everything behind a symbolic link.
+     */
+    private boolean cached(Path path) {
+        return covers(path) && (path.equals(root) || children.containsKey(path.getParent()));
+    }
+
+    private void watchLoop() {
+        long nextRescan = rescanIntervalMillis > 0 ? System.currentTimeMillis() + rescanIntervalMillis : Long.MAX_VALUE;
+
+        while (running) {
+            List<FileChange> changes = new ArrayList<>();
+            try {
+                WatchKey key = watchService.poll(1, TimeUnit.SECONDS);
+                synchronized (this) {
+                    if (key != null) {
+                        processKey(key, changes);
+                        // Drain whatever else is queued before publishing
+                        while ((key = watchService.poll()) != null) {
+                            processKey(key, changes);
+                        }
+                    }
+                    if (System.currentTimeMillis() >= nextRescan) {
+                        rescan(root, changes);
+                        nextRescan = System.currentTimeMillis() + rescanIntervalMillis;
+                    }
+                }
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                break;
+            } catch (CacheFullException e) {
+                disable(e.getMessage());
+                break;
+            } catch (Exception e) {
+                logger.error("Error processing file system events: {}", e.getMessage(), e);
+            }
+            publish(changes);
+        }
+        logger.info("File metadata watcher stopped");
+    }
+
+    private void processKey(WatchKey key, List<FileChange> changes) throws IOException {
+        Path directory = watchKeys.get(key);
+        if (directory == null) {
+            key.cancel();
+            return;
+        }
+
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                logger.info("File system event queue overflowed, rescanning {}", root);
+                rescan(root, changes);
+                continue;
+            }
+            Path child = directory.resolve((Path) event.context());
+            if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE) {
+                remove(child, changes);
+            } else if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE
+                    && Files.isDirectory(child, LinkOption.NOFOLLOW_LINKS)) {
+                // A new directory may already hold files created before it was registered
+                rescan(child, changes);
+            } else {
+                refreshEntry(child, changes);
+            }
+        }
+
+        if (!key.reset()) {
+            remove(directory, changes);
+        }
+    }
+
+    private void refreshEntry(Path path, List<FileChange> changes) {
+        BasicFileAttributes current = readAttributes(path);
+        if (current == null) {
+            remove(path, changes);
+            return;
+        }
+        record(path, current, new HashSet<>(), changes);
+    }
+
+    /**
+     * Walks {@code start}, registering directories with the watcher, and reconciles the cache
+     * with what is on disk: new, changed and vanished entries are all reported.
+     */
+    private void rescan(Path start, List<FileChange> changes) throws IOException {
+        Set<Path> seen = new HashSet<>();
+        Deque<Path> pending = new ArrayDeque<>();
+
+        BasicFileAttributes startAttributes = readAttributes(start);
+        if (startAttributes != null) {
+            record(start, startAttributes, seen, changes);
+            if (startAttributes.isDirectory() && (start.equals(root) || !Files.isSymbolicLink(start))) {
+                pending.push(start);
+            }
+        }
+
+        while (!pending.isEmpty()) {
+            Path dir = pending.pop();
+            if (!watchedDirectories.containsKey(dir)) {
+                WatchKey key = dir.register(watchService,
+                        StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_DELETE,
+                        StandardWatchEventKinds.ENTRY_MODIFY);
+                watchKeys.put(key, dir);
+                watchedDirectories.put(dir, key);
+            }
+            children.computeIfAbsent(dir, k -> ConcurrentHashMap.newKeySet());
+
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+                for (Path child : stream) {
+                    BasicFileAttributes current = readAttributes(child);
+                    if (current == null) {
+                        continue; // deleted between listing and stat; reconciled below
+                    }
+                    record(child, current, seen, changes);
+                    if (current.isDirectory() && !Files.isSymbolicLink(child)) {
+                        pending.push(child);
+                    }
+                }
+            } catch (NoSuchFileException | NotDirectoryException e) {
+                seen.remove(dir);
+            }
+        }
+
+        List<Path> vanished = new ArrayList<>();
+        collectVanished(start, seen, vanished);
+        for (Path path : vanished) {
+            // refresh() may have recorded it after the walk passed its directory
+            if (readAttributes(path) == null) {
+                remove(path, changes);
+            }
+        }
+    }
+
+    private void record(Path path, BasicFileAttributes current, Set<Path> seen, List<FileChange> changes) {
+        seen.add(path);
+        BasicFileAttributes previous = attributes.put(path, current);
+        if (previous == null && attributes.size() > maxEntries) {
+            throw new CacheFullException(maxEntries);
+        }
+        if (!path.equals(root)) {
+            children.computeIfAbsent(path.getParent(), k -> ConcurrentHashMap.newKeySet()).add(path);
+        }
+        if (previous == null) {
+            changes.add(new FileChange(path, ChangeKind.CREATED, current.isDirectory()));
+        } else if (changed(previous, current)) {
+            changes.add(new FileChange(path, ChangeKind.MODIFIED, current.isDirectory()));
+        }
+    }
+
+    /**
+     * Attributes as {@link #stat} reports them, following symbolic links; the walk itself does
+     * not descend into linked directories.
+     */
+    private BasicFileAttributes readAttributes(Path path) {
+        try {
+            return Files.readAttributes(path, attributeType);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private void collectVanished(Path path, Set<Path> seen, List<Path> vanished) {
+        if (!seen.contains(path)) {
+            if (attributes.containsKey(path)) {
+                vanished.add(path); // remove() takes the subtree with it
+            }
+            return;
+        }
+        Set<Path> entries = children.get(path);
+        if (entries != null) {
+            for (Path child : entries) {
+                collectVanished(child, seen, vanished);
+            }
+        }
+    }
+
+    private void remove(Path path, List<FileChange> changes) {
+        BasicFileAttributes previous = attributes.remove(path);
+        Set<Path> entries = children.remove(path);
+        if (entries != null) {
+            for (Path child : entries) {
+                remove(child, changes);
+            }
+        }
+        if (!path.equals(root)) {
+            Set<Path> siblings = children.get(path.getParent());
+            if (siblings != null) {
+                siblings.remove(path);
+            }
+        }
+        WatchKey key = watchedDirectories.remove(path);
+        if (key != null) {
+            key.cancel();
+            watchKeys.remove(key);
+        }
+        if (previous != null) {
+            changes.add(new FileChange(path, ChangeKind.DELETED, previous.isDirectory()));
+        }
+    }
+
+    private void publish(List<FileChange> changes) {
+        if (changes.isEmpty() || listeners.isEmpty()) {
+            return;
+        }
+        for (FileChange change : changes) {
+            for (Listener listener : listeners) {
+                try {
+                    listener.onFileChange(change);
+                } catch (Exception e) {
+                    logger.warn("File change listener failed for {}: {}", change.path(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    private synchronized void disable(String reason) {
+        logger.warn("File metadata cache disabled, falling back to direct file system access: {}", reason);
+        running = false;
+        clear();
+    }
+
+    private void clear() {
+        attributes.clear();
+        children.clear();
+        watchKeys.keySet().forEach(WatchKey::cancel);
+        watchKeys.clear();
+        watchedDirectories.clear();
+    }
+
+    private static boolean changed(BasicFileAttributes previous, BasicFileAttributes current) {
+        return previous.size() != current.size()
+                || !previous.lastModifiedTime().equals(current.lastModifiedTime());
+    }
+
+    private static class CacheFullException extends RuntimeException {
+        CacheFullException(int maxEntries) {
+            super("more than " + maxEntries + " entries under the data directory");
+        }
+    }
+}
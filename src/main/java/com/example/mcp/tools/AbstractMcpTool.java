@@ -14,12 +14,17 @@ public abstract class AbstractMcpTool implements McpTool {
 
     @Override
     public CompletableFuture<Object> execute(JsonNode parameters) {
+        return execute(parameters, ToolProgress.NONE);
+    }
+
+    @Override
+    public CompletableFuture<Object> execute(JsonNode parameters, ToolProgress progress) {
         logger.debug("Executing tool: {} with parameters: {}", getName(), parameters);
 
         return CompletableFuture.supplyAsync(() -> {
             try {
                 validateParameters(parameters);
-                Object result = doExecute(parameters);
+                Object result = doExecute(parameters, progress);
                 logger.debug("Tool {} executed successfully", getName());
                 return result;
             } catch (Exception e) {
@@ -31,6 +36,10 @@ public abstract class AbstractMcpTool implements McpTool {
 
     protected abstract Object doExecute(JsonNode parameters) throws Exception;
 
+    protected Object doExecute(JsonNode parameters, ToolProgress progress) throws Exception {
+        return doExecute(parameters);
+    }
+
     protected void validateParameters(JsonNode parameters) throws Exception {
         if (parameters == null || parameters.isNull()) {
             throw new IllegalArgumentException("Parameters cannot be null");
@@ -59,6 +68,17 @@ public abstract class AbstractMcpTool implements McpTool {
         return defaultValue;
     }
 
+    protected long getLongParameter(JsonNode parameters, String key) {
+        return getLongParameter(parameters, key, 0L);
+    }
+
+    protected long getLongParameter(JsonNode parameters, String key, long defaultValue) {
+        if (parameters.has(key) && !parameters.get(key).isNull()) {
+            return parameters.get(key).asLong();
+        }
+        return defaultValue;
+    }
+
     protected double getDoubleParameter(JsonNode parameters, String key) {
         return getDoubleParameter(parameters, key, 0.0);
     }
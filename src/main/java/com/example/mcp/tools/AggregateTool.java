@@ -0,0 +1,221 @@
+package com.example.mcp.tools;
+
+import com.example.mcp.analytics.ColumnAggregator;
+import com.example.mcp.analytics.RecordFile;
+import com.example.mcp.storage.FileMetadataCache;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+
+@Component
+public class AggregateTool extends AbstractMcpTool {
+
+    private static final int DEFAULT_MAX_GROUPS = 1000;
+    private static final double[] DEFAULT_PERCENTILES = {50, 90, 99};
+
+    private final FileMetadataCache metadataCache;
+    private final ForkJoinPool pool;
+    private final ColumnAggregator aggregator;
+    private final int maxGroupsLimit;
+
+    @Autowired
+    public AggregateTool(FileMetadataCache metadataCache,
+                         @Value("${mcp.tools.aggregate.parallelism:0}") int parallelism,
+                         @Value("${mcp.tools.aggregate.max-groups:100000}") int maxGroupsLimit) {
+        this.metadataCache = metadataCache;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.aggregator = new ColumnAggregator(pool);
+        this.maxGroupsLimit = maxGroupsLimit;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    @Override
+    public String getName() {
+        return "aggregate_file";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Compute summary statistics (count, sum, min, max, mean, percentiles) of numeric columns of a "
+                + "CSV, TSV or JSONL file in the data directory, optionally grouped by another column. "
+                + "The file is scanned in parallel on the server, so it may be far larger than a read allows";
+    }
+
+    @Override
+    public JsonNode getInputSchema() {
+        ObjectNode schema = objectMapper.createObjectNode();
+        schema.put("type", "object");
+
+        ObjectNode properties = objectMapper.createObjectNode();
+
+        ObjectNode path = objectMapper.createObjectNode();
+        path.put("type", "string");
+        path.put("description", "File path relative to the data directory (.csv, .tsv or .jsonl)");
+        properties.set("path", path);
+
+        ObjectNode columns = objectMapper.createObjectNode();
+        columns.put("type", "array");
+        columns.put("description", "Numeric columns to summarize: header names or zero-based indexes for CSV/TSV, "
+                + "top-level field names for JSONL");
+        columns.set("items", objectMapper.createObjectNode().put("type", "string"));
+        properties.set("columns", columns);
+
+        ObjectNode groupBy = objectMapper.createObjectNode();
+        groupBy.put("type", "string");
+        groupBy.put("description", "Column whose values group the records");
+        properties.set("groupBy", groupBy);
+
+        ObjectNode percentiles = objectMapper.createObjectNode();
+        percentiles.put("type", "array");
+        percentiles.put("description", "Percentiles to estimate (0-100, within 1% relative error)");
+        percentiles.set("items", objectMapper.createObjectNode().put("type", "number"));
+        percentiles.set("default", objectMapper.valueToTree(DEFAULT_PERCENTILES));
+        properties.set("percentiles", percentiles);
+
+        ObjectNode maxGroups = objectMapper.createObjectNode();
+        maxGroups.put("type", "integer");
+        maxGroups.put("description", "Fail if groupBy has more distinct values than this (max " + maxGroupsLimit + ")");
+        maxGroups.put("default", DEFAULT_MAX_GROUPS);
+        properties.set("maxGroups", maxGroups);
+
+        schema.set("properties", properties);
+        schema.set("required", objectMapper.valueToTree(new String[]{"path", "columns"}));
+
+        return schema;
+    }
+
+    @Override
+    protected Object doExecute(JsonNode parameters) throws Exception {
+        return doExecute(parameters, ToolProgress.NONE);
+    }
+
+    @Override
+    protected Object doExecute(JsonNode parameters, ToolProgress progress) throws Exception {
+        requireParameter(parameters, "path");
+        requireParameter(parameters, "columns");
+
+        String path = getStringParameter(parameters, "path");
+        String groupBy = getStringParameter(parameters, "groupBy");
+        int maxGroups = Math.min(Math.max(1, getIntParameter(parameters, "maxGroups", DEFAULT_MAX_GROUPS)),
+                maxGroupsLimit);
+        List<String> columns = readColumns(parameters.get("columns"));
+        double[] percentiles = readPercentiles(parameters.get("percentiles"));
+
+        Path root = metadataCache.getRoot();
+        Path file = root.resolve(path).normalize();
+        if (!file.startsWith(root)) {
+            throw new SecurityException("Path traversal attempt detected: " + path);
+        }
+        if (!Files.isRegularFile(file)) {
+            throw new IllegalArgumentException("File not found: " + path);
+        }
+
+        long start = System.nanoTime();
+        RecordFile recordFile = RecordFile.open(file);
+        ColumnAggregator.Listener listener = progress.isActive()
+                ? (done, total) -> progress.report(done, total, "Aggregated " + done + " of " + total + " chunks")
+                : null;
+        ColumnAggregator.Result result = aggregator.aggregate(recordFile, columns, groupBy, maxGroups, listener);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        logger.debug("Aggregated {} ({} bytes, {} records, {} chunks) in {} ms",
+                path, recordFile.getSize(), result.records(), result.chunks(), elapsedMillis);
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("path", path);
+        response.put("records", result.records());
+        if (groupBy == null) {
+            ColumnAggregator.ColumnStats[] stats = result.groups().get("");
+            response.put("stats", stats == null ? Map.of() : describe(columns, stats, percentiles));
+        } else {
+            response.put("groupBy", groupBy);
+            List<Map<String, Object>> groups = new ArrayList<>();
+            for (Map.Entry<String, ColumnAggregator.ColumnStats[]> entry : new TreeMap<>(result.groups()).entrySet()) {
+                Map<String, Object> group = new LinkedHashMap<>();
+                group.put("key", entry.getKey());
+                group.put("stats", describe(columns, entry.getValue(), percentiles));
+                groups.add(group);
+            }
+            response.put("groups", groups);
+        }
+        if (result.skippedLines() > 0) {
+            response.put("skippedLines", result.skippedLines());
+        }
+        response.put("bytesScanned", recordFile.getSize());
+        response.put("elapsedMillis", elapsedMillis);
+        return response;
+    }
+
+    private Map<String, Object> describe(List<String> columns, ColumnAggregator.ColumnStats[] stats,
+                                         double[] percentiles) {
+        Map<String, Object> described = new LinkedHashMap<>();
+        for (int i = 0; i < columns.size(); i++) {
+            ColumnAggregator.ColumnStats column = stats[i];
+            Map<String, Object> values = new LinkedHashMap<>();
+            values.put("count", column.getCount());
+            values.put("missing", column.getMissing());
+            values.put("sum", column.getSum());
+            values.put("min", finiteOrNull(column.getMin()));
+            values.put("max", finiteOrNull(column.getMax()));
+            values.put("mean", finiteOrNull(column.getMean()));
+            for (double percentile : percentiles) {
+                values.put("p" + formatPercentile(percentile), finiteOrNull(column.getQuantile(percentile / 100)));
+            }
+            described.put(columns.get(i), values);
+        }
+        return described;
+    }
+
+    private List<String> readColumns(JsonNode node) {
+        if (!node.isArray() || node.isEmpty()) {
+            throw new IllegalArgumentException("Parameter 'columns' must be a non-empty array of column names");
+        }
+        List<String> columns = new ArrayList<>();
+        for (JsonNode column : node) {
+            columns.add(column.asText());
+        }
+        return columns;
+    }
+
+    private double[] readPercentiles(JsonNode node) {
+        if (node == null || node.isNull()) {
+            return DEFAULT_PERCENTILES;
+        }
+        if (!node.isArray()) {
+            throw new IllegalArgumentException("Parameter 'percentiles' must be an array of numbers");
+        }
+        double[] percentiles = new double[node.size()];
+        for (int i = 0; i < percentiles.length; i++) {
+            double percentile = node.get(i).asDouble(-1);
+            if (percentile < 0 || percentile > 100) {
+                throw new IllegalArgumentException("Percentiles must be between 0 and 100: " + node.get(i));
+            }
+            percentiles[i] = percentile;
+        }
+        return percentiles;
+    }
+
+    private static Double finiteOrNull(double value) {
+        return Double.isFinite(value) ? value : null;
+    }
+
+    private static String formatPercentile(double percentile) {
+        return percentile == Math.rint(percentile) ? String.valueOf((long) percentile) : String.valueOf(percentile);
+    }
+}
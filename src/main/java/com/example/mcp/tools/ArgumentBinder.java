@@ -0,0 +1,368 @@
+package com.example.mcp.tools;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.RecordComponent;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Derives the input schema of {@link Tool} method parameters from their Java types and binds
+ * call arguments to them. Each type is inspected once, up front, into a {@link Reader}; binding
+ * then walks the arguments a single time, and records are created through a method handle on
+ * their canonical constructor.
+ */
+final class ArgumentBinder {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    interface Reader {
+        Object read(JsonNode value);
+    }
+
+    record Binding(ObjectNode schema, Reader reader) {
+    }
+
+    record Property(String name, Binding binding, boolean required, Object defaultValue) {
+    }
+
+    /**
+     * Thrown while binding; each enclosing object or list prepends its segment to the path on the
+     * way out, so the path is only built when something is wrong.
+     */
+    static final class BindingException extends IllegalArgumentException {
+
+        private final String problem;
+        private String path = "";
+
+        BindingException(String problem) {
+            super(problem);
+            this.problem = problem;
+        }
+
+        BindingException at(String segment) {
+            path = path.isEmpty() || path.startsWith("[") ? segment + path : segment + "." + path;
+            return this;
+        }
+
+        @Override
+        public String getMessage() {
+            return path.isEmpty() ? "Arguments " + problem : "Parameter '" + path + "' " + problem;
+        }
+    }
+
+    private ArgumentBinder() {
+    }
+
+    static Binding of(Type type) {
+        Class<?> raw = rawType(type);
+        if (raw == String.class) {
+            return new Binding(schema("string"), ArgumentBinder::readString);
+        }
+        if (raw == int.class || raw == Integer.class) {
+            return new Binding(schema("integer"), ArgumentBinder::readInt);
+        }
+        if (raw == long.class || raw == Long.class) {
+            return new Binding(schema("integer"), ArgumentBinder::readLong);
+        }
+        if (raw == double.class || raw == Double.class) {
+            return new Binding(schema("number"), ArgumentBinder::readDouble);
+        }
+        if (raw == float.class || raw == Float.class) {
+            return new Binding(schema("number"), value -> (float) readDouble(value));
+        }
+        if (raw == boolean.class || raw == Boolean.class) {
+            return new Binding(schema("boolean"), ArgumentBinder::readBoolean);
+        }
+        if (raw == JsonNode.class) {
+            return new Binding(MAPPER.createObjectNode(), value -> value);
+        }
+        if (raw.isEnum()) {
+            return enumBinding(raw);
+        }
+        if (raw == List.class) {
+            return listBinding(type);
+        }
+        if (raw.isRecord()) {
+            return recordBinding(raw);
+        }
+        throw new IllegalArgumentException("Unsupported tool parameter type: " + type.getTypeName());
+    }
+
+    static Property property(String name, Type type, ToolParam param) {
+        Binding binding = of(type);
+        boolean required = param == null || param.required();
+        Object defaultValue = zero(rawType(type));
+
+        if (param != null && !param.description().isEmpty()) {
+            binding.schema().put("description", param.description());
+        }
+        if (param != null && !param.defaultValue().isEmpty()) {
+            JsonNode json = parseDefault(param.defaultValue(), binding.schema());
+            try {
+                defaultValue = binding.reader().read(json);
+            } catch (BindingException e) {
+                throw new IllegalArgumentException("Invalid default for '" + name + "': " + e.getMessage());
+            }
+            binding.schema().set("default", json);
+            required = false;
+        }
+        return new Property(name, binding, required, defaultValue);
+    }
+
+    /**
+     * Reads a JSON object into one value per property, in property order.
+     */
+    static final class ObjectReader implements Reader {
+
+        private final Property[] properties;
+        private final Map<String, Integer> slots = new HashMap<>();
+        private final ObjectNode schema = ArgumentBinder.schema("object");
+
+        ObjectReader(List<Property> properties) {
+            this.properties = properties.toArray(new Property[0]);
+            ObjectNode schemaProperties = schema.putObject("properties");
+            ArrayNode required = MAPPER.createArrayNode();
+            for (int i = 0; i < this.properties.length; i++) {
+                Property property = this.properties[i];
+                if (slots.put(property.name(), i) != null) {
+                    throw new IllegalArgumentException("Duplicate parameter name: " + property.name());
+                }
+                schemaProperties.set(property.name(), property.binding().schema());
+                if (property.required()) {
+                    required.add(property.name());
+                }
+            }
+            if (!required.isEmpty()) {
+                schema.set("required", required);
+            }
+        }
+
+        ObjectNode schema() {
+            return schema;
+        }
+
+        @Override
+        public Object[] read(JsonNode value) {
+            if (!value.isObject()) {
+                throw mismatch("an object", value);
+            }
+            Object[] values = new Object[properties.length];
+            boolean[] present = new boolean[properties.length];
+
+            Iterator<Map.Entry<String, JsonNode>> fields = value.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                Integer slot = slots.get(field.getKey());
+                if (slot == null || field.getValue().isNull()) {
+                    continue;
+                }
+                try {
+                    values[slot] = properties[slot].binding().reader().read(field.getValue());
+                } catch (BindingException e) {
+                    throw e.at(field.getKey());
+                }
+                present[slot] = true;
+            }
+
+            for (int i = 0; i < properties.length; i++) {
+                if (!present[i]) {
+                    if (properties[i].required()) {
+                        throw new BindingException("is required").at(properties[i].name());
+                    }
+                    values[i] = properties[i].defaultValue();
+                }
+            }
+            return values;
+        }
+    }
+
+    private static Binding recordBinding(Class<?> type) {
+        RecordComponent[] components = type.getRecordComponents();
+        List<Property> properties = new ArrayList<>(components.length);
+        Class<?>[] types = new Class<?>[components.length];
+        for (int i = 0; i < components.length; i++) {
+            RecordComponent component = components[i];
+            ToolParam param = component.getAnnotation(ToolParam.class);
+            String name = param != null && !param.name().isEmpty() ? param.name() : component.getName();
+            properties.add(property(name, component.getGenericType(), param));
+            types[i] = component.getType();
+        }
+
+        MethodHandle constructor;
+        try {
+            Constructor<?> canonical = type.getDeclaredConstructor(types);
+            canonical.setAccessible(true);
+            constructor = LOOKUP.unreflectConstructor(canonical)
+                    .asSpreader(Object[].class, components.length)
+                    .asType(MethodType.methodType(Object.class, Object[].class));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException("Cannot construct record " + type.getName() + ": " + e.getMessage(), e);
+        }
+
+        ObjectReader fields = new ObjectReader(properties);
+        return new Binding(fields.schema(), value -> {
+            Object[] values = fields.read(value);
+            try {
+                return (Object) constructor.invokeExact(values);
+            } catch (IllegalArgumentException e) {
+                // Thrown by a compact constructor that checks its components
+                throw e instanceof BindingException ? e : new BindingException(e.getMessage());
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new IllegalStateException("Failed to create " + type.getSimpleName(), t);
+            }
+        });
+    }
+
+    private static Binding listBinding(Type type) {
+        if (!(type instanceof ParameterizedType parameterized)) {
+            throw new IllegalArgumentException("List parameters must declare their element type");
+        }
+        Binding items = of(parameterized.getActualTypeArguments()[0]);
+        ObjectNode schema = schema("array");
+        schema.set("items", items.schema());
+
+        Reader reader = items.reader();
+        return new Binding(schema, value -> {
+            if (!value.isArray()) {
+                throw mismatch("an array", value);
+            }
+            List<Object> list = new ArrayList<>(value.size());
+            for (int i = 0; i < value.size(); i++) {
+                try {
+                    list.add(reader.read(value.get(i)));
+                } catch (BindingException e) {
+                    throw e.at("[" + i + "]");
+                }
+            }
+            return Collections.unmodifiableList(list);
+        });
+    }
+
+    private static Binding enumBinding(Class<?> type) {
+        Map<String, Object> constants = new HashMap<>();
+        List<String> names = new ArrayList<>();
+        ArrayNode values = MAPPER.createArrayNode();
+        for (Object constant : type.getEnumConstants()) {
+            String name = ((Enum<?>) constant).name().toLowerCase(Locale.ROOT);
+            constants.put(name, constant);
+            names.add(name);
+            values.add(name);
+        }
+        ObjectNode schema = schema("string");
+        schema.set("enum", values);
+
+        return new Binding(schema, value -> {
+            Object constant = value.isTextual() ? constants.get(value.asText().toLowerCase(Locale.ROOT)) : null;
+            if (constant == null) {
+                throw new BindingException("must be one of " + names);
+            }
+            return constant;
+        });
+    }
+
+    private static Object readString(JsonNode value) {
+        if (!value.isValueNode()) {
+            throw mismatch("a string", value);
+        }
+        return value.asText();
+    }
+
+    private static Object readInt(JsonNode value) {
+        if (!value.canConvertToExactIntegral() || !value.canConvertToInt()) {
+            throw mismatch("an integer", value);
+        }
+        return value.intValue();
+    }
+
+    private static Object readLong(JsonNode value) {
+        if (!value.canConvertToExactIntegral() || !value.canConvertToLong()) {
+            throw mismatch("an integer", value);
+        }
+        return value.longValue();
+    }
+
+    private static double readDouble(JsonNode value) {
+        if (!value.isNumber()) {
+            throw mismatch("a number", value);
+        }
+        return value.doubleValue();
+    }
+
+    private static Object readBoolean(JsonNode value) {
+        if (!value.isBoolean()) {
+            throw mismatch("a boolean", value);
+        }
+        return value.booleanValue();
+    }
+
+    private static BindingException mismatch(String expected, JsonNode value) {
+        return new BindingException("must be " + expected + " but was "
+                + value.getNodeType().name().toLowerCase(Locale.ROOT));
+    }
+
+    private static JsonNode parseDefault(String text, ObjectNode schema) {
+        if ("string".equals(schema.path("type").asText())) {
+            return TextNode.valueOf(text);
+        }
+        try {
+            return MAPPER.readTree(text);
+        } catch (JsonProcessingException e) {
+            return TextNode.valueOf(text);
+        }
+    }
+
+    private static ObjectNode schema(String type) {
+        ObjectNode schema = MAPPER.createObjectNode();
+        schema.put("type", type);
+        return schema;
+    }
+
+    static Class<?> rawType(Type type) {
+        if (type instanceof Class<?> clazz) {
+            return clazz;
+        }
+        if (type instanceof ParameterizedType parameterized) {
+            return (Class<?>) parameterized.getRawType();
+        }
+        throw new IllegalArgumentException("Unsupported tool parameter type: " + type.getTypeName());
+    }
+
+    private static Object zero(Class<?> type) {
+        if (!type.isPrimitive()) {
+            return null;
+        }
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        if (type == double.class) {
+            return 0.0;
+        }
+        if (type == float.class) {
+            return 0.0f;
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.mcp.tools;
+
+/**
+ * Element-wise arithmetic over primitive arrays for the calculator's batch mode. Each
+ * operator/shape combination is its own branch-free counted loop, which C2 compiles to SIMD
+ * instructions, and a scalar operand is broadcast instead of being expanded into an array.
+ */
+final class BatchArithmetic {
+
+    private BatchArithmetic() {
+    }
+
+    /**
+     * Computes {@code a op b} into a new array. Either operand may be a scalar (a one-element
+     * array together with {@code aScalar} / {@code bScalar}); otherwise both have the same length.
+     */
+    static double[] apply(String operation, double[] a, boolean aScalar, double[] b, boolean bScalar) {
+        int length = aScalar ? b.length : a.length;
+        double[] out = new double[length];
+        switch (operation) {
+            case "add" -> {
+                if (aScalar) {
+                    add(b, a[0], out);
+                } else if (bScalar) {
+                    add(a, b[0], out);
+                } else {
+                    add(a, b, out);
+                }
+            }
+            case "subtract" -> {
+                if (aScalar) {
+                    subtractFrom(a[0], b, out);
+                } else if (bScalar) {
+                    add(a, -b[0], out);
+                } else {
+                    subtract(a, b, out);
+                }
+            }
+            case "multiply" -> {
+                if (aScalar) {
+                    multiply(b, a[0], out);
+                } else if (bScalar) {
+                    multiply(a, b[0], out);
+                } else {
+                    multiply(a, b, out);
+                }
+            }
+            case "divide" -> {
+                checkDivisors(b);
+                if (aScalar) {
+                    divideInto(a[0], b, out);
+                } else if (bScalar) {
+                    divide(a, b[0], out);
+                } else {
+                    divide(a, b, out);
+                }
+            }
+            default -> throw new IllegalArgumentException("Unsupported operation: " + operation);
+        }
+        return out;
+    }
+
+    private static void checkDivisors(double[] b) {
+        for (int i = 0; i < b.length; i++) {
+            if (b[i] == 0) {
+                throw new IllegalArgumentException("Division by zero is not allowed (b[" + i + "])");
+            }
+        }
+    }
+
+    private static void add(double[] a, double[] b, double[] out) {
+        for (int i = 0; i < out.length; i++) {
+            out[i] = a[i] + b[i];
+        }
+    }
+
+    private static void add(double[] a, double b, double[] out) {
+        for (int i = 0; i < out.length; i++) {
+            out[i] = a[i] + b;
+        }
+    }
+
+    private static void subtract(double[] a, double[] b, double[] out) {
+        for (int i = 0; i < out.length; i++) {
+            out[i] = a[i] - b[i];
+        }
+    }
+
+    private static void subtractFrom(double a, double[] b, double[] out) {
+        for (int i = 0; i < out.length; i++) {
+            out[i] = a - b[i];
+        }
+    }
+
+    private static void multiply(double[] a, double[] b, double[] out) {
+        for (int i = 0; i < out.length; i++) {
+            out[i] = a[i] * b[i];
+        }
+    }
+
+    private static void multiply(double[] a, double b, double[] out) {
+        for (int i = 0; i < out.length; i++) {
+            out[i] = a[i] * b;
+        }
+    }
+
+    private static void divide(double[] a, double[] b, double[] out) {
+        for (int i = 0; i < out.length; i++) {
+            out[i] = a[i] / b[i];
+        }
+    }
+
+    private static void divide(double[] a, double b, double[] out) {
+        for (int i = 0; i < out.length; i++) {
+            out[i] = a[i] / b;
+        }
+    }
+
+    private static void divideInto(double a, double[] b, double[] out) {
+        for (int i = 0; i < out.length; i++) {
+            out[i] = a / b[i];
+        }
+    }
+}
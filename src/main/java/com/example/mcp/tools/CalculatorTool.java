@@ -1,14 +1,42 @@
 package com.example.mcp.tools;
 
+import com.example.mcp.analytics.RecordFile;
+import com.example.mcp.expression.CompiledExpression;
+import com.example.mcp.expression.ExpressionCompiler;
+import com.example.mcp.storage.FileMetadataCache;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 @Component
 public class CalculatorTool extends AbstractMcpTool {
 
+    private static final int MAX_BINDINGS = 10_000;
+    private static final int MAX_BATCH_SIZE = 1_000_000;
+
+    private final ExpressionCompiler expressionCompiler = new ExpressionCompiler();
+    private final Path dataRoot;
+
+    public CalculatorTool() {
+        this(new FileMetadataCache(Paths.get(System.getProperty("user.dir"), "data")));
+    }
+
+    @Autowired
+    public CalculatorTool(FileMetadataCache metadataCache) {
+        this.dataRoot = metadataCache.getRoot();
+    }
+
     @Override
     public String getName() {
         return "calculator";
@@ -16,7 +44,9 @@ public class CalculatorTool extends AbstractMcpTool {
 
     @Override
     public String getDescription() {
-        return "Perform basic mathematical calculations (addition, subtraction, multiplication, division)";
+        return "Perform basic mathematical calculations (addition, subtraction, multiplication, division). "
+                + "Operands may also be arrays or numeric columns of CSV/TSV/JSONL files in the data directory, "
+                + "computed element-wise in one call. Can also evaluate a formula with variables, optionally against many variable bindings at once";
     }
 
     @Override
@@ -29,21 +59,40 @@ public class CalculatorTool extends AbstractMcpTool {
         ObjectNode operation = objectMapper.createObjectNode();
         operation.put("type", "string");
         operation.put("description", "Mathematical operation to perform");
-        operation.set("enum", objectMapper.valueToTree(new String[]{"add", "subtract", "multiply", "divide"}));
+        operation.set("enum", objectMapper.valueToTree(new String[]{"add", "subtract", "multiply", "divide", "expression"}));
         properties.set("operation", operation);
 
         ObjectNode a = objectMapper.createObjectNode();
-        a.put("type", "number");
-        a.put("description", "First operand");
+        a.set("type", objectMapper.valueToTree(new String[]{"number", "array", "object"}));
+        a.put("description", "First operand: a number, an array of numbers, or a column reference "
+                + "{\"file\": \"path relative to data directory\", \"column\": \"name or index\"}");
         properties.set("a", a);
 
         ObjectNode b = objectMapper.createObjectNode();
-        b.put("type", "number");
-        b.put("description", "Second operand");
+        b.set("type", objectMapper.valueToTree(new String[]{"number", "array", "object"}));
+        b.put("description", "Second operand, in the same forms as a. A number is applied to every element");
         properties.set("b", b);
 
+        ObjectNode expression = objectMapper.createObjectNode();
+        expression.put("type", "string");
+        expression.put("description", "Formula for the expression operation, e.g. \"sqrt(x^2 + y^2) * k\". "
+                + "Supports + - * / % ^, comparisons, pi, e and functions such as sin, log, min, max, pow, if");
+        properties.set("expression", expression);
+
+        ObjectNode variables = objectMapper.createObjectNode();
+        variables.put("type", "object");
+        variables.put("description", "Variable values for the expression operation");
+        properties.set("variables", variables);
+
+        ObjectNode bindings = objectMapper.createObjectNode();
+        bindings.put("type", "array");
+        bindings.put("description", "Evaluate the expression once per entry, each an object of variable values "
+                + "merged over variables");
+        bindings.set("items", objectMapper.createObjectNode().put("type", "object"));
+        properties.set("bindings", bindings);
+
         schema.set("properties", properties);
-        schema.set("required", objectMapper.valueToTree(new String[]{"operation", "a", "b"}));
+        schema.set("required", objectMapper.valueToTree(new String[]{"operation"}));
 
         return schema;
     }
@@ -51,10 +100,17 @@ public class CalculatorTool extends AbstractMcpTool {
     @Override
     protected Object doExecute(JsonNode parameters) throws Exception {
         requireParameter(parameters, "operation");
-        requireParameter(parameters, "a");
-        requireParameter(parameters, "b");
 
         String operation = getStringParameter(parameters, "operation");
+        if ("expression".equalsIgnoreCase(operation)) {
+            return evaluateExpression(parameters);
+        }
+
+        requireParameter(parameters, "a");
+        requireParameter(parameters, "b");
+        if (isBatchOperand(parameters.get("a")) || isBatchOperand(parameters.get("b"))) {
+            return evaluateBatch(operation.toLowerCase(), parameters.get("a"), parameters.get("b"));
+        }
         double a = getDoubleParameter(parameters, "a");
         double b = getDoubleParameter(parameters, "b");
 
@@ -89,6 +145,162 @@ public class CalculatorTool extends AbstractMcpTool {
         );
     }
 
+    private boolean isBatchOperand(JsonNode operand) {
+        return operand.isArray() || operand.isObject();
+    }
+
+    private Object evaluateBatch(String operation, JsonNode aNode, JsonNode bNode) throws IOException {
+        double[] a = readOperand("a", aNode);
+        double[] b = readOperand("b", bNode);
+        boolean aScalar = !isBatchOperand(aNode);
+        boolean bScalar = !isBatchOperand(bNode);
+        if (!aScalar && !bScalar && a.length != b.length) {
+            throw new IllegalArgumentException("Operands a and b have different lengths: " + a.length + " and " + b.length);
+        }
+
+        double[] results = BatchArithmetic.apply(operation, a, aScalar, b, bScalar);
+        for (int i = 0; i < results.length; i++) {
+            if (!Double.isFinite(results[i])) {
+                throw new IllegalArgumentException("Result at index " + i + " is not a finite number");
+            }
+        }
+        logger.info("Calculator: {} over {} elements", operation, results.length);
+
+        // double[] is written by Jackson as a JSON array without boxing each element
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("operation", operation);
+        result.put("count", results.length);
+        result.put("results", results);
+        return result;
+    }
+
+    private double[] readOperand(String name, JsonNode operand) throws IOException {
+        if (operand.isNumber()) {
+            return new double[]{operand.asDouble()};
+        }
+        if (operand.isArray()) {
+            if (operand.size() > MAX_BATCH_SIZE) {
+                throw new IllegalArgumentException("Operand " + name + " has more than " + MAX_BATCH_SIZE + " elements");
+            }
+            double[] values = new double[operand.size()];
+            for (int i = 0; i < values.length; i++) {
+                JsonNode element = operand.get(i);
+                if (!element.isNumber()) {
+                    throw new IllegalArgumentException("Operand " + name + "[" + i + "] is not a number");
+                }
+                values[i] = element.asDouble();
+            }
+            return values;
+        }
+        if (operand.isObject()) {
+            if (!operand.hasNonNull("file") || !operand.hasNonNull("column")) {
+                throw new IllegalArgumentException("Column reference " + name + " needs 'file' and 'column'");
+            }
+            Path file = dataRoot.resolve(operand.get("file").asText()).normalize();
+            if (!file.startsWith(dataRoot)) {
+                throw new SecurityException("Path traversal attempt detected: " + operand.get("file").asText());
+            }
+            if (!Files.isRegularFile(file)) {
+                throw new IllegalArgumentException("File not found: " + operand.get("file").asText());
+            }
+            return RecordFile.open(file).readNumbers(operand.get("column").asText(), MAX_BATCH_SIZE);
+        }
+        throw new IllegalArgumentException("Operand " + name + " must be a number, an array or a column reference");
+    }
+
+    private Object evaluateExpression(JsonNode parameters) {
+        requireParameter(parameters, "expression");
+        CompiledExpression compiled = expressionCompiler.compile(getStringParameter(parameters, "expression"));
+        List<String> names = compiled.getVariables();
+
+        double[] defaults = new double[names.size()];
+        boolean[] present = new boolean[names.size()];
+        JsonNode variables = parameters.get("variables");
+        if (variables != null && !variables.isNull()) {
+            readVariables(variables, names, defaults, present);
+        }
+
+        JsonNode bindings = parameters.get("bindings");
+        if (bindings == null || bindings.isNull()) {
+            double result = compiled.evaluate(checkBound(names, defaults, present));
+            requireFinite(result);
+            logger.info("Calculator: {} = {}", compiled.getSource(), result);
+
+            Map<String, Object> values = new LinkedHashMap<>();
+            for (int i = 0; i < names.size(); i++) {
+                values.put(names.get(i), defaults[i]);
+            }
+            return Map.of(
+                    "operation", "expression",
+                    "expression", compiled.getSource(),
+                    "variables", values,
+                    "result", result
+            );
+        }
+
+        if (!bindings.isArray()) {
+            throw new IllegalArgumentException("Parameter 'bindings' must be an array of objects");
+        }
+        if (bindings.size() > MAX_BINDINGS) {
+            throw new IllegalArgumentException("At most " + MAX_BINDINGS + " bindings are allowed per call");
+        }
+
+        // The expression is compiled once; each binding only refills the slot array
+        List<Double> results = new ArrayList<>(bindings.size());
+        double[] slots = new double[names.size()];
+        boolean[] bound = new boolean[names.size()];
+        for (JsonNode binding : bindings) {
+            System.arraycopy(defaults, 0, slots, 0, slots.length);
+            System.arraycopy(present, 0, bound, 0, bound.length);
+            readVariables(binding, names, slots, bound);
+            double result = compiled.evaluate(checkBound(names, slots, bound));
+            results.add(Double.isFinite(result) ? result : null);
+        }
+        logger.info("Calculator: {} evaluated for {} bindings", compiled.getSource(), results.size());
+
+        return Map.of(
+                "operation", "expression",
+                "expression", compiled.getSource(),
+                "variables", names,
+                "results", results,
+                "count", results.size()
+        );
+    }
+
+    private void readVariables(JsonNode values, List<String> names, double[] slots, boolean[] present) {
+        if (!values.isObject()) {
+            throw new IllegalArgumentException("Variable bindings must be objects of name to number");
+        }
+        Iterator<Map.Entry<String, JsonNode>> fields = values.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            int slot = names.indexOf(field.getKey());
+            if (slot < 0) {
+                continue; // not referenced by this expression
+            }
+            if (!field.getValue().isNumber()) {
+                throw new IllegalArgumentException("Variable '" + field.getKey() + "' must be a number");
+            }
+            slots[slot] = field.getValue().asDouble();
+            present[slot] = true;
+        }
+    }
+
+    private double[] checkBound(List<String> names, double[] slots, boolean[] present) {
+        for (int i = 0; i < present.length; i++) {
+            if (!present[i]) {
+                throw new IllegalArgumentException("Missing value for variable: " + names.get(i));
+            }
+        }
+        return slots;
+    }
+
+    private void requireFinite(double result) {
+        if (!Double.isFinite(result)) {
+            throw new IllegalArgumentException("Expression result is not a finite number: " + result);
+        }
+    }
+
     private String getOperatorSymbol(String operation) {
         return switch (operation.toLowerCase()) {
             case "add" -> "+";
@@ -0,0 +1,218 @@
+package com.example.mcp.tools;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Positional, bounded reads of UTF-8 text files. Nothing here loads more than one chunk of a
+ * file into memory; line lookups scan memory-mapped windows instead of reading through the heap.
+ */
+final class FileChunkReader {
+
+    private static final int MAP_WINDOW = 64 * 1024 * 1024;
+    private static final int TAIL_BLOCK = 64 * 1024;
+
+    record Chunk(long offset, int length, String content, long nextOffset, boolean eof,
+                 long startLine, int lineCount, long nextLine) {
+    }
+
+    /**
+     * Continuation point returned to clients as an opaque string: {@code offset} or {@code offset:line}.
+     */
+    record Cursor(long offset, long line) {
+
+        static Cursor parse(String value) {
+            try {
+                int colon = value.indexOf(':');
+                if (colon < 0) {
+                    return new Cursor(Long.parseLong(value), -1);
+                }
+                return new Cursor(Long.parseLong(value.substring(0, colon)),
+                        Long.parseLong(value.substring(colon + 1)));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + value);
+            }
+        }
+
+        static String of(Chunk chunk) {
+            return chunk.nextLine() > 0 ? chunk.nextOffset() + ":" + chunk.nextLine() : String.valueOf(chunk.nextOffset());
+        }
+    }
+
+    private FileChunkReader() {
+    }
+
+    /**
+     * Reads up to {@code maxBytes} starting at {@code offset}; a negative offset counts back from
+     * the end of the file. The chunk is trimmed to whole UTF-8 characters on both ends; when
+     * {@code maxBytes} is too small for the next character, that character is returned whole.
+     */
+    static Chunk readBytes(FileChannel channel, long offset, int maxBytes) throws IOException {
+        long size = channel.size();
+        long start = offset < 0 ? Math.max(0, size + offset) : Math.min(offset, size);
+        int toRead = (int) Math.min(maxBytes, size - start);
+
+        byte[] bytes = read(channel, start, toRead);
+
+        int from = 0;
+        while (start + from > 0 && from < Math.min(3, toRead) && isContinuation(bytes[from])) {
+            from++;
+        }
+        int to = start + toRead < size ? characterBoundary(bytes, from, toRead) : toRead;
+        if (to <= from && start + toRead < size) {
+            // An empty chunk would hand back the same cursor forever
+            bytes = read(channel, start, (int) Math.min(8, size - start));
+            from = 0;
+            while (start + from > 0 && from < Math.min(3, bytes.length) && isContinuation(bytes[from])) {
+                from++;
+            }
+            to = from < bytes.length ? Math.min(bytes.length, from + sequenceLength(bytes[from])) : from;
+        }
+
+        long next = start + to;
+        return new Chunk(start + from, to - from, new String(bytes, from, to - from, StandardCharsets.UTF_8),
+                next, next >= size, -1, -1, -1);
+    }
+
+    /**
+     * Reads up to {@code lineCount} whole lines starting at byte {@code offset}, which must be the
+     * start of line {@code startLine} (or {@code -1} when the line number is unknown). Stops early
+     * at {@code maxBytes}; a single line longer than that is returned in pieces of at least one character.
+     */
+    static Chunk readLines(FileChannel channel, long offset, long startLine, int lineCount, int maxBytes)
+            throws IOException {
+        long size = channel.size();
+        long start = Math.min(offset, size);
+        int toRead = (int) Math.min(maxBytes, size - start);
+        byte[] bytes = read(channel, start, toRead);
+
+        int lines = 0;
+        int end = 0;
+        for (int i = 0; i < toRead && lines < lineCount; i++) {
+            if (bytes[i] == '\n') {
+                lines++;
+                end = i + 1;
+            }
+        }
+
+        boolean reachedEof = start + toRead >= size;
+        if (lines < lineCount && reachedEof && end < toRead) {
+            // Last line of the file without a trailing newline
+            lines++;
+            end = toRead;
+        } else if (lines == 0 && toRead > 0) {
+            // One line longer than the chunk: hand it out in character-aligned pieces
+            end = characterBoundary(bytes, 0, toRead);
+            if (end == 0) {
+                bytes = read(channel, start, (int) Math.min(4, size - start));
+                end = Math.min(bytes.length, sequenceLength(bytes[0]));
+            }
+        }
+
+        long next = start + end;
+        long nextLine = startLine > 0 ? startLine + lines : -1;
+        return new Chunk(start, end, new String(bytes, 0, end, StandardCharsets.UTF_8), next, next >= size,
+                startLine, lines, nextLine);
+    }
+
+    /**
+     * Byte offset at which 1-based line {@code line} starts, or the file size if it has fewer lines.
+     */
+    static long findLineOffset(FileChannel channel, long line) throws IOException {
+        if (line <= 1) {
+            return 0;
+        }
+        long size = channel.size();
+        long remaining = line - 1;
+
+        for (long windowStart = 0; windowStart < size; windowStart += MAP_WINDOW) {
+            long windowSize = Math.min(MAP_WINDOW, size - windowStart);
+            MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, windowSize);
+            for (int i = 0; i < windowSize; i++) {
+                if (window.get(i) == '\n' && --remaining == 0) {
+                    return windowStart + i + 1;
+                }
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Byte offset at which the last {@code lineCount} lines of the file start.
+     */
+    static long findTailOffset(FileChannel channel, int lineCount) throws IOException {
+        long size = channel.size();
+        if (size == 0 || lineCount <= 0) {
+            return size;
+        }
+
+        ByteBuffer block = ByteBuffer.allocate(TAIL_BLOCK);
+        long position = size;
+        int newlines = 0;
+        boolean trailingNewline = true;
+
+        while (position > 0) {
+            int blockSize = (int) Math.min(TAIL_BLOCK, position);
+            position -= blockSize;
+            block.clear().limit(blockSize);
+            readFully(channel, block, position);
+
+            for (int i = blockSize - 1; i >= 0; i--) {
+                if (block.get(i) != '\n') {
+                    trailingNewline = false;
+                    continue;
+                }
+                if (trailingNewline) {
+                    // The newline terminating the last line does not start a new one
+                    trailingNewline = false;
+                    continue;
+                }
+                if (++newlines == lineCount) {
+                    return position + i + 1;
+                }
+            }
+        }
+        return 0;
+    }
+
+    private static byte[] read(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        readFully(channel, buffer, position);
+        return buffer.array();
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new EOFException("File truncated while reading at offset " + (position + buffer.position()));
+            }
+        }
+    }
+
+    private static boolean isContinuation(byte b) {
+        return (b & 0xC0) == 0x80;
+    }
+
+    private static int sequenceLength(byte lead) {
+        int b = lead & 0xFF;
+        return b < 0x80 ? 1 : b >= 0xF0 ? 4 : b >= 0xE0 ? 3 : 2;
+    }
+
+    /**
+     * Largest index {@code <= end} that does not split a UTF-8 sequence.
+     */
+    private static int characterBoundary(byte[] bytes, int from, int end) {
+        for (int i = end - 1; i >= Math.max(from, end - 4); i--) {
+            if (isContinuation(bytes[i])) {
+                continue;
+            }
+            return i + sequenceLength(bytes[i]) <= end ? end : i;
+        }
+        return end;
+    }
+}
@@ -1,22 +1,47 @@
 package com.example.mcp.tools;
 
+import com.example.mcp.storage.ContentHashCache;
+import com.example.mcp.storage.DirectoryPager;
+import com.example.mcp.storage.DurableFileWriter;
+import com.example.mcp.storage.FileMetadataCache;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
+import java.nio.channels.FileChannel;
 import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 @Component
 public class FileOperationTool extends AbstractMcpTool {
 
-    private static final int MAX_FILE_SIZE = 1024 * 1024; // 1MB
+    private static final int MAX_CHUNK_SIZE = 1024 * 1024; // 1MB per read call
     private static final String BASE_PATH = System.getProperty("user.dir") + "/data";
 
+    private final FileMetadataCache metadataCache;
+    private final ContentHashCache contentHashes;
+    private final DurableFileWriter fileWriter;
+    private volatile boolean baseDirectoryCreated;
+
+    public FileOperationTool() {
+        this(new FileMetadataCache(Paths.get(BASE_PATH)), new ContentHashCache(), new DurableFileWriter());
+    }
+
+    @Autowired
+    public FileOperationTool(FileMetadataCache metadataCache, ContentHashCache contentHashes,
+                             DurableFileWriter fileWriter) {
+        this.metadataCache = metadataCache;
+        this.contentHashes = contentHashes;
+        this.fileWriter = fileWriter;
+    }
+
     @Override
     public String getName() {
         return "file_operation";
@@ -24,7 +49,9 @@ public class FileOperationTool extends AbstractMcpTool {
 
     @Override
     public String getDescription() {
-        return "Perform file operations: read, write, list directory contents (restricted to data directory)";
+        return "Perform file operations: read, write, list directory contents (restricted to data directory). "
+                + "Reads return at most 1MB per call; page through larger files with offset/length, "
+                + "line/lines or the returned nextCursor. Listings are paged the same way";
     }
 
     @Override
@@ -37,7 +64,7 @@ public class FileOperationTool extends AbstractMcpTool {
         ObjectNode operation = objectMapper.createObjectNode();
         operation.put("type", "string");
         operation.put("description", "File operation to perform");
-        operation.set("enum", objectMapper.valueToTree(new String[]{"read", "write", "list", "exists", "delete"}));
+        operation.set("enum", objectMapper.valueToTree(new String[]{"read", "write", "append", "list", "exists", "delete"}));
         properties.set("operation", operation);
 
         ObjectNode path = objectMapper.createObjectNode();
@@ -47,9 +74,78 @@ public class FileOperationTool extends AbstractMcpTool {
 
         ObjectNode content = objectMapper.createObjectNode();
         content.put("type", "string");
-        content.put("description", "Content to write (for write operation)");
+        content.put("description", "Content to write (for write and append operations)");
         properties.set("content", content);
 
+        ObjectNode atomic = objectMapper.createObjectNode();
+        atomic.put("type", "boolean");
+        atomic.put("description", "Write to a temporary file and rename it into place, so readers never see a partial file");
+        atomic.put("default", true);
+        properties.set("atomic", atomic);
+
+        ObjectNode sync = objectMapper.createObjectNode();
+        sync.put("type", "boolean");
+        sync.put("description", "fsync before returning so the write survives a crash (write and append)");
+        sync.put("default", false);
+        properties.set("sync", sync);
+
+        ObjectNode offset = objectMapper.createObjectNode();
+        offset.put("type", "integer");
+        offset.put("description", "Byte offset to start reading at; negative values count back from the end of the file");
+        properties.set("offset", offset);
+
+        ObjectNode length = objectMapper.createObjectNode();
+        length.put("type", "integer");
+        length.put("description", "Maximum number of bytes to read (capped at " + MAX_CHUNK_SIZE + ")");
+        length.put("minimum", 1);
+        length.put("maximum", MAX_CHUNK_SIZE);
+        properties.set("length", length);
+
+        ObjectNode line = objectMapper.createObjectNode();
+        line.put("type", "integer");
+        line.put("description", "1-based line to start reading at; negative values read the last N lines");
+        properties.set("line", line);
+
+        ObjectNode lines = objectMapper.createObjectNode();
+        lines.put("type", "integer");
+        lines.put("description", "Maximum number of lines to read");
+        lines.put("minimum", 1);
+        properties.set("lines", lines);
+
+        ObjectNode cursor = objectMapper.createObjectNode();
+        cursor.put("type", "string");
+        cursor.put("description", "nextCursor from a previous read or list, to continue where it stopped");
+        properties.set("cursor", cursor);
+
+        ObjectNode ifNoneMatch = objectMapper.createObjectNode();
+        ifNoneMatch.put("type", "string");
+        ifNoneMatch.put("description", "etag from a previous read; if the file is unchanged only {notModified: true} is returned");
+        properties.set("ifNoneMatch", ifNoneMatch);
+
+        ObjectNode pageSize = objectMapper.createObjectNode();
+        pageSize.put("type", "integer");
+        pageSize.put("description", "Maximum number of entries per list page");
+        pageSize.put("minimum", 1);
+        pageSize.put("maximum", DirectoryPager.MAX_PAGE_SIZE);
+        pageSize.put("default", DirectoryPager.DEFAULT_PAGE_SIZE);
+        properties.set("pageSize", pageSize);
+
+        ObjectNode glob = objectMapper.createObjectNode();
+        glob.put("type", "string");
+        glob.put("description", "Only list entries whose name matches this glob, e.g. *.log");
+        properties.set("glob", glob);
+
+        ObjectNode sort = objectMapper.createObjectNode();
+        sort.put("type", "string");
+        sort.put("description", "Sort key for list; none returns directory order and is cheapest");
+        sort.set("enum", objectMapper.valueToTree(new String[]{"name", "size", "modified", "none"}));
+        properties.set("sort", sort);
+
+        ObjectNode order = objectMapper.createObjectNode();
+        order.put("type", "string");
+        order.set("enum", objectMapper.valueToTree(new String[]{"asc", "desc"}));
+        properties.set("order", order);
+
         schema.set("properties", properties);
         schema.set("required", objectMapper.valueToTree(new String[]{"operation", "path"}));
 
@@ -70,9 +166,10 @@ public class FileOperationTool extends AbstractMcpTool {
         logger.info("File operation: {} on path: {}", operation, safePath);
 
         return switch (operation.toLowerCase()) {
-            case "read" -> handleRead(safePath);
-            case "write" -> handleWrite(safePath, content);
-            case "list" -> handleList(safePath);
+            case "read" -> handleRead(safePath, parameters);
+            case "write" -> handleWrite(safePath, content, parameters);
+            case "append" -> handleAppend(safePath, content, parameters);
+            case "list" -> handleList(safePath, parameters);
             case "exists" -> handleExists(safePath);
             case "delete" -> handleDelete(safePath);
             default -> throw new IllegalArgumentException("Unsupported operation: " + operation);
@@ -87,75 +184,178 @@ public class FileOperationTool extends AbstractMcpTool {
             throw new SecurityException("Path traversal attempt detected: " + relativePath);
         }
 
-        Files.createDirectories(basePath);
+        if (!baseDirectoryCreated) {
+            Files.createDirectories(basePath);
+            baseDirectoryCreated = true;
+        }
         return targetPath;
     }
 
-    private Object handleRead(Path path) throws IOException {
-        if (!Files.exists(path)) {
+    private Object handleRead(Path path, JsonNode parameters) throws IOException {
+        BasicFileAttributes attributes = metadataCache.stat(path);
+        if (attributes == null) {
             throw new IOException("File does not exist: " + path);
         }
 
-        if (!Files.isRegularFile(path)) {
+        if (!attributes.isRegularFile()) {
             throw new IOException("Path is not a regular file: " + path);
         }
 
-        long fileSize = Files.size(path);
-        if (fileSize > MAX_FILE_SIZE) {
-            throw new IOException("File is too large (max " + MAX_FILE_SIZE + " bytes): " + fileSize);
+        // Hashing the whole file for every chunk of a file still being appended to (never cached
+        // while it keeps changing) makes each chunk cost the full file, so chunks get a weak tag
+        boolean chunked = parameters.has("offset") || parameters.has("length") || parameters.has("cursor")
+                || parameters.has("line") || parameters.has("lines");
+        String etag = chunked
+                ? ContentHashCache.weakEtag(Files.readAttributes(path, BasicFileAttributes.class))
+                : contentHashes.etag(path);
+        if (ContentHashCache.matches(getStringParameter(parameters, "ifNoneMatch"), etag)) {
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("operation", "read");
+            result.put("path", path.toString());
+            result.put("etag", etag);
+            result.put("notModified", true);
+            return result;
+        }
+
+        int maxBytes = getIntParameter(parameters, "length", MAX_CHUNK_SIZE);
+        if (maxBytes <= 0 || maxBytes > MAX_CHUNK_SIZE) {
+            throw new IllegalArgumentException("length must be between 1 and " + MAX_CHUNK_SIZE + ": " + maxBytes);
         }
 
-        String content = Files.readString(path, StandardCharsets.UTF_8);
+        String cursorValue = getStringParameter(parameters, "cursor");
+        FileChunkReader.Cursor cursor = cursorValue != null ? FileChunkReader.Cursor.parse(cursorValue) : null;
+        boolean lineMode = parameters.has("line") || parameters.has("lines") || cursor != null && cursor.line() > 0;
+        int lineCount = getIntParameter(parameters, "lines", Integer.MAX_VALUE);
+        if (lineCount <= 0) {
+            throw new IllegalArgumentException("lines must be positive: " + lineCount);
+        }
+
+        FileChunkReader.Chunk chunk;
+        long fileSize;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            fileSize = channel.size();
+
+            if (!lineMode) {
+                long offset = cursor != null ? cursor.offset() : getLongParameter(parameters, "offset", 0);
+                chunk = FileChunkReader.readBytes(channel, offset, maxBytes);
+            } else if (cursor != null) {
+                chunk = FileChunkReader.readLines(channel, cursor.offset(), cursor.line(), lineCount, maxBytes);
+            } else {
+                long line = getLongParameter(parameters, "line", 1);
+                if (line < 0) {
+                    long offset = FileChunkReader.findTailOffset(channel, (int) Math.min(-line, Integer.MAX_VALUE));
+                    chunk = FileChunkReader.readLines(channel, offset, -1, lineCount, maxBytes);
+                } else {
+                    long offset = FileChunkReader.findLineOffset(channel, line);
+                    chunk = FileChunkReader.readLines(channel, offset, Math.max(line, 1), lineCount, maxBytes);
+                }
+            }
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("operation", "read");
+        result.put("path", path.toString());
+        result.put("size", fileSize);
+        result.put("etag", etag);
+        result.put("offset", chunk.offset());
+        result.put("length", chunk.length());
+        if (chunk.startLine() > 0) {
+            result.put("startLine", chunk.startLine());
+        }
+        if (lineMode) {
+            result.put("lineCount", chunk.lineCount());
+        }
+        result.put("content", chunk.content());
+        result.put("eof", chunk.eof());
+        if (!chunk.eof()) {
+            result.put("nextCursor", FileChunkReader.Cursor.of(chunk));
+        }
+        return result;
+    }
+
+    private Object handleWrite(Path path, String content, JsonNode parameters) throws IOException {
+        boolean atomic = getBooleanParameter(parameters, "atomic", true);
+        boolean sync = getBooleanParameter(parameters, "sync", false);
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+
+        if (atomic) {
+            fileWriter.writeAtomically(path, bytes, sync);
+        } else {
+            fileWriter.write(path, bytes, sync);
+        }
+        metadataCache.refresh(path);
 
         return Map.of(
-                "operation", "read",
+                "operation", "write",
                 "path", path.toString(),
-                "size", fileSize,
-                "content", content
+                "size", bytes.length,
+                "atomic", atomic,
+                "synced", sync,
+                "success", true
         );
     }
 
-    private Object handleWrite(Path path, String content) throws IOException {
-        Files.createDirectories(path.getParent());
-        Files.writeString(path, content, StandardCharsets.UTF_8);
+    private Object handleAppend(Path path, String content, JsonNode parameters) throws IOException {
+        boolean sync = getBooleanParameter(parameters, "sync", false);
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+
+        long size = fileWriter.append(path, bytes, sync);
+        metadataCache.refresh(path);
 
         return Map.of(
-                "operation", "write",
+                "operation", "append",
                 "path", path.toString(),
-                "size", content.getBytes(StandardCharsets.UTF_8).length,
+                "appended", bytes.length,
+                "size", size,
+                "synced", sync,
                 "success", true
         );
     }
 
-    private Object handleList(Path path) throws IOException {
-        if (!Files.exists(path)) {
+    private Object handleList(Path path, JsonNode parameters) throws IOException {
+        BasicFileAttributes attributes = metadataCache.stat(path);
+        if (attributes == null) {
             throw new IOException("Directory does not exist: " + path);
         }
 
-        if (!Files.isDirectory(path)) {
+        if (!attributes.isDirectory()) {
             throw new IOException("Path is not a directory: " + path);
         }
 
-        List<Map<String, Object>> entries = Files.list(path)
-                .map(p -> Map.<String, Object>of(
-                        "name", p.getFileName().toString(),
-                        "type", Files.isDirectory(p) ? "directory" : "file",
-                        "size", getFileSize(p),
-                        "lastModified", getLastModified(p)
-                ))
-                .collect(Collectors.toList());
+        int pageSize = getIntParameter(parameters, "pageSize", DirectoryPager.DEFAULT_PAGE_SIZE);
+        DirectoryPager.Sort sort = DirectoryPager.Sort.parse(getStringParameter(parameters, "sort", "name"));
+        boolean descending = "desc".equalsIgnoreCase(getStringParameter(parameters, "order", "asc"));
+        String glob = getStringParameter(parameters, "glob");
+        String cursor = getStringParameter(parameters, "cursor");
+
+        DirectoryPager.Page page = metadataCache.list(path, glob, sort, descending, pageSize, cursor);
+
+        List<Map<String, Object>> entries = new ArrayList<>(page.entries().size());
+        for (DirectoryPager.Entry entry : page.entries()) {
+            entries.add(Map.of(
+                    "name", entry.name(),
+                    "type", entry.type(),
+                    "size", entry.size(),
+                    "lastModified", entry.attributes().lastModifiedTime().toString()
+            ));
+        }
 
-        return Map.of(
-                "operation", "list",
-                "path", path.toString(),
-                "entries", entries
-        );
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("operation", "list");
+        result.put("path", path.toString());
+        result.put("entries", entries);
+        result.put("count", entries.size());
+        if (page.nextCursor() != null) {
+            result.put("nextCursor", page.nextCursor());
+        }
+        return result;
     }
 
-    private Object handleExists(Path path) {
-        boolean exists = Files.exists(path);
-        boolean isDirectory = Files.isDirectory(path);
-        boolean isFile = Files.isRegularFile(path);
+    private Object handleExists(Path path) throws IOException {
+        BasicFileAttributes attributes = metadataCache.stat(path);
+        boolean exists = attributes != null;
+        boolean isDirectory = exists && attributes.isDirectory();
+        boolean isFile = exists && attributes.isRegularFile();
 
         return Map.of(
                 "operation", "exists",
@@ -167,11 +367,12 @@ public class FileOperationTool extends AbstractMcpTool {
     }
 
     private Object handleDelete(Path path) throws IOException {
-        if (!Files.exists(path)) {
+        if (metadataCache.stat(path) == null) {
             throw new IOException("File does not exist: " + path);
         }
 
         boolean deleted = Files.deleteIfExists(path);
+        metadataCache.refresh(path);
 
         return Map.of(
                 "operation", "delete",
@@ -179,20 +380,4 @@ public class FileOperationTool extends AbstractMcpTool {
                 "deleted", deleted
         );
     }
-
-    private long getFileSize(Path path) {
-        try {
-            return Files.isDirectory(path) ? 0 : Files.size(path);
-        } catch (IOException e) {
-            return -1;
-        }
-    }
-
-    private String getLastModified(Path path) {
-        try {
-            return Files.getLastModifiedTime(path).toString();
-        } catch (IOException e) {
-            return "unknown";
-        }
-    }
 }
\ No newline at end of file
@@ -0,0 +1,218 @@
+package com.example.mcp.tools;
+
+import com.example.mcp.search.GrepScanner;
+import com.example.mcp.storage.FileMetadataCache;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.regex.PatternSyntaxException;
+
+@Component
+public class GrepTool extends AbstractMcpTool {
+
+    private static final int DEFAULT_MAX_MATCHES = 200;
+    private static final long PROGRESS_INTERVAL_MILLIS = 200;
+
+    private final FileMetadataCache metadataCache;
+    private final ForkJoinPool pool;
+    private final GrepScanner scanner;
+    private final int maxMatchesLimit;
+
+    @Autowired
+    public GrepTool(FileMetadataCache metadataCache,
+                    @Value("${mcp.tools.grep.parallelism:0}") int parallelism,
+                    @Value("${mcp.tools.grep.max-matches:5000}") int maxMatchesLimit) {
+        this.metadataCache = metadataCache;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.scanner = new GrepScanner(pool);
+        this.maxMatchesLimit = maxMatchesLimit;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    @Override
+    public String getName() {
+        return "grep";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Search file contents in the data directory for a regular expression or literal string, "
+                + "line by line, scanning files in parallel. Returns matching lines with their line numbers";
+    }
+
+    @Override
+    public JsonNode getInputSchema() {
+        ObjectNode schema = objectMapper.createObjectNode();
+        schema.put("type", "object");
+
+        ObjectNode properties = objectMapper.createObjectNode();
+
+        ObjectNode pattern = objectMapper.createObjectNode();
+        pattern.put("type", "string");
+        pattern.put("description", "Java regular expression, or a plain string when literal is true");
+        properties.set("pattern", pattern);
+
+        ObjectNode path = objectMapper.createObjectNode();
+        path.put("type", "string");
+        path.put("description", "File or directory to search, relative to the data directory (default: all)");
+        properties.set("path", path);
+
+        ObjectNode glob = objectMapper.createObjectNode();
+        glob.put("type", "string");
+        glob.put("description", "Only search files matching this glob, e.g. *.log or logs/**/*.txt");
+        properties.set("glob", glob);
+
+        ObjectNode literal = objectMapper.createObjectNode();
+        literal.put("type", "boolean");
+        literal.put("description", "Treat pattern as a literal string");
+        literal.put("default", false);
+        properties.set("literal", literal);
+
+        ObjectNode ignoreCase = objectMapper.createObjectNode();
+        ignoreCase.put("type", "boolean");
+        ignoreCase.put("description", "Case-insensitive matching");
+        ignoreCase.put("default", false);
+        properties.set("ignoreCase", ignoreCase);
+
+        ObjectNode maxMatches = objectMapper.createObjectNode();
+        maxMatches.put("type", "integer");
+        maxMatches.put("description", "Stop after this many matching lines (max " + maxMatchesLimit + ")");
+        maxMatches.put("default", DEFAULT_MAX_MATCHES);
+        properties.set("maxMatches", maxMatches);
+
+        schema.set("properties", properties);
+        schema.set("required", objectMapper.valueToTree(new String[]{"pattern"}));
+
+        return schema;
+    }
+
+    @Override
+    protected Object doExecute(JsonNode parameters) throws Exception {
+        return doExecute(parameters, ToolProgress.NONE);
+    }
+
+    @Override
+    protected Object doExecute(JsonNode parameters, ToolProgress progress) throws Exception {
+        requireParameter(parameters, "pattern");
+
+        String pattern = getStringParameter(parameters, "pattern");
+        String path = getStringParameter(parameters, "path", "");
+        String glob = getStringParameter(parameters, "glob");
+        boolean literal = getBooleanParameter(parameters, "literal", false);
+        boolean ignoreCase = getBooleanParameter(parameters, "ignoreCase", false);
+        int maxMatches = Math.min(Math.max(1, getIntParameter(parameters, "maxMatches", DEFAULT_MAX_MATCHES)),
+                maxMatchesLimit);
+
+        if (pattern.isEmpty()) {
+            throw new IllegalArgumentException("Pattern cannot be empty");
+        }
+
+        Path root = metadataCache.getRoot();
+        Path base = root.resolve(path).normalize();
+        if (!base.startsWith(root)) {
+            throw new SecurityException("Path traversal attempt detected: " + path);
+        }
+        PathMatcher matcher = glob == null ? null : FileSystems.getDefault().getPathMatcher("glob:" + glob);
+        boolean matchFullPath = glob != null && glob.contains("/");
+
+        List<Path> files = new ArrayList<>();
+        metadataCache.forEachFile((file, attributes) -> {
+            if (!file.startsWith(base) || attributes.size() == 0) {
+                return;
+            }
+            if (matcher != null && !matcher.matches(matchFullPath ? root.relativize(file) : file.getFileName())) {
+                return;
+            }
+            files.add(file);
+        });
+
+        long start = System.nanoTime();
+        ProgressBatcher batcher = progress.isActive() ? new ProgressBatcher(progress) : null;
+        GrepScanner.Result result;
+        try {
+            result = scanner.scan(root, files, pattern, literal, ignoreCase, maxMatches, batcher);
+        } catch (PatternSyntaxException e) {
+            throw new IllegalArgumentException("Invalid pattern: " + e.getDescription());
+        }
+        if (batcher != null) {
+            batcher.flush(result.filesScanned(), files.size());
+        }
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        logger.debug("grep '{}' scanned {} files ({} bytes) in {} ms, {} matches",
+                pattern, result.filesScanned(), result.bytesScanned(), elapsedMillis, result.matches().size());
+
+        List<Map<String, Object>> matches = new ArrayList<>(result.matches().size());
+        for (GrepScanner.Match match : result.matches()) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("path", match.path());
+            entry.put("line", match.line());
+            entry.put("text", match.text());
+            matches.add(entry);
+        }
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("pattern", pattern);
+        response.put("matches", matches);
+        response.put("filesScanned", result.filesScanned());
+        response.put("filesMatched", result.filesMatched());
+        response.put("bytesScanned", result.bytesScanned());
+        response.put("truncated", result.truncated());
+        response.put("elapsedMillis", elapsedMillis);
+        return response;
+    }
+
+    /**
+     * Forwards matches as progress messages in grep's {@code path:line: text} format, batched so
+     * a scan with many hits does not flood the event stream. Workers finish files out of order,
+     * so the reported file count is the highest seen so far and never goes backwards.
+     */
+    static final class ProgressBatcher implements GrepScanner.Listener {
+
+        private final ToolProgress progress;
+        private final StringBuilder pending = new StringBuilder();
+        private long lastSent = System.currentTimeMillis();
+        private int filesScanned;
+
+        ProgressBatcher(ToolProgress progress) {
+            this.progress = progress;
+        }
+
+        @Override
+        public synchronized void onMatches(List<GrepScanner.Match> matches, int filesScanned, int totalFiles) {
+            this.filesScanned = Math.max(this.filesScanned, filesScanned);
+            for (GrepScanner.Match match : matches) {
+                pending.append(match.path()).append(':').append(match.line()).append(": ").append(match.text()).append('\n');
+            }
+            if (System.currentTimeMillis() - lastSent >= PROGRESS_INTERVAL_MILLIS) {
+                flush(filesScanned, totalFiles);
+            }
+        }
+
+        synchronized void flush(int filesScanned, int totalFiles) {
+            this.filesScanned = Math.max(this.filesScanned, filesScanned);
+            if (pending.isEmpty()) {
+                return;
+            }
+            progress.report(this.filesScanned, totalFiles, pending.toString());
+            pending.setLength(0);
+            lastSent = System.currentTimeMillis();
+        }
+    }
+}
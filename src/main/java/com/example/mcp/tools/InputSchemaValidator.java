@@ -0,0 +1,315 @@
+package com.example.mcp.tools;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * A tool input schema compiled once into a tree of checks, so that arguments are validated in a
+ * single pass without re-reading the schema. Supports {@code type} (a name or an array of
+ * names), {@code enum}, {@code required}, {@code properties}, {@code additionalProperties: false},
+ * {@code items}, numeric bounds ({@code minimum}, {@code maximum} and their exclusive forms),
+ * {@code minLength} / {@code maxLength}, {@code pattern} and {@code minItems} / {@code maxItems}.
+ * Other keywords are ignored.
+ *
+ * <p>A property that is {@code null} counts as absent unless its type allows {@code null}, as
+ * the tools themselves treat it that way.
+ */
+public final class InputSchemaValidator {
+
+    /**
+     * One problem with the arguments; {@code path} is a JSON pointer into them.
+     */
+    public record Violation(String path, String message) {
+    }
+
+    private static final int MAX_VIOLATIONS = 20;
+
+    private static final int STRING = 1;
+    private static final int NUMBER = 1 << 1;
+    private static final int INTEGER = 1 << 2;
+    private static final int BOOLEAN = 1 << 3;
+    private static final int OBJECT = 1 << 4;
+    private static final int ARRAY = 1 << 5;
+    private static final int NULL = 1 << 6;
+    private static final int ANY = -1;
+
+    private static final Map<String, Integer> TYPES = Map.of(
+            "string", STRING, "number", NUMBER, "integer", INTEGER, "boolean", BOOLEAN,
+            "object", OBJECT, "array", ARRAY, "null", NULL);
+
+    private final Node root;
+
+    private InputSchemaValidator(Node root) {
+        this.root = root;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the schema itself is malformed
+     */
+    public static InputSchemaValidator compile(JsonNode schema) {
+        return new InputSchemaValidator(compileNode(schema, ""));
+    }
+
+    /**
+     * Validates {@code arguments}, returning every violation found (up to a limit), or an empty
+     * list if they are valid.
+     */
+    public List<Violation> validate(JsonNode arguments) {
+        List<Violation> violations = new ArrayList<>(0);
+        root.validate(arguments, "", violations);
+        return violations;
+    }
+
+    private static Node compileNode(JsonNode schema, String location) {
+        if (schema == null || !schema.isObject()) {
+            throw new IllegalArgumentException("Schema at '" + location + "' must be an object");
+        }
+
+        int types = ANY;
+        JsonNode type = schema.get("type");
+        if (type != null) {
+            types = 0;
+            if (type.isArray()) {
+                for (JsonNode name : type) {
+                    types |= typeBit(name, location);
+                }
+            } else {
+                types = typeBit(type, location);
+            }
+        }
+
+        Set<JsonNode> allowed = null;
+        JsonNode enumNode = schema.get("enum");
+        if (enumNode != null) {
+            if (!enumNode.isArray()) {
+                throw new IllegalArgumentException("'enum' at '" + location + "' must be an array");
+            }
+            allowed = new LinkedHashSet<>();
+            enumNode.forEach(allowed::add);
+        }
+
+        Pattern pattern = null;
+        if (schema.hasNonNull("pattern")) {
+            try {
+                pattern = Pattern.compile(schema.get("pattern").asText());
+            } catch (PatternSyntaxException e) {
+                throw new IllegalArgumentException("Invalid 'pattern' at '" + location + "': " + e.getDescription());
+            }
+        }
+
+        Map<String, Node> properties = new HashMap<>();
+        JsonNode propertiesNode = schema.get("properties");
+        if (propertiesNode != null) {
+            Iterator<Map.Entry<String, JsonNode>> fields = propertiesNode.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                properties.put(field.getKey(), compileNode(field.getValue(), location + "/properties/" + field.getKey()));
+            }
+        }
+
+        List<String> required = new ArrayList<>();
+        JsonNode requiredNode = schema.get("required");
+        if (requiredNode != null) {
+            requiredNode.forEach(name -> required.add(name.asText()));
+        }
+
+        JsonNode items = schema.get("items");
+
+        return new Node(
+                types,
+                allowed,
+                number(schema, "minimum"),
+                number(schema, "exclusiveMinimum"),
+                number(schema, "maximum"),
+                number(schema, "exclusiveMaximum"),
+                (int) number(schema, "minLength", -1),
+                (int) number(schema, "maxLength", -1),
+                pattern,
+                (int) number(schema, "minItems", -1),
+                (int) number(schema, "maxItems", -1),
+                items != null && items.isObject() ? compileNode(items, location + "/items") : null,
+                properties,
+                required.toArray(new String[0]),
+                schema.path("additionalProperties").isBoolean() && !schema.get("additionalProperties").asBoolean());
+    }
+
+    private static int typeBit(JsonNode name, String location) {
+        Integer bit = TYPES.get(name.asText());
+        if (bit == null) {
+            throw new IllegalArgumentException("Unknown type '" + name.asText() + "' at '" + location + "'");
+        }
+        // Every integer is also a number
+        return bit == NUMBER ? NUMBER | INTEGER : bit;
+    }
+
+    private static Double number(JsonNode schema, String keyword) {
+        JsonNode value = schema.get(keyword);
+        return value != null && value.isNumber() ? value.asDouble() : null;
+    }
+
+    private static long number(JsonNode schema, String keyword, long defaultValue) {
+        JsonNode value = schema.get(keyword);
+        return value != null && value.canConvertToLong() ? value.asLong() : defaultValue;
+    }
+
+    private static int typeOf(JsonNode value) {
+        return switch (value.getNodeType()) {
+            case STRING -> STRING;
+            case NUMBER -> value.isIntegralNumber() || isWhole(value) ? INTEGER : NUMBER;
+            case BOOLEAN -> BOOLEAN;
+            case OBJECT -> OBJECT;
+            case ARRAY -> ARRAY;
+            case NULL -> NULL;
+            default -> 0;
+        };
+    }
+
+    private static boolean isWhole(JsonNode value) {
+        double d = value.asDouble();
+        return Double.isFinite(d) && d == Math.rint(d);
+    }
+
+    private static String describeTypes(int types) {
+        List<String> names = new ArrayList<>();
+        for (String name : List.of("string", "number", "integer", "boolean", "object", "array", "null")) {
+            int bit = TYPES.get(name);
+            if ((types & bit) != 0 && !(bit == INTEGER && (types & NUMBER) != 0)) {
+                names.add(name);
+            }
+        }
+        return names.size() == 1 ? names.get(0) : String.join(" or ", names);
+    }
+
+    private static String typeName(JsonNode value) {
+        return switch (value.getNodeType()) {
+            case STRING -> "string";
+            case NUMBER -> "number";
+            case BOOLEAN -> "boolean";
+            case OBJECT -> "object";
+            case ARRAY -> "array";
+            case NULL -> "null";
+            default -> value.getNodeType().name().toLowerCase();
+        };
+    }
+
+    private record Node(int types, Set<JsonNode> allowed,
+                        Double minimum, Double exclusiveMinimum, Double maximum, Double exclusiveMaximum,
+                        int minLength, int maxLength, Pattern pattern,
+                        int minItems, int maxItems, Node items,
+                        Map<String, Node> properties, String[] required, boolean closed) {
+
+        void validate(JsonNode value, String path, List<Violation> violations) {
+            int actual = typeOf(value);
+            if ((types & actual) == 0) {
+                report(violations, path, "expected " + describeTypes(types) + " but got " + typeName(value));
+                return;
+            }
+            if (allowed != null && !allowed.contains(value)) {
+                report(violations, path, "must be one of " + allowed);
+                return;
+            }
+            switch (actual) {
+                case NUMBER, INTEGER -> checkBounds(value.asDouble(), path, violations);
+                case STRING -> checkString(value.asText(), path, violations);
+                case ARRAY -> checkArray(value, path, violations);
+                case OBJECT -> checkObject(value, path, violations);
+                default -> {
+                }
+            }
+        }
+
+        private void checkBounds(double number, String path, List<Violation> violations) {
+            if (minimum != null && number < minimum) {
+                report(violations, path, "must be >= " + format(minimum));
+            } else if (exclusiveMinimum != null && number <= exclusiveMinimum) {
+                report(violations, path, "must be > " + format(exclusiveMinimum));
+            } else if (maximum != null && number > maximum) {
+                report(violations, path, "must be <= " + format(maximum));
+            } else if (exclusiveMaximum != null && number >= exclusiveMaximum) {
+                report(violations, path, "must be < " + format(exclusiveMaximum));
+            }
+        }
+
+        private void checkString(String text, String path, List<Violation> violations) {
+            if (minLength >= 0 || maxLength >= 0) {
+                int length = text.codePointCount(0, text.length());
+                if (minLength >= 0 && length < minLength) {
+                    report(violations, path, "must be at least " + minLength + " characters long");
+                } else if (maxLength >= 0 && length > maxLength) {
+                    report(violations, path, "must be at most " + maxLength + " characters long");
+                }
+            }
+            if (pattern != null && !pattern.matcher(text).find()) {
+                report(violations, path, "must match pattern " + pattern.pattern());
+            }
+        }
+
+        private void checkArray(JsonNode array, String path, List<Violation> violations) {
+            if (minItems >= 0 && array.size() < minItems) {
+                report(violations, path, "must have at least " + minItems + " items");
+            } else if (maxItems >= 0 && array.size() > maxItems) {
+                report(violations, path, "must have at most " + maxItems + " items");
+                return;
+            }
+            if (items != null) {
+                for (int i = 0; i < array.size() && violations.size() < MAX_VIOLATIONS; i++) {
+                    items.validate(array.get(i), path + "/" + i, violations);
+                }
+            }
+        }
+
+        private void checkObject(JsonNode object, String path, List<Violation> violations) {
+            boolean[] present = new boolean[required.length];
+            Iterator<Map.Entry<String, JsonNode>> fields = object.fields();
+            while (fields.hasNext() && violations.size() < MAX_VIOLATIONS) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                String name = field.getKey();
+                JsonNode value = field.getValue();
+                Node property = properties.get(name);
+                if (property == null) {
+                    if (closed) {
+                        report(violations, path + "/" + escape(name), "is not a known property");
+                    }
+                    continue;
+                }
+                if (value.isNull() && (property.types & NULL) == 0) {
+                    continue;
+                }
+                for (int i = 0; i < required.length; i++) {
+                    if (required[i].equals(name)) {
+                        present[i] = true;
+                    }
+                }
+                property.validate(value, path + "/" + escape(name), violations);
+            }
+            for (int i = 0; i < required.length; i++) {
+                if (!present[i] && (properties.containsKey(required[i]) || !object.hasNonNull(required[i]))) {
+                    report(violations, path + "/" + escape(required[i]), "is required");
+                }
+            }
+        }
+    }
+
+    private static void report(List<Violation> violations, String path, String message) {
+        if (violations.size() < MAX_VIOLATIONS) {
+            violations.add(new Violation(path.isEmpty() ? "/" : path, message));
+        }
+    }
+
+    private static String format(double bound) {
+        return bound == Math.rint(bound) && Math.abs(bound) < 1e15 ? Long.toString((long) bound) : Double.toString(bound);
+    }
+
+    private static String escape(String name) {
+        return name.replace("~", "~0").replace("/", "~1");
+    }
+}
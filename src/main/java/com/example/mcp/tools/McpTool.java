@@ -14,6 +14,14 @@ public interface McpTool {
 
     CompletableFuture<Object> execute(JsonNode parameters);
 
+    /**
+     * Executes the tool, reporting progress for long-running calls. Tools that have nothing to
+     * report ignore {@code progress}.
+     */
+    default CompletableFuture<Object> execute(JsonNode parameters, ToolProgress progress) {
+        return execute(parameters);
+    }
+
     default boolean isEnabled() {
         return true;
     }
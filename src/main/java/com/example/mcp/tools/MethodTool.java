@@ -0,0 +1,171 @@
+package com.example.mcp.tools;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * A tool backed by a {@link Tool} method. The input schema is derived from the method's
+ * parameters, and the arguments binder and a method handle bound to the bean are built once;
+ * a call neither looks up arguments by name nor goes through reflection.
+ */
+public class MethodTool extends AbstractMcpTool {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private final String name;
+    private final String description;
+    private final ObjectNode inputSchema;
+    private final ArgumentBinder.Reader arguments;
+    private final int progressIndex;
+    private final int arity;
+    private final MethodHandle invoker;
+    private final boolean async;
+
+    MethodTool(Object bean, Method method) {
+        Tool tool = method.getAnnotation(Tool.class);
+        this.name = tool.name().isEmpty() ? snakeCase(method.getName()) : tool.name();
+        this.description = tool.description();
+        this.async = CompletionStage.class.isAssignableFrom(method.getReturnType());
+
+        Parameter[] parameters = method.getParameters();
+        List<Parameter> bound = new ArrayList<>(parameters.length);
+        int progress = -1;
+        for (int i = 0; i < parameters.length; i++) {
+            if (parameters[i].getType() == ToolProgress.class) {
+                progress = i;
+            } else {
+                bound.add(parameters[i]);
+            }
+        }
+        this.progressIndex = progress;
+        this.arity = parameters.length;
+
+        try {
+            if (bound.size() == 1 && bound.get(0).getType().isRecord() && !bound.get(0).isAnnotationPresent(ToolParam.class)) {
+                // The record's components are the arguments
+                ArgumentBinder.Binding record = ArgumentBinder.of(bound.get(0).getParameterizedType());
+                ArgumentBinder.Reader reader = record.reader();
+                this.inputSchema = record.schema();
+                this.arguments = value -> new Object[]{reader.read(value)};
+            } else {
+                List<ArgumentBinder.Property> properties = new ArrayList<>(bound.size());
+                for (Parameter parameter : bound) {
+                    properties.add(ArgumentBinder.property(parameterName(parameter),
+                            parameter.getParameterizedType(), parameter.getAnnotation(ToolParam.class)));
+                }
+                ArgumentBinder.ObjectReader reader = new ArgumentBinder.ObjectReader(properties);
+                this.inputSchema = reader.schema();
+                this.arguments = reader;
+            }
+
+            method.setAccessible(true);
+            MethodHandle handle = LOOKUP.unreflect(method);
+            if (!Modifier.isStatic(method.getModifiers())) {
+                handle = handle.bindTo(bean);
+            }
+            this.invoker = handle.asSpreader(Object[].class, arity)
+                    .asType(MethodType.methodType(Object.class, Object[].class));
+        } catch (IllegalAccessException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cannot expose " + method.getDeclaringClass().getSimpleName() + "."
+                    + method.getName() + " as a tool: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Creates a tool for every {@link Tool} method of {@code bean}, including inherited ones.
+     */
+    public static List<MethodTool> forBean(Object bean) {
+        List<MethodTool> tools = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        for (Class<?> type = bean.getClass(); type != null && type != Object.class; type = type.getSuperclass()) {
+            for (Method method : type.getDeclaredMethods()) {
+                if (method.isAnnotationPresent(Tool.class) && !method.isBridge()
+                        && seen.add(method.getName() + MethodType.methodType(method.getReturnType(), method.getParameterTypes()))) {
+                    tools.add(new MethodTool(bean, method));
+                }
+            }
+        }
+        return tools;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getDescription() {
+        return description;
+    }
+
+    @Override
+    public JsonNode getInputSchema() {
+        return inputSchema;
+    }
+
+    @Override
+    public CompletableFuture<Object> execute(JsonNode parameters, ToolProgress progress) {
+        CompletableFuture<Object> result = super.execute(parameters, progress);
+        if (!async) {
+            return result;
+        }
+        return result.thenCompose(stage -> ((CompletionStage<?>) stage).<Object>thenApply(value -> value)
+                .toCompletableFuture());
+    }
+
+    @Override
+    protected Object doExecute(JsonNode parameters) throws Exception {
+        return doExecute(parameters, ToolProgress.NONE);
+    }
+
+    @Override
+    protected Object doExecute(JsonNode parameters, ToolProgress progress) throws Exception {
+        Object[] values = (Object[]) arguments.read(parameters);
+        Object[] args = values;
+        if (progressIndex >= 0) {
+            args = new Object[arity];
+            System.arraycopy(values, 0, args, 0, progressIndex);
+            args[progressIndex] = progress;
+            System.arraycopy(values, progressIndex, args, progressIndex + 1, values.length - progressIndex);
+        }
+
+        try {
+            return (Object) invoker.invokeExact(args);
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new UndeclaredThrowableException(t);
+        }
+    }
+
+    private static String parameterName(Parameter parameter) {
+        ToolParam param = parameter.getAnnotation(ToolParam.class);
+        if (param != null && !param.name().isEmpty()) {
+            return param.name();
+        }
+        if (!parameter.isNamePresent()) {
+            throw new IllegalArgumentException("parameter names are not available; compile with -parameters "
+                    + "or name the parameter with @ToolParam");
+        }
+        return parameter.getName();
+    }
+
+    private static String snakeCase(String name) {
+        return name.replaceAll("([a-z0-9])([A-Z])", "$1_$2").toLowerCase(Locale.ROOT);
+    }
+}
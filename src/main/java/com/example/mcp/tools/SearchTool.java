@@ -0,0 +1,111 @@
+package com.example.mcp.tools;
+
+import com.example.mcp.search.SearchIndex;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Component
+public class SearchTool extends AbstractMcpTool {
+
+    private static final int DEFAULT_LIMIT = 10;
+    private static final int MAX_LIMIT = 100;
+
+    private final SearchIndex searchIndex;
+
+    @Autowired
+    public SearchTool(SearchIndex searchIndex) {
+        this.searchIndex = searchIndex;
+    }
+
+    @Override
+    public String getName() {
+        return "search_files";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Full-text search over the text files in the data directory. Returns the best matching files "
+                + "ranked by relevance, each with a snippet around the first match";
+    }
+
+    @Override
+    public JsonNode getInputSchema() {
+        ObjectNode schema = objectMapper.createObjectNode();
+        schema.put("type", "object");
+
+        ObjectNode properties = objectMapper.createObjectNode();
+
+        ObjectNode query = objectMapper.createObjectNode();
+        query.put("type", "string");
+        query.put("description", "Words to search for; files containing more of them rank higher");
+        properties.set("query", query);
+
+        ObjectNode limit = objectMapper.createObjectNode();
+        limit.put("type", "integer");
+        limit.put("description", "Maximum number of hits to return (max " + MAX_LIMIT + ")");
+        limit.put("default", DEFAULT_LIMIT);
+        properties.set("limit", limit);
+
+        ObjectNode path = objectMapper.createObjectNode();
+        path.put("type", "string");
+        path.put("description", "Only return files under this path, relative to the data directory");
+        properties.set("path", path);
+
+        schema.set("properties", properties);
+        schema.set("required", objectMapper.valueToTree(new String[]{"query"}));
+
+        return schema;
+    }
+
+    @Override
+    protected Object doExecute(JsonNode parameters) throws Exception {
+        requireParameter(parameters, "query");
+
+        String query = getStringParameter(parameters, "query");
+        int limit = Math.min(Math.max(1, getIntParameter(parameters, "limit", DEFAULT_LIMIT)), MAX_LIMIT);
+        String path = getStringParameter(parameters, "path");
+
+        if (query.trim().isEmpty()) {
+            throw new IllegalArgumentException("Query cannot be empty");
+        }
+        if (!searchIndex.isEnabled()) {
+            throw new IllegalStateException("Search index is disabled");
+        }
+        if (path != null) {
+            path = path.replace('\\', '/');
+            while (path.startsWith("/") || path.startsWith("./")) {
+                path = path.substring(path.startsWith("/") ? 1 : 2);
+            }
+        }
+
+        SearchIndex.SearchResult result = searchIndex.search(query, path, limit);
+
+        List<Map<String, Object>> hits = new ArrayList<>(result.hits().size());
+        for (SearchIndex.Hit hit : result.hits()) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("path", hit.path());
+            entry.put("score", Math.round(hit.score() * 1000) / 1000.0);
+            entry.put("size", hit.size());
+            entry.put("lastModified", hit.lastModified());
+            if (hit.snippet() != null) {
+                entry.put("snippet", hit.snippet());
+            }
+            hits.add(entry);
+        }
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("query", query);
+        response.put("hits", hits);
+        response.put("totalMatches", result.totalMatches());
+        // False while the index is still catching up with recent changes
+        response.put("upToDate", result.upToDate());
+        return response;
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.mcp.tools;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Exposes a method of a {@link ToolSet} bean as a tool. Each parameter becomes a property of the
+ * tool's arguments; a method whose only parameter is a record takes the record's components as
+ * its arguments instead. A {@link ToolProgress} parameter receives the call's progress reporter
+ * and is not part of the schema.
+ *
+ * <p>Supported parameter types are primitives and their wrappers, {@code String}, enums, records,
+ * {@code List}s of these and {@code JsonNode}. The method may return a {@code CompletionStage}.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Tool {
+
+    /**
+     * The tool name; defaults to the method name in snake_case.
+     */
+    String name() default "";
+
+    String description();
+}
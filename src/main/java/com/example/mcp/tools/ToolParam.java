@@ -0,0 +1,32 @@
+package com.example.mcp.tools;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Describes a parameter of a {@link Tool} method or a component of a record it takes.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.PARAMETER, ElementType.RECORD_COMPONENT})
+public @interface ToolParam {
+
+    /**
+     * The argument name; defaults to the parameter name, which requires compiling with
+     * {@code -parameters}.
+     */
+    String name() default "";
+
+    String description() default "";
+
+    boolean required() default true;
+
+    /**
+     * The value used when the argument is absent, as JSON (a bare string is taken as text).
+     * Setting it makes the argument optional.
+     */
+    String defaultValue() default "";
+}
@@ -0,0 +1,22 @@
+package com.example.mcp.tools;
+
+/**
+ * Receives progress from a running tool call; forwarded to the client as
+ * {@code notifications/progress} when the request carried a progress token.
+ */
+@FunctionalInterface
+public interface ToolProgress {
+
+    ToolProgress NONE = (progress, total, message) -> {
+    };
+
+    /**
+     * @param total    expected final value of {@code progress}, or a negative value if unknown
+     * @param message  optional human-readable detail, e.g. partial results
+     */
+    void report(long progress, long total, String message);
+
+    default boolean isActive() {
+        return this != NONE;
+    }
+}
@@ -0,0 +1,194 @@
+package com.example.mcp.tools;
+
+import com.example.mcp.server.McpError;
+import com.example.mcp.server.McpException;
+import com.example.mcp.server.McpMessage;
+import com.example.mcp.server.McpNotificationSender;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Serves {@code tools/list} and {@code tools/call} from the registered tools. A call whose
+ * {@code _meta.progressToken} is set gets {@code notifications/progress} on the caller's event
+ * stream while it runs. Each tool's input schema is read and compiled once at startup; calls
+ * whose arguments do not match it are rejected with {@code invalidParams} before the tool runs.
+ * Besides {@link McpTool} beans, the {@link Tool} methods of every {@link ToolSet} bean are served.
+ */
+@Component
+public class ToolRequestHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(ToolRequestHandler.class);
+    private static final String PROGRESS_NOTIFICATION = "notifications/progress";
+
+    private final Map<String, McpTool> tools = new LinkedHashMap<>();
+    private final Map<String, JsonNode> schemas = new HashMap<>();
+    private final Map<String, InputSchemaValidator> validators = new HashMap<>();
+    private final ObjectProvider<McpNotificationSender> notificationSenders;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public ToolRequestHandler(List<McpTool> tools, ListableBeanFactory beanFactory,
+                              ObjectProvider<McpNotificationSender> notificationSenders, ObjectMapper objectMapper) {
+        for (McpTool tool : tools) {
+            register(tool);
+        }
+        for (Object toolSet : beanFactory.getBeansWithAnnotation(ToolSet.class).values()) {
+            for (McpTool tool : MethodTool.forBean(toolSet)) {
+                register(tool);
+            }
+        }
+        this.notificationSenders = notificationSenders;
+        this.objectMapper = objectMapper;
+
+        logger.info("Tool handler initialized with {} tools: {}", this.tools.size(), this.tools.keySet());
+    }
+
+    private void register(McpTool tool) {
+        if (tools.put(tool.getName(), tool) != null) {
+            logger.warn("Tool {} is registered more than once, keeping {}", tool.getName(), tool.getClass().getSimpleName());
+        }
+        JsonNode schema = tool.getInputSchema();
+        schemas.put(tool.getName(), schema);
+        try {
+            validators.put(tool.getName(), InputSchemaValidator.compile(schema));
+        } catch (IllegalArgumentException e) {
+            validators.remove(tool.getName());
+            logger.warn("Input schema of tool {} cannot be compiled, arguments will not be validated: {}",
+                    tool.getName(), e.getMessage());
+        }
+    }
+
+    public CompletableFuture<Object> list(JsonNode params) {
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (McpTool tool : tools.values()) {
+            if (!tool.isEnabled()) {
+                continue;
+            }
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("name", tool.getName());
+            entry.put("description", tool.getDescription());
+            entry.put("inputSchema", schemas.get(tool.getName()));
+            result.add(entry);
+        }
+        return CompletableFuture.completedFuture(Map.of("tools", result));
+    }
+
+    /**
+     * Runs a tool. Failures inside the tool are reported as an {@code isError} result so the
+     * model can see them; only unknown tools and malformed requests are protocol errors.
+     */
+    public CompletableFuture<Object> call(JsonNode params, String sessionId) {
+        if (params == null || !params.hasNonNull("name")) {
+            return CompletableFuture.failedFuture(
+                new McpException(McpError.invalidParams("Missing required parameter: name")));
+        }
+
+        String name = params.get("name").asText();
+        McpTool tool = tools.get(name);
+        if (tool == null || !tool.isEnabled()) {
+            return CompletableFuture.failedFuture(new McpException(McpError.invalidParams("Unknown tool: " + name)));
+        }
+
+        JsonNode arguments = params.hasNonNull("arguments") ? params.get("arguments") : objectMapper.createObjectNode();
+        InputSchemaValidator validator = validators.get(name);
+        if (validator != null) {
+            List<InputSchemaValidator.Violation> violations = validator.validate(arguments);
+            if (!violations.isEmpty()) {
+                logger.debug("Rejected call to tool {}: {}", name, violations);
+                return CompletableFuture.failedFuture(new McpException(invalidArguments(name, violations)));
+            }
+        }
+
+        return tool.execute(arguments, progressFor(params, sessionId))
+            .handle((result, throwable) -> {
+                if (throwable == null) {
+                    return toResult(result, false);
+                }
+                Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null
+                    ? throwable.getCause() : throwable;
+                logger.debug("Tool {} failed: {}", name, cause.getMessage());
+                return toResult(cause.getMessage(), true);
+            });
+    }
+
+    private static McpError invalidArguments(String tool, List<InputSchemaValidator.Violation> violations) {
+        List<Map<String, Object>> errors = new ArrayList<>(violations.size());
+        StringBuilder summary = new StringBuilder("Invalid arguments for tool '").append(tool).append("': ");
+        for (int i = 0; i < violations.size(); i++) {
+            InputSchemaValidator.Violation violation = violations.get(i);
+            errors.add(Map.of("path", violation.path(), "message", violation.message()));
+            summary.append(i == 0 ? "" : "; ").append(violation.path()).append(' ').append(violation.message());
+        }
+
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("detail", summary.toString());
+        data.put("tool", tool);
+        data.put("errors", errors);
+        return new McpError(McpError.INVALID_PARAMS, "Invalid params", data);
+    }
+
+    private Map<String, Object> toResult(Object result, boolean isError) {
+        String text;
+        if (result instanceof String string) {
+            text = string;
+        } else {
+            try {
+                text = objectMapper.writeValueAsString(result);
+            } catch (Exception e) {
+                throw new IllegalStateException("Failed to encode tool result: " + e.getMessage(), e);
+            }
+        }
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("content", List.of(Map.of("type", "text", "text", text)));
+        if (result instanceof Map<?, ?> && !isError) {
+            response.put("structuredContent", result);
+        }
+        response.put("isError", isError);
+        return response;
+    }
+
+    private ToolProgress progressFor(JsonNode params, String sessionId) {
+        JsonNode meta = params.get("_meta");
+        if (meta == null || !meta.hasNonNull("progressToken") || sessionId == null) {
+            return ToolProgress.NONE;
+        }
+        McpNotificationSender sender = notificationSenders.getIfAvailable();
+        if (sender == null || !sender.isConnected(sessionId)) {
+            return ToolProgress.NONE;
+        }
+
+        JsonNode token = meta.get("progressToken");
+        return (progress, total, message) -> {
+            ObjectNode notification = objectMapper.createObjectNode();
+            notification.set("progressToken", token);
+            notification.put("progress", progress);
+            if (total >= 0) {
+                notification.put("total", total);
+            }
+            if (message != null) {
+                notification.put("message", message);
+            }
+            try {
+                sender.sendNotification(sessionId, McpMessage.createNotification(PROGRESS_NOTIFICATION, notification));
+            } catch (Exception e) {
+                logger.debug("Failed to send progress to session {}: {}", sessionId, e.getMessage());
+            }
+        };
+    }
+}
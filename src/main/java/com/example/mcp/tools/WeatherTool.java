@@ -1,18 +1,52 @@
 package com.example.mcp.tools;
 
+import com.example.mcp.weather.MockWeatherProvider;
+import com.example.mcp.weather.WeatherProvider;
+import com.example.mcp.weather.WeatherProviders;
+import com.example.mcp.weather.WeatherReport;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Component
 public class WeatherTool extends AbstractMcpTool {
 
-    private final Random random = new Random();
+    private static final int MAX_LOCATIONS = 1000;
+
+    private final WeatherProvider provider;
+    private final int maxConcurrency;
+    private final long timeoutMillis;
+
+    public WeatherTool() {
+        this(new MockWeatherProvider(), 16, 5000);
+    }
+
+    @Autowired
+    public WeatherTool(WeatherProviders providers,
+                       @Value("${mcp.weather.max-concurrency:16}") int maxConcurrency,
+                       @Value("${mcp.weather.timeout-ms:5000}") long timeoutMillis) {
+        this(providers.getActive(), maxConcurrency, timeoutMillis);
+    }
+
+    public WeatherTool(WeatherProvider provider, int maxConcurrency, long timeoutMillis) {
+        this.provider = provider;
+        this.maxConcurrency = Math.max(1, maxConcurrency);
+        this.timeoutMillis = timeoutMillis;
+    }
 
     @Override
     public String getName() {
@@ -21,7 +55,8 @@ public class WeatherTool extends AbstractMcpTool {
 
     @Override
     public String getDescription() {
-        return "Get current weather information for a specified location (mock data for demonstration)";
+        return "Get current weather information for a specified location, or for many locations at once "
+                + "(looked up in parallel; failed locations are reported individually)";
     }
 
     @Override
@@ -36,6 +71,13 @@ public class WeatherTool extends AbstractMcpTool {
         location.put("description", "Location to get weather for (city, country)");
         properties.set("location", location);
 
+        ObjectNode locations = objectMapper.createObjectNode();
+        locations.put("type", "array");
+        locations.put("description", "Several locations to look up in one call (instead of location, max "
+                + MAX_LOCATIONS + ")");
+        locations.set("items", objectMapper.createObjectNode().put("type", "string"));
+        properties.set("locations", locations);
+
         ObjectNode units = objectMapper.createObjectNode();
         units.put("type", "string");
         units.put("description", "Temperature units (celsius, fahrenheit)");
@@ -44,81 +86,125 @@ public class WeatherTool extends AbstractMcpTool {
         properties.set("units", units);
 
         schema.set("properties", properties);
-        schema.set("required", objectMapper.valueToTree(new String[]{"location"}));
 
         return schema;
     }
 
     @Override
     protected Object doExecute(JsonNode parameters) throws Exception {
-        requireParameter(parameters, "location");
+        return doExecute(parameters, ToolProgress.NONE);
+    }
 
-        String location = getStringParameter(parameters, "location");
+    @Override
+    protected Object doExecute(JsonNode parameters, ToolProgress progress) throws Exception {
         String units = getStringParameter(parameters, "units", "celsius");
+        if (parameters.has("locations")) {
+            return fetchAll(parameters.get("locations"), units, progress);
+        }
 
+        requireParameter(parameters, "location");
+        String location = getStringParameter(parameters, "location");
         if (location.trim().isEmpty()) {
             throw new IllegalArgumentException("Location cannot be empty");
         }
 
         logger.info("Getting weather for location: {} in {}", location, units);
 
-        WeatherData weatherData = generateMockWeatherData(location, units);
-
-        return Map.of(
-                "location", location,
-                "units", units,
-                "current", Map.of(
-                        "temperature", weatherData.temperature,
-                        "condition", weatherData.condition,
-                        "humidity", weatherData.humidity,
-                        "windSpeed", weatherData.windSpeed,
-                        "pressure", weatherData.pressure
-                ),
-                "forecast", Map.of(
-                        "summary", weatherData.forecastSummary
-                ),
-                "timestamp", weatherData.timestamp,
-                "source", "Mock Weather Service"
-        );
+        try {
+            return fetch(location, units).get().toMap();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Weather lookup failed for " + location + ": " + describe(e.getCause()));
+        }
     }
 
-    private WeatherData generateMockWeatherData(String location, String units) {
-        WeatherData data = new WeatherData();
-
-        String[] conditions = {"Sunny", "Partly Cloudy", "Cloudy", "Rainy", "Snowy", "Stormy"};
-        String[] forecastSummaries = {
-                "Clear skies expected for the next few days",
-                "Partly cloudy with occasional sunshine",
-                "Overcast conditions with light precipitation possible",
-                "Rain expected throughout the week",
-                "Cold weather with possible snow",
-                "Stormy weather pattern moving through the area"
-        };
-
-        data.condition = conditions[random.nextInt(conditions.length)];
-        data.forecastSummary = forecastSummaries[random.nextInt(forecastSummaries.length)];
-
-        if ("fahrenheit".equals(units)) {
-            data.temperature = 32 + (random.nextInt(80));
-        } else {
-            data.temperature = -10 + random.nextInt(35);
+    private Object fetchAll(JsonNode locationsNode, String units, ToolProgress progress) throws InterruptedException {
+        if (!locationsNode.isArray() || locationsNode.isEmpty()) {
+            throw new IllegalArgumentException("Parameter 'locations' must be a non-empty array");
+        }
+        if (locationsNode.size() > MAX_LOCATIONS) {
+            throw new IllegalArgumentException("At most " + MAX_LOCATIONS + " locations are allowed per call");
+        }
+        List<String> locations = new ArrayList<>();
+        for (JsonNode node : locationsNode) {
+            locations.add(node.asText());
         }
 
-        data.humidity = 30 + random.nextInt(60);
-        data.windSpeed = random.nextInt(25);
-        data.pressure = 980 + random.nextInt(60);
-        data.timestamp = LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+        long start = System.nanoTime();
+        int total = locations.size();
+        Object[] results = new Object[total];
+        AtomicInteger completed = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        Semaphore inFlight = new Semaphore(maxConcurrency);
+        CompletableFuture<?>[] lookups = new CompletableFuture<?>[total];
+
+        for (int i = 0; i < total; i++) {
+            int index = i;
+            String location = locations.get(i);
+            inFlight.acquire();
+            lookups[i] = fetch(location, units).handle((report, error) -> {
+                inFlight.release();
+                Map<String, Object> entry;
+                if (error == null) {
+                    entry = new LinkedHashMap<>(report.toMap());
+                    entry.put("status", "ok");
+                } else {
+                    failed.incrementAndGet();
+                    entry = new LinkedHashMap<>();
+                    entry.put("location", location);
+                    entry.put("status", "error");
+                    entry.put("error", describe(error));
+                }
+                results[index] = entry;
+
+                // Each location is streamed to the client as soon as it is known
+                int done = completed.incrementAndGet();
+                if (progress.isActive()) {
+                    progress.report(done, total, error == null
+                            ? location + ": " + report.temperature() + " " + units + ", " + report.condition()
+                            : location + ": error: " + describe(error));
+                }
+                return null;
+            });
+        }
+        CompletableFuture.allOf(lookups).join();
+
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        logger.info("Weather for {} locations in {} ms ({} failed)", total, elapsedMillis, failed.get());
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("units", units);
+        response.put("count", total);
+        response.put("succeeded", total - failed.get());
+        response.put("failed", failed.get());
+        response.put("results", List.of(results));
+        response.put("elapsedMillis", elapsedMillis);
+        return response;
+    }
 
-        return data;
+    private CompletableFuture<WeatherReport> fetch(String location, String units) {
+        if (location == null || location.isBlank()) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Location cannot be empty"));
+        }
+        CompletableFuture<WeatherReport> lookup;
+        try {
+            lookup = provider.fetch(location, units);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        // The timeout completes a copy, so the provider's own future can still be cancelled
+        return lookup.copy().orTimeout(timeoutMillis, TimeUnit.MILLISECONDS)
+                .whenComplete((report, error) -> {
+                    if (error instanceof TimeoutException) {
+                        lookup.cancel(true);
+                    }
+                });
     }
 
-    private static class WeatherData {
-        int temperature;
-        String condition;
-        int humidity;
-        int windSpeed;
-        int pressure;
-        String forecastSummary;
-        String timestamp;
+    private String describe(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof TimeoutException) {
+            return "Timed out after " + timeoutMillis + " ms";
+        }
+        return cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
     }
-}
\ No newline at end of file
+}
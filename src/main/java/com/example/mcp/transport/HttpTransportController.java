@@ -1,40 +1,57 @@
 package com.example.mcp.transport;
 
+import com.example.mcp.ratelimit.RateLimiter;
 import com.example.mcp.server.McpError;
 import com.example.mcp.server.McpMessage;
 import com.example.mcp.server.McpServerImpl;
+import com.example.mcp.transport.TrafficJournal.Transport;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.io.IOException;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
 @RestController
+@ConditionalOnWebApplication
 @RequestMapping("${mcp.transport.http.endpoint:/api/mcp}")
 @CrossOrigin(origins = "*")
 public class HttpTransportController {
 
     private static final Logger logger = LoggerFactory.getLogger(HttpTransportController.class);
     private static final Logger messageLogger = LoggerFactory.getLogger("com.example.mcp.transport.messages");
+    private static final String SESSION_HEADER = "Mcp-Session-Id";
+    private static final String READ_METHOD = "resources/read";
 
     private final McpServerImpl mcpServer;
     private final ObjectMapper objectMapper;
     private final ExecutorService executorService;
+    private final TrafficCapture trafficCapture;
+    private final String apiKeyHeader;
 
     @Autowired
-    public HttpTransportController(McpServerImpl mcpServer, ObjectMapper objectMapper) {
+    public HttpTransportController(McpServerImpl mcpServer, ObjectMapper objectMapper,
+                                   TrafficCapture trafficCapture,
+                                   @Value("${mcp.rate-limit.api-key-header:X-API-Key}") String apiKeyHeader) {
         this.mcpServer = mcpServer;
         this.objectMapper = objectMapper;
+        this.trafficCapture = trafficCapture;
+        this.apiKeyHeader = apiKeyHeader;
         this.executorService = Executors.newVirtualThreadPerTaskExecutor();
 
         logger.info("HTTP Transport Controller initialized");
@@ -42,38 +59,51 @@ public class HttpTransportController {
 
     @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
     public CompletableFuture<ResponseEntity<?>> handleMcpRequest(
-            @RequestBody JsonNode requestBody,
-            @RequestHeader HttpHeaders headers) {
+            @RequestBody byte[] body,
+            @RequestHeader HttpHeaders headers,
+            HttpServletRequest servletRequest) {
 
         String acceptHeader = headers.getFirst(HttpHeaders.ACCEPT);
         boolean supportsSSE = acceptHeader != null &&
                              acceptHeader.contains(MediaType.TEXT_EVENT_STREAM_VALUE);
+        String sessionId = headers.getFirst(SESSION_HEADER);
 
-        messageLogger.info("Incoming MCP request: {}", requestBody);
+        trafficCapture.inbound(Transport.HTTP, sessionId, body);
         logger.debug("Accept header: {}, supports SSE: {}", acceptHeader, supportsSSE);
 
         try {
+            JsonNode requestBody = objectMapper.readTree(body);
+            messageLogger.debug("Incoming MCP request: {}", requestBody);
             McpMessage request = objectMapper.treeToValue(requestBody, McpMessage.class);
 
             if (request == null) {
                 return CompletableFuture.completedFuture(
                     createJsonResponse(McpMessage.createErrorResponse(null,
-                        McpError.parseError("Invalid JSON structure")))
+                        McpError.parseError("Invalid JSON structure")), sessionId)
                 );
             }
 
-            return mcpServer.processMessage(request)
+            String ifNoneMatch = headers.getFirst(HttpHeaders.IF_NONE_MATCH);
+            if (ifNoneMatch != null && READ_METHOD.equals(request.getMethod())
+                    && request.getParams() instanceof ObjectNode params && !params.has("ifNoneMatch")) {
+                params.put("ifNoneMatch", ifNoneMatch);
+            }
+
+            String clientId = RateLimiter.clientId(headers.getFirst(apiKeyHeader), sessionId,
+                servletRequest.getRemoteAddr());
+            return mcpServer.processMessage(request, sessionId, clientId)
                 .thenApply(response -> {
                     if (response == null) {
                         return ResponseEntity.noContent().build();
                     }
 
-                    messageLogger.info("Outgoing MCP response: {}", response);
+                    messageLogger.debug("Outgoing MCP response: {}", response);
 
-                    if (supportsSSE && shouldUseSSE(request)) {
-                        return createSseResponse(response);
+                    // A refusal is answered as plain JSON with status 429 so that Retry-After means something
+                    if (supportsSSE && shouldUseSSE(request) && !isRateLimited(response)) {
+                        return createSseResponse(response, sessionId);
                     } else {
-                        return createJsonResponse(response);
+                        return createJsonResponse(response, sessionId);
                     }
                 })
                 .exceptionally(throwable -> {
@@ -82,14 +112,14 @@ public class HttpTransportController {
                         request != null ? request.getId() : null,
                         McpError.internalError(throwable.getMessage())
                     );
-                    return createJsonResponse(errorResponse);
+                    return createJsonResponse(errorResponse, sessionId);
                 });
 
         } catch (Exception e) {
             logger.error("Error parsing MCP request: {}", e.getMessage(), e);
             McpMessage errorResponse = McpMessage.createErrorResponse(null,
                 McpError.parseError("Failed to parse JSON-RPC message: " + e.getMessage()));
-            return CompletableFuture.completedFuture(createJsonResponse(errorResponse));
+            return CompletableFuture.completedFuture(createJsonResponse(errorResponse, sessionId));
         }
     }
 
@@ -107,13 +137,24 @@ public class HttpTransportController {
         return ResponseEntity.ok().body(mcpServer.getServerCapabilities());
     }
 
-    private ResponseEntity<?> createJsonResponse(McpMessage message) {
+    private ResponseEntity<?> createJsonResponse(McpMessage message, String sessionId) {
         try {
-            JsonNode responseJson = objectMapper.valueToTree(message);
-            return ResponseEntity.ok()
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .header("Cache-Control", "no-cache")
-                    .body(responseJson);
+            trafficCapture.outbound(Transport.HTTP, sessionId, objectMapper, message);
+            // Serialized by the message converter straight into the response stream, so streamed
+            // results such as resource blobs are never buffered as a whole
+            ResponseEntity.BodyBuilder builder = isRateLimited(message)
+                    ? ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    : ResponseEntity.ok();
+            builder.contentType(MediaType.APPLICATION_JSON)
+                    .header("Cache-Control", "no-cache");
+            if (message.getResult() instanceof Map<?, ?> result && result.get("etag") instanceof String etag) {
+                builder.eTag(etag);
+            }
+            String retryAfter = retryAfter(message);
+            if (retryAfter != null) {
+                builder.header(HttpHeaders.RETRY_AFTER, retryAfter);
+            }
+            return builder.body(message);
         } catch (Exception e) {
             logger.error("Error serializing response: {}", e.getMessage(), e);
             return ResponseEntity.internalServerError()
@@ -122,17 +163,18 @@ public class HttpTransportController {
         }
     }
 
-    private ResponseEntity<?> createSseResponse(McpMessage message) {
+    private ResponseEntity<?> createSseResponse(McpMessage message, String sessionId) {
         try {
             SseEmitter emitter = new SseEmitter(30000L);
 
             CompletableFuture.runAsync(() -> {
                 try {
-                    String messageData = objectMapper.writeValueAsString(message);
+                    trafficCapture.outbound(Transport.SSE, sessionId, objectMapper, message);
+                    // Left to the message converter, like the JSON response, so blobs stream out
                     SseEmitter.SseEventBuilder event = SseEmitter.event()
                             .id(String.valueOf(message.getId()))
                             .name("message")
-                            .data(messageData, MediaType.APPLICATION_JSON);
+                            .data(message, MediaType.APPLICATION_JSON);
 
                     emitter.send(event);
                     emitter.complete();
@@ -154,8 +196,23 @@ public class HttpTransportController {
             logger.error("Error creating SSE response: {}", e.getMessage(), e);
             return createJsonResponse(McpMessage.createErrorResponse(
                 message.getId(), McpError.internalError("Failed to create SSE response")
-            ));
+            ), sessionId);
+        }
+    }
+
+    static boolean isRateLimited(McpMessage message) {
+        return message.getError() != null && message.getError().getCode() == McpError.RATE_LIMITED;
+    }
+
+    /**
+     * The {@code Retry-After} value in whole seconds, rounded up, for a rate-limited response.
+     */
+    static String retryAfter(McpMessage message) {
+        if (isRateLimited(message) && message.getError().getData() instanceof Map<?, ?> data
+                && data.get("retryAfterMs") instanceof Long retryAfterMillis) {
+            return String.valueOf((retryAfterMillis + 999) / 1000);
         }
+        return null;
     }
 
     private boolean shouldUseSSE(McpMessage request) {
@@ -1,33 +1,47 @@
 package com.example.mcp.transport;
 
 import com.example.mcp.server.McpMessage;
+import com.example.mcp.server.McpNotificationSender;
+import com.example.mcp.session.SessionStore;
+import com.example.mcp.transport.TrafficJournal.Transport;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 @RestController
+@ConditionalOnWebApplication
 @RequestMapping("${mcp.transport.http.endpoint:/api/mcp}")
-public class McpSseController {
+public class McpSseController implements McpNotificationSender {
 
     private static final Logger logger = LoggerFactory.getLogger(McpSseController.class);
 
     private final ObjectMapper objectMapper;
     private final ConcurrentHashMap<String, SseEmitter> activeConnections;
     private final ScheduledExecutorService scheduler;
+    private final TrafficCapture trafficCapture;
+    private final SessionStore sessions;
+    private final List<Consumer<String>> sessionCloseListeners = new CopyOnWriteArrayList<>();
 
     @Autowired
-    public McpSseController(ObjectMapper objectMapper) {
+    public McpSseController(ObjectMapper objectMapper, TrafficCapture trafficCapture, SessionStore sessions) {
         this.objectMapper = objectMapper;
+        this.trafficCapture = trafficCapture;
+        this.sessions = sessions;
         this.activeConnections = new ConcurrentHashMap<>();
         this.scheduler = Executors.newScheduledThreadPool(2);
 
@@ -44,22 +58,26 @@ public class McpSseController {
         logger.info("New SSE connection: {}", clientId);
 
         SseEmitter emitter = new SseEmitter(300000L); // 5 minutes timeout
-        activeConnections.put(clientId, emitter);
+        SseEmitter previous = activeConnections.put(clientId, emitter);
+        if (previous == null) {
+            // Held while the stream is open; a reconnect with the same id keeps the one pin
+            sessions.pin(clientId);
+        }
 
         final String finalClientId = clientId;
 
         emitter.onCompletion(() -> {
-            activeConnections.remove(finalClientId);
+            removeConnection(finalClientId, emitter);
             logger.info("SSE connection completed: {}", finalClientId);
         });
 
         emitter.onError(throwable -> {
-            activeConnections.remove(finalClientId);
+            removeConnection(finalClientId, emitter);
             logger.warn("SSE connection error for {}: {}", finalClientId, throwable.getMessage());
         });
 
         emitter.onTimeout(() -> {
-            activeConnections.remove(finalClientId);
+            removeConnection(finalClientId, emitter);
             logger.info("SSE connection timeout: {}", finalClientId);
         });
 
@@ -71,7 +89,7 @@ public class McpSseController {
             emitter.send(event);
         } catch (IOException e) {
             logger.error("Error sending initial SSE message: {}", e.getMessage(), e);
-            activeConnections.remove(finalClientId);
+            removeConnection(finalClientId, emitter);
             emitter.completeWithError(e);
         }
 
@@ -91,6 +109,9 @@ public class McpSseController {
 
             try {
                 String messageData = objectMapper.writeValueAsString(message);
+                if (trafficCapture.isEnabled()) {
+                    trafficCapture.outbound(Transport.SSE, clientId, messageData.getBytes(StandardCharsets.UTF_8));
+                }
                 SseEmitter.SseEventBuilder event = SseEmitter.event()
                         .id(String.valueOf(message.getId()))
                         .name("message")
@@ -101,7 +122,7 @@ public class McpSseController {
 
             } catch (IOException e) {
                 logger.warn("Failed to send message to client {}: {}", clientId, e.getMessage());
-                activeConnections.remove(clientId);
+                removeConnection(clientId, emitter);
                 emitter.completeWithError(e);
                 failCount++;
             }
@@ -112,6 +133,53 @@ public class McpSseController {
                 activeConnections.size(), successCount, failCount);
     }
 
+    /**
+     * Sends a notification to one client; the client id is the session id, so a client that
+     * opens {@code /events?clientId=X} sends {@code Mcp-Session-Id: X} with its requests.
+     */
+    @Override
+    public boolean sendNotification(String sessionId, McpMessage notification) {
+        SseEmitter emitter = sessionId != null ? activeConnections.get(sessionId) : null;
+        if (emitter == null) {
+            return false;
+        }
+
+        try {
+            String messageData = objectMapper.writeValueAsString(notification);
+            if (trafficCapture.isEnabled()) {
+                trafficCapture.outbound(Transport.SSE, sessionId, messageData.getBytes(StandardCharsets.UTF_8));
+            }
+            emitter.send(SseEmitter.event()
+                    .name("message")
+                    .data(messageData, MediaType.APPLICATION_JSON));
+            return true;
+        } catch (IOException e) {
+            logger.warn("Failed to send notification to client {}: {}", sessionId, e.getMessage());
+            removeConnection(sessionId, emitter);
+            emitter.completeWithError(e);
+            return false;
+        }
+    }
+
+    @Override
+    public boolean isConnected(String sessionId) {
+        return sessionId != null && activeConnections.containsKey(sessionId);
+    }
+
+    @Override
+    public void addSessionCloseListener(Consumer<String> listener) {
+        sessionCloseListeners.add(listener);
+    }
+
+    private void removeConnection(String clientId, SseEmitter emitter) {
+        if (activeConnections.remove(clientId, emitter)) {
+            for (Consumer<String> listener : sessionCloseListeners) {
+                listener.accept(clientId);
+            }
+            sessions.invalidate(clientId);
+        }
+    }
+
     @GetMapping("/connections")
     public Object getActiveConnections() {
         return java.util.Map.of(
@@ -142,7 +210,7 @@ public class McpSseController {
 
                 } catch (IOException e) {
                     logger.debug("Heartbeat failed for client {}, removing connection", clientId);
-                    activeConnections.remove(clientId);
+                    removeConnection(clientId, emitter);
                     emitter.completeWithError(e);
                 }
             }
@@ -0,0 +1,170 @@
+package com.example.mcp.transport;
+
+import com.example.mcp.resources.FileResourceProvider;
+import com.example.mcp.storage.ContentHashCache;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+
+/**
+ * Serves raw file bytes from the data directory. The body is never staged in the heap: on
+ * Tomcat the connector sends the file with sendfile, elsewhere {@link FileChannel#transferTo}
+ * copies it to the response channel. Single byte ranges are supported for partial downloads, and
+ * {@code If-None-Match} against the content-hash {@code ETag} answers 304 without touching the body.
+ */
+@RestController
+@ConditionalOnWebApplication
+@RequestMapping("${mcp.transport.http.endpoint:/api/mcp}")
+public class ResourceBlobController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResourceBlobController.class);
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final FileResourceProvider fileResourceProvider;
+
+    @Autowired
+    public ResourceBlobController(FileResourceProvider fileResourceProvider) {
+        this.fileResourceProvider = fileResourceProvider;
+        logger.info("Resource blob controller initialized");
+    }
+
+    @GetMapping("/resources/blob")
+    public void getBlob(@RequestParam String path,
+                        HttpServletRequest request,
+                        HttpServletResponse response) throws IOException {
+        Path file;
+        BasicFileAttributes attributes;
+        try {
+            file = fileResourceProvider.resolveFile(path);
+            attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (SecurityException e) {
+            logger.warn("Rejected blob request: {}", e.getMessage());
+            response.sendError(HttpServletResponse.SC_FORBIDDEN);
+            return;
+        } catch (NoSuchFileException e) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        if (!attributes.isRegularFile()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        String etag = fileResourceProvider.etag(file);
+        response.setHeader(HttpHeaders.ETAG, etag);
+        if (ContentHashCache.matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        long size = attributes.size();
+        long start = 0;
+        long end = size - 1;
+
+        String range = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange != null && !ContentHashCache.strongMatches(ifRange, etag)) {
+            range = null; // stale or only weakly validated partial copy, send the whole file
+        }
+        if (range != null && size > 0) {
+            long[] bounds = parseRange(range, size);
+            if (bounds == null) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            start = bounds[0];
+            end = bounds[1];
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+        }
+
+        long length = size == 0 ? 0 : end - start + 1;
+        response.setContentType(fileResourceProvider.getMimeType(file));
+        response.setContentLengthLong(length);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, attributes.lastModifiedTime().toMillis());
+
+        if ("HEAD".equals(request.getMethod()) || length == 0) {
+            return;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // Tomcat streams the file itself once the handler returns (end offset is exclusive)
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            logger.debug("Serving {} bytes of {} via sendfile", length, file);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = length;
+            while (remaining > 0) {
+                long transferred = channel.transferTo(position, remaining, out);
+                if (transferred <= 0) {
+                    break;
+                }
+                position += transferred;
+                remaining -= transferred;
+            }
+        }
+        logger.debug("Served {} bytes of {} via transferTo", length, file);
+    }
+
+    private long[] parseRange(String header, long size) {
+        if (!header.startsWith("bytes=") || header.indexOf(',') >= 0) {
+            return null;
+        }
+        String spec = header.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            long start;
+            long end;
+            if (first.isEmpty()) {
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0) {
+                    return null;
+                }
+                start = Math.max(0, size - suffix);
+                end = size - 1;
+            } else {
+                start = Long.parseLong(first);
+                end = last.isEmpty() ? size - 1 : Math.min(Long.parseLong(last), size - 1);
+            }
+            return start <= end && start < size ? new long[]{start, end} : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.mcp.transport;
+
+import com.example.mcp.server.McpError;
+import com.example.mcp.server.McpMessage;
+import com.example.mcp.server.McpNotificationSender;
+import com.example.mcp.server.McpServerImpl;
+import com.example.mcp.session.SessionStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnNotWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+/**
+ * Serves the MCP session of a stdio launch ({@code --stdio}): every line on stdin is a request,
+ * answered on stdout as soon as it completes, until stdin is closed. The whole process is one
+ * session, so this is also where notifications for it are delivered.
+ */
+@Component
+@ConditionalOnNotWebApplication
+@ConditionalOnProperty(prefix = "mcp.transport.stdio", name = "enabled", havingValue = "true")
+public class StdioServer implements ApplicationRunner, McpNotificationSender {
+
+    private static final Logger logger = LoggerFactory.getLogger(StdioServer.class);
+
+    public static final String SESSION_ID = "stdio";
+
+    private final StdioTransportProvider transport;
+    private final McpServerImpl mcpServer;
+    private final SessionStore sessions;
+    private final long drainTimeoutMillis;
+    private final Set<CompletableFuture<?>> inFlight = ConcurrentHashMap.newKeySet();
+    private final List<Consumer<String>> sessionCloseListeners = new CopyOnWriteArrayList<>();
+
+    @Autowired
+    public StdioServer(StdioTransportProvider transport, McpServerImpl mcpServer, SessionStore sessions,
+                       @Value("${mcp.transport.stdio.drain-timeout-ms:5000}") long drainTimeoutMillis) {
+        this.transport = transport;
+        this.mcpServer = mcpServer;
+        this.sessions = sessions;
+        this.drainTimeoutMillis = drainTimeoutMillis;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        transport.start();
+        // The process is the session, however long the client stays quiet
+        sessions.pin(SESSION_ID);
+
+        McpMessage message;
+        while ((message = transport.nextMessage()) != null) {
+            if (message.isErrorResponse()) {
+                // The line could not be parsed
+                transport.sendMessage(message);
+                continue;
+            }
+            Object id = message.getId();
+            CompletableFuture<McpMessage> response = mcpServer.processMessage(message, SESSION_ID);
+            inFlight.add(response);
+            response.whenComplete((result, throwable) -> {
+                inFlight.remove(response);
+                if (throwable != null) {
+                    logger.error("Error processing MCP request: {}", throwable.getMessage(), throwable);
+                    transport.sendMessage(McpMessage.createErrorResponse(id, McpError.internalError(throwable.getMessage())));
+                } else if (result != null) {
+                    transport.sendMessage(result);
+                }
+            });
+        }
+
+        logger.info("stdin closed, finishing {} pending requests", inFlight.size());
+        try {
+            CompletableFuture.allOf(inFlight.toArray(new CompletableFuture<?>[0]))
+                    .get(drainTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            logger.warn("{} requests still pending after {} ms, abandoning them", inFlight.size(), drainTimeoutMillis);
+        } catch (Exception e) {
+            // Failures were already answered individually
+        }
+        sessionCloseListeners.forEach(listener -> listener.accept(SESSION_ID));
+        sessions.invalidate(SESSION_ID);
+        transport.stop();
+    }
+
+    @Override
+    public boolean sendNotification(String sessionId, McpMessage notification) {
+        if (!isConnected(sessionId)) {
+            return false;
+        }
+        transport.sendMessage(notification);
+        return true;
+    }
+
+    @Override
+    public boolean isConnected(String sessionId) {
+        return SESSION_ID.equals(sessionId) && transport.isRunning();
+    }
+
+    @Override
+    public void addSessionCloseListener(Consumer<String> listener) {
+        sessionCloseListeners.add(listener);
+    }
+}
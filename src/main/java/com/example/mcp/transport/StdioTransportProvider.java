@@ -2,6 +2,7 @@ package com.example.mcp.transport;
 
 import com.example.mcp.server.McpError;
 import com.example.mcp.server.McpMessage;
+import com.example.mcp.transport.TrafficJournal.Transport;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
@@ -12,24 +13,34 @@ import org.springframework.stereotype.Component;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class StdioTransportProvider {
 
     private static final Logger logger = LoggerFactory.getLogger(StdioTransportProvider.class);
 
+    // Queued when stdin reaches its end; blank lines are never queued otherwise
+    private static final String END_OF_INPUT = "";
+    private static final long FLUSH_TIMEOUT_MILLIS = 2000;
+
     private final ObjectMapper objectMapper;
     private final BlockingQueue<String> inputQueue;
     private final BlockingQueue<String> outputQueue;
+    private final TrafficCapture trafficCapture;
     private volatile boolean running = false;
+    private Thread writerThread;
 
     @Autowired
-    public StdioTransportProvider(ObjectMapper objectMapper) {
+    public StdioTransportProvider(ObjectMapper objectMapper, TrafficCapture trafficCapture) {
         this.objectMapper = objectMapper;
+        this.trafficCapture = trafficCapture;
         this.inputQueue = new LinkedBlockingQueue<>();
         this.outputQueue = new LinkedBlockingQueue<>();
 
@@ -45,8 +56,13 @@ public class StdioTransportProvider {
         running = true;
         logger.info("Starting STDIO transport...");
 
-        CompletableFuture.runAsync(this::handleInput);
-        CompletableFuture.runAsync(this::handleOutput);
+        // Dedicated threads: a blocking stdin read must not hold a common pool worker
+        Thread readerThread = new Thread(this::handleInput, "stdio-reader");
+        readerThread.setDaemon(true);
+        readerThread.start();
+        writerThread = new Thread(this::handleOutput, "stdio-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
 
         logger.info("STDIO transport started");
     }
@@ -57,6 +73,13 @@ public class StdioTransportProvider {
         }
 
         running = false;
+        if (writerThread != null) {
+            try {
+                writerThread.join(FLUSH_TIMEOUT_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
         logger.info("STDIO transport stopped");
     }
 
@@ -68,6 +91,9 @@ public class StdioTransportProvider {
 
         try {
             String json = objectMapper.writeValueAsString(message);
+            if (trafficCapture.isEnabled()) {
+                trafficCapture.outbound(Transport.STDIO, null, json.getBytes(StandardCharsets.UTF_8));
+            }
             outputQueue.offer(json);
             logger.debug("Message queued for output: {}", message.getId());
         } catch (Exception e) {
@@ -78,28 +104,47 @@ public class StdioTransportProvider {
     public CompletableFuture<McpMessage> receiveMessage() {
         return CompletableFuture.supplyAsync(() -> {
             try {
-                String json = inputQueue.take();
-                JsonNode jsonNode = objectMapper.readTree(json);
-                return objectMapper.treeToValue(jsonNode, McpMessage.class);
+                return nextMessage();
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
                 logger.debug("Message receive interrupted");
                 return null;
-            } catch (Exception e) {
-                logger.error("Error deserializing message: {}", e.getMessage(), e);
-                return McpMessage.createErrorResponse(null,
-                    McpError.parseError("Failed to parse JSON-RPC message"));
             }
         });
     }
 
+    /**
+     * Blocks until the next message arrives. A line that cannot be parsed yields a
+     * {@code parseError} response to send back.
+     *
+     * @return the message, or {@code null} once stdin has been closed
+     */
+    public McpMessage nextMessage() throws InterruptedException {
+        String json = inputQueue.take();
+        if (json.isEmpty()) {
+            inputQueue.offer(END_OF_INPUT);
+            return null;
+        }
+        try {
+            JsonNode jsonNode = objectMapper.readTree(json);
+            return objectMapper.treeToValue(jsonNode, McpMessage.class);
+        } catch (Exception e) {
+            logger.error("Error deserializing message: {}", e.getMessage(), e);
+            return McpMessage.createErrorResponse(null,
+                McpError.parseError("Failed to parse JSON-RPC message"));
+        }
+    }
+
     private void handleInput() {
         logger.debug("Starting STDIO input handler");
 
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(System.in))) {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))) {
             String line;
             while (running && (line = reader.readLine()) != null) {
                 if (!line.trim().isEmpty()) {
+                    if (trafficCapture.isEnabled()) {
+                        trafficCapture.inbound(Transport.STDIO, null, line.getBytes(StandardCharsets.UTF_8));
+                    }
                     inputQueue.offer(line);
                     logger.debug("Message received from STDIN");
                 }
@@ -108,6 +153,8 @@ public class StdioTransportProvider {
             if (running) {
                 logger.error("Error reading from STDIN: {}", e.getMessage(), e);
             }
+        } finally {
+            inputQueue.offer(END_OF_INPUT);
         }
 
         logger.debug("STDIO input handler stopped");
@@ -116,10 +163,14 @@ public class StdioTransportProvider {
     private void handleOutput() {
         logger.debug("Starting STDIO output handler");
 
-        try (PrintWriter writer = new PrintWriter(System.out, true)) {
-            while (running) {
+        try (PrintWriter writer = new PrintWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), true)) {
+            // Keep writing after stop() until everything queued has been flushed
+            while (running || !outputQueue.isEmpty()) {
                 try {
-                    String message = outputQueue.take();
+                    String message = outputQueue.poll(100, TimeUnit.MILLISECONDS);
+                    if (message == null) {
+                        continue;
+                    }
                     writer.println(message);
                     writer.flush();
                     logger.debug("Message sent to STDOUT");
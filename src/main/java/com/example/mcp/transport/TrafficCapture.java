@@ -0,0 +1,309 @@
+package com.example.mcp.transport;
+
+import com.example.mcp.transport.TrafficJournal.Direction;
+import com.example.mcp.transport.TrafficJournal.Transport;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Optional capture of raw transport frames into a rotating binary journal.
+ * Callers only enqueue; a single writer thread batches records into large writes.
+ * When the queue is full frames are dropped and counted rather than blocking a transport.
+ * Outbound payloads are cut at {@code max-outbound-bytes} and flagged as truncated; replay only needs the
+ * inbound side in full.
+ * A write failure turns capture off for the rest of the process instead of letting the queue fill up.
+ */
+@Component
+public class TrafficCapture {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrafficCapture.class);
+    private static final byte[] NO_SESSION = new byte[0];
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+
+    private final boolean enabled;
+    private final Path directory;
+    private final long maxFileSize;
+    private final int maxFiles;
+    private final int batchSize;
+    private final int maxOutboundBytes;
+    private final BlockingQueue<PendingFrame> queue;
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+
+    // Wall-clock anchor so that timestamps are both absolute and monotonic
+    private final long baseEpochMicros = System.currentTimeMillis() * 1000;
+    private final long baseNanos = System.nanoTime();
+
+    private final Thread writerThread;
+    private volatile boolean running;
+    private volatile boolean failed;
+    private FileChannel channel;
+    private long fileSize;
+    private int fileSequence;
+
+    public TrafficCapture(@Value("${mcp.transport.capture.enabled:false}") boolean enabled,
+                          @Value("${mcp.transport.capture.directory:./capture}") String directory,
+                          @Value("${mcp.transport.capture.max-file-size:268435456}") long maxFileSize,
+                          @Value("${mcp.transport.capture.max-files:16}") int maxFiles,
+                          @Value("${mcp.transport.capture.queue-capacity:65536}") int queueCapacity,
+                          @Value("${mcp.transport.capture.batch-size:1048576}") int batchSize,
+                          @Value("${mcp.transport.capture.max-outbound-bytes:65536}") int maxOutboundBytes) {
+        this.enabled = enabled;
+        this.directory = Paths.get(directory).toAbsolutePath().normalize();
+        this.maxFileSize = maxFileSize;
+        this.maxFiles = maxFiles;
+        this.batchSize = batchSize;
+        this.maxOutboundBytes = maxOutboundBytes;
+        this.queue = new ArrayBlockingQueue<>(enabled ? queueCapacity : 1);
+
+        if (enabled) {
+            running = true;
+            writerThread = Thread.ofPlatform().name("mcp-traffic-capture").daemon().start(this::writeLoop);
+            logger.info("Traffic capture enabled: directory={}, maxFileSize={}, maxFiles={}",
+                    this.directory, maxFileSize, maxFiles);
+        } else {
+            writerThread = null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled && !failed;
+    }
+
+    public void inbound(Transport transport, String sessionId, byte[] payload) {
+        record(Direction.INBOUND, transport, sessionId, payload);
+    }
+
+    public void outbound(Transport transport, String sessionId, byte[] payload) {
+        if (payload != null && payload.length > maxOutboundBytes) {
+            record(Direction.OUTBOUND, transport, sessionId, Arrays.copyOf(payload, maxOutboundBytes),
+                    TrafficJournal.FLAG_TRUNCATED);
+        } else {
+            record(Direction.OUTBOUND, transport, sessionId, payload);
+        }
+    }
+
+    /**
+     * Captures a message that the transport serializes on its own. Serialization stops at
+     * {@code max-outbound-bytes}, so a large result is not encoded a second time just for the journal.
+     */
+    public void outbound(Transport transport, String sessionId, ObjectMapper objectMapper, Object message) {
+        if (!isEnabled()) {
+            return;
+        }
+        CappedBuffer buffer = new CappedBuffer(maxOutboundBytes);
+        try {
+            objectMapper.writeValue(buffer, message);
+        } catch (IOException e) {
+            if (!buffer.full) {
+                logger.debug("Could not capture outbound message: {}", e.getMessage());
+                return;
+            }
+        }
+        record(Direction.OUTBOUND, transport, sessionId, buffer.toByteArray(),
+                buffer.full ? TrafficJournal.FLAG_TRUNCATED : 0);
+    }
+
+    public void record(Direction direction, Transport transport, String sessionId, byte[] payload) {
+        record(direction, transport, sessionId, payload, 0);
+    }
+
+    private void record(Direction direction, Transport transport, String sessionId, byte[] payload, int flags) {
+        if (!enabled || failed || payload == null) {
+            return;
+        }
+        long epochMicros = baseEpochMicros + (System.nanoTime() - baseNanos) / 1000;
+        byte[] session = sessionId == null ? NO_SESSION : sessionId.getBytes(StandardCharsets.UTF_8);
+        if (session.length > 0xFFFF) {
+            session = NO_SESSION;
+        }
+        if (!queue.offer(new PendingFrame(epochMicros, direction, transport, flags, session, payload))) {
+            long count = dropped.incrementAndGet();
+            if ((count & (count - 1)) == 0) {
+                logger.warn("Traffic capture queue full, {} frames dropped so far", count);
+            }
+        }
+    }
+
+    public long getWrittenCount() {
+        return written.get();
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    private void writeLoop() {
+        ByteBuffer batch = ByteBuffer.allocateDirect(batchSize);
+        List<PendingFrame> drained = new ArrayList<>(1024);
+
+        try {
+            Files.createDirectories(directory);
+            while (running || !queue.isEmpty()) {
+                PendingFrame first = queue.poll(200, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                drained.add(first);
+                queue.drainTo(drained, 4096);
+
+                for (PendingFrame frame : drained) {
+                    int size = TrafficJournal.encodedSize(frame.session, frame.payload);
+                    if (size > batch.remaining()) {
+                        flush(batch);
+                    }
+                    if (size > batch.capacity()) {
+                        ByteBuffer oversized = ByteBuffer.allocate(size);
+                        frame.encode(oversized);
+                        writeRecord(oversized.flip());
+                    } else {
+                        frame.encode(batch);
+                    }
+                }
+                written.addAndGet(drained.size());
+                drained.clear();
+                flush(batch);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            failed = true;
+            queue.clear();
+            logger.error("Traffic capture disabled after write failure: {}", e.getMessage(), e);
+        } finally {
+            closeChannel();
+        }
+    }
+
+    private void flush(ByteBuffer batch) throws IOException {
+        if (batch.position() == 0) {
+            return;
+        }
+        batch.flip();
+        writeRecord(batch);
+        batch.clear();
+    }
+
+    private void writeRecord(ByteBuffer data) throws IOException {
+        if (channel == null || fileSize >= maxFileSize) {
+            rotate();
+        }
+        while (data.hasRemaining()) {
+            fileSize += channel.write(data);
+        }
+    }
+
+    private void rotate() throws IOException {
+        closeChannel();
+
+        // Small files can rotate several times per millisecond, the sequence keeps names unique and ordered
+        String name = String.format("%s%s-%06d%s", TrafficJournal.FILE_PREFIX,
+                LocalDateTime.now().format(FILE_TIMESTAMP), ++fileSequence, TrafficJournal.FILE_SUFFIX);
+        Path file = directory.resolve(name);
+        channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+
+        ByteBuffer header = ByteBuffer.allocate(TrafficJournal.HEADER_SIZE);
+        TrafficJournal.writeHeader(header, System.currentTimeMillis());
+        header.flip();
+        fileSize = 0;
+        while (header.hasRemaining()) {
+            fileSize += channel.write(header);
+        }
+        logger.info("Traffic capture writing to {}", file);
+
+        List<Path> files = TrafficJournal.listFiles(directory);
+        for (int i = 0; i < files.size() - maxFiles; i++) {
+            Files.deleteIfExists(files.get(i));
+            logger.debug("Traffic capture rotated out {}", files.get(i));
+        }
+    }
+
+    private void closeChannel() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.force(false);
+            channel.close();
+        } catch (IOException e) {
+            logger.warn("Error closing traffic capture file: {}", e.getMessage());
+        }
+        channel = null;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (writerThread == null) {
+            return;
+        }
+        running = false;
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        logger.info("Traffic capture stopped: {} frames written, {} dropped", written.get(), dropped.get());
+    }
+
+    private static final class CappedBuffer extends OutputStream {
+        private final ByteArrayOutputStream bytes;
+        private final int limit;
+        private boolean full;
+
+        CappedBuffer(int limit) {
+            this.bytes = new ByteArrayOutputStream(Math.min(limit, 8192));
+            this.limit = limit;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            int accepted = Math.min(len, limit - bytes.size());
+            bytes.write(b, off, accepted);
+            if (accepted < len) {
+                full = true;
+                throw new IOException("Capture limit reached");
+            }
+        }
+
+        byte[] toByteArray() {
+            return bytes.toByteArray();
+        }
+    }
+
+    private record PendingFrame(long epochMicros, Direction direction, Transport transport, int flags,
+                                byte[] session, byte[] payload) {
+
+        void encode(ByteBuffer buffer) {
+            TrafficJournal.encode(buffer, epochMicros, direction, transport, flags, session, payload);
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package com.example.mcp.transport;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Binary layout of the traffic capture journal written by {@link TrafficCapture}.
+ *
+ * <pre>
+ * file   := header record*
+ * header := magic "MCPJ" | u16 version | u16 reserved | i64 createdEpochMillis
+ * record := i32 bodyLength | i32 crc32c(body) | body
+ * body   := i64 epochMicros | u8 direction | u8 transport | u8 flags | u16 sessionLength | session (UTF-8) | payload
+ * </pre>
+ *
+ * {@link #FLAG_TRUNCATED} marks a payload that capture cut short; it is not a complete JSON message.
+ * Version 1 files have no flags byte and are still readable.
+ * A torn record at the end of a file (crash mid-write) is treated as end of file.
+ */
+public final class TrafficJournal {
+
+    public static final int MAGIC = 0x4D43504A; // "MCPJ"
+    public static final short VERSION = 2;
+    public static final int HEADER_SIZE = 16;
+    public static final int RECORD_PREFIX_SIZE = 8;
+    public static final int BODY_FIXED_SIZE = 13;
+    public static final int FLAG_TRUNCATED = 1;
+    public static final String FILE_PREFIX = "traffic-";
+    public static final String FILE_SUFFIX = ".mcpj";
+
+    public enum Direction {
+        INBOUND, OUTBOUND;
+
+        private static final Direction[] VALUES = values();
+
+        static Direction of(int ordinal) {
+            return VALUES[ordinal];
+        }
+    }
+
+    public enum Transport {
+        HTTP, SSE, STDIO;
+
+        private static final Transport[] VALUES = values();
+
+        static Transport of(int ordinal) {
+            return VALUES[ordinal];
+        }
+    }
+
+    public record Frame(long epochMicros, Direction direction, Transport transport, int flags,
+                        String sessionId, byte[] payload) {
+
+        public boolean truncated() {
+            return (flags & FLAG_TRUNCATED) != 0;
+        }
+    }
+
+    private TrafficJournal() {
+    }
+
+    static void writeHeader(ByteBuffer buffer, long createdEpochMillis) {
+        buffer.putInt(MAGIC);
+        buffer.putShort(VERSION);
+        buffer.putShort((short) 0);
+        buffer.putLong(createdEpochMillis);
+    }
+
+    static int encodedSize(byte[] session, byte[] payload) {
+        return RECORD_PREFIX_SIZE + BODY_FIXED_SIZE + session.length + payload.length;
+    }
+
+    /**
+     * Encodes one record into {@code buffer}, which must have {@link #encodedSize} bytes remaining.
+     */
+    static void encode(ByteBuffer buffer, long epochMicros, Direction direction, Transport transport, int flags,
+                       byte[] session, byte[] payload) {
+        int start = buffer.position();
+        int bodyLength = BODY_FIXED_SIZE + session.length + payload.length;
+
+        buffer.putInt(bodyLength);
+        buffer.putInt(0); // checksum, patched below
+        int bodyStart = buffer.position();
+        buffer.putLong(epochMicros);
+        buffer.put((byte) direction.ordinal());
+        buffer.put((byte) transport.ordinal());
+        buffer.put((byte) flags);
+        buffer.putShort((short) session.length);
+        buffer.put(session);
+        buffer.put(payload);
+
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.duplicate().position(bodyStart).limit(bodyStart + bodyLength));
+        buffer.putInt(start + 4, (int) crc.getValue());
+    }
+
+    /**
+     * Lists journal files in a directory in write order, or the file itself.
+     */
+    public static List<Path> listFiles(Path location) throws IOException {
+        if (Files.isRegularFile(location)) {
+            return List.of(location);
+        }
+        try (Stream<Path> files = Files.list(location)) {
+            return files.filter(p -> {
+                        String name = p.getFileName().toString();
+                        return name.startsWith(FILE_PREFIX) && name.endsWith(FILE_SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    /**
+     * Sequential reader over one or more journal files.
+     */
+    public static final class Reader implements AutoCloseable {
+
+        private static final int READ_BUFFER_SIZE = 1 << 20;
+
+        private final List<Path> files;
+        private int fileIndex;
+        private FileChannel channel;
+        private ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+        private Frame next;
+        private int bodyFixedSize;
+
+        public Reader(Path location) throws IOException {
+            this.files = new ArrayList<>(listFiles(location));
+        }
+
+        public boolean hasNext() throws IOException {
+            if (next == null) {
+                next = readFrame();
+            }
+            return next != null;
+        }
+
+        public Frame next() throws IOException {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Frame frame = next;
+            next = null;
+            return frame;
+        }
+
+        private Frame readFrame() throws IOException {
+            while (true) {
+                if (channel == null && !openNextFile()) {
+                    return null;
+                }
+                Frame frame = readFromCurrent();
+                if (frame != null) {
+                    return frame;
+                }
+                channel.close();
+                channel = null;
+            }
+        }
+
+        private boolean openNextFile() throws IOException {
+            if (fileIndex >= files.size()) {
+                return false;
+            }
+            Path file = files.get(fileIndex++);
+            channel = FileChannel.open(file, StandardOpenOption.READ);
+            buffer.clear().limit(0);
+
+            if (!fill(HEADER_SIZE) || buffer.getInt() != MAGIC) {
+                throw new IOException("Not a traffic journal: " + file);
+            }
+            short version = buffer.getShort();
+            if (version != VERSION && version != 1) {
+                throw new IOException("Unsupported traffic journal version " + version + ": " + file);
+            }
+            bodyFixedSize = version == 1 ? BODY_FIXED_SIZE - 1 : BODY_FIXED_SIZE;
+            buffer.getShort();
+            buffer.getLong();
+            return true;
+        }
+
+        private Frame readFromCurrent() throws IOException {
+            if (!fill(RECORD_PREFIX_SIZE)) {
+                return null;
+            }
+            int bodyLength = buffer.getInt();
+            int expectedCrc = buffer.getInt();
+            if (bodyLength < bodyFixedSize || !fill(bodyLength)) {
+                return null;
+            }
+
+            CRC32C crc = new CRC32C();
+            crc.update(buffer.duplicate().limit(buffer.position() + bodyLength));
+            if ((int) crc.getValue() != expectedCrc) {
+                return null;
+            }
+
+            long epochMicros = buffer.getLong();
+            Direction direction = Direction.of(buffer.get());
+            Transport transport = Transport.of(buffer.get());
+            int flags = bodyFixedSize == BODY_FIXED_SIZE ? Byte.toUnsignedInt(buffer.get()) : 0;
+            int sessionLength = Short.toUnsignedInt(buffer.getShort());
+            String sessionId = null;
+            if (sessionLength > 0) {
+                byte[] session = new byte[sessionLength];
+                buffer.get(session);
+                sessionId = new String(session, StandardCharsets.UTF_8);
+            }
+            byte[] payload = new byte[bodyLength - bodyFixedSize - sessionLength];
+            buffer.get(payload);
+
+            return new Frame(epochMicros, direction, transport, flags, sessionId, payload);
+        }
+
+        private boolean fill(int required) throws IOException {
+            if (buffer.remaining() >= required) {
+                return true;
+            }
+            if (required > buffer.capacity()) {
+                ByteBuffer larger = ByteBuffer.allocate(Integer.highestOneBit(required) << 1);
+                larger.put(buffer).flip();
+                buffer = larger;
+            }
+            buffer.compact();
+            try {
+                while (buffer.position() < required) {
+                    if (channel.read(buffer) < 0) {
+                        throw new EOFException();
+                    }
+                }
+                return true;
+            } catch (EOFException e) {
+                return false;
+            } finally {
+                buffer.flip();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (channel != null) {
+                channel.close();
+                channel = null;
+            }
+        }
+    }
+}
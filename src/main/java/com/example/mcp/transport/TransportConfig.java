@@ -6,6 +6,7 @@ import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -43,6 +44,7 @@ public class TransportConfig {
     }
 
     @Bean
+    @ConditionalOnWebApplication
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration configuration = new CorsConfiguration();
         configuration.setAllowedOriginPatterns(Arrays.asList("*"));
@@ -55,7 +57,8 @@ public class TransportConfig {
                 "Access-Control-Allow-Headers",
                 "Access-Control-Max-Age",
                 "Access-Control-Request-Method",
-                "Access-Control-Request-Headers"
+                "Access-Control-Request-Headers",
+                "Retry-After"
         ));
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
@@ -66,6 +69,7 @@ public class TransportConfig {
     }
 
     @Bean
+    @ConditionalOnWebApplication
     public FilterRegistrationBean<CorsFilter> corsFilter(CorsConfigurationSource corsConfigurationSource) {
         FilterRegistrationBean<CorsFilter> bean = new FilterRegistrationBean<>(
                 new CorsFilter(corsConfigurationSource)
@@ -75,6 +79,7 @@ public class TransportConfig {
     }
 
     @Bean
+    @ConditionalOnWebApplication
     public FilterRegistrationBean<LoggingFilter> loggingFilter() {
         FilterRegistrationBean<LoggingFilter> bean = new FilterRegistrationBean<>();
         bean.setFilter(new LoggingFilter());
@@ -0,0 +1,184 @@
+package com.example.mcp.weather;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Stale-while-revalidate cache in front of a slow {@link WeatherProvider}.
+ *
+ * <p>Reports are keyed by normalized location and units. Within the fresh TTL a cached report is
+ * returned directly; during the following stale window it is still returned immediately while one
+ * background refresh replaces it. Only a miss, or an entry past its stale window, waits for the
+ * upstream. Concurrent misses and refreshes of a key share a single upstream call, and
+ * {@link UnknownLocationException}s are cached for the negative TTL. Other failures, including
+ * an upstream call that does not answer within the upstream timeout, are not cached: an existing
+ * stale report keeps being served until its window ends.
+ */
+public class CachingWeatherProvider implements WeatherProvider {
+
+    private static final Logger logger = LoggerFactory.getLogger(CachingWeatherProvider.class);
+
+    private record Key(String location, String units) {
+    }
+
+    private record Entry(WeatherReport report, UnknownLocationException unknown, long freshUntil, long staleUntil) {
+
+        CompletableFuture<WeatherReport> result() {
+            return unknown != null ? CompletableFuture.failedFuture(unknown) : CompletableFuture.completedFuture(report);
+        }
+    }
+
+    private final WeatherProvider delegate;
+    private final long freshTtlMillis;
+    private final long staleTtlMillis;
+    private final long negativeTtlMillis;
+    private final int maxEntries;
+    private final long upstreamTimeoutMillis;
+    private final LongSupplier clock;
+
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<Key, CompletableFuture<WeatherReport>> loading = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong staleHits = new AtomicLong();
+    private final AtomicLong negativeHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong upstreamCalls = new AtomicLong();
+    private final AtomicLong upstreamFailures = new AtomicLong();
+
+    /**
+     * @param staleTtlMillis how long after the fresh TTL a report may still be served while it
+     *                       is refreshed
+     * @param upstreamTimeoutMillis how long a shared upstream call may take before it is failed,
+     *                              so that a hung call cannot hold its key forever
+     */
+    public CachingWeatherProvider(WeatherProvider delegate, long freshTtlMillis, long staleTtlMillis,
+                                  long negativeTtlMillis, int maxEntries, long upstreamTimeoutMillis) {
+        this(delegate, freshTtlMillis, staleTtlMillis, negativeTtlMillis, maxEntries, upstreamTimeoutMillis,
+                System::currentTimeMillis);
+    }
+
+    CachingWeatherProvider(WeatherProvider delegate, long freshTtlMillis, long staleTtlMillis,
+                           long negativeTtlMillis, int maxEntries, long upstreamTimeoutMillis, LongSupplier clock) {
+        this.delegate = delegate;
+        this.freshTtlMillis = freshTtlMillis;
+        this.staleTtlMillis = staleTtlMillis;
+        this.negativeTtlMillis = negativeTtlMillis;
+        this.maxEntries = maxEntries;
+        this.upstreamTimeoutMillis = upstreamTimeoutMillis;
+        this.clock = clock;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public CompletableFuture<WeatherReport> fetch(String location, String units) {
+        Key key = new Key(normalize(location), units.toLowerCase(Locale.ROOT));
+        long now = clock.getAsLong();
+        Entry entry = entries.get(key);
+
+        if (entry != null && now < entry.freshUntil()) {
+            (entry.unknown() != null ? negativeHits : hits).incrementAndGet();
+            return entry.result();
+        }
+        if (entry != null && now < entry.staleUntil()) {
+            staleHits.incrementAndGet();
+            load(key, location, units);
+            return entry.result();
+        }
+
+        misses.incrementAndGet();
+        // A copy, so a caller giving up on its lookup cannot cancel the load other callers share
+        return load(key, location, units).copy();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("entries", entries.size());
+        stats.put("hits", hits.get());
+        stats.put("staleHits", staleHits.get());
+        stats.put("negativeHits", negativeHits.get());
+        stats.put("misses", misses.get());
+        stats.put("upstreamCalls", upstreamCalls.get());
+        stats.put("upstreamFailures", upstreamFailures.get());
+        return stats;
+    }
+
+    private CompletableFuture<WeatherReport> load(Key key, String location, String units) {
+        CompletableFuture<WeatherReport> created = new CompletableFuture<>();
+        CompletableFuture<WeatherReport> existing = loading.putIfAbsent(key, created);
+        if (existing != null) {
+            return existing;
+        }
+
+        upstreamCalls.incrementAndGet();
+        CompletableFuture<WeatherReport> upstream;
+        try {
+            upstream = delegate.fetch(location, units);
+        } catch (RuntimeException e) {
+            upstream = CompletableFuture.failedFuture(e);
+        }
+        if (upstreamTimeoutMillis > 0) {
+            // On a copy: the timeout releases the key without completing the delegate's own future
+            upstream = upstream.copy().orTimeout(upstreamTimeoutMillis, TimeUnit.MILLISECONDS);
+        }
+        upstream.whenComplete((report, error) -> {
+            // Publish the entry before releasing waiters, so they and later callers agree
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            long now = clock.getAsLong();
+            if (cause == null) {
+                store(key, new Entry(report, null, now + freshTtlMillis, now + freshTtlMillis + staleTtlMillis), now);
+            } else if (cause instanceof UnknownLocationException unknown) {
+                store(key, new Entry(null, unknown, now + negativeTtlMillis, now + negativeTtlMillis), now);
+            } else {
+                upstreamFailures.incrementAndGet();
+                if (cause instanceof TimeoutException) {
+                    logger.debug("Weather refresh for {} timed out after {} ms", key.location(), upstreamTimeoutMillis);
+                } else {
+                    logger.debug("Weather refresh for {} failed: {}", key.location(), cause.getMessage());
+                }
+            }
+            loading.remove(key, created);
+            if (cause == null) {
+                created.complete(report);
+            } else {
+                created.completeExceptionally(cause);
+            }
+        });
+        return created;
+    }
+
+    private void store(Key key, Entry entry, long now) {
+        entries.put(key, entry);
+        if (entries.size() <= maxEntries) {
+            return;
+        }
+        entries.values().removeIf(candidate -> candidate.staleUntil() <= now);
+        Iterator<Key> keys = entries.keySet().iterator();
+        while (entries.size() > maxEntries && keys.hasNext()) {
+            Key candidate = keys.next();
+            if (!candidate.equals(key)) {
+                keys.remove();
+            }
+        }
+    }
+
+    static String normalize(String location) {
+        return location.strip().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+}
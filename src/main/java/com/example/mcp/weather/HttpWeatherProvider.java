@@ -0,0 +1,94 @@
+package com.example.mcp.weather;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Fetches weather from an HTTP service returning the {@link WeatherReport#toMap()} JSON shape,
+ * by default the {@link WeatherStandInController} served by this application. The JDK client
+ * multiplexes all in-flight lookups over its own selector thread.
+ */
+@Component
+public class HttpWeatherProvider implements WeatherProvider {
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final String baseUrl;
+    private final Duration requestTimeout;
+
+    @Autowired
+    public HttpWeatherProvider(ObjectMapper objectMapper,
+                               @Value("${mcp.weather.http.base-url:http://localhost:8080/mcp/stand-in/weather}") String baseUrl,
+                               @Value("${mcp.weather.http.connect-timeout-ms:2000}") long connectTimeoutMillis,
+                               @Value("${mcp.weather.timeout-ms:5000}") long requestTimeoutMillis) {
+        this.objectMapper = objectMapper;
+        this.baseUrl = baseUrl;
+        this.requestTimeout = Duration.ofMillis(requestTimeoutMillis);
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(connectTimeoutMillis))
+                .build();
+    }
+
+    @Override
+    public String getName() {
+        return "http";
+    }
+
+    @Override
+    public CompletableFuture<WeatherReport> fetch(String location, String units) {
+        URI uri = URI.create(baseUrl + "?location=" + URLEncoder.encode(location, StandardCharsets.UTF_8)
+                + "&units=" + URLEncoder.encode(units, StandardCharsets.UTF_8));
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .header("Accept", "application/json")
+                .timeout(requestTimeout)
+                .GET()
+                .build();
+
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                .thenApply(response -> {
+                    if (response.statusCode() == 404) {
+                        throw new UnknownLocationException(location);
+                    }
+                    if (response.statusCode() != 200) {
+                        throw new IllegalStateException("Weather service returned HTTP " + response.statusCode());
+                    }
+                    try {
+                        return parse(objectMapper.readTree(response.body()), location, units);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException("Invalid weather service response", e);
+                    }
+                });
+    }
+
+    private WeatherReport parse(JsonNode body, String location, String units) {
+        JsonNode current = body.path("current");
+        if (!current.isObject()) {
+            throw new IllegalStateException("Weather service response has no current conditions");
+        }
+        return new WeatherReport(
+                body.path("location").asText(location),
+                body.path("units").asText(units),
+                current.path("temperature").asInt(),
+                current.path("condition").asText(),
+                current.path("humidity").asInt(),
+                current.path("windSpeed").asInt(),
+                current.path("pressure").asInt(),
+                body.path("forecast").path("summary").asText(),
+                body.path("timestamp").asText(),
+                body.path("source").asText(baseUrl));
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.mcp.weather;
+
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Generates random weather in-process (mock data for demonstration).
+ */
+@Component
+public class MockWeatherProvider implements WeatherProvider {
+
+    static final String SOURCE = "Mock Weather Service";
+
+    private static final String[] CONDITIONS = {"Sunny", "Partly Cloudy", "Cloudy", "Rainy", "Snowy", "Stormy"};
+    private static final String[] FORECAST_SUMMARIES = {
+            "Clear skies expected for the next few days",
+            "Partly cloudy with occasional sunshine",
+            "Overcast conditions with light precipitation possible",
+            "Rain expected throughout the week",
+            "Cold weather with possible snow",
+            "Stormy weather pattern moving through the area"
+    };
+
+    @Override
+    public String getName() {
+        return "mock";
+    }
+
+    @Override
+    public CompletableFuture<WeatherReport> fetch(String location, String units) {
+        return CompletableFuture.completedFuture(generate(location, units, SOURCE));
+    }
+
+    static WeatherReport generate(String location, String units, String source) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int temperature = "fahrenheit".equals(units) ? 32 + random.nextInt(80) : -10 + random.nextInt(35);
+        return new WeatherReport(
+                location,
+                units,
+                temperature,
+                CONDITIONS[random.nextInt(CONDITIONS.length)],
+                30 + random.nextInt(60),
+                random.nextInt(25),
+                980 + random.nextInt(60),
+                FORECAST_SUMMARIES[random.nextInt(FORECAST_SUMMARIES.length)],
+                LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME),
+                source);
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.mcp.weather;
+
+/**
+ * The provider does not know the requested location. Unlike transient failures this answer is
+ * cached, so repeated lookups of a bad location do not reach the upstream service.
+ */
+public class UnknownLocationException extends RuntimeException {
+
+    public UnknownLocationException(String location) {
+        super("Unknown location: " + location);
+    }
+}
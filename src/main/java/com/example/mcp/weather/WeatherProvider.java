@@ -0,0 +1,21 @@
+package com.example.mcp.weather;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Source of current weather for the {@code weather} tool. Lookups are asynchronous so that a
+ * multi-location request can keep many of them in flight without a thread per location.
+ */
+public interface WeatherProvider {
+
+    /**
+     * Name used to select this provider with {@code mcp.weather.provider}.
+     */
+    String getName();
+
+    /**
+     * @param units {@code celsius} or {@code fahrenheit}
+     * @return a future completed with the report, or exceptionally if the lookup fails
+     */
+    CompletableFuture<WeatherReport> fetch(String location, String units);
+}
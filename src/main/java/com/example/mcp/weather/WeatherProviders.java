@@ -0,0 +1,45 @@
+package com.example.mcp.weather;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Selects the weather backend named by {@code mcp.weather.provider} and, unless disabled, puts
+ * the stale-while-revalidate cache in front of it.
+ */
+@Component
+public class WeatherProviders {
+
+    private static final Logger logger = LoggerFactory.getLogger(WeatherProviders.class);
+
+    private final WeatherProvider active;
+
+    @Autowired
+    public WeatherProviders(List<WeatherProvider> providers,
+                            @Value("${mcp.weather.provider:mock}") String providerName,
+                            @Value("${mcp.weather.cache.enabled:true}") boolean cacheEnabled,
+                            @Value("${mcp.weather.cache.fresh-ttl-ms:60000}") long freshTtlMillis,
+                            @Value("${mcp.weather.cache.stale-ttl-ms:300000}") long staleTtlMillis,
+                            @Value("${mcp.weather.cache.negative-ttl-ms:30000}") long negativeTtlMillis,
+                            @Value("${mcp.weather.cache.max-entries:10000}") int maxEntries,
+                            @Value("${mcp.weather.timeout-ms:5000}") long upstreamTimeoutMillis) {
+        WeatherProvider selected = providers.stream()
+                .filter(candidate -> candidate.getName().equals(providerName))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("Unknown weather provider: " + providerName));
+        this.active = cacheEnabled
+                ? new CachingWeatherProvider(selected, freshTtlMillis, staleTtlMillis, negativeTtlMillis, maxEntries,
+                        upstreamTimeoutMillis)
+                : selected;
+        logger.info("Weather provider: {} (cache {})", providerName, cacheEnabled ? "enabled" : "disabled");
+    }
+
+    public WeatherProvider getActive() {
+        return active;
+    }
+}
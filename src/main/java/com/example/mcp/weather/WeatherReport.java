@@ -0,0 +1,34 @@
+package com.example.mcp.weather;
+
+import java.util.Map;
+
+public record WeatherReport(String location,
+                            String units,
+                            int temperature,
+                            String condition,
+                            int humidity,
+                            int windSpeed,
+                            int pressure,
+                            String forecastSummary,
+                            String timestamp,
+                            String source) {
+
+    public Map<String, Object> toMap() {
+        return Map.of(
+                "location", location,
+                "units", units,
+                "current", Map.of(
+                        "temperature", temperature,
+                        "condition", condition,
+                        "humidity", humidity,
+                        "windSpeed", windSpeed,
+                        "pressure", pressure
+                ),
+                "forecast", Map.of(
+                        "summary", forecastSummary
+                ),
+                "timestamp", timestamp,
+                "source", source
+        );
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.mcp.weather;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local stand-in for a remote weather API, used by {@link HttpWeatherProvider} in development
+ * (enabled by the {@code dev} profile, never by default).
+ * Responses are delayed by a random latency to behave like a network service, without holding a
+ * request thread while waiting. Locations without any letter are answered with 404, as a real
+ * service would for a place it does not know.
+ */
+@RestController
+@ConditionalOnWebApplication
+@ConditionalOnProperty(prefix = "mcp.weather.stand-in", name = "enabled", havingValue = "true")
+public class WeatherStandInController {
+
+    private static final Logger logger = LoggerFactory.getLogger(WeatherStandInController.class);
+
+    private final long maxLatencyMillis;
+
+    public WeatherStandInController(@Value("${mcp.weather.stand-in.max-latency-ms:200}") long maxLatencyMillis) {
+        this.maxLatencyMillis = maxLatencyMillis;
+        logger.info("Weather stand-in service enabled (latency up to {} ms)", maxLatencyMillis);
+    }
+
+    @GetMapping("/stand-in/weather")
+    public CompletableFuture<Map<String, Object>> current(@RequestParam String location,
+                                                          @RequestParam(defaultValue = "celsius") String units) {
+        if (location.chars().noneMatch(Character::isLetter)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown location: " + location);
+        }
+        long latency = maxLatencyMillis > 0 ? ThreadLocalRandom.current().nextLong(maxLatencyMillis + 1) : 0;
+        return CompletableFuture.supplyAsync(
+                () -> MockWeatherProvider.generate(location, units, "Stand-in Weather Service").toMap(),
+                CompletableFuture.delayedExecutor(latency, TimeUnit.MILLISECONDS));
+    }
+}
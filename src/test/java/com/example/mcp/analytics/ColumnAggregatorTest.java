@@ -0,0 +1,147 @@
+package com.example.mcp.analytics;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ColumnAggregatorTest {
+
+    @TempDir
+    Path directory;
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+    private final ColumnAggregator aggregator = new ColumnAggregator(pool);
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void testGroupedStatisticsMatchExactValuesAcrossChunks() throws Exception {
+        Random random = new Random(11);
+        String[] regions = {"north", "south", "east"};
+        Map<String, List<Double>> latencies = new HashMap<>();
+        Map<String, Integer> missing = new HashMap<>();
+        StringBuilder content = new StringBuilder("region,latency,bytes\n");
+        int rows = 60_000;
+        for (int i = 0; i < rows; i++) {
+            String region = regions[random.nextInt(regions.length)];
+            content.append(region).append(',');
+            if (i % 100 == 0) {
+                content.append("n/a");
+                missing.merge(region, 1, Integer::sum);
+            } else {
+                double latency = Math.round(Math.exp(2 + random.nextGaussian()) * 1000) / 1000.0;
+                content.append(latency);
+                latencies.computeIfAbsent(region, k -> new ArrayList<>()).add(latency);
+            }
+            content.append(',').append(i).append('\n');
+        }
+        Path file = Files.writeString(directory.resolve("requests.csv"), content);
+
+        List<int[]> progress = new CopyOnWriteArrayList<>();
+        ColumnAggregator.Result result = aggregator.aggregate(RecordFile.open(file), List.of("latency", "bytes"),
+                "region", 10, (done, total) -> progress.add(new int[]{done, total}));
+
+        assertTrue(result.chunks() > 1, "the scan must merge partial results");
+        assertEquals(rows, result.records());
+        assertEquals(0, result.skippedLines());
+        assertEquals(result.chunks(), progress.size());
+        assertTrue(progress.stream().anyMatch(p -> p[0] == result.chunks() && p[1] == result.chunks()));
+        assertEquals(Set.of(regions), result.groups().keySet());
+
+        long bytesCount = 0;
+        for (String region : regions) {
+            ColumnAggregator.ColumnStats stats = result.groups().get(region)[0];
+            double[] exact = latencies.get(region).stream().mapToDouble(Double::doubleValue).sorted().toArray();
+            assertEquals(exact.length, stats.getCount());
+            assertEquals(missing.get(region).longValue(), stats.getMissing());
+            assertEquals(Arrays.stream(exact).sum(), stats.getSum(), 1e-6);
+            assertEquals(exact[0], stats.getMin());
+            assertEquals(exact[exact.length - 1], stats.getMax());
+            assertEquals(Arrays.stream(exact).average().orElseThrow(), stats.getMean(), 1e-9);
+            for (double q : new double[]{0.5, 0.9, 0.99}) {
+                double expected = exact[(int) (q * (exact.length - 1))];
+                assertEquals(expected, stats.getQuantile(q), expected * 0.01 + 1e-9, region + " q=" + q);
+            }
+            for (double q : new double[]{0, 1}) {
+                double estimate = stats.getQuantile(q);
+                assertTrue(estimate >= exact[0] && estimate <= exact[exact.length - 1], "clamped to [min, max]");
+            }
+            bytesCount += result.groups().get(region)[1].getCount();
+        }
+        assertEquals(rows, bytesCount);
+    }
+
+    @Test
+    void testUngroupedJsonl() throws Exception {
+        Path file = Files.writeString(directory.resolve("events.jsonl"), """
+                {"ms": 10}
+                {"ms": -5}
+                {"other": 1}
+                broken
+                {"ms": 0}
+                """);
+
+        ColumnAggregator.Result result = aggregator.aggregate(RecordFile.open(file), List.of("ms"), null, 10, null);
+
+        assertEquals(Set.of(""), result.groups().keySet());
+        ColumnAggregator.ColumnStats stats = result.groups().get("")[0];
+        assertEquals(4, result.records());
+        assertEquals(1, result.skippedLines());
+        assertEquals(3, stats.getCount());
+        assertEquals(1, stats.getMissing());
+        assertEquals(5, stats.getSum());
+        assertEquals(-5, stats.getMin());
+        assertEquals(10, stats.getMax());
+        assertEquals(0, stats.getQuantile(0.5));
+    }
+
+    @Test
+    void testEmptyColumnAndEmptyFile() throws Exception {
+        Path file = Files.writeString(directory.resolve("blank.csv"), "a,b\nx,\ny,\n");
+        ColumnAggregator.ColumnStats stats = aggregator.aggregate(RecordFile.open(file), List.of("b"), null, 10, null)
+                .groups().get("")[0];
+        assertEquals(0, stats.getCount());
+        assertEquals(2, stats.getMissing());
+        assertTrue(Double.isNaN(stats.getMin()));
+        assertTrue(Double.isNaN(stats.getMean()));
+        assertTrue(Double.isNaN(stats.getQuantile(0.5)));
+
+        Path empty = Files.writeString(directory.resolve("empty.csv"), "a,b\n");
+        ColumnAggregator.Result result = aggregator.aggregate(RecordFile.open(empty), List.of("b"), null, 10, null);
+        assertEquals(0, result.records());
+        assertTrue(result.groups().isEmpty());
+    }
+
+    @Test
+    void testTooManyGroupsAndUnknownColumn() throws Exception {
+        StringBuilder content = new StringBuilder("id,value\n");
+        for (int i = 0; i < 50; i++) {
+            content.append("key").append(i).append(",1\n");
+        }
+        RecordFile file = RecordFile.open(Files.writeString(directory.resolve("ids.csv"), content));
+
+        IllegalArgumentException tooMany = assertThrows(IllegalArgumentException.class,
+                () -> aggregator.aggregate(file, List.of("value"), "id", 20, null));
+        assertEquals("Group-by column has more than 20 distinct values", tooMany.getMessage());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> aggregator.aggregate(file, List.of("nope"), null, 20, null));
+    }
+}
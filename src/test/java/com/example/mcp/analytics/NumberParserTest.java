@@ -0,0 +1,71 @@
+package com.example.mcp.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NumberParserTest {
+
+    @Test
+    void testPlainDecimals() {
+        assertEquals(12.5, parse(" 12.5 "));
+        assertEquals(-0.001, parse("-0.001"));
+        assertEquals(7, parse("+7"));
+        assertEquals(0, parse("0"));
+        assertEquals(0.1, parse("0.1"));
+        assertEquals(5, parse("5."));
+        assertEquals(0.5, parse(".5"));
+        assertEquals(123456789012345.0, parse("123456789012345"));
+    }
+
+    @Test
+    void testFastPathRoundsLikeParseDouble() {
+        Random random = new Random(3);
+        for (int i = 0; i < 100_000; i++) {
+            long mantissa = random.nextLong(1_000_000_000_000_000L);
+            int fraction = random.nextInt(16);
+            String text = String.valueOf(mantissa);
+            if (fraction > 0) {
+                text = "0".repeat(Math.max(0, fraction - text.length() + 1)) + text;
+                text = text.substring(0, text.length() - fraction) + "." + text.substring(text.length() - fraction);
+            }
+            assertEquals(Double.parseDouble(text), parse(text), text);
+        }
+    }
+
+    @Test
+    void testFallsBackForExponentsAndLongMantissas() {
+        assertEquals(1000, parse("1e3"));
+        assertEquals(-2.5e-7, parse("-2.5E-7"));
+        assertEquals(Double.parseDouble("12345678901234567890"), parse("12345678901234567890"));
+        assertEquals(Double.parseDouble("0.12345678901234567890"), parse("0.12345678901234567890"));
+    }
+
+    @Test
+    void testNonNumbersAreNaN() {
+        for (String text : new String[]{"", "   ", "-", ".", "abc", "12abc", "1.2.3", "1,5", "NaN", "Infinity",
+                "-Infinity", "0x10", "1.5f", "2d", "1e400"}) {
+            assertTrue(Double.isNaN(parse(text)), text);
+        }
+        assertTrue(Double.isNaN(NumberParser.parse((String) null)));
+    }
+
+    @Test
+    void testParsesOnlyTheGivenRange() {
+        ByteBuffer buffer = ByteBuffer.wrap("a,42,b".getBytes(StandardCharsets.US_ASCII));
+        assertEquals(42, NumberParser.parse(buffer, 2, 4));
+        assertTrue(Double.isNaN(NumberParser.parse(buffer, 1, 1)));
+    }
+
+    private static double parse(String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.US_ASCII);
+        double fromBytes = NumberParser.parse(ByteBuffer.wrap(bytes), 0, bytes.length);
+        double fromString = NumberParser.parse(text);
+        assertEquals(fromString, fromBytes, "bytes and text disagree on '" + text + "'");
+        return fromBytes;
+    }
+}
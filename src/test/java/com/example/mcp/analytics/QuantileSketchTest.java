@@ -0,0 +1,126 @@
+package com.example.mcp.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuantileSketchTest {
+
+    private static final double[] QUANTILES = {0, 0.001, 0.01, 0.1, 0.25, 0.5, 0.75, 0.9, 0.99, 0.999, 1};
+    // The sketch promises 1%; leave room for floating point in the bucket boundaries
+    private static final double RELATIVE_ERROR = 0.01 + 1e-9;
+
+    @Test
+    void testRelativeErrorAgainstExactQuantiles() {
+        // Log-normal latencies spanning several orders of magnitude, added in random order
+        Random random = new Random(42);
+        double[] values = new double[100_000];
+        QuantileSketch sketch = new QuantileSketch();
+        for (int i = 0; i < values.length; i++) {
+            values[i] = Math.exp(3 + 2 * random.nextGaussian());
+            sketch.add(values[i]);
+        }
+
+        assertEquals(values.length, sketch.getCount());
+        assertWithinRelativeError(values, sketch);
+    }
+
+    @Test
+    void testNegativeAndZeroValues() {
+        double[] values = new double[2001];
+        QuantileSketch sketch = new QuantileSketch();
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i - 1000;
+            sketch.add(values[i]);
+        }
+        sketch.add(Double.MIN_VALUE); // too small to index, counted as zero
+        sketch.add(-0.0);
+
+        assertEquals(2003, sketch.getCount());
+        assertEquals(0, sketch.quantile(0.5));
+        assertEquals(-1000, sketch.quantile(0), 10);
+        assertEquals(1000, sketch.quantile(1), 10);
+
+        QuantileSketch negatives = new QuantileSketch();
+        double[] negativeValues = Arrays.stream(values).filter(v -> v < 0).toArray();
+        Arrays.stream(negativeValues).forEach(negatives::add);
+        assertWithinRelativeError(negativeValues, negatives);
+        assertTrue(negatives.quantile(0) < negatives.quantile(1), "ascending order runs from the largest magnitude");
+    }
+
+    @Test
+    void testGrowsInBothDirectionsWithoutLosingAccuracy() {
+        // The first value sits in the middle of the initial buckets; the rest push the range
+        // far above and below it, about 1150 buckets in total
+        QuantileSketch sketch = new QuantileSketch();
+        double[] values = new double[11];
+        values[0] = 1;
+        sketch.add(1);
+        for (int i = 1; i <= 5; i++) {
+            values[2 * i - 1] = Math.pow(10, i);
+            values[2 * i] = Math.pow(10, -i);
+            sketch.add(values[2 * i - 1]);
+            sketch.add(values[2 * i]);
+        }
+        assertWithinRelativeError(values, sketch);
+    }
+
+    @Test
+    void testRangeBeyondTheBucketLimitFoldsTheSmallestValues() {
+        QuantileSketch sketch = new QuantileSketch();
+        sketch.add(1e-10);
+        sketch.add(1e-9);
+        for (int i = 0; i < 98; i++) {
+            sketch.add(1e10);
+        }
+
+        assertEquals(100, sketch.getCount());
+        assertEquals(1e10, sketch.quantile(0.5), 1e10 * RELATIVE_ERROR);
+        // Both small values now share the lowest remaining bucket, well above either of them
+        assertTrue(sketch.quantile(0) > 1e-9);
+        assertEquals(sketch.quantile(0), sketch.quantile(0.01));
+        assertTrue(sketch.quantile(0) < 1e10);
+    }
+
+    @Test
+    void testMergeEqualsSketchOfCombinedInput() {
+        Random random = new Random(7);
+        QuantileSketch whole = new QuantileSketch();
+        QuantileSketch left = new QuantileSketch();
+        QuantileSketch right = new QuantileSketch();
+        for (int i = 0; i < 10_000; i++) {
+            double value = random.nextGaussian() * 1000;
+            whole.add(value);
+            (i % 2 == 0 ? left : right).add(value);
+        }
+        left.merge(right);
+
+        assertEquals(whole.getCount(), left.getCount());
+        for (double q : QUANTILES) {
+            assertEquals(whole.quantile(q), left.quantile(q), "q=" + q);
+        }
+    }
+
+    @Test
+    void testEmptySketch() {
+        QuantileSketch sketch = new QuantileSketch();
+        assertEquals(0, sketch.getCount());
+        assertTrue(Double.isNaN(sketch.quantile(0.5)));
+
+        sketch.merge(new QuantileSketch());
+        assertEquals(0, sketch.getCount());
+    }
+
+    private static void assertWithinRelativeError(double[] values, QuantileSketch sketch) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        for (double q : QUANTILES) {
+            double exact = sorted[(int) (q * (sorted.length - 1))];
+            double estimate = sketch.quantile(q);
+            assertEquals(exact, estimate, Math.abs(exact) * RELATIVE_ERROR, "q=" + q);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.mcp.analytics;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecordFileTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testCsvWithBomQuotesAndCrlf() throws Exception {
+        Path file = write("sales.csv", "\uFEFFregion,\"unit price\",qty\r\n"
+                + "north,\"1,5\",3\r\n"
+                + "\"south \"\"east\"\"\", 2.25 ,\"4\"\r\n"
+                + "\r\n"
+                + "west,,\r\n"
+                + "short\r\n");
+        RecordFile records = RecordFile.open(file);
+        assertEquals(RecordFile.Format.CSV, records.getFormat());
+        assertEquals(List.of("region", "unit price", "qty"), records.getHeader());
+
+        List<String> rows = read(records, List.of("region", "unit price", "2"));
+        assertEquals(List.of(
+                "north|NaN|3.0",
+                "south \"east\"|2.25|4.0",
+                "west|NaN|NaN",
+                "short|NaN|NaN"), rows);
+    }
+
+    @Test
+    void testTsvAndMissingTrailingNewline() throws Exception {
+        Path file = write("data.tab", "name\tvalue\na\t1\nb\t-2.5");
+        RecordFile records = RecordFile.open(file);
+        assertEquals(RecordFile.Format.TSV, records.getFormat());
+        assertEquals(List.of("a|1.0", "b|-2.5"), read(records, List.of("name", "value")));
+        assertArrayEquals(new double[]{1, -2.5}, records.readNumbers("value", 10));
+    }
+
+    @Test
+    void testJsonlSelectsTopLevelFieldsAndSkipsBadLines() throws Exception {
+        Path file = write("events.jsonl", """
+                {"user": "ann", "ms": 12, "tags": {"ms": 99}}
+                {"ms": "7.5", "user": null, "extra": [1, 2]}
+                not json
+                [1, 2, 3]
+
+                {"user": "bob", "ms": true}
+                """);
+        RecordFile records = RecordFile.open(file);
+        assertEquals(RecordFile.Format.JSONL, records.getFormat());
+        assertEquals(List.of(), records.getHeader());
+
+        RecordFile.Selection selection = records.select(List.of("user", "ms", "user"));
+        List<String> rows = new ArrayList<>();
+        long skipped = 0;
+        for (RecordFile.Chunk chunk : records.chunks(1)) {
+            skipped += selection.forEach(chunk, record -> rows.add(
+                    record.text(0) + "|" + record.number(1) + "|" + record.text(1) + "|" + record.text(2)));
+        }
+        assertEquals(List.of("ann|12.0|12|ann", "null|7.5|7.5|null", "bob|NaN|true|bob"), rows);
+        assertEquals(2, skipped);
+    }
+
+    @Test
+    void testChunksAreLineAlignedAndCoverEveryRecord() throws Exception {
+        StringBuilder content = new StringBuilder("id,value\n");
+        int lines = 50_000;
+        for (int i = 0; i < lines; i++) {
+            content.append(i).append(',').append(i * 0.5).append('\n');
+        }
+        Path file = write("big.csv", content.toString());
+        RecordFile records = RecordFile.open(file);
+
+        List<RecordFile.Chunk> chunks = records.chunks(8);
+        assertTrue(chunks.size() > 1, "the file is larger than the minimum chunk size");
+        assertEquals("id,value\n".length(), chunks.get(0).start());
+        assertEquals(Files.size(file), chunks.get(chunks.size() - 1).end());
+        byte[] bytes = Files.readAllBytes(file);
+        for (int i = 1; i < chunks.size(); i++) {
+            assertEquals(chunks.get(i - 1).end(), chunks.get(i).start());
+            assertEquals('\n', bytes[(int) chunks.get(i).start() - 1]);
+        }
+
+        double[] values = records.readNumbers("value", lines);
+        assertEquals(lines, values.length);
+        for (int i = 0; i < lines; i++) {
+            assertEquals(i * 0.5, values[i]);
+        }
+    }
+
+    @Test
+    void testErrors() throws Exception {
+        assertThrows(IllegalArgumentException.class, () -> RecordFile.Format.of(Path.of("notes.txt")));
+
+        RecordFile records = RecordFile.open(write("a.csv", "x,y\n1,oops\n2,3\n"));
+        IllegalArgumentException unknown = assertThrows(IllegalArgumentException.class,
+                () -> records.select(List.of("z")));
+        assertEquals("Unknown column 'z' in a.csv; available columns: [x, y]", unknown.getMessage());
+
+        IllegalArgumentException nonNumeric = assertThrows(IllegalArgumentException.class,
+                () -> records.readNumbers("y", 10));
+        assertEquals("Non-numeric value 'oops' in column 'y' at row 1 of a.csv", nonNumeric.getMessage());
+
+        IllegalArgumentException tooMany = assertThrows(IllegalArgumentException.class,
+                () -> records.readNumbers("x", 1));
+        assertEquals("Column 'x' has more than 1 rows", tooMany.getMessage());
+
+        assertEquals(List.of(), RecordFile.open(write("empty.csv", "x,y\n")).chunks(4));
+    }
+
+    private static List<String> read(RecordFile records, List<String> columns) throws IOException {
+        RecordFile.Selection selection = records.select(columns);
+        List<String> rows = new ArrayList<>();
+        for (RecordFile.Chunk chunk : records.chunks(4)) {
+            selection.forEach(chunk, record -> {
+                List<String> fields = new ArrayList<>();
+                fields.add(record.text(0));
+                for (int i = 1; i < columns.size(); i++) {
+                    fields.add(String.valueOf(record.number(i)));
+                }
+                rows.add(String.join("|", fields));
+            });
+        }
+        return rows;
+    }
+
+    private Path write(String name, String content) throws IOException {
+        return Files.writeString(directory.resolve(name), content, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.mcp.expression;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExpressionParserTest {
+
+    private static final double DELTA = 1e-12;
+
+    @Test
+    void testPrecedenceAndAssociativity() {
+        assertEquals(14, eval("2 + 3 * 4"));
+        assertEquals(20, eval("(2 + 3) * 4"));
+        assertEquals(3, eval("10 - 4 - 3"), "subtraction is left-associative");
+        assertEquals(1, eval("8 / 4 / 2"), "division is left-associative");
+        assertEquals(1, eval("7 % 3"));
+        assertEquals(512, eval("2 ^ 3 ^ 2"), "power is right-associative");
+        assertEquals(512, eval("2 ** 3 ** 2"));
+        assertEquals(24, eval("2 * 3 ** 2 + 6"), "** is power, not two multiplications");
+        assertEquals(-4, eval("-2 ^ 2"), "unary minus binds looser than power");
+        assertEquals(4, eval("(-2) ^ 2"));
+        assertEquals(0.5, eval("2 ^ -1"));
+        assertEquals(3, eval("--3"));
+        assertEquals(-6, eval("2 * -3"));
+        assertEquals(1, eval("1 + 1 == 2"));
+        assertEquals(0, eval("2 * 3 < 5"));
+        assertEquals(1, eval("3 >= 3"));
+        assertEquals(1, eval("1.5e3 != 1500.1"));
+        assertEquals(0.25, eval(".25"));
+    }
+
+    @Test
+    void testFunctionsAndConstants() {
+        assertEquals(3, eval("sqrt(9)"));
+        assertEquals(Math.PI, eval("pi"), DELTA);
+        assertEquals(2 * Math.PI, eval("tau"), DELTA);
+        assertEquals(1, eval("sin(pi / 2)"), DELTA);
+        assertEquals(10, eval("log2(1024)"), DELTA);
+        assertEquals(5, eval("hypot(3, 4)"));
+        assertEquals(8, eval("pow(2, 3)"));
+        assertEquals(1, eval("mod(7, 3)"));
+        assertEquals(-1, eval("min(3, -1, 2)"));
+        assertEquals(3, eval("max(3, -1, 2)"));
+        assertEquals(0, eval("sum()"));
+        assertEquals(2, eval("avg(1, 2, 3)"));
+        assertEquals(3, eval("round(2.5)"));
+        assertEquals(10, eval("if(1 < 2, 10, 20)"));
+    }
+
+    @Test
+    void testVariablesAreBoundInOrderOfFirstAppearance() {
+        CompiledExpression expression = new ExpressionCompiler().compile("rate * hours + rate / 2 - bonus");
+        assertEquals(List.of("rate", "hours", "bonus"), expression.getVariables());
+        assertFalse(expression.isConstant());
+
+        assertEquals(41, expression.evaluate(10, 4, 4));
+        assertEquals(41, expression.evaluate(Map.of("bonus", 4, "hours", 4, "rate", 10.0)));
+        assertEquals(0, expression.evaluate(0, 0, 0));
+
+        assertThrows(IllegalArgumentException.class, () -> expression.evaluate(1, 2));
+        IllegalArgumentException missing = assertThrows(IllegalArgumentException.class,
+                () -> expression.evaluate(Map.of("rate", 1, "hours", 2)));
+        assertEquals("Missing value for variable: bonus", missing.getMessage());
+    }
+
+    @Test
+    void testIfEvaluatesOnlyTheSelectedBranch() {
+        CompiledExpression expression = new ExpressionCompiler().compile("if(x == 0, 0, 1 / x)");
+        assertEquals(0, expression.evaluate(0));
+        assertEquals(0.25, expression.evaluate(4));
+    }
+
+    @Test
+    void testConstantSubExpressionsAreFolded() {
+        ExpressionCompiler compiler = new ExpressionCompiler();
+        assertTrue(compiler.compile("2 * pi + sqrt(16) - max(1, 2)").isConstant());
+        assertTrue(compiler.compile("if(1, 5, 6)").isConstant());
+        assertFalse(compiler.compile("x * 0").isConstant());
+        assertEquals(7, compiler.compile("3 + 4").evaluate());
+    }
+
+    @Test
+    void testCacheReusesCompiledExpressionsAndEvictsLeastRecentlyUsed() {
+        ExpressionCompiler compiler = new ExpressionCompiler(2);
+        CompiledExpression first = compiler.compile("x + 1");
+        assertSame(first, compiler.compile("  x + 1 "), "keys ignore surrounding whitespace");
+        CompiledExpression second = compiler.compile("y * 2");
+        compiler.compile("x + 1");
+        compiler.compile("z - 3"); // evicts "y * 2", the least recently used
+
+        assertSame(first, compiler.compile("x + 1"));
+        assertNotSame(second, compiler.compile("y * 2"));
+
+        Map<String, Object> stats = compiler.getStats();
+        assertEquals(2, stats.get("size"));
+        assertEquals(3L, stats.get("hits"));
+        assertEquals(4L, stats.get("misses"));
+    }
+
+    @Test
+    void testErrorsReportPosition() {
+        assertError("1 +", "Unexpected end of expression at position 3 in expression: 1 +");
+        assertError("(1 + 2", "Expected ')' at end of expression at position 6");
+        assertError("max(1; 2)", "Expected ')' but found ';' at position 5");
+        assertError("1 2", "Unexpected '2' at position 2");
+        assertError("2 * #", "Unexpected '#' at position 4");
+        assertError("1..2", "Invalid number '1..2' at position 4");
+        assertError("foo(1)", "Unknown function: foo at position 6");
+        assertError("sqrt(1, 2)", "sqrt() takes 1 argument(s), got 2");
+        assertError("hypot(1)", "hypot() takes 2 argument(s), got 1");
+        assertError("min()", "min() takes at least 1 argument(s), got 0");
+        assertError("(".repeat(300) + "1" + ")".repeat(300), "Expression nested too deeply");
+        assertError("-".repeat(300) + "1", "Expression nested too deeply");
+
+        IllegalArgumentException tooLong = assertThrows(IllegalArgumentException.class,
+                () -> new ExpressionCompiler().compile("1+".repeat(ExpressionParser.MAX_LENGTH) + "1"));
+        assertEquals("Expression longer than " + ExpressionParser.MAX_LENGTH + " characters", tooLong.getMessage());
+    }
+
+    private static double eval(String expression) {
+        CompiledExpression compiled = new ExpressionCompiler().compile(expression);
+        assertTrue(compiled.getVariables().isEmpty());
+        return compiled.evaluate();
+    }
+
+    private static void assertError(String expression, String message) {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> new ExpressionCompiler().compile(expression), expression);
+        assertTrue(e.getMessage().contains(message), e.getMessage());
+    }
+}
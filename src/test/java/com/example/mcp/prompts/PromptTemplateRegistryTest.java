@@ -0,0 +1,91 @@
+package com.example.mcp.prompts;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PromptTemplateRegistryTest {
+
+    @TempDir
+    Path root;
+
+    private PromptTemplateRegistry registry;
+
+    @AfterEach
+    void tearDown() {
+        if (registry != null) {
+            registry.shutdown();
+        }
+    }
+
+    @Test
+    void testMissingDirectoryIsCreatedAndWatched() throws Exception {
+        Path directory = root.resolve("prompts");
+        registry = new PromptTemplateRegistry(directory.toString(), true, null);
+        registry.start();
+
+        assertTrue(Files.isDirectory(directory));
+        assertNotNull(registry.getPrompt("code_review"), "bundled prompts are still served");
+        assertNull(registry.getPrompt("greet"));
+
+        Files.writeString(directory.resolve("greet.prompt"), "Hello {{who}}");
+        await(() -> registry.getPrompt("greet") != null);
+        assertEquals("Hello {{who}}", source("greet"));
+    }
+
+    @Test
+    void testBadReloadKeepsTheLastGoodVersion() throws Exception {
+        registry = new PromptTemplateRegistry(root.toString(), false, null);
+        Files.writeString(root.resolve("greet.prompt"), "Hello {{who}}");
+        registry.start();
+        TemplatePromptProvider good = registry.getPrompt("greet");
+        assertEquals("Hello {{who}}", source("greet"));
+
+        Files.writeString(root.resolve("greet.prompt"), "Hello {{who");
+        Files.writeString(root.resolve("broken.prompt"), "{{#open}}");
+        registry.reload();
+        assertSame(good, registry.getPrompt("greet"));
+        assertNull(registry.getPrompt("broken"), "a file that never compiled is not served");
+
+        Files.writeString(root.resolve("greet.prompt"), "Hi {{who}}!");
+        registry.reload();
+        assertEquals("Hi {{who}}!", source("greet"));
+
+        Files.delete(root.resolve("greet.prompt"));
+        registry.reload();
+        assertNull(registry.getPrompt("greet"));
+    }
+
+    @Test
+    void testDirectoryOverridesBundledPrompt() throws Exception {
+        registry = new PromptTemplateRegistry(root.toString(), false, null);
+        registry.start();
+        String bundled = source("code_review");
+
+        Files.writeString(root.resolve("code_review.prompt"), "Review {{language}}");
+        registry.reload();
+        assertEquals("Review {{language}}", source("code_review"));
+
+        Files.delete(root.resolve("code_review.prompt"));
+        registry.reload();
+        assertEquals(bundled, source("code_review"));
+    }
+
+    private String source(String name) {
+        return registry.getPrompt(name).getDefinition().template().getSource();
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "condition not met in time");
+            Thread.sleep(20);
+        }
+    }
+}
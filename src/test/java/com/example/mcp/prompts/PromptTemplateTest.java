@@ -0,0 +1,123 @@
+package com.example.mcp.prompts;
+
+import com.example.mcp.prompts.PromptTemplate.Embed;
+import com.example.mcp.prompts.PromptTemplate.Text;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PromptTemplateTest {
+
+    @Test
+    void testVariablesFiltersAndMissingValues() {
+        PromptTemplate template = PromptTemplate.compile("Hello {{name|humanize}}, {{user.role | trim | upper}}!{{missing}}");
+
+        assertEquals(List.of("name", "user", "missing"), List.copyOf(template.getVariables()));
+        assertEquals("Hello Jane doe, ADMIN!",
+                template.render(Map.of("name", "jane_doe", "user", Map.of("role", " admin "))));
+        assertEquals("Hello , !", template.render(Map.of()));
+        assertEquals("Hello , !", template.render(Map.of("user", "not a map")));
+    }
+
+    @Test
+    void testSectionsAndStandaloneLines() {
+        PromptTemplate template = PromptTemplate.compile("""
+                Focus:
+                {{#areas}}
+                - {{.|humanize}}
+                {{/areas}}
+                {{^areas}}
+                Everything
+                {{/areas}}
+                {{! not rendered }}
+                Done""");
+
+        assertEquals("Focus:\n- Code quality\n- Security\nDone",
+                template.render(Map.of("areas", List.of("code_quality", "security"))));
+        assertEquals("Focus:\nEverything\nDone", template.render(Map.of("areas", List.of())));
+        assertEquals("Focus:\nEverything\nDone", template.render(Map.of()));
+
+        PromptTemplate scoped = PromptTemplate.compile("{{#items}}{{label}}@{{site}};{{/items}}{{#verbose}} ({{site}}){{/verbose}}");
+        Map<String, Object> context = new HashMap<>();
+        context.put("items", List.of(Map.of("label", "a"), Map.of("label", "b", "site", "y")));
+        context.put("site", "x");
+        assertEquals("a@x;b@y;", scoped.render(context));
+        context.put("verbose", true);
+        assertEquals("a@x;b@y; (x)", scoped.render(context));
+        assertEquals(List.of("items", "verbose"), List.copyOf(scoped.getVariables()),
+                "names inside a section are not top-level inputs");
+    }
+
+    @Test
+    void testValuesAreInsertedVerbatim() {
+        PromptTemplate template = PromptTemplate.compile("<b>{{value}}</b> {{list}}");
+
+        // Prompts are plain text: no HTML escaping, and template syntax inside a value is not expanded
+        assertEquals("<b>a & \"b\" <i>{{secret}}</i></b> 1, 2",
+                template.render(Map.of("value", "a & \"b\" <i>{{secret}}</i>", "secret", "leaked", "list", List.of(1, 2))));
+        assertEquals("single { and } braces stay", PromptTemplate.compile("single { and } braces stay").render(Map.of()));
+    }
+
+    @Test
+    void testMalformedTemplatesReportTheirPosition() {
+        assertCompileError("Hi {{name", "Unclosed tag at line 1, column 4");
+        assertCompileError("a\n{{#s}}x{{/t}}", "Closing tag 't' does not match open section 's' at line 2, column 8");
+        assertCompileError("x {{/s}}", "Unexpected closing tag 's' at line 1, column 3");
+        assertCompileError("{{#s}}open", "Unclosed section 's' at line 1, column 1");
+        assertCompileError("{{name|shout}}", "Unknown filter 'shout' at line 1, column 1");
+        assertCompileError("{{ }}", "Empty tag at line 1, column 1");
+        assertCompileError("{{a..b}}", "Invalid name 'a..b' at line 1, column 1");
+    }
+
+    @Test
+    void testEmbedsSplitTheOutput() {
+        PromptTemplate template = PromptTemplate.compile("Before\n{{@\"config://server\"}}\nAfter {{@file}}{{#more}}{{@more}}{{/more}}");
+
+        assertTrue(template.hasEmbeds());
+        assertEquals(List.of(new Text("Before\n"), new Embed("config://server"), new Text("After "), new Embed("file://a")),
+                template.renderParts(Map.of("file", "file://a")));
+        assertEquals(List.of(new Text("Before\n"), new Embed("config://server"), new Text("After ")),
+                template.renderParts(Map.of()));
+        assertFalse(PromptTemplate.compile("{{a}}").hasEmbeds());
+    }
+
+    @Test
+    void testMissingRequiredArgumentsAreRejected() throws Exception {
+        PromptDefinition definition = PromptDefinition.parse("greet", """
+                ---
+                {
+                  "arguments": [
+                    {"name": "who", "required": true, "type": "string"},
+                    {"name": "tone", "type": "string", "default": "warm"}
+                  ]
+                }
+                ---
+                Hello {{who}}, {{tone}} regards
+                """);
+        TemplatePromptProvider provider = new TemplatePromptProvider(definition, null);
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        Map<?, ?> result = (Map<?, ?>) provider.getPrompt(objectMapper.readTree("{\"who\":\"Ann\"}")).get();
+        assertEquals(Map.of("who", "Ann", "tone", "warm"), result.get("arguments"));
+        Map<?, ?> content = (Map<?, ?>) ((Map<?, ?>) ((List<?>) result.get("messages")).get(0)).get("content");
+        assertEquals("Hello Ann, warm regards", content.get("text"));
+
+        for (String arguments : new String[]{"{}", "{\"who\":null}", "{\"tone\":\"cold\"}"}) {
+            ExecutionException e = assertThrows(ExecutionException.class,
+                    () -> provider.getPrompt(objectMapper.readTree(arguments)).get());
+            assertTrue(e.getCause().getMessage().contains("Required argument 'who' is missing"), e.getCause().getMessage());
+        }
+        assertThrows(ExecutionException.class, () -> provider.getPrompt(null).get());
+    }
+
+    private static void assertCompileError(String source, String message) {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> PromptTemplate.compile(source));
+        assertEquals(message, e.getMessage());
+    }
+}
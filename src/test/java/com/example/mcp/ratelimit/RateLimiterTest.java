@@ -0,0 +1,164 @@
+package com.example.mcp.ratelimit;
+
+import com.example.mcp.config.McpServerConfig.RateLimitConfig;
+import com.example.mcp.config.McpServerConfig.RateLimitConfig.Limit;
+import com.example.mcp.server.McpError;
+import com.example.mcp.server.McpMessage;
+import com.example.mcp.server.McpServerImpl;
+import com.example.mcp.session.SessionStore;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimiterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicLong nanos = new AtomicLong(1_000_000_000L);
+    private RateLimitConfig config;
+
+    @BeforeEach
+    void setUp() {
+        config = new RateLimitConfig();
+        config.setClient(new Limit(10, 5));
+        config.setMaintenanceIntervalMs(0);
+    }
+
+    @Test
+    void testBurstThenSustainedRate() {
+        RateLimiter limiter = new RateLimiter(config, nanos::get);
+
+        for (int i = 0; i < 5; i++) {
+            assertNull(limiter.check("a", "ping", null));
+        }
+        McpError error = limiter.check("a", "ping", null);
+        assertNotNull(error);
+        assertEquals(McpError.RATE_LIMITED, error.getCode());
+        assertEquals(Map.of("scope", "client", "retryAfterMs", 100L), error.getData());
+
+        // Another client has its own bucket, and one without an id is not limited per client
+        assertNull(limiter.check("b", "ping", null));
+        assertNull(limiter.check(null, "ping", null));
+
+        nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+        assertNull(limiter.check("a", "ping", null));
+        assertNotNull(limiter.check("a", "ping", null));
+    }
+
+    @Test
+    void testToolLimitsApplyAcrossClients() throws Exception {
+        config.setClient(new Limit(0, 0));
+        config.setTools(Map.of("grep", new Limit(1, 2)));
+        RateLimiter limiter = new RateLimiter(config, nanos::get);
+        JsonNode grep = objectMapper.readTree("{\"name\": \"grep\"}");
+        JsonNode calculator = objectMapper.readTree("{\"name\": \"calculator\"}");
+
+        assertNull(limiter.check("a", "tools/call", grep));
+        assertNull(limiter.check("b", "tools/call", grep));
+        McpError error = limiter.check("c", "tools/call", grep);
+        assertNotNull(error);
+        assertEquals(Map.of("scope", "tool", "tool", "grep", "retryAfterMs", 1000L), error.getData());
+
+        for (int i = 0; i < 100; i++) {
+            assertNull(limiter.check("a", "tools/call", calculator));
+        }
+    }
+
+    @Test
+    void testToolRefusalGivesTheClientTokenBack() throws Exception {
+        config.setClient(new Limit(1, 2));
+        config.setTools(Map.of("grep", new Limit(1, 1)));
+        RateLimiter limiter = new RateLimiter(config, nanos::get);
+        JsonNode grep = objectMapper.readTree("{\"name\": \"grep\"}");
+
+        assertNull(limiter.check("a", "tools/call", grep));
+        for (int i = 0; i < 10; i++) {
+            McpError error = limiter.check("a", "tools/call", grep);
+            assertEquals(Map.of("scope", "tool", "tool", "grep", "retryAfterMs", 1000L), error.getData());
+        }
+
+        // Only the permitted call counted against the client
+        assertNull(limiter.check("a", "ping", null));
+        assertNotNull(limiter.check("a", "ping", null));
+    }
+
+    @Test
+    void testConcurrentCallersNeverExceedTheBurst() throws Exception {
+        config.setClient(new Limit(1, 1000));
+        RateLimiter limiter = new RateLimiter(config, nanos::get);
+        AtomicInteger permitted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < 500; i++) {
+                    if (limiter.check("shared", "ping", null) == null) {
+                        permitted.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(1000, permitted.get());
+    }
+
+    @Test
+    void testIdleBucketsAreDroppedAndKeysMasked() {
+        config.setMaxMetricKeys(2);
+        RateLimiter limiter = new RateLimiter(config, nanos::get);
+        String apiKey = RateLimiter.clientId("sk-0123456789", "ignored", "10.0.0.1");
+        assertEquals("session:s1", RateLimiter.clientId(null, "s1", "10.0.0.1"));
+        assertEquals("ip:10.0.0.1", RateLimiter.clientId(" ", null, "10.0.0.1"));
+
+        for (String client : List.of(apiKey, "ip:10.0.0.2", "ip:10.0.0.3")) {
+            for (int i = 0; i < 6; i++) {
+                limiter.check(client, "ping", null);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        Map<String, Long> rejected = (Map<String, Long>) limiter.getStats().get("rejected");
+        assertEquals(Map.of("client:key:sk-0****", 1L, "client:ip:10.0.0.2", 1L, "client:other", 1L), rejected);
+        assertEquals(3, limiter.getStats().get("clients"));
+
+        nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(400));
+        limiter.check("ip:10.0.0.2", "ping", null);
+        nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(150));
+        limiter.cleanUp();
+        assertEquals(1, limiter.getStats().get("clients"));
+    }
+
+    @Test
+    void testServerAnswersWithRateLimitedError() throws Exception {
+        config.setClient(new Limit(1, 1));
+        McpServerImpl server = new McpServerImpl(objectMapper, new SessionStore(), new RateLimiter(config, nanos::get));
+        McpMessage ping = McpMessage.createRequest(1, "ping", objectMapper.createObjectNode());
+
+        assertTrue(server.processMessage(ping, "s1").get().isSuccessResponse());
+        McpMessage response = server.processMessage(ping, "s1").get();
+
+        assertTrue(response.isErrorResponse());
+        assertEquals(McpError.RATE_LIMITED, response.getError().getCode());
+        assertTrue(server.processMessage(ping, "s2").get().isSuccessResponse());
+    }
+}
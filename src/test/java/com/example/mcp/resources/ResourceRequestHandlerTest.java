@@ -0,0 +1,118 @@
+package com.example.mcp.resources;
+
+import com.example.mcp.storage.ContentHashCache;
+import com.example.mcp.storage.FileMetadataCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResourceRequestHandlerTest {
+
+    private static final String FILE_URI = "file://data/notes.txt";
+    private static final String NOTE_URI = "note://today";
+
+    @TempDir
+    Path data;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final CountingNoteProvider notes = new CountingNoteProvider();
+    private ResourceRequestHandler handler;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Files.writeString(data.resolve("notes.txt"), "v1");
+        FileResourceProvider files = new FileResourceProvider(new FileMetadataCache(data), new ContentHashCache());
+        ReflectionTestUtils.setField(files, "basePath", data.toString());
+        ReflectionTestUtils.setField(files, "maxInlineSize", 1 << 20);
+        handler = new ResourceRequestHandler(List.of(files, notes), objectMapper);
+    }
+
+    @Test
+    void testFileReadCarriesTheContentHash() throws Exception {
+        Map<String, Object> first = read(FILE_URI, null);
+        assertEquals(ContentHashCache.etag("v1"), first.get("etag"));
+        assertEquals(1, ((List<?>) first.get("contents")).size());
+
+        Map<String, Object> unchanged = read(FILE_URI, (String) first.get("etag"));
+        assertEquals(Boolean.TRUE, unchanged.get("notModified"));
+        assertEquals(List.of(), unchanged.get("contents"));
+        assertEquals(first.get("etag"), unchanged.get("etag"));
+
+        Files.writeString(data.resolve("notes.txt"), "v2");
+        Map<String, Object> changed = read(FILE_URI, (String) first.get("etag"));
+        assertNull(changed.get("notModified"));
+        assertEquals(ContentHashCache.etag("v2"), changed.get("etag"));
+    }
+
+    @Test
+    void testIfNoneMatchComparesWeakly() throws Exception {
+        String etag = ContentHashCache.etag("v1");
+        assertEquals(Boolean.TRUE, read(FILE_URI, "W/" + etag).get("notModified"));
+        assertEquals(Boolean.TRUE, read(FILE_URI, "\"other\", " + etag).get("notModified"));
+        assertEquals(Boolean.TRUE, read(FILE_URI, "*").get("notModified"));
+        assertNull(read(FILE_URI, "\"other\"").get("notModified"));
+    }
+
+    @Test
+    void testProviderWithoutTagIsHashedAfterReading() throws Exception {
+        Map<String, Object> first = read(NOTE_URI, null);
+        assertEquals(ContentHashCache.etag("buy milk"), first.get("etag"));
+        assertEquals(1, notes.reads.get());
+
+        // The provider cannot tell its tag up front, so the content is still read, but not returned
+        Map<String, Object> unchanged = read(NOTE_URI, (String) first.get("etag"));
+        assertEquals(Boolean.TRUE, unchanged.get("notModified"));
+        assertEquals(List.of(), unchanged.get("contents"));
+        assertEquals(2, notes.reads.get());
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> read(String uri, String ifNoneMatch) throws Exception {
+        ObjectNode params = objectMapper.createObjectNode().put("uri", uri);
+        if (ifNoneMatch != null) {
+            params.put("ifNoneMatch", ifNoneMatch);
+        }
+        return (Map<String, Object>) handler.read(params).get();
+    }
+
+    private static final class CountingNoteProvider extends AbstractResourceProvider {
+        final AtomicInteger reads = new AtomicInteger();
+
+        @Override
+        public String getUri() {
+            return NOTE_URI;
+        }
+
+        @Override
+        public String getName() {
+            return "note";
+        }
+
+        @Override
+        public String getDescription() {
+            return "Today's note";
+        }
+
+        @Override
+        public String getMimeType() {
+            return "text/plain";
+        }
+
+        @Override
+        protected Object doRead() {
+            reads.incrementAndGet();
+            return new TextResourceContent(NOTE_URI, getMimeType(), "buy milk");
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.mcp.resources;
+
+import com.example.mcp.server.McpException;
+import com.example.mcp.server.McpMessage;
+import com.example.mcp.server.McpNotificationSender;
+import com.example.mcp.session.SessionStore;
+import com.example.mcp.storage.ContentHashCache;
+import com.example.mcp.storage.FileMetadataCache;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResourceSubscriptionManagerTest {
+
+    private static final String URI = "file://data/notes.txt";
+
+    @TempDir
+    Path data;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final RecordingSender sender = new RecordingSender();
+    private FileMetadataCache metadataCache;
+    private ResourceSubscriptionManager manager;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Files.writeString(data.resolve("notes.txt"), "v1");
+        metadataCache = new FileMetadataCache(data.toString(), true, 0, 1000);
+        metadataCache.start();
+        manager = newManager(metadataCache);
+    }
+
+    @AfterEach
+    void tearDown() {
+        manager.shutdown();
+        metadataCache.shutdown();
+    }
+
+    @Test
+    void testSubscriberIsNotifiedUntilUnsubscribed() throws Exception {
+        manager.subscribe(uri(URI), "s1").get();
+        manager.subscribe(uri(URI), "s2").get();
+
+        change();
+        awaitNotifications(2);
+        assertEquals(Set.of("s1", "s2"), Set.copyOf(sender.sessions()));
+
+        manager.unsubscribe(uri(URI), "s1").get();
+        sender.sent.clear();
+        change();
+        awaitNotifications(1);
+        Thread.sleep(100);
+        assertEquals(List.of("s2"), sender.sessions());
+    }
+
+    @Test
+    void testClosedSessionLosesItsSubscriptions() throws Exception {
+        manager.subscribe(uri(URI), "s1").get();
+        sender.closeListeners.forEach(listener -> listener.accept("s1"));
+
+        change();
+        Thread.sleep(200);
+        assertTrue(sender.sent.isEmpty());
+    }
+
+    @Test
+    void testDisabledWithoutRunningMetadataCache() {
+        manager.shutdown();
+        manager = newManager(new FileMetadataCache(data));
+
+        assertFalse(manager.isEnabled());
+        assertThrows(McpException.class, () -> manager.subscribe(uri(URI), "s1"));
+    }
+
+    @Test
+    void testConcurrentSubscribeAndUnsubscribeKeepsFinalSubscriptions() throws Exception {
+        int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            String session = "s" + t;
+            workers.add(Thread.ofPlatform().start(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < 2000; i++) {
+                        manager.subscribe(uri(URI), session);
+                        manager.unsubscribe(uri(URI), session);
+                    }
+                    // Only the even sessions end up subscribed
+                    if (session.charAt(1) % 2 == 0) {
+                        manager.subscribe(uri(URI), session);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        change();
+        awaitNotifications(threads / 2);
+        Thread.sleep(100);
+        assertEquals(Set.of("s0", "s2", "s4", "s6"), Set.copyOf(sender.sessions()));
+    }
+
+    private ResourceSubscriptionManager newManager(FileMetadataCache cache) {
+        FileResourceProvider files = new FileResourceProvider(cache, new ContentHashCache());
+        ReflectionTestUtils.setField(files, "basePath", data.toString());
+        ResourceRequestHandler handler = new ResourceRequestHandler(List.of(files), objectMapper);
+        ResourceSubscriptionManager subscriptions = new ResourceSubscriptionManager(handler, files, cache,
+                new SingleProvider<>(sender), new SessionStore(), objectMapper, 20, 100);
+        subscriptions.start();
+        return subscriptions;
+    }
+
+    private JsonNode uri(String uri) {
+        return objectMapper.createObjectNode().put("uri", uri);
+    }
+
+    private void change() {
+        manager.onFileChange(new FileMetadataCache.FileChange(data.resolve("notes.txt"),
+                FileMetadataCache.ChangeKind.MODIFIED, false));
+    }
+
+    private void awaitNotifications(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (sender.sent.size() < count) {
+            assertTrue(System.currentTimeMillis() < deadline, "timed out waiting for " + count + " notifications");
+            Thread.sleep(10);
+        }
+    }
+
+    private static final class RecordingSender implements McpNotificationSender {
+        final List<String[]> sent = new CopyOnWriteArrayList<>();
+        final List<Consumer<String>> closeListeners = new CopyOnWriteArrayList<>();
+
+        @Override
+        public boolean sendNotification(String sessionId, McpMessage notification) {
+            sent.add(new String[]{sessionId, notification.getMethod()});
+            return true;
+        }
+
+        @Override
+        public boolean isConnected(String sessionId) {
+            return true;
+        }
+
+        @Override
+        public void addSessionCloseListener(Consumer<String> listener) {
+            closeListeners.add(listener);
+        }
+
+        List<String> sessions() {
+            return sent.stream().map(entry -> entry[0]).toList();
+        }
+    }
+
+    private static final class SingleProvider<T> implements ObjectProvider<T> {
+        private final T value;
+
+        SingleProvider(T value) {
+            this.value = value;
+        }
+
+        @Override
+        public T getObject() {
+            return value;
+        }
+
+        @Override
+        public T getObject(Object... args) {
+            return value;
+        }
+
+        @Override
+        public T getIfAvailable() {
+            return value;
+        }
+
+        @Override
+        public T getIfUnique() {
+            return value;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.mcp.search;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GrepScannerTest {
+
+    @TempDir
+    Path root;
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+    private final GrepScanner scanner = new GrepScanner(pool);
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void testLiteralAndRegexMatchesWithLineNumbers() throws Exception {
+        List<Path> files = List.of(
+                write("a.txt", "alpha\r\nbeta error here\ngamma\nerror again\n"),
+                write("b.txt", "no hits\nError in caps\n"));
+
+        GrepScanner.Result literal = scanner.scan(root, files, "error", true, false, 100, null);
+        assertEquals(List.of(new GrepScanner.Match("a.txt", 2, "beta error here"),
+                new GrepScanner.Match("a.txt", 4, "error again")), literal.matches());
+        assertEquals(2, literal.filesScanned());
+        assertEquals(1, literal.filesMatched());
+        assertFalse(literal.truncated());
+
+        GrepScanner.Result regex = scanner.scan(root, files, "err(or)? \\w+", false, true, 100, null);
+        assertEquals(3, regex.matches().size());
+        assertEquals(new GrepScanner.Match("b.txt", 2, "Error in caps"), regex.matches().get(2));
+    }
+
+    @Test
+    void testLargeFilesAreScannedLikeSmallOnes() throws Exception {
+        StringBuilder content = new StringBuilder();
+        int line = 0;
+        while (content.length() <= 2 * GrepScanner.SMALL_FILE_BYTES) {
+            line++;
+            content.append(line % 1000 == 0 ? "needle " + line : "hay " + line).append('\n');
+        }
+        Path large = write("large.log", content.toString());
+
+        GrepScanner.Result result = scanner.scan(root, List.of(large), "needle", true, false, 100, null);
+
+        assertFalse(result.matches().isEmpty());
+        for (GrepScanner.Match match : result.matches()) {
+            assertEquals("needle " + match.line(), match.text());
+        }
+        assertEquals(content.length(), result.bytesScanned());
+    }
+
+    @Test
+    void testBinaryFilesAreSkipped() throws Exception {
+        Path binary = root.resolve("data.bin");
+        Files.write(binary, new byte[]{'n', 'e', 'e', 'd', 'l', 'e', 0, '\n'});
+
+        GrepScanner.Result result = scanner.scan(root, List.of(binary), "needle", true, false, 100, null);
+
+        assertTrue(result.matches().isEmpty());
+        assertEquals(1, result.filesScanned());
+    }
+
+    @Test
+    void testTruncatesAtMaxMatches() throws Exception {
+        List<Path> files = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            files.add(write("f" + i + ".txt", "hit\nhit\nhit\n"));
+        }
+
+        GrepScanner.Result result = scanner.scan(root, files, "hit", true, false, 10, null);
+
+        assertTrue(result.truncated());
+        assertEquals(10, result.matches().size());
+    }
+
+    @Test
+    void testListenerSeesEveryMatchingFile() throws Exception {
+        List<Path> files = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            files.add(write("f" + i + ".txt", i % 5 == 0 ? "match\n" : "miss\n"));
+        }
+        List<Integer> totals = new CopyOnWriteArrayList<>();
+        List<GrepScanner.Match> streamed = new CopyOnWriteArrayList<>();
+
+        GrepScanner.Result result = scanner.scan(root, files, "match", true, false, 100,
+                (matches, filesScanned, totalFiles) -> {
+                    streamed.addAll(matches);
+                    totals.add(totalFiles);
+                    assertTrue(filesScanned >= 1 && filesScanned <= totalFiles);
+                });
+
+        assertEquals(10, streamed.size());
+        assertEquals(10, result.filesMatched());
+        assertTrue(totals.stream().allMatch(total -> total == 50));
+    }
+
+    @Test
+    void testRequiredLiteral() {
+        assertEquals("error", GrepScanner.requiredLiteral("error"));
+        assertEquals("ms timeout", GrepScanner.requiredLiteral("\\d+ms timeout"));
+        assertEquals("connection", GrepScanner.requiredLiteral("connection( timed)? out"));
+        assertEquals("a.b", GrepScanner.requiredLiteral("a\\.b"));
+        assertNull(GrepScanner.requiredLiteral("foo|bar"));
+        assertNull(GrepScanner.requiredLiteral("(?i)foo"));
+        assertNull(GrepScanner.requiredLiteral("x*"));
+    }
+
+    private Path write(String name, String content) throws IOException {
+        Path file = root.resolve(name);
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+        return file;
+    }
+}
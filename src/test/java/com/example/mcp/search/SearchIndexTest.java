@@ -0,0 +1,118 @@
+package com.example.mcp.search;
+
+import com.example.mcp.storage.FileMetadataCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchIndexTest {
+
+    @TempDir
+    Path temp;
+
+    private Path data;
+    private Path indexDirectory;
+    private FileMetadataCache metadataCache;
+    private SearchIndex index;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        data = Files.createDirectories(temp.resolve("data"));
+        indexDirectory = temp.resolve("index");
+        metadataCache = new FileMetadataCache(data);
+        Files.writeString(data.resolve("a.txt"), "apple apple apple banana");
+        Files.writeString(data.resolve("b.txt"), "apple cherry");
+        Files.writeString(data.resolve("c.txt"), "banana cherry cherry");
+        index = open();
+    }
+
+    @AfterEach
+    void tearDown() {
+        index.shutdown();
+    }
+
+    @Test
+    void testRanksByBm25AndMatchedTerms() {
+        assertEquals(List.of("a.txt", "b.txt"), paths(index.search("apple", null, 10)));
+
+        SearchIndex.SearchResult both = index.search("apple cherry", null, 10);
+        assertEquals(3, both.totalMatches());
+        assertEquals("b.txt", both.hits().get(0).path(), "a document matching every term ranks first");
+        assertTrue(both.upToDate());
+
+        assertEquals(List.of("b.txt"), paths(index.search("apple cherry", "b", 10)));
+        assertEquals(1, index.search("cherry", null, 1).hits().size());
+        assertTrue(index.search("durian", null, 10).hits().isEmpty());
+    }
+
+    @Test
+    void testChangesAndDeletionsAreApplied() throws Exception {
+        Files.writeString(data.resolve("b.txt"), "durian only");
+        changed("b.txt", FileMetadataCache.ChangeKind.MODIFIED);
+        Files.delete(data.resolve("c.txt"));
+        changed("c.txt", FileMetadataCache.ChangeKind.DELETED);
+
+        await(() -> index.search("durian", null, 10).hits().size() == 1);
+        assertEquals(List.of("a.txt"), paths(index.search("apple cherry", null, 10)));
+        assertEquals(2, index.getStats().get("documents"));
+    }
+
+    @Test
+    void testReopensFromManifestAndDropsStrayFiles() throws Exception {
+        index.shutdown();
+        Path stray = Files.writeString(indexDirectory.resolve("segment-999.idx"), "left over");
+
+        index = open();
+
+        assertFalse(Files.exists(stray));
+        assertEquals(3, index.getStats().get("documents"));
+        assertEquals(List.of("a.txt", "b.txt"), paths(index.search("apple", null, 10)));
+    }
+
+    @Test
+    void testFailedCommitKeepsTheBatch() throws Exception {
+        // The next segment cannot be written while a non-empty directory sits at its temp path
+        Path blocker = Files.createDirectories(indexDirectory.resolve("segment-2.idx.tmp"));
+        Files.writeString(blocker.resolve("x"), "x");
+
+        Files.writeString(data.resolve("a.txt"), "elderberry");
+        changed("a.txt", FileMetadataCache.ChangeKind.MODIFIED);
+
+        await(() -> index.search("elderberry", null, 10).hits().size() == 1);
+        assertEquals(List.of("b.txt"), paths(index.search("apple", null, 10)));
+
+        Files.delete(blocker.resolve("x"));
+        Files.delete(blocker);
+    }
+
+    private SearchIndex open() throws InterruptedException {
+        SearchIndex searchIndex = new SearchIndex(metadataCache, indexDirectory.toString(), true, 1 << 20, 100, 4, 20);
+        searchIndex.start();
+        await(() -> Boolean.TRUE.equals(searchIndex.getStats().get("upToDate")));
+        return searchIndex;
+    }
+
+    private void changed(String name, FileMetadataCache.ChangeKind kind) {
+        index.onFileChange(new FileMetadataCache.FileChange(data.resolve(name), kind, false));
+    }
+
+    private static List<String> paths(SearchIndex.SearchResult result) {
+        return result.hits().stream().map(SearchIndex.Hit::path).toList();
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "timed out");
+            Thread.sleep(10);
+        }
+    }
+}
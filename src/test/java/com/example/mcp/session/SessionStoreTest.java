@@ -0,0 +1,142 @@
+package com.example.mcp.session;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SessionStoreTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final List<String> removals = new ArrayList<>();
+    private SessionStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = newStore(100);
+    }
+
+    @Test
+    void testGetOrCreateReturnsTheSameSession() {
+        McpSession session = store.getOrCreate("a");
+
+        assertSame(session, store.getOrCreate("a"));
+        assertSame(session, store.get("a"));
+        assertNull(store.get("b"));
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    void testSizeIsBounded() {
+        for (int i = 0; i < 1000; i++) {
+            store.getOrCreate("session-" + i);
+        }
+        store.cleanUp();
+
+        assertEquals(100, store.size());
+        assertEquals(900, removals.size());
+        assertTrue(removals.stream().allMatch(removal -> removal.endsWith(":SIZE")));
+    }
+
+    @Test
+    void testFrequentlyUsedSessionsSurviveAScan() {
+        for (int i = 0; i < 50; i++) {
+            store.getOrCreate("hot-" + i);
+        }
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < 50; i++) {
+                assertNotNull(store.get("hot-" + i));
+            }
+            store.cleanUp();
+        }
+
+        // One-off session ids, many times the capacity
+        for (int i = 0; i < 10_000; i++) {
+            store.getOrCreate("scan-" + i);
+        }
+        store.cleanUp();
+
+        int survivors = 0;
+        for (int i = 0; i < 50; i++) {
+            if (store.get("hot-" + i) != null) {
+                survivors++;
+            }
+        }
+        assertTrue(survivors >= 45, "only " + survivors + " of 50 hot sessions survived");
+        assertEquals(100, store.size());
+    }
+
+    @Test
+    void testIdleSessionsExpire() {
+        McpSession idle = store.getOrCreate("idle");
+        store.getOrCreate("active");
+
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(40));
+        store.get("active");
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(30));
+
+        assertNull(store.get("idle"));
+        assertNotNull(store.get("active"));
+
+        store.cleanUp();
+        assertEquals(List.of("idle:EXPIRED"), removals);
+        assertEquals(1, store.size());
+        assertNotSame(idle, store.getOrCreate("idle"));
+    }
+
+    @Test
+    void testExpiredSessionIsReplacedOnAccess() {
+        McpSession first = store.getOrCreate("a");
+        nanos.addAndGet(TimeUnit.MINUTES.toNanos(2));
+
+        McpSession second = store.getOrCreate("a");
+
+        assertNotSame(first, second);
+        assertEquals(List.of("a:EXPIRED"), removals);
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    void testInvalidate() {
+        store.getOrCreate("a");
+        store.invalidate("a");
+        store.invalidate("a");
+
+        assertNull(store.get("a"));
+        assertEquals(0, store.size());
+        assertEquals(List.of("a:EXPLICIT"), removals);
+        assertEquals(1L, store.getStats().get("invalidated"));
+    }
+
+    @Test
+    void testPinnedSessionsNeitherExpireNorGetEvicted() {
+        store = newStore(10);
+        McpSession streaming = store.pin("streaming");
+
+        nanos.addAndGet(TimeUnit.MINUTES.toNanos(5));
+        for (int i = 0; i < 1000; i++) {
+            store.getOrCreate("scan-" + i);
+        }
+        store.cleanUp();
+
+        assertSame(streaming, store.get("streaming"));
+        assertEquals(10, store.size());
+        assertFalse(removals.contains("streaming:EXPIRED"));
+
+        store.unpin("streaming");
+        nanos.addAndGet(TimeUnit.MINUTES.toNanos(2));
+        store.cleanUp();
+        assertTrue(removals.contains("streaming:EXPIRED"));
+    }
+
+    private SessionStore newStore(int maxSessions) {
+        SessionStore sessionStore = new SessionStore(maxSessions, TimeUnit.MINUTES.toMillis(1), 0, nanos::get);
+        sessionStore.addRemovalListener((session, cause) -> removals.add(session.getId() + ":" + cause));
+        return sessionStore;
+    }
+}
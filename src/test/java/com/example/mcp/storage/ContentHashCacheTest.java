@@ -0,0 +1,91 @@
+package com.example.mcp.storage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContentHashCacheTest {
+
+    @TempDir
+    Path directory;
+
+    private final ContentHashCache cache = new ContentHashCache(100, 1024);
+
+    @Test
+    void testStrongEtagFollowsContent() throws Exception {
+        Path file = Files.writeString(directory.resolve("a.txt"), "hello");
+        String etag = cache.etag(file);
+
+        assertTrue(etag.startsWith("\"") && etag.endsWith("\""), etag);
+        assertFalse(etag.startsWith("W/"));
+        assertEquals(etag, cache.etag(file));
+        assertEquals(etag, ContentHashCache.etag("hello"), "file and in-memory tags agree for the same bytes");
+        assertEquals(etag, cache.etag(Files.writeString(directory.resolve("copy.txt"), "hello")));
+
+        // Same size, moved back in time: still a different tag because the cached entry no longer matches
+        Files.writeString(file, "jello");
+        Files.setLastModifiedTime(file, FileTime.fromMillis(1_000_000));
+        String changed = cache.etag(file);
+        assertNotEquals(etag, changed);
+        assertEquals(ContentHashCache.etag("jello"), changed);
+    }
+
+    @Test
+    void testFilesAboveTheSizeLimitGetAWeakTag() throws Exception {
+        Path file = Files.write(directory.resolve("big.bin"), new byte[2048]);
+        String etag = cache.etag(file);
+
+        assertEquals(ContentHashCache.weakEtag(Files.readAttributes(file, BasicFileAttributes.class)), etag);
+        assertTrue(etag.startsWith("W/\"800-"), etag);
+
+        Files.setLastModifiedTime(file, FileTime.fromMillis(2_000_000));
+        assertNotEquals(etag, cache.etag(file), "the weak tag changes with the modification time");
+    }
+
+    @Test
+    void testDirectoriesAndMissingFilesHaveNoTag() {
+        assertThrows(NoSuchFileException.class, () -> cache.etag(directory));
+        assertThrows(NoSuchFileException.class, () -> cache.etag(directory.resolve("missing")));
+    }
+
+    @Test
+    void testIfNoneMatchUsesWeakComparison() {
+        String strong = "\"abc\"";
+        String weak = "W/\"abc\"";
+
+        assertTrue(ContentHashCache.matches(strong, strong));
+        assertTrue(ContentHashCache.matches(weak, strong));
+        assertTrue(ContentHashCache.matches(strong, weak));
+        assertTrue(ContentHashCache.matches(weak, weak));
+        assertTrue(ContentHashCache.matches("abc", strong), "unquoted tags from tool callers are accepted");
+        assertTrue(ContentHashCache.matches("\"x\", W/\"abc\"", strong));
+        assertTrue(ContentHashCache.matches("*", strong));
+
+        assertFalse(ContentHashCache.matches("\"abd\"", strong));
+        assertFalse(ContentHashCache.matches("\"x\", \"y\"", strong));
+        assertFalse(ContentHashCache.matches("", strong));
+        assertFalse(ContentHashCache.matches(null, strong));
+        assertFalse(ContentHashCache.matches("*", null));
+    }
+
+    @Test
+    void testIfRangeUsesStrongComparison() {
+        String strong = "\"abc\"";
+
+        assertTrue(ContentHashCache.strongMatches(strong, strong));
+        assertTrue(ContentHashCache.strongMatches(" \"abc\" ", strong));
+        assertFalse(ContentHashCache.strongMatches("W/\"abc\"", strong), "a weak validator never matches");
+        assertFalse(ContentHashCache.strongMatches("W/\"abc\"", "W/\"abc\""));
+        assertFalse(ContentHashCache.strongMatches(strong, "W/\"abc\""));
+        assertFalse(ContentHashCache.strongMatches("abc", strong), "If-Range needs the exact quoted tag");
+        assertFalse(ContentHashCache.strongMatches("\"abd\"", strong));
+        assertFalse(ContentHashCache.strongMatches(null, strong));
+    }
+}
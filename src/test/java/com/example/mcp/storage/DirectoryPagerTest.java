@@ -0,0 +1,210 @@
+package com.example.mcp.storage;
+
+import com.example.mcp.storage.DirectoryPager.Entry;
+import com.example.mcp.storage.DirectoryPager.Page;
+import com.example.mcp.storage.DirectoryPager.Sort;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DirectoryPagerTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testSizeSortMatchesReportedSizes() throws Exception {
+        Files.write(directory.resolve("big.bin"), new byte[5000]);
+        Files.write(directory.resolve("small.txt"), new byte[10]);
+        Files.createDirectory(directory.resolve("b-dir"));
+        Files.createDirectory(directory.resolve("a-dir"));
+
+        Page ascending = DirectoryPager.list(directory, null, Sort.SIZE, false, 10, null, BasicFileAttributes.class);
+        assertEquals(List.of("a-dir", "b-dir", "small.txt", "big.bin"), names(ascending));
+        assertEquals(List.of(0L, 0L, 10L, 5000L), ascending.entries().stream().map(Entry::size).toList());
+        assertEquals("directory", ascending.entries().get(0).type());
+        assertEquals("file", ascending.entries().get(3).type());
+
+        Page descending = DirectoryPager.list(directory, null, Sort.SIZE, true, 10, null, BasicFileAttributes.class);
+        assertEquals(List.of("big.bin", "small.txt", "b-dir", "a-dir"), names(descending));
+    }
+
+    @Test
+    void testPagingVisitsEveryEntryOnceInOrder() throws Exception {
+        Random random = new Random(5);
+        List<Path> files = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            Path file = Files.write(directory.resolve("f" + random.nextInt(100_000) + "-" + i), new byte[random.nextInt(20)]);
+            Files.setLastModifiedTime(file, FileTime.fromMillis(1_000_000L + random.nextInt(50) * 1000L));
+            files.add(file);
+        }
+        Files.writeString(directory.resolve("other.log"), "not matched by the glob");
+
+        for (Sort sort : Sort.values()) {
+            for (boolean descending : new boolean[]{false, true}) {
+                List<String> listed = new ArrayList<>();
+                String cursor = null;
+                do {
+                    Page page = DirectoryPager.list(directory, "f*", sort, descending, 7, cursor, BasicFileAttributes.class);
+                    assertTrue(page.entries().size() <= 7);
+                    listed.addAll(names(page));
+                    cursor = page.nextCursor();
+                } while (cursor != null);
+
+                String label = sort + (descending ? " desc" : " asc");
+                assertEquals(files.size(), listed.size(), label);
+                assertEquals(files.size(), listed.stream().distinct().count(), label);
+                if (sort != Sort.NONE) {
+                    assertEquals(expectedOrder(files, sort, descending), listed, label);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testNameSortOnlyReadsAttributesOfThePage() {
+        List<Path> paths = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            paths.add(directory.resolve(String.format("file-%05d", i)));
+        }
+        Collections.shuffle(paths, new Random(1));
+        AtomicInteger stats = new AtomicInteger();
+        Function<Path, BasicFileAttributes> attributes = path -> {
+            stats.incrementAndGet();
+            return new FakeAttributes(path.getFileName().toString().length());
+        };
+
+        Page first = DirectoryPager.list(paths.iterator(), attributes, Sort.NAME, false, 3, null);
+        assertEquals(List.of("file-00000", "file-00001", "file-00002"), names(first));
+        assertEquals(3, stats.get());
+
+        Page second = DirectoryPager.list(paths.iterator(), attributes, Sort.NAME, false, 3, first.nextCursor());
+        assertEquals(List.of("file-00003", "file-00004", "file-00005"), names(second));
+    }
+
+    @Test
+    void testVanishedEntriesAreLeftOut() {
+        List<Path> paths = List.of(directory.resolve("a"), directory.resolve("gone"), directory.resolve("c"));
+        Function<Path, BasicFileAttributes> attributes =
+                path -> path.endsWith("gone") ? null : new FakeAttributes(1);
+        for (Sort sort : Sort.values()) {
+            assertEquals(List.of("a", "c"), names(DirectoryPager.list(paths.iterator(), attributes, sort, false, 10, null)));
+        }
+    }
+
+    @Test
+    void testCursorEncoding() throws Exception {
+        for (String name : List.of("a", "b", "c")) {
+            Files.write(directory.resolve(name), new byte[name.charAt(0)]);
+        }
+        Page page = DirectoryPager.list(directory, null, Sort.SIZE, true, 2, null, BasicFileAttributes.class);
+        assertEquals(List.of("c", "b"), names(page));
+        assertEquals("SIZE:desc:98/b", decode(page.nextCursor()));
+        assertFalse(page.nextCursor().contains("="), "cursors are unpadded base64url");
+
+        Page unsorted = DirectoryPager.list(directory, null, Sort.NONE, false, 2, null, BasicFileAttributes.class);
+        assertEquals("NONE:asc:2/", decode(unsorted.nextCursor()));
+
+        assertInvalidCursor(page.nextCursor(), Sort.SIZE, false, "Invalid cursor: Cursor does not match the requested sort order");
+        assertInvalidCursor(page.nextCursor(), Sort.NAME, true, "Invalid cursor: Cursor does not match the requested sort order");
+        assertInvalidCursor("!!!", Sort.NAME, false, "Invalid cursor: ");
+        assertInvalidCursor(encode("NAME:asc:x/a"), Sort.NAME, false, "Invalid cursor: ");
+
+        IllegalArgumentException pageSize = assertThrows(IllegalArgumentException.class, () -> DirectoryPager.list(
+                directory, null, Sort.NAME, false, DirectoryPager.MAX_PAGE_SIZE + 1, null, BasicFileAttributes.class));
+        assertEquals("pageSize must be between 1 and 10000: 10001", pageSize.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> Sort.parse("color"));
+        assertEquals(Sort.MODIFIED, Sort.parse("Modified"));
+    }
+
+    private void assertInvalidCursor(String cursor, Sort sort, boolean descending, String message) {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> DirectoryPager.list(
+                directory, null, sort, descending, 2, cursor, BasicFileAttributes.class));
+        assertTrue(e.getMessage().startsWith(message), e.getMessage());
+    }
+
+    private static List<String> expectedOrder(List<Path> files, Sort sort, boolean descending) throws IOException {
+        List<String[]> keyed = new ArrayList<>();
+        for (Path file : files) {
+            long key = switch (sort) {
+                case SIZE -> Files.size(file);
+                case MODIFIED -> Files.getLastModifiedTime(file).toMillis();
+                default -> 0;
+            };
+            keyed.add(new String[]{String.format("%020d", key), file.getFileName().toString()});
+        }
+        Comparator<String[]> order = Comparator.<String[], String>comparing(k -> k[0]).thenComparing(k -> k[1]);
+        keyed.sort(descending ? order.reversed() : order);
+        return keyed.stream().map(k -> k[1]).toList();
+    }
+
+    private static List<String> names(Page page) {
+        return page.entries().stream().map(Entry::name).toList();
+    }
+
+    private static String decode(String cursor) {
+        return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private record FakeAttributes(long size) implements BasicFileAttributes {
+        @Override
+        public FileTime lastModifiedTime() {
+            return FileTime.fromMillis(0);
+        }
+
+        @Override
+        public FileTime lastAccessTime() {
+            return lastModifiedTime();
+        }
+
+        @Override
+        public FileTime creationTime() {
+            return lastModifiedTime();
+        }
+
+        @Override
+        public boolean isRegularFile() {
+            return true;
+        }
+
+        @Override
+        public boolean isDirectory() {
+            return false;
+        }
+
+        @Override
+        public boolean isSymbolicLink() {
+            return false;
+        }
+
+        @Override
+        public boolean isOther() {
+            return false;
+        }
+
+        @Override
+        public Object fileKey() {
+            return null;
+        }
+    }
+}
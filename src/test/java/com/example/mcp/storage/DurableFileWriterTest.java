@@ -0,0 +1,141 @@
+package com.example.mcp.storage;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DurableFileWriterTest {
+
+    private static final int WRITERS = 8;
+
+    @TempDir
+    Path directory;
+
+    private BlockingWriter writer;
+
+    @AfterEach
+    void tearDown() {
+        writer.release.countDown();
+        writer.shutdown();
+    }
+
+    @Test
+    void testConcurrentWritersAreAcknowledgedAfterTheSharedForce() throws Exception {
+        writer = new BlockingWriter(false);
+        Path log = directory.resolve("shared.log");
+        AtomicInteger acknowledged = new AtomicInteger();
+
+        List<Thread> threads = startWriters(() -> {
+            writer.append(log, "line\n".getBytes(StandardCharsets.UTF_8), true);
+            acknowledged.incrementAndGet();
+        }, new CopyOnWriteArrayList<>());
+
+        assertEquals(0, acknowledged.get(), "no writer may return while its fsync is still running");
+
+        writer.release.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(WRITERS, acknowledged.get());
+        assertEquals(2, writer.calls.get(), "the writers queued behind the first fsync share a single one");
+        assertEquals(WRITERS * 5, Files.size(log));
+    }
+
+    @Test
+    void testFailedForceFailsEveryWaiterInTheGroup() throws Exception {
+        writer = new BlockingWriter(true);
+        Path log = Files.writeString(directory.resolve("shared.log"), "data");
+        List<Throwable> failures = new CopyOnWriteArrayList<>();
+
+        List<Thread> threads = startWriters(() -> writer.sync(log), failures);
+        writer.release.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(2, writer.calls.get());
+        assertEquals(WRITERS - 1, failures.size(), "only the first writer had its own, successful fsync");
+        for (Throwable failure : failures) {
+            assertInstanceOf(IOException.class, failure);
+            assertEquals("disk gone", failure.getMessage());
+        }
+    }
+
+    /**
+     * Starts one writer, waits until its fsync is in progress, then starts the rest so that they
+     * all queue up for the next group commit.
+     */
+    private List<Thread> startWriters(IoAction action, List<Throwable> failures) throws InterruptedException {
+        Runnable body = () -> {
+            try {
+                action.run();
+            } catch (IOException e) {
+                failures.add(e);
+            }
+        };
+        List<Thread> threads = new ArrayList<>();
+        threads.add(Thread.ofPlatform().start(body));
+        assertTrue(writer.entered.await(5, TimeUnit.SECONDS));
+        for (int i = 1; i < WRITERS; i++) {
+            threads.add(Thread.ofPlatform().start(body));
+        }
+        await(() -> ((Number) writer.getStats().get("pending")).intValue() == WRITERS - 1);
+        return threads;
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "timed out");
+            Thread.sleep(10);
+        }
+    }
+
+    private interface IoAction {
+        void run() throws IOException;
+    }
+
+    /**
+     * Holds the first fsync until released; optionally fails every later one.
+     */
+    private static final class BlockingWriter extends DurableFileWriter {
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger calls = new AtomicInteger();
+        private final boolean failAfterFirst;
+
+        BlockingWriter(boolean failAfterFirst) {
+            this.failAfterFirst = failAfterFirst;
+        }
+
+        @Override
+        void fsync(Path path) throws IOException {
+            if (calls.incrementAndGet() == 1) {
+                entered.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new IOException("interrupted", e);
+                }
+            } else if (failAfterFirst) {
+                throw new IOException("disk gone");
+            }
+            super.fsync(path);
+        }
+    }
+}
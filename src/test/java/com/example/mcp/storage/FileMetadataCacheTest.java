@@ -0,0 +1,146 @@
+package com.example.mcp.storage;
+
+import com.example.mcp.storage.FileMetadataCache.ChangeKind;
+import com.example.mcp.storage.FileMetadataCache.FileChange;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileMetadataCacheTest {
+
+    @TempDir
+    Path directory;
+
+    private Path data;
+    private FileMetadataCache cache;
+    private final List<FileChange> changes = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        data = Files.createDirectories(directory.resolve("data"));
+        Files.writeString(Files.createDirectories(data.resolve("docs")).resolve("a.txt"), "a");
+        cache = new FileMetadataCache(data.toString(), true, 1, 10_000);
+        cache.start();
+        cache.addListener(changes::add);
+        assertTrue(cache.isRunning());
+    }
+
+    @AfterEach
+    void tearDown() {
+        cache.shutdown();
+    }
+
+    @Test
+    void testWatcherReportsCreateModifyAndDelete() throws Exception {
+        assertEquals(1, cache.stat(data.resolve("docs/a.txt")).size());
+        Path file = data.resolve("docs/b.txt");
+
+        Files.writeString(file, "b");
+        await(() -> size(file) == 1 && changes.contains(new FileChange(file, ChangeKind.CREATED, false)));
+
+        changes.clear();
+        Files.writeString(file, "longer");
+        await(() -> size(file) == 6 && changes.contains(new FileChange(file, ChangeKind.MODIFIED, false)));
+
+        Files.delete(file);
+        await(() -> size(file) == -1 && changes.contains(new FileChange(file, ChangeKind.DELETED, false)));
+    }
+
+    @Test
+    void testRefreshShowsOwnWriteWithoutWaitingForTheWatcher() throws Exception {
+        Path file = data.resolve("new/deeper/c.txt");
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, "ccc");
+        cache.refresh(file);
+        assertEquals(3, cache.stat(file).size());
+        assertTrue(cache.stat(data.resolve("new")).isDirectory());
+
+        Files.delete(file);
+        cache.refresh(file);
+        assertNull(cache.stat(file));
+    }
+
+    @Test
+    void testFilesBehindASymbolicLinkAreReadFromDisk() throws Exception {
+        Path outside = Files.createDirectories(directory.resolve("outside"));
+        Files.writeString(outside.resolve("x.txt"), "xx");
+        Path link = Files.createSymbolicLink(data.resolve("link"), outside);
+        cache.refresh(link);
+
+        assertTrue(cache.stat(link).isDirectory());
+        assertEquals(2, cache.stat(link.resolve("x.txt")).size());
+        assertNull(cache.stat(link.resolve("missing.txt")));
+        assertEquals(List.of("x.txt"), names(cache.list(link, null, DirectoryPager.Sort.NAME, false, 10, null)));
+
+        // Refreshing one file behind the link must not make the cache claim the rest of it
+        Files.writeString(outside.resolve("y.txt"), "y");
+        cache.refresh(link.resolve("y.txt"));
+        assertEquals(2, cache.stat(link.resolve("x.txt")).size());
+        assertEquals(List.of("x.txt", "y.txt"), names(cache.list(link, null, DirectoryPager.Sort.NAME, false, 10, null)));
+    }
+
+    @Test
+    void testRefreshRacingPeriodicRescans() throws Exception {
+        // The cache rescans the whole tree every second; keep writing through at least two of them
+        long end = System.currentTimeMillis() + 2500;
+        Set<Path> live = new HashSet<>();
+        for (int i = 0; System.currentTimeMillis() < end; i++) {
+            Path file = data.resolve("dir" + (i % 7)).resolve("f" + i + ".txt");
+            Files.createDirectories(file.getParent());
+            Files.writeString(file, "x".repeat(i % 13));
+            cache.refresh(file);
+            assertEquals(i % 13, cache.stat(file).size(), "written " + file);
+            live.add(file);
+
+            if (i % 3 == 0) {
+                Files.delete(file);
+                cache.refresh(file);
+                assertNull(cache.stat(file), "deleted " + file);
+                live.remove(file);
+            }
+        }
+
+        for (Path file : live) {
+            assertNotNull(cache.stat(file), "lost " + file);
+        }
+        Set<Path> cached = new HashSet<>();
+        cache.forEachFile((path, attributes) -> cached.add(path));
+        live.add(data.resolve("docs/a.txt"));
+        assertEquals(live, cached);
+    }
+
+    private long size(Path file) {
+        try {
+            BasicFileAttributes attributes = cache.stat(file);
+            return attributes == null ? -1 : attributes.size();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static List<String> names(DirectoryPager.Page page) {
+        return page.entries().stream().map(DirectoryPager.Entry::name).toList();
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "timed out");
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.mcp.tools;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileChunkReaderTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testShortLengthStillReturnsAWholeCharacter() throws Exception {
+        try (FileChannel channel = open("zh.txt", "中文abc")) {
+            FileChunkReader.Chunk first = FileChunkReader.readBytes(channel, 0, 2);
+            assertEquals("中", first.content());
+            assertEquals(3, first.length());
+            assertEquals(3, first.nextOffset());
+            assertFalse(first.eof());
+
+            FileChunkReader.Chunk second = FileChunkReader.readBytes(channel, 3, 1);
+            assertEquals("文", second.content());
+
+            // A length that ends inside the second character stops before it
+            assertEquals("中", FileChunkReader.readBytes(channel, 0, 4).content());
+        }
+    }
+
+    @Test
+    void testPagingByCursorCoversTheFileExactlyOnce() throws Exception {
+        String text = "héllo 中文 wörld 😀 end";
+        try (FileChannel channel = open("mixed.txt", text)) {
+            for (int length = 1; length <= 8; length++) {
+                StringBuilder collected = new StringBuilder();
+                String cursor = "0";
+                for (int pages = 0; ; pages++) {
+                    assertTrue(pages < 100, "paging must make progress at length " + length);
+                    FileChunkReader.Chunk chunk = FileChunkReader.readBytes(channel,
+                            FileChunkReader.Cursor.parse(cursor).offset(), length);
+                    collected.append(chunk.content());
+                    if (chunk.eof()) {
+                        break;
+                    }
+                    cursor = FileChunkReader.Cursor.of(chunk);
+                }
+                assertEquals(text, collected.toString(), "length " + length);
+            }
+        }
+    }
+
+    @Test
+    void testOffsetInsideACharacterSkipsToTheNextOne() throws Exception {
+        try (FileChannel channel = open("zh.txt", "中文abc")) {
+            FileChunkReader.Chunk chunk = FileChunkReader.readBytes(channel, 1, 10);
+            assertEquals(3, chunk.offset());
+            assertEquals("文abc", chunk.content());
+            assertTrue(chunk.eof());
+        }
+    }
+
+    @Test
+    void testNegativeOffsetReadsTheTail() throws Exception {
+        try (FileChannel channel = open("log.txt", "first\nsecond\nthird\n")) {
+            FileChunkReader.Chunk chunk = FileChunkReader.readBytes(channel, -6, 100);
+            assertEquals("third\n", chunk.content());
+            assertEquals(13, chunk.offset());
+            assertTrue(chunk.eof());
+
+            assertEquals("first\nsecond\nthird\n", FileChunkReader.readBytes(channel, -1000, 100).content());
+        }
+    }
+
+    @Test
+    void testReadLinesWithLineNumbersAndCursor() throws Exception {
+        try (FileChannel channel = open("lines.txt", "one\ntwo\nthree\nfour")) {
+            long offset = FileChunkReader.findLineOffset(channel, 2);
+            assertEquals(4, offset);
+
+            FileChunkReader.Chunk chunk = FileChunkReader.readLines(channel, offset, 2, 2, 1024);
+            assertEquals("two\nthree\n", chunk.content());
+            assertEquals(2, chunk.lineCount());
+            assertEquals(4, chunk.nextLine());
+            assertFalse(chunk.eof());
+
+            String cursor = FileChunkReader.Cursor.of(chunk);
+            assertEquals("14:4", cursor);
+            FileChunkReader.Cursor parsed = FileChunkReader.Cursor.parse(cursor);
+            FileChunkReader.Chunk last = FileChunkReader.readLines(channel, parsed.offset(), parsed.line(), 10, 1024);
+            assertEquals("four", last.content());
+            assertEquals(1, last.lineCount());
+            assertTrue(last.eof());
+
+            assertEquals(channel.size(), FileChunkReader.findLineOffset(channel, 100));
+        }
+    }
+
+    @Test
+    void testLongLineComesInCharacterAlignedPieces() throws Exception {
+        try (FileChannel channel = open("long.txt", "中文中文\nx\n")) {
+            FileChunkReader.Chunk piece = FileChunkReader.readLines(channel, 0, 1, 1, 5);
+            assertEquals("中", piece.content());
+            assertEquals(0, piece.lineCount());
+            assertEquals(1, piece.nextLine(), "the line is not finished yet");
+
+            FileChunkReader.Chunk tiny = FileChunkReader.readLines(channel, 3, 1, 1, 1);
+            assertEquals("文", tiny.content());
+            assertEquals(6, tiny.nextOffset());
+        }
+    }
+
+    @Test
+    void testTailOffset() throws Exception {
+        try (FileChannel withNewline = open("a.txt", "1\n2\n3\n");
+             FileChannel withoutNewline = open("b.txt", "1\n2\n3")) {
+            assertEquals(2, FileChunkReader.findTailOffset(withNewline, 2));
+            assertEquals(2, FileChunkReader.findTailOffset(withoutNewline, 2));
+            assertEquals(0, FileChunkReader.findTailOffset(withNewline, 10));
+            assertEquals(6, FileChunkReader.findTailOffset(withNewline, 0));
+        }
+    }
+
+    @Test
+    void testCursorFormat() {
+        assertEquals(new FileChunkReader.Cursor(42, -1), FileChunkReader.Cursor.parse("42"));
+        assertEquals(new FileChunkReader.Cursor(42, 7), FileChunkReader.Cursor.parse("42:7"));
+        assertThrows(IllegalArgumentException.class, () -> FileChunkReader.Cursor.parse("x:1"));
+    }
+
+    private FileChannel open(String name, String content) throws IOException {
+        Path file = Files.writeString(directory.resolve(name), content, StandardCharsets.UTF_8);
+        return FileChannel.open(file, StandardOpenOption.READ);
+    }
+}
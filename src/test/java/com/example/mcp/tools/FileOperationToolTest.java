@@ -0,0 +1,83 @@
+package com.example.mcp.tools;
+
+import com.example.mcp.storage.ContentHashCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.FileSystemUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileOperationToolTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final FileOperationTool tool = new FileOperationTool();
+    private Path directory;
+    private String path;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        // The tool is confined to <user.dir>/data, so each test works in a directory of its own there
+        String name = "file-operation-test-" + UUID.randomUUID();
+        directory = Files.createDirectories(Paths.get(System.getProperty("user.dir"), "data", name));
+        Files.writeString(directory.resolve("notes.txt"), "line 1\nline 2\n");
+        path = name + "/notes.txt";
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Test
+    void testWholeFileReadHasStrongEtag() throws Exception {
+        Map<String, Object> result = read(params());
+        String etag = (String) result.get("etag");
+        assertEquals(ContentHashCache.etag("line 1\nline 2\n"), etag);
+        assertEquals("line 1\nline 2\n", result.get("content"));
+
+        Map<String, Object> unchanged = read(params().put("ifNoneMatch", etag));
+        assertEquals(Boolean.TRUE, unchanged.get("notModified"));
+        assertEquals(etag, unchanged.get("etag"));
+        assertNull(unchanged.get("content"));
+
+        // Weak comparison: the weak form of the same tag also counts as unchanged
+        assertEquals(Boolean.TRUE, read(params().put("ifNoneMatch", "W/" + etag)).get("notModified"));
+
+        Files.writeString(directory.resolve("notes.txt"), "line 1\nline 2\nline 3\n");
+        Map<String, Object> changed = read(params().put("ifNoneMatch", etag));
+        assertNull(changed.get("notModified"));
+        assertNotEquals(etag, changed.get("etag"));
+        assertEquals("line 1\nline 2\nline 3\n", changed.get("content"));
+    }
+
+    @Test
+    void testChunkReadsHaveWeakEtag() throws Exception {
+        Map<String, Object> chunk = read(params().put("offset", 0).put("length", 4));
+        String etag = (String) chunk.get("etag");
+        assertTrue(etag.startsWith("W/\""), etag);
+        assertEquals("line", chunk.get("content"));
+
+        assertEquals(Boolean.TRUE, read(params().put("line", 2).put("ifNoneMatch", etag)).get("notModified"));
+        // A weak tag still matches the strong form under If-None-Match's weak comparison
+        assertEquals(Boolean.TRUE, read(params().put("offset", 0).put("ifNoneMatch", etag.substring(2))).get("notModified"));
+        assertNull(read(params().put("offset", 0).put("ifNoneMatch", "W/\"other\"")).get("notModified"));
+    }
+
+    private ObjectNode params() {
+        return objectMapper.createObjectNode().put("operation", "read").put("path", path);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> read(ObjectNode parameters) throws Exception {
+        return (Map<String, Object>) tool.execute(parameters).get();
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.mcp.tools;
+
+import com.example.mcp.search.GrepScanner;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GrepToolTest {
+
+    @Test
+    void testProgressNeverGoesBackwards() throws Exception {
+        List<Long> reported = new ArrayList<>();
+        List<String> messages = new ArrayList<>();
+        GrepTool.ProgressBatcher batcher = new GrepTool.ProgressBatcher((progress, total, message) -> {
+            reported.add(progress);
+            messages.add(message);
+        });
+
+        // Workers finish out of order: the file that was 7th to complete reports first
+        batcher.onMatches(List.of(new GrepScanner.Match("b.txt", 3, "late")), 7, 10);
+        batcher.onMatches(List.of(new GrepScanner.Match("a.txt", 1, "early")), 4, 10);
+        Thread.sleep(250);
+        batcher.onMatches(List.of(new GrepScanner.Match("c.txt", 2, "third")), 5, 10);
+        batcher.onMatches(List.of(new GrepScanner.Match("d.txt", 9, "last")), 6, 10);
+        batcher.flush(6, 10);
+
+        assertEquals(List.of(7L, 7L), reported);
+        assertEquals("b.txt:3: late\na.txt:1: early\nc.txt:2: third\n", messages.get(0));
+        assertEquals("d.txt:9: last\n", messages.get(1));
+    }
+}
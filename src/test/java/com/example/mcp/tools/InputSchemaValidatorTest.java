@@ -0,0 +1,188 @@
+package com.example.mcp.tools;
+
+import com.example.mcp.server.McpError;
+import com.example.mcp.server.McpException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InputSchemaValidatorTest {
+
+    private static final String SCHEMA = """
+            {
+              "type": "object",
+              "properties": {
+                "path": {"type": "string", "minLength": 1, "maxLength": 5, "pattern": "^[a-z/]+$"},
+                "mode": {"enum": ["read", "write"]},
+                "limit": {"type": "integer", "minimum": 1, "maximum": 100},
+                "ratio": {"type": "number", "exclusiveMinimum": 0, "exclusiveMaximum": 1},
+                "note": {"type": ["string", "null"]},
+                "id": {"type": ["string", "integer"]},
+                "filter": {
+                  "type": "object",
+                  "properties": {
+                    "tags": {"type": "array", "items": {"type": "string"}, "minItems": 1, "maxItems": 3},
+                    "a/b": {"type": "boolean"}
+                  },
+                  "required": ["tags"],
+                  "additionalProperties": false
+                }
+              },
+              "required": ["path", "mode"]
+            }
+            """;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final InputSchemaValidator validator = InputSchemaValidator.compile(json(SCHEMA));
+
+    @Test
+    void testValidArguments() {
+        assertValid("{\"path\": \"a/b\", \"mode\": \"read\"}");
+        assertValid("{\"path\": \"a\", \"mode\": \"write\", \"limit\": 100, \"ratio\": 0.5, \"note\": null,"
+                + " \"id\": 7, \"filter\": {\"tags\": [\"x\"], \"a/b\": true}, \"unknown\": 1}");
+        assertValid("{\"path\": \"a\", \"mode\": \"read\", \"limit\": 5.0, \"id\": \"abc\"}");
+        // null counts as absent for a property whose type does not allow it
+        assertValid("{\"path\": \"a\", \"mode\": \"read\", \"limit\": null}");
+    }
+
+    @Test
+    void testRequiredProperties() {
+        assertViolations("{}", "/path is required", "/mode is required");
+        assertViolations("{\"path\": null, \"mode\": \"read\"}", "/path is required");
+        assertViolations("{\"path\": \"a\", \"mode\": \"read\", \"filter\": {}}", "/filter/tags is required");
+    }
+
+    @Test
+    void testEnumAndTypeUnions() {
+        assertViolations("{\"path\": \"a\", \"mode\": \"delete\"}", "/mode must be one of [\"read\", \"write\"]");
+        assertViolations("{\"path\": \"a\", \"mode\": \"read\", \"id\": 1.5}", "/id expected string or integer but got number");
+        assertViolations("{\"path\": \"a\", \"mode\": \"read\", \"id\": true}", "/id expected string or integer but got boolean");
+        assertViolations("{\"path\": \"a\", \"mode\": \"read\", \"note\": 3}", "/note expected string or null but got number");
+        assertViolations("{\"path\": 1, \"mode\": \"read\"}", "/path expected string but got number");
+        assertViolations("[]", "/ expected object but got array");
+    }
+
+    @Test
+    void testBoundsLengthsAndPattern() {
+        assertViolations("{\"path\": \"a\", \"mode\": \"read\", \"limit\": 0}", "/limit must be >= 1");
+        assertViolations("{\"path\": \"a\", \"mode\": \"read\", \"limit\": 101}", "/limit must be <= 100");
+        assertViolations("{\"path\": \"a\", \"mode\": \"read\", \"limit\": 1.5}", "/limit expected integer but got number");
+        assertViolations("{\"path\": \"a\", \"mode\": \"read\", \"ratio\": 0}", "/ratio must be > 0");
+        assertViolations("{\"path\": \"a\", \"mode\": \"read\", \"ratio\": 1}", "/ratio must be < 1");
+        assertViolations("{\"path\": \"\", \"mode\": \"read\"}",
+                "/path must be at least 1 characters long", "/path must match pattern ^[a-z/]+$");
+        assertViolations("{\"path\": \"abcdef\", \"mode\": \"read\"}", "/path must be at most 5 characters long");
+        assertViolations("{\"path\": \"A\", \"mode\": \"read\"}", "/path must match pattern ^[a-z/]+$");
+    }
+
+    @Test
+    void testNestedObjectsAndArraysReportJsonPointers() {
+        assertViolations("{\"path\": \"a\", \"mode\": \"read\", \"filter\": {\"tags\": [\"x\", 2, \"y\", false]}}",
+                "/filter/tags must have at most 3 items");
+        assertViolations("{\"path\": \"a\", \"mode\": \"read\", \"filter\": {\"tags\": []}}",
+                "/filter/tags must have at least 1 items");
+        assertViolations("{\"path\": \"a\", \"mode\": \"read\", \"filter\": {\"tags\": [\"x\", 2, null]}}",
+                "/filter/tags/1 expected string but got number", "/filter/tags/2 expected string but got null");
+        assertViolations("{\"path\": \"a\", \"mode\": \"read\", \"filter\": {\"tags\": [\"x\"], \"a/b\": 1, \"c~d\": 2}}",
+                "/filter/a~1b expected boolean but got number", "/filter/c~0d is not a known property");
+    }
+
+    @Test
+    void testViolationsAreCapped() {
+        InputSchemaValidator items = InputSchemaValidator.compile(json("{\"type\": \"array\", \"items\": {\"type\": \"string\"}}"));
+        List<InputSchemaValidator.Violation> violations = items.validate(json("[" + "1,".repeat(99) + "1]"));
+        assertEquals(20, violations.size());
+        assertEquals(new InputSchemaValidator.Violation("/0", "expected string but got number"), violations.get(0));
+    }
+
+    @Test
+    void testMalformedSchemasAreRejected() {
+        assertSchemaError("[]", "Schema at '' must be an object");
+        assertSchemaError("{\"type\": \"text\"}", "Unknown type 'text' at ''");
+        assertSchemaError("{\"properties\": {\"x\": {\"enum\": \"a\"}}}", "'enum' at '/properties/x' must be an array");
+        assertSchemaError("{\"items\": {\"pattern\": \"(\"}}", "Invalid 'pattern' at '/items'");
+        // Unsupported keywords are ignored rather than rejected
+        assertTrue(InputSchemaValidator.compile(json("{\"oneOf\": [], \"format\": \"uri\"}")).validate(json("1")).isEmpty());
+    }
+
+    @Test
+    void testToolCallWithInvalidArgumentsIsRejectedBeforeTheToolRuns() throws Exception {
+        AtomicInteger executions = new AtomicInteger();
+        McpTool tool = new McpTool() {
+            @Override
+            public String getName() {
+                return "files";
+            }
+
+            @Override
+            public String getDescription() {
+                return "test tool";
+            }
+
+            @Override
+            public JsonNode getInputSchema() {
+                return json(SCHEMA);
+            }
+
+            @Override
+            public CompletableFuture<Object> execute(JsonNode parameters) {
+                executions.incrementAndGet();
+                return CompletableFuture.completedFuture("done");
+            }
+        };
+        ToolRequestHandler handler = new ToolRequestHandler(List.of(tool), new DefaultListableBeanFactory(), null, objectMapper);
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> handler.call(
+                json("{\"name\": \"files\", \"arguments\": {\"mode\": \"read\", \"limit\": 0}}"), null).get());
+        McpError error = assertInstanceOf(McpException.class, e.getCause()).getError();
+        assertEquals(McpError.INVALID_PARAMS, error.getCode());
+        @SuppressWarnings("unchecked")
+        Map<String, Object> data = (Map<String, Object>) error.getData();
+        assertEquals("Invalid arguments for tool 'files': /limit must be >= 1; /path is required", data.get("detail"));
+        assertEquals(List.of(Map.of("path", "/limit", "message", "must be >= 1"),
+                Map.of("path", "/path", "message", "is required")), data.get("errors"));
+        assertEquals(0, executions.get());
+
+        // Missing arguments are validated as an empty object
+        ExecutionException missing = assertThrows(ExecutionException.class,
+                () -> handler.call(json("{\"name\": \"files\"}"), null).get());
+        assertEquals(McpError.INVALID_PARAMS, ((McpException) missing.getCause()).getError().getCode());
+
+        handler.call(json("{\"name\": \"files\", \"arguments\": {\"path\": \"a\", \"mode\": \"read\"}}"), null).get();
+        assertEquals(1, executions.get());
+    }
+
+    private void assertValid(String arguments) {
+        assertEquals(List.of(), validator.validate(json(arguments)), arguments);
+    }
+
+    private void assertViolations(String arguments, String... expected) {
+        List<String> actual = validator.validate(json(arguments)).stream()
+                .map(violation -> violation.path() + " " + violation.message())
+                .toList();
+        assertEquals(List.of(expected), actual, arguments);
+    }
+
+    private void assertSchemaError(String schema, String message) {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> InputSchemaValidator.compile(json(schema)));
+        assertTrue(e.getMessage().startsWith(message), e.getMessage());
+    }
+
+    private JsonNode json(String text) {
+        try {
+            return objectMapper.readTree(text);
+        } catch (Exception e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+}
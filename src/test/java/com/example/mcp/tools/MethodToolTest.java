@@ -0,0 +1,150 @@
+package com.example.mcp.tools;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MethodToolTest {
+
+    enum Unit { CELSIUS, FAHRENHEIT }
+
+    record Range(int start, @ToolParam(required = false) Integer end) {
+        Range {
+            if (end != null && end < start) {
+                throw new IllegalArgumentException("end must not be before start");
+            }
+        }
+    }
+
+    record Lookup(@ToolParam(description = "City name") String city,
+                  @ToolParam(defaultValue = "celsius") Unit unit,
+                  @ToolParam(required = false) List<Range> ranges) {
+    }
+
+    static class SampleTools {
+
+        @Tool(description = "Adds two numbers")
+        public double addNumbers(double a, double b, @ToolParam(defaultValue = "false") boolean round) {
+            return round ? Math.round(a + b) : a + b;
+        }
+
+        @Tool(name = "lookup", description = "Takes its arguments as a record")
+        public String lookup(Lookup request) {
+            return request.city() + "/" + request.unit() + "/" + request.ranges();
+        }
+
+        @Tool(description = "Reports progress and completes later")
+        public CompletableFuture<Integer> countDown(int from, ToolProgress progress) {
+            for (int i = from; i > 0; i--) {
+                progress.report(from - i + 1, from, null);
+            }
+            return CompletableFuture.supplyAsync(() -> from);
+        }
+    }
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private Map<String, MethodTool> tools;
+
+    @BeforeEach
+    void setUp() {
+        tools = MethodTool.forBean(new SampleTools()).stream()
+                .collect(Collectors.toMap(MethodTool::getName, tool -> tool));
+    }
+
+    @Test
+    void testSchemaDerivedFromParameters() {
+        assertEquals(Set.of("add_numbers", "lookup", "count_down"), tools.keySet());
+
+        JsonNode add = tools.get("add_numbers").getInputSchema();
+        assertEquals("object", add.get("type").asText());
+        assertEquals("number", add.at("/properties/a/type").asText());
+        assertFalse(add.at("/properties/round/default").asBoolean());
+        assertEquals("[\"a\",\"b\"]", add.get("required").toString());
+
+        JsonNode lookup = tools.get("lookup").getInputSchema();
+        assertEquals("City name", lookup.at("/properties/city/description").asText());
+        assertEquals("[\"celsius\",\"fahrenheit\"]", lookup.at("/properties/unit/enum").toString());
+        assertEquals("integer", lookup.at("/properties/ranges/items/properties/start/type").asText());
+        assertEquals("[\"start\"]", lookup.at("/properties/ranges/items/required").toString());
+        assertEquals("[\"city\"]", lookup.get("required").toString());
+
+        assertTrue(tools.get("count_down").getInputSchema().at("/properties/progress").isMissingNode());
+    }
+
+    @Test
+    void testBindsArgumentsAndDefaults() throws Exception {
+        assertEquals(4.5, call("add_numbers", "{\"a\": 1.5, \"b\": 3}"));
+        assertEquals(5.0, call("add_numbers", "{\"a\": 1.5, \"b\": 3, \"round\": true}"));
+
+        assertEquals("Paris/CELSIUS/null", call("lookup", "{\"city\": \"Paris\", \"ranges\": null}"));
+        assertEquals("Oslo/FAHRENHEIT/[Range[start=1, end=null], Range[start=2, end=5]]",
+                call("lookup", "{\"city\": \"Oslo\", \"unit\": \"Fahrenheit\", \"ranges\": [{\"start\": 1}, {\"start\": 2, \"end\": 5}]}"));
+    }
+
+    @Test
+    void testAsyncResultAndProgress() throws Exception {
+        int[] reported = new int[1];
+        Object result = tools.get("count_down")
+                .execute(objectMapper.readTree("{\"from\": 3}"), (progress, total, message) -> reported[0]++)
+                .get();
+
+        assertEquals(3, result);
+        assertEquals(3, reported[0]);
+    }
+
+    @Test
+    void testBindingErrorsNameTheParameter() {
+        assertEquals("Parameter 'b' is required", failure("add_numbers", "{\"a\": 1}"));
+        assertEquals("Parameter 'a' must be a number but was string", failure("add_numbers", "{\"a\": \"1\", \"b\": 2}"));
+        assertEquals("Parameter 'unit' must be one of [celsius, fahrenheit]", failure("lookup", "{\"city\": \"x\", \"unit\": \"kelvin\"}"));
+        assertEquals("Parameter 'ranges[1].start' must be an integer but was number",
+                failure("lookup", "{\"city\": \"x\", \"ranges\": [{\"start\": 1}, {\"start\": 1.5}]}"));
+        assertEquals("Parameter 'ranges[0]' end must not be before start",
+                failure("lookup", "{\"city\": \"x\", \"ranges\": [{\"start\": 3, \"end\": 1}]}"));
+    }
+
+    @Test
+    void testGeneratedSchemaAcceptsWhatTheBinderAccepts() throws Exception {
+        InputSchemaValidator validator = InputSchemaValidator.compile(tools.get("lookup").getInputSchema());
+
+        assertTrue(validator.validate(objectMapper.readTree("{\"city\": \"Paris\", \"ranges\": [{\"start\": 1}]}")).isEmpty());
+        assertEquals(List.of(new InputSchemaValidator.Violation("/ranges/0/start", "is required")),
+                validator.validate(objectMapper.readTree("{\"city\": \"Paris\", \"ranges\": [{}]}")));
+    }
+
+    @Test
+    void testUnsupportedParameterTypeIsRejectedUpFront() {
+        Object bean = new Object() {
+            @Tool(description = "Takes a map")
+            public String bad(Map<String, String> values) {
+                return "";
+            }
+        };
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> MethodTool.forBean(bean));
+        assertTrue(e.getMessage().contains("Unsupported tool parameter type"), e.getMessage());
+    }
+
+    private Object call(String tool, String arguments) throws Exception {
+        return tools.get(tool).execute(objectMapper.readTree(arguments)).get();
+    }
+
+    private String failure(String tool, String arguments) {
+        ExecutionException e = assertThrows(ExecutionException.class, () -> call(tool, arguments));
+        Throwable cause = e.getCause();
+        while (cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause.getMessage();
+    }
+}
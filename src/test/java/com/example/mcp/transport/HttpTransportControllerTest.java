@@ -0,0 +1,35 @@
+package com.example.mcp.transport;
+
+import com.example.mcp.server.McpError;
+import com.example.mcp.server.McpMessage;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HttpTransportControllerTest {
+
+    @Test
+    void testRetryAfterRoundsUpToWholeSeconds() {
+        assertEquals("1", HttpTransportController.retryAfter(limited(100)));
+        assertEquals("1", HttpTransportController.retryAfter(limited(1000)));
+        assertEquals("3", HttpTransportController.retryAfter(limited(2001)));
+    }
+
+    @Test
+    void testOnlyRateLimitedResponsesGetRetryAfter() {
+        McpMessage success = McpMessage.createResponse(1, Map.of("ok", true));
+        McpMessage otherError = McpMessage.createErrorResponse(1, McpError.internalError("boom"));
+
+        assertTrue(HttpTransportController.isRateLimited(limited(100)));
+        assertFalse(HttpTransportController.isRateLimited(success));
+        assertFalse(HttpTransportController.isRateLimited(otherError));
+        assertNull(HttpTransportController.retryAfter(success));
+        assertNull(HttpTransportController.retryAfter(otherError));
+    }
+
+    private static McpMessage limited(long retryAfterMillis) {
+        return McpMessage.createErrorResponse(1, McpError.rateLimited("client", null, retryAfterMillis));
+    }
+}
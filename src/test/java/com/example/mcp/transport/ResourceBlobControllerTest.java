@@ -0,0 +1,92 @@
+package com.example.mcp.transport;
+
+import com.example.mcp.resources.FileResourceProvider;
+import com.example.mcp.storage.ContentHashCache;
+import com.example.mcp.storage.FileMetadataCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResourceBlobControllerTest {
+
+    private static final String CONTENT = "0123456789";
+
+    @TempDir
+    Path data;
+
+    private ResourceBlobController controller;
+    private String etag;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Files.writeString(data.resolve("digits.txt"), CONTENT);
+        FileResourceProvider files = new FileResourceProvider(new FileMetadataCache(data), new ContentHashCache());
+        ReflectionTestUtils.setField(files, "basePath", data.toString());
+        controller = new ResourceBlobController(files);
+        etag = ContentHashCache.etag(CONTENT);
+    }
+
+    @Test
+    void testFullResponseCarriesStrongEtag() throws Exception {
+        MockHttpServletResponse response = get(null, null, null);
+        assertEquals(200, response.getStatus());
+        assertEquals(etag, response.getHeader(HttpHeaders.ETAG));
+        assertEquals(CONTENT, response.getContentAsString());
+    }
+
+    @Test
+    void testIfNoneMatchAnswersNotModifiedUnderWeakComparison() throws Exception {
+        for (String ifNoneMatch : new String[]{etag, "W/" + etag, "\"stale\", " + etag, "*"}) {
+            MockHttpServletResponse response = get(ifNoneMatch, null, null);
+            assertEquals(304, response.getStatus(), ifNoneMatch);
+            assertEquals("", response.getContentAsString());
+            assertEquals(etag, response.getHeader(HttpHeaders.ETAG));
+        }
+        assertEquals(200, get("\"stale\"", null, null).getStatus());
+    }
+
+    @Test
+    void testIfRangeServesThePartOnlyForTheSameStrongTag() throws Exception {
+        MockHttpServletResponse partial = get(null, "bytes=2-4", etag);
+        assertEquals(206, partial.getStatus());
+        assertEquals("bytes 2-4/10", partial.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertEquals("234", partial.getContentAsString());
+
+        for (String ifRange : new String[]{"W/" + etag, "\"stale\""}) {
+            MockHttpServletResponse full = get(null, "bytes=2-4", ifRange);
+            assertEquals(200, full.getStatus(), ifRange);
+            assertNull(full.getHeader(HttpHeaders.CONTENT_RANGE));
+            assertEquals(CONTENT, full.getContentAsString());
+        }
+
+        MockHttpServletResponse unconditional = get(null, "bytes=-3", null);
+        assertEquals(206, unconditional.getStatus());
+        assertEquals("789", unconditional.getContentAsString());
+        assertEquals(416, get(null, "bytes=20-", null).getStatus());
+    }
+
+    private MockHttpServletResponse get(String ifNoneMatch, String range, String ifRange) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/mcp/resources/blob");
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        if (range != null) {
+            request.addHeader(HttpHeaders.RANGE, range);
+        }
+        if (ifRange != null) {
+            request.addHeader(HttpHeaders.IF_RANGE, ifRange);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        controller.getBlob("digits.txt", request, response);
+        return response;
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.mcp.transport;
+
+import com.example.mcp.transport.TrafficJournal.Direction;
+import com.example.mcp.transport.TrafficJournal.Frame;
+import com.example.mcp.transport.TrafficJournal.Transport;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.zip.CRC32C;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrafficCaptureTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testFramesRoundTripThroughJournal() throws Exception {
+        TrafficCapture capture = new TrafficCapture(true, directory.toString(), 1 << 20, 4, 1024, 1 << 16, 1 << 16);
+        capture.inbound(Transport.HTTP, "session-1", bytes("{\"method\":\"ping\"}"));
+        capture.outbound(Transport.SSE, null, bytes("{\"result\":{}}"));
+        capture.inbound(Transport.STDIO, "session-2", new byte[0]);
+        capture.shutdown();
+
+        List<Frame> frames = readAll();
+        assertEquals(3, frames.size());
+        assertEquals(3, capture.getWrittenCount());
+
+        assertEquals(Direction.INBOUND, frames.get(0).direction());
+        assertEquals(Transport.HTTP, frames.get(0).transport());
+        assertEquals("session-1", frames.get(0).sessionId());
+        assertEquals("{\"method\":\"ping\"}", text(frames.get(0)));
+
+        assertEquals(Direction.OUTBOUND, frames.get(1).direction());
+        assertEquals(Transport.SSE, frames.get(1).transport());
+        assertNull(frames.get(1).sessionId());
+        assertEquals("{\"result\":{}}", text(frames.get(1)));
+        assertFalse(frames.get(1).truncated());
+
+        assertEquals(Transport.STDIO, frames.get(2).transport());
+        assertEquals(0, frames.get(2).payload().length);
+
+        for (int i = 1; i < frames.size(); i++) {
+            assertTrue(frames.get(i).epochMicros() >= frames.get(i - 1).epochMicros());
+        }
+    }
+
+    @Test
+    void testRotatesWithinOneMillisecondAndKeepsNewestFiles() throws Exception {
+        // Every frame exceeds the batch and the size limit, so each one lands in a file of its own
+        TrafficCapture capture = new TrafficCapture(true, directory.toString(), 1, 4, 1024, 64, 1 << 16);
+        for (int i = 0; i < 500; i++) {
+            capture.inbound(Transport.HTTP, "s", bytes(String.format("%-80d", i)));
+        }
+        capture.shutdown();
+
+        assertTrue(capture.isEnabled(), "rotation must not fail on name collisions");
+        assertEquals(500, capture.getWrittenCount());
+        assertEquals(4, TrafficJournal.listFiles(directory).size());
+
+        List<String> payloads = readAll().stream().map(frame -> text(frame).trim()).toList();
+        assertEquals(List.of("496", "497", "498", "499"), payloads);
+    }
+
+    @Test
+    void testOutboundMessagesAreCutAtTheLimit() throws Exception {
+        TrafficCapture capture = new TrafficCapture(true, directory.toString(), 1 << 20, 4, 1024, 1 << 16, 100);
+        ObjectMapper objectMapper = new ObjectMapper();
+        AtomicInteger produced = new AtomicInteger();
+        Iterable<String> huge = () -> IntStream.range(0, 1_000_000)
+                .peek(i -> produced.incrementAndGet())
+                .mapToObj(i -> "chunk-" + i)
+                .iterator();
+
+        capture.outbound(Transport.HTTP, "s", objectMapper, Map.of("result", "ok"));
+        capture.outbound(Transport.HTTP, "s", objectMapper, Map.of("contents", huge));
+        capture.outbound(Transport.SSE, "s", bytes("x".repeat(500)));
+        capture.outbound(Transport.SSE, "s", bytes("y".repeat(100)));
+        capture.shutdown();
+
+        List<Frame> frames = readAll();
+        assertEquals("{\"result\":\"ok\"}", text(frames.get(0)));
+        assertFalse(frames.get(0).truncated());
+        assertEquals(100, frames.get(1).payload().length);
+        assertTrue(frames.get(1).truncated());
+        assertTrue(text(frames.get(1)).startsWith("{\"contents\":[\"chunk-0\",\"chunk-1\""));
+        assertTrue(produced.get() < 10_000, "serialization should stop soon after the limit");
+        assertEquals(100, frames.get(2).payload().length);
+        assertTrue(frames.get(2).truncated());
+        assertEquals(100, frames.get(3).payload().length);
+        assertFalse(frames.get(3).truncated(), "a payload of exactly the limit is complete");
+    }
+
+    @Test
+    void testReadsVersionOneJournals() throws Exception {
+        byte[] session = bytes("s");
+        byte[] payload = bytes("{\"method\":\"ping\"}");
+        int bodyLength = 12 + session.length + payload.length;
+        ByteBuffer buffer = ByteBuffer.allocate(TrafficJournal.HEADER_SIZE + TrafficJournal.RECORD_PREFIX_SIZE + bodyLength);
+        buffer.putInt(TrafficJournal.MAGIC).putShort((short) 1).putShort((short) 0).putLong(0);
+        buffer.putInt(bodyLength).putInt(0);
+        int bodyStart = buffer.position();
+        buffer.putLong(42).put((byte) Direction.INBOUND.ordinal()).put((byte) Transport.HTTP.ordinal())
+                .putShort((short) session.length).put(session).put(payload);
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.array(), bodyStart, bodyLength);
+        buffer.putInt(bodyStart - 4, (int) crc.getValue());
+        Files.write(directory.resolve(TrafficJournal.FILE_PREFIX + "v1" + TrafficJournal.FILE_SUFFIX), buffer.array());
+
+        List<Frame> frames = readAll();
+        assertEquals(1, frames.size());
+        assertEquals(42, frames.get(0).epochMicros());
+        assertEquals("s", frames.get(0).sessionId());
+        assertEquals("{\"method\":\"ping\"}", text(frames.get(0)));
+        assertFalse(frames.get(0).truncated());
+    }
+
+    @Test
+    void testWriteFailureDisablesCapture() throws Exception {
+        Path notADirectory = Files.writeString(directory.resolve("occupied"), "x");
+        TrafficCapture capture = new TrafficCapture(true, notADirectory.toString(), 1 << 20, 4, 16, 1 << 16, 1 << 16);
+        capture.inbound(Transport.HTTP, "s", bytes("first"));
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (capture.isEnabled()) {
+            assertTrue(System.currentTimeMillis() < deadline, "capture should turn itself off");
+            Thread.sleep(10);
+        }
+        for (int i = 0; i < 100; i++) {
+            capture.inbound(Transport.HTTP, "s", bytes("after"));
+        }
+        capture.shutdown();
+
+        assertEquals(0, capture.getWrittenCount());
+        assertEquals(0, capture.getDroppedCount(), "a disabled capture no longer queues frames");
+    }
+
+    private List<Frame> readAll() throws IOException {
+        List<Frame> frames = new ArrayList<>();
+        try (TrafficJournal.Reader reader = new TrafficJournal.Reader(directory)) {
+            while (reader.hasNext()) {
+                frames.add(reader.next());
+            }
+        }
+        return frames;
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String text(Frame frame) {
+        return new String(frame.payload(), StandardCharsets.UTF_8);
+    }
+}
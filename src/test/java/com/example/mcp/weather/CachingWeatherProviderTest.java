@@ -0,0 +1,166 @@
+package com.example.mcp.weather;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachingWeatherProviderTest {
+
+    private static final long FRESH_TTL = 1_000;
+    private static final long STALE_TTL = 10_000;
+    private static final long NEGATIVE_TTL = 5_000;
+    private static final long UPSTREAM_TIMEOUT = 60_000;
+
+    private StubUpstream upstream;
+    private AtomicLong clock;
+    private CachingWeatherProvider cache;
+
+    @BeforeEach
+    void setUp() {
+        upstream = new StubUpstream();
+        clock = new AtomicLong(1_000_000);
+        cache = newCache(UPSTREAM_TIMEOUT);
+    }
+
+    @Test
+    void testFreshHitDoesNotReachUpstream() throws Exception {
+        CompletableFuture<WeatherReport> miss = cache.fetch("Paris", "celsius");
+        assertFalse(miss.isDone());
+        upstream.answer(0, 20);
+        assertEquals(20, miss.get().temperature());
+
+        CompletableFuture<WeatherReport> hit = cache.fetch("  PARIS ", "Celsius");
+
+        assertTrue(hit.isDone(), "fresh hit should complete without waiting for the upstream");
+        assertEquals(20, hit.get().temperature());
+        assertEquals(1, upstream.calls.size());
+    }
+
+    @Test
+    void testStaleEntryServedImmediatelyWhileRefreshing() throws Exception {
+        cache.fetch("Paris", "celsius");
+        upstream.answer(0, 20);
+        clock.addAndGet(FRESH_TTL + 1);
+
+        for (int i = 0; i < 10; i++) {
+            CompletableFuture<WeatherReport> stale = cache.fetch("Paris", "celsius");
+            assertTrue(stale.isDone());
+            assertEquals(20, stale.get().temperature());
+        }
+        assertEquals(2, upstream.calls.size(), "concurrent stale reads should trigger a single refresh");
+
+        upstream.answer(1, 21);
+        assertEquals(21, cache.fetch("Paris", "celsius").get().temperature());
+        assertEquals(2, upstream.calls.size());
+    }
+
+    @Test
+    void testConcurrentMissesShareOneUpstreamCall() throws Exception {
+        CompletableFuture<?>[] lookups = new CompletableFuture<?>[20];
+        for (int i = 0; i < lookups.length; i++) {
+            lookups[i] = cache.fetch("Tokyo", "celsius");
+        }
+        upstream.answer(0, 30);
+        CompletableFuture.allOf(lookups).get();
+
+        assertEquals(1, upstream.calls.size());
+    }
+
+    @Test
+    void testCancelledCallerDoesNotCancelSharedLoad() throws Exception {
+        CompletableFuture<WeatherReport> impatient = cache.fetch("Oslo", "celsius");
+        CompletableFuture<WeatherReport> patient = cache.fetch("Oslo", "celsius");
+        impatient.cancel(true);
+        upstream.answer(0, -5);
+
+        assertEquals(-5, patient.get().temperature());
+        assertTrue(cache.fetch("Oslo", "celsius").isDone());
+    }
+
+    @Test
+    void testUnknownLocationIsNegativelyCached() throws Exception {
+        CompletableFuture<WeatherReport> first = cache.fetch("Atlantis", "celsius");
+        upstream.calls.get(0).completeExceptionally(new UnknownLocationException("Atlantis"));
+        ExecutionException e = assertThrows(ExecutionException.class, first::get);
+        assertInstanceOf(UnknownLocationException.class, e.getCause());
+
+        CompletableFuture<WeatherReport> cached = cache.fetch("atlantis", "celsius");
+        assertTrue(cached.isCompletedExceptionally());
+        assertEquals(1, upstream.calls.size());
+
+        clock.addAndGet(NEGATIVE_TTL + 1);
+        assertFalse(cache.fetch("Atlantis", "celsius").isDone());
+        assertEquals(2, upstream.calls.size());
+    }
+
+    @Test
+    void testTransientFailureKeepsServingStaleEntry() throws Exception {
+        cache.fetch("Berlin", "celsius");
+        upstream.answer(0, 15);
+        clock.addAndGet(FRESH_TTL + 1);
+
+        assertEquals(15, cache.fetch("Berlin", "celsius").get().temperature());
+        upstream.calls.get(1).completeExceptionally(new IllegalStateException("upstream unavailable"));
+        assertEquals(15, cache.fetch("Berlin", "celsius").get().temperature());
+        assertEquals(1L, cache.getStats().get("upstreamFailures"));
+        upstream.calls.get(2).completeExceptionally(new IllegalStateException("upstream unavailable"));
+
+        clock.addAndGet(STALE_TTL);
+        CompletableFuture<WeatherReport> expired = cache.fetch("Berlin", "celsius");
+        upstream.calls.get(3).completeExceptionally(new IllegalStateException("upstream unavailable"));
+        assertThrows(ExecutionException.class, expired::get);
+    }
+
+    @Test
+    void testHungUpstreamReleasesTheKey() throws Exception {
+        cache = newCache(50);
+
+        CompletableFuture<WeatherReport> first = cache.fetch("Lima", "celsius");
+        ExecutionException e = assertThrows(ExecutionException.class, first::get);
+        assertInstanceOf(TimeoutException.class, e.getCause());
+        assertEquals(1L, cache.getStats().get("upstreamFailures"));
+        assertFalse(upstream.calls.get(0).isDone(), "the delegate's own future is left alone");
+
+        CompletableFuture<WeatherReport> retry = cache.fetch("Lima", "celsius");
+        assertEquals(2, upstream.calls.size(), "a later caller must not join the hung call");
+        upstream.answer(1, 18);
+        assertEquals(18, retry.get().temperature());
+    }
+
+    private CachingWeatherProvider newCache(long upstreamTimeoutMillis) {
+        return new CachingWeatherProvider(upstream, FRESH_TTL, STALE_TTL, NEGATIVE_TTL, 100, upstreamTimeoutMillis,
+                clock::get);
+    }
+
+    /**
+     * Upstream whose calls stay pending until the test completes them.
+     */
+    private static final class StubUpstream implements WeatherProvider {
+        final List<CompletableFuture<WeatherReport>> calls = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String getName() {
+            return "stub";
+        }
+
+        @Override
+        public CompletableFuture<WeatherReport> fetch(String location, String units) {
+            CompletableFuture<WeatherReport> call = new CompletableFuture<>();
+            calls.add(call);
+            return call;
+        }
+
+        void answer(int call, int temperature) {
+            calls.get(call).complete(new WeatherReport("stub", "celsius", temperature, "Sunny", 50, 10, 1000,
+                    "Clear", "2025-01-01T00:00:00", "stub"));
+        }
+    }
+}